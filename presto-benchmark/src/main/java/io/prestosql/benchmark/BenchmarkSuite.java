@@ -44,7 +44,12 @@ public class BenchmarkSuite
                 new CountAggregationBenchmark(localQueryRunner),
                 new DoubleSumAggregationBenchmark(localQueryRunner),
                 new HashAggregationBenchmark(localQueryRunner),
+                new HashAggregationBenchmark(localQueryRunner, "hash_agg_date", "orders", "totalprice", "orderdate"),
+                new HashAggregationBenchmark(localQueryRunner, "hash_agg_integer", "lineitem", "extendedprice", "linenumber"),
+                new HashAggregationBenchmark(localQueryRunner, "hash_agg_bigint_pair", "lineitem", "extendedprice", "partkey", "suppkey"),
+                new HashAggregationBenchmark(localQueryRunner, "hash_agg_integer_bigint", "lineitem", "extendedprice", "linenumber", "orderkey"),
                 new PredicateFilterBenchmark(localQueryRunner),
+                new PredicateFilterBenchmark(localQueryRunner, false),
                 new RawStreamingBenchmark(localQueryRunner),
                 new Top100Benchmark(localQueryRunner),
                 new OrderByBenchmark(localQueryRunner),
@@ -78,6 +83,7 @@ public class BenchmarkSuite
                 new SqlRegexpLikeBenchmark(localQueryRunner),
                 new SqlApproximatePercentileBenchmark(localQueryRunner),
                 new SqlBetweenBenchmark(localQueryRunner),
+                new SqlUnnestBenchmark(localQueryRunner),
 
                 // statistics benchmarks
                 new StatisticsBenchmark.LongVarianceBenchmark(localQueryRunner),
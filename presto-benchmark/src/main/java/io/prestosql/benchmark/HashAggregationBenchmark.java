@@ -14,7 +14,6 @@
 package io.prestosql.benchmark;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFactory;
@@ -28,7 +27,9 @@ import io.prestosql.testing.LocalQueryRunner;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
@@ -38,10 +39,24 @@ public class HashAggregationBenchmark
         extends AbstractSimpleOperatorBenchmark
 {
     private final InternalAggregationFunction doubleSum;
+    private final String tableName;
+    private final String sumColumn;
+    private final List<String> groupByColumns;
 
     public HashAggregationBenchmark(LocalQueryRunner localQueryRunner)
     {
-        super(localQueryRunner, "hash_agg", 5, 25);
+        this(localQueryRunner, "hash_agg", "orders", "totalprice", "orderstatus");
+    }
+
+    /**
+     * Sums the double column grouped by the columns, which selects the group by hash the benchmark exercises.
+     */
+    public HashAggregationBenchmark(LocalQueryRunner localQueryRunner, String benchmarkName, String tableName, String sumColumn, String... groupByColumns)
+    {
+        super(localQueryRunner, benchmarkName, 5, 25);
+        this.tableName = tableName;
+        this.sumColumn = sumColumn;
+        this.groupByColumns = ImmutableList.copyOf(groupByColumns);
 
         Metadata metadata = localQueryRunner.getMetadata();
         doubleSum = metadata.getAggregateFunctionImplementation(metadata.resolveFunction(QualifiedName.of("sum"), fromTypes(DOUBLE)));
@@ -50,16 +65,17 @@ public class HashAggregationBenchmark
     @Override
     protected List<? extends OperatorFactory> createOperatorFactories()
     {
-        List<Type> tableTypes = getColumnTypes("orders", "orderstatus", "totalprice");
-        OperatorFactory tableScanOperator = createTableScanOperator(0, new PlanNodeId("test"), "orders", "orderstatus", "totalprice");
+        String[] columns = ImmutableList.<String>builder().addAll(groupByColumns).add(sumColumn).build().toArray(new String[0]);
+        List<Type> tableTypes = getColumnTypes(tableName, columns);
+        OperatorFactory tableScanOperator = createTableScanOperator(0, new PlanNodeId("test"), tableName, columns);
         HashAggregationOperatorFactory aggregationOperator = new HashAggregationOperatorFactory(
                 1,
                 new PlanNodeId("test"),
-                ImmutableList.of(tableTypes.get(0)),
-                Ints.asList(0),
+                tableTypes.subList(0, groupByColumns.size()),
+                IntStream.range(0, groupByColumns.size()).boxed().collect(toImmutableList()),
                 ImmutableList.of(),
                 Step.SINGLE,
-                ImmutableList.of(doubleSum.bind(ImmutableList.of(1), Optional.empty())),
+                ImmutableList.of(doubleSum.bind(ImmutableList.of(groupByColumns.size()), Optional.empty())),
                 Optional.empty(),
                 Optional.empty(),
                 100_000,
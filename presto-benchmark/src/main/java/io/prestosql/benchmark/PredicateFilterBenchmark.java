@@ -38,9 +38,17 @@ import static io.prestosql.sql.relational.Expressions.field;
 public class PredicateFilterBenchmark
         extends AbstractSimpleOperatorBenchmark
 {
+    private final boolean columnarFilterEvaluationEnabled;
+
     public PredicateFilterBenchmark(LocalQueryRunner localQueryRunner)
     {
-        super(localQueryRunner, "predicate_filter", 5, 50);
+        this(localQueryRunner, true);
+    }
+
+    public PredicateFilterBenchmark(LocalQueryRunner localQueryRunner, boolean columnarFilterEvaluationEnabled)
+    {
+        super(localQueryRunner, columnarFilterEvaluationEnabled ? "predicate_filter" : "predicate_filter_generated", 5, 50);
+        this.columnarFilterEvaluationEnabled = columnarFilterEvaluationEnabled;
     }
 
     @Override
@@ -51,7 +59,7 @@ public class PredicateFilterBenchmark
                 localQueryRunner.getMetadata().resolveOperator(GREATER_THAN_OR_EQUAL, ImmutableList.of(DOUBLE, DOUBLE)),
                 field(0, DOUBLE),
                 constant(50000.0, DOUBLE));
-        ExpressionCompiler expressionCompiler = new ExpressionCompiler(localQueryRunner.getMetadata(), new PageFunctionCompiler(localQueryRunner.getMetadata(), 0));
+        ExpressionCompiler expressionCompiler = new ExpressionCompiler(localQueryRunner.getMetadata(), new PageFunctionCompiler(localQueryRunner.getMetadata(), 0, columnarFilterEvaluationEnabled));
         Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(Optional.of(filter), ImmutableList.of(field(0, DOUBLE)));
 
         OperatorFactory filterAndProjectOperator = FilterAndProjectOperator.createOperatorFactory(
@@ -67,6 +75,8 @@ public class PredicateFilterBenchmark
 
     public static void main(String[] args)
     {
-        new PredicateFilterBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new PredicateFilterBenchmark(localQueryRunner, false).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new PredicateFilterBenchmark(localQueryRunner, true).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
     }
 }
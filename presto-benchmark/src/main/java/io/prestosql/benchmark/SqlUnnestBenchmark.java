@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.benchmark;
+
+import io.prestosql.testing.LocalQueryRunner;
+
+import static io.prestosql.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+
+public class SqlUnnestBenchmark
+        extends AbstractSqlBenchmark
+{
+    public SqlUnnestBenchmark(LocalQueryRunner localQueryRunner)
+    {
+        super(localQueryRunner,
+                "sql_unnest_wide_rows",
+                2,
+                10,
+                "SELECT max(clerk), max(orderpriority), max(comment), sum(totalprice + x) " +
+                        "FROM orders CROSS JOIN UNNEST(sequence(1, 1000)) t(x)");
+    }
+
+    public static void main(String[] args)
+    {
+        new SqlUnnestBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+    }
+}
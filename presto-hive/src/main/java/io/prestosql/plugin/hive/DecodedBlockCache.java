@@ -0,0 +1,283 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jol.info.ClassLayout;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker wide cache of the blocks decoded by the ORC and Parquet readers, which allows repeated scans
+ * of the same files to skip reading, decompressing and decoding the cached columns.
+ * <p>
+ * A block is identified by the file (path, size and modification time), the column (including the type
+ * and the nested fields it was read with), the stripe or row group and the first row of the batch within it.
+ * Blocks are evicted in approximately least recently used order once the retained size exceeds the maximum size.
+ */
+public class DecodedBlockCache
+{
+    private static final int KEY_INSTANCE_SIZE = ClassLayout.parseClass(BlockKey.class).instanceSize();
+
+    private final long maxSizeInBytes;
+    private final Cache<BlockKey, Block> cache;
+    private final AtomicLong retainedSizeInBytes = new AtomicLong();
+
+    @Inject
+    public DecodedBlockCache(HiveConfig hiveConfig)
+    {
+        this(hiveConfig.getDecodedBlockCacheMaxSize());
+    }
+
+    public DecodedBlockCache(DataSize maxSize)
+    {
+        this.maxSizeInBytes = requireNonNull(maxSize, "maxSize is null").toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSizeInBytes)
+                .weigher((Weigher<BlockKey, Block>) (key, block) -> weigh(block))
+                .removalListener((RemovalNotification<BlockKey, Block> notification) -> retainedSizeInBytes.addAndGet(-weigh(notification.getValue())))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param columns identifiers of the columns produced by the reader, in channel order
+     * @return empty if the cache is disabled
+     */
+    public Optional<FileBlocks> forFile(Path path, long fileSize, long fileModifiedTime, List<String> columns)
+    {
+        if (maxSizeInBytes == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileBlocks(path.toString(), fileSize, fileModifiedTime, columns));
+    }
+
+    private static int weigh(Block block)
+    {
+        return toIntExact(Math.min(KEY_INSTANCE_SIZE + block.getRetainedSizeInBytes(), Integer.MAX_VALUE));
+    }
+
+    private Block load(BlockKey key, Block block)
+    {
+        Block cachedBlock = cache.getIfPresent(key);
+        if (cachedBlock != null) {
+            return cachedBlock;
+        }
+        Block loadedBlock = block.getLoadedBlock();
+        retainedSizeInBytes.addAndGet(weigh(loadedBlock));
+        cache.put(key, loadedBlock);
+        return loadedBlock;
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getRetainedSizeInBytes()
+    {
+        return retainedSizeInBytes.get();
+    }
+
+    @Managed
+    public long getMaxSizeInBytes()
+    {
+        return maxSizeInBytes;
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public Double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public Double getMissRate()
+    {
+        return cache.stats().missRate();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    public final class FileBlocks
+    {
+        private final String path;
+        private final long fileSize;
+        private final long fileModifiedTime;
+        private final List<String> columns;
+
+        private FileBlocks(String path, long fileSize, long fileModifiedTime, List<String> columns)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+            this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        }
+
+        /**
+         * Returns a page whose blocks are taken from the cache when present. Otherwise the blocks
+         * of {@code page} are loaded and cached. Blocks which are never loaded are not cached.
+         *
+         * @param section file offset of the stripe or row group containing the page, or zero if positions are relative to the start of the file
+         * @param position position of the first row of the page within the section
+         */
+        public Page getPage(long section, long position, Page page)
+        {
+            checkArgument(page.getChannelCount() == columns.size(), "Expected %s channels, but page has %s", columns.size(), page.getChannelCount());
+            Block[] blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = getBlock(channel, section, position, page.getBlock(channel));
+            }
+            return new Page(page.getPositionCount(), blocks);
+        }
+
+        /**
+         * Returns a lazy block which is taken from the cache when present. Otherwise {@code block}
+         * is loaded and cached.
+         */
+        public Block getBlock(int channel, long section, long position, Block block)
+        {
+            BlockKey key = new BlockKey(path, fileSize, fileModifiedTime, columns.get(channel), section, position, block.getPositionCount());
+            return new LazyBlock(block.getPositionCount(), new CachingBlockLoader(key, block));
+        }
+    }
+
+    private final class CachingBlockLoader
+            implements LazyBlockLoader
+    {
+        private final BlockKey key;
+        private Block block;
+
+        public CachingBlockLoader(BlockKey key, Block block)
+        {
+            this.key = requireNonNull(key, "key is null");
+            this.block = requireNonNull(block, "block is null");
+        }
+
+        @Override
+        public Block load()
+        {
+            checkState(block != null, "Already loaded");
+            Block loadedBlock = DecodedBlockCache.this.load(key, block);
+            block = null;
+            return loadedBlock;
+        }
+    }
+
+    private static final class BlockKey
+    {
+        private final String path;
+        private final long fileSize;
+        private final long fileModifiedTime;
+        private final String column;
+        private final long section;
+        private final long position;
+        private final int positionCount;
+
+        public BlockKey(String path, long fileSize, long fileModifiedTime, String column, long section, long position, int positionCount)
+        {
+            this.path = path;
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+            this.column = column;
+            this.section = section;
+            this.position = position;
+            this.positionCount = positionCount;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BlockKey other = (BlockKey) o;
+            return fileSize == other.fileSize &&
+                    fileModifiedTime == other.fileModifiedTime &&
+                    section == other.section &&
+                    position == other.position &&
+                    positionCount == other.positionCount &&
+                    path.equals(other.path) &&
+                    column.equals(other.column);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, fileModifiedTime, column, section, position, positionCount);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("fileModifiedTime", fileModifiedTime)
+                    .add("column", column)
+                    .add("section", section)
+                    .add("position", position)
+                    .add("positionCount", positionCount)
+                    .toString();
+        }
+    }
+}
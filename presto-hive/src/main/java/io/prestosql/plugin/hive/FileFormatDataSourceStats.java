@@ -29,6 +29,9 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final DistributionStat splitReadBytes = new DistributionStat();
+    private final DistributionStat splitWastedReadBytes = new DistributionStat();
+    private final DistributionStat splitReadRequests = new DistributionStat();
 
     @Managed
     @Nested
@@ -72,6 +75,27 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public DistributionStat getSplitReadBytes()
+    {
+        return splitReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSplitWastedReadBytes()
+    {
+        return splitWastedReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSplitReadRequests()
+    {
+        return splitReadRequests;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +117,15 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    /**
+     * Records the reads of a file once it is closed. Wasted bytes are the gaps between the ranges
+     * which were merged into a single read request.
+     */
+    public void addSplitReads(long readBytes, long wastedReadBytes, long readRequests)
+    {
+        splitReadBytes.add(readBytes);
+        splitWastedReadBytes.add(wastedReadBytes);
+        splitReadRequests.add(readRequests);
+    }
 }
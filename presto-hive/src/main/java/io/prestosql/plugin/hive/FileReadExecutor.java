@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import io.airlift.concurrent.BoundedExecutor;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+/**
+ * Worker wide bounded executor reading ranges of ORC and Parquet files ahead of the readers.
+ * The ranges of a stripe or row group are requested concurrently, so the latency of the individual
+ * requests, which dominates reads from object stores, overlaps with the other requests and with decoding.
+ */
+public class FileReadExecutor
+{
+    private final Optional<ExecutorService> executorService;
+    private final Optional<Executor> executor;
+
+    @Inject
+    public FileReadExecutor(HiveConfig hiveConfig)
+    {
+        this(hiveConfig.getReadAheadMaxThreads());
+    }
+
+    public FileReadExecutor(int maxThreads)
+    {
+        checkArgument(maxThreads >= 0, "maxThreads is negative");
+        if (maxThreads == 0) {
+            executorService = Optional.empty();
+            executor = Optional.empty();
+            return;
+        }
+        ExecutorService coreExecutor = newCachedThreadPool(daemonThreadsNamed("hive-file-read-%s"));
+        executorService = Optional.of(coreExecutor);
+        executor = Optional.of(new BoundedExecutor(coreExecutor, maxThreads));
+    }
+
+    /**
+     * @return empty if read ahead is disabled
+     */
+    public Optional<Executor> getExecutor()
+    {
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executorService.ifPresent(ExecutorService::shutdownNow);
+    }
+}
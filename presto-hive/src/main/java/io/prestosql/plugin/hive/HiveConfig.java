@@ -122,6 +122,8 @@ public class HiveConfig
 
     private Duration fileStatusCacheExpireAfterWrite = new Duration(1, MINUTES);
     private long fileStatusCacheMaxSize = 1000 * 1000;
+    private DataSize decodedBlockCacheMaxSize = DataSize.ofBytes(0);
+    private int readAheadMaxThreads;
     private List<String> fileStatusCacheTables = ImmutableList.of();
     private boolean translateHiveViews;
 
@@ -679,6 +681,34 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getDecodedBlockCacheMaxSize()
+    {
+        return decodedBlockCacheMaxSize;
+    }
+
+    @Config("hive.decoded-block-cache.max-size")
+    @ConfigDescription("Maximum size of the worker cache of decoded ORC and Parquet blocks, zero disables the cache")
+    public HiveConfig setDecodedBlockCacheMaxSize(DataSize decodedBlockCacheMaxSize)
+    {
+        this.decodedBlockCacheMaxSize = decodedBlockCacheMaxSize;
+        return this;
+    }
+
+    @Min(0)
+    public int getReadAheadMaxThreads()
+    {
+        return readAheadMaxThreads;
+    }
+
+    @Config("hive.read-ahead.max-threads")
+    @ConfigDescription("Maximum number of worker threads reading ranges of ORC and Parquet files ahead of the readers, zero disables read ahead")
+    public HiveConfig setReadAheadMaxThreads(int readAheadMaxThreads)
+    {
+        this.readAheadMaxThreads = readAheadMaxThreads;
+        return this;
+    }
+
     public boolean isSkipDeletionForAlter()
     {
         return skipDeletionForAlter;
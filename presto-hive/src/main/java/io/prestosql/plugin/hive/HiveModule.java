@@ -100,6 +100,11 @@ public class HiveModule
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
 
+        binder.bind(DecodedBlockCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(DecodedBlockCache.class).withGeneratedName();
+
+        binder.bind(FileReadExecutor.class).in(Scopes.SINGLETON);
+
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(ParquetPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -22,6 +22,7 @@ import org.apache.hadoop.fs.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -39,6 +40,28 @@ public interface HivePageSourceFactory
             TupleDomain<HiveColumnHandle> effectivePredicate,
             Optional<AcidInfo> acidInfo);
 
+    /**
+     * @param fileModifiedTime modification time of the file, which identifies the file version for caching
+     * @param dynamicFilter latest dynamic filter, which may be narrowed while the page source is being read.
+     * Factories can re-check it to skip sections of the file. By default, it is ignored.
+     */
+    default Optional<ReaderPageSourceWithProjections> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            long fileModifiedTime,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Optional<AcidInfo> acidInfo)
+    {
+        return createPageSource(configuration, session, path, start, length, fileSize, schema, columns, effectivePredicate, acidInfo);
+    }
+
     /**
      * A wrapper class for
      * - delegate reader page source and
@@ -27,6 +27,7 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.DynamicFilter;
 import io.prestosql.spi.connector.EmptyPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
@@ -46,6 +47,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -87,6 +89,29 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(session, split, table, columns, dynamicFilter, TupleDomain::all);
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns, DynamicFilter dynamicFilter)
+    {
+        return createPageSource(
+                session,
+                split,
+                table,
+                columns,
+                dynamicFilter.getCurrentPredicate(),
+                () -> dynamicFilter.getCurrentPredicate().transform(HiveColumnHandle.class::cast));
+    }
+
+    private ConnectorPageSource createPageSource(
+            ConnectorSession session,
+            ConnectorSplit split,
+            ConnectorTableHandle table,
+            List<ColumnHandle> columns,
+            TupleDomain<ColumnHandle> dynamicFilter,
+            Supplier<TupleDomain<HiveColumnHandle>> latestDynamicFilter)
     {
         HiveTableHandle hiveTable = (HiveTableHandle) table;
 
@@ -112,6 +137,7 @@ public class HivePageSourceProvider
                 hiveSplit.getFileModifiedTime(),
                 hiveSplit.getSchema(),
                 hiveTable.getCompactEffectivePredicate().intersect(dynamicFilter.transform(HiveColumnHandle.class::cast).simplify()),
+                latestDynamicFilter,
                 hiveColumns,
                 hiveSplit.getPartitionName(),
                 hiveSplit.getPartitionKeys(),
@@ -139,6 +165,7 @@ public class HivePageSourceProvider
             long fileModifiedTime,
             Properties schema,
             TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
             List<HiveColumnHandle> columns,
             String partitionName,
             List<HivePartitionKey> partitionKeys,
@@ -176,9 +203,11 @@ public class HivePageSourceProvider
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     desiredColumns,
                     effectivePredicate,
+                    dynamicFilter,
                     acidInfo);
 
             if (readerWithProjections.isPresent()) {
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.orc;
+
+import io.prestosql.orc.OrcPredicate;
+import io.prestosql.orc.metadata.ColumnMetadata;
+import io.prestosql.orc.metadata.statistics.ColumnStatistics;
+import io.prestosql.plugin.hive.HiveColumnHandle;
+import io.prestosql.spi.predicate.TupleDomain;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Combines the predicate known when the file was opened with the latest dynamic filter.
+ * The ORC reader evaluates the predicate before each stripe is read, so stripes and
+ * row groups can be skipped using dynamic filters collected after the split started.
+ */
+class DynamicFilterOrcPredicate
+        implements OrcPredicate
+{
+    private final OrcPredicate effectivePredicate;
+    private final Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter;
+    private final Function<TupleDomain<HiveColumnHandle>, OrcPredicate> predicateFactory;
+
+    private TupleDomain<HiveColumnHandle> currentDynamicFilter = TupleDomain.all();
+    private OrcPredicate currentDynamicPredicate = OrcPredicate.TRUE;
+
+    public DynamicFilterOrcPredicate(
+            OrcPredicate effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Function<TupleDomain<HiveColumnHandle>, OrcPredicate> predicateFactory)
+    {
+        this.effectivePredicate = requireNonNull(effectivePredicate, "effectivePredicate is null");
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.predicateFactory = requireNonNull(predicateFactory, "predicateFactory is null");
+    }
+
+    @Override
+    public boolean matches(long numberOfRows, ColumnMetadata<ColumnStatistics> allColumnStatistics)
+    {
+        return effectivePredicate.matches(numberOfRows, allColumnStatistics) &&
+                getDynamicPredicate().matches(numberOfRows, allColumnStatistics);
+    }
+
+    private OrcPredicate getDynamicPredicate()
+    {
+        TupleDomain<HiveColumnHandle> latestDynamicFilter = dynamicFilter.get();
+        if (!latestDynamicFilter.equals(currentDynamicFilter)) {
+            // the reader is single threaded, so the predicate is rebuilt at most once per filter change
+            currentDynamicFilter = latestDynamicFilter;
+            currentDynamicPredicate = predicateFactory.apply(latestDynamicFilter.simplify());
+        }
+        return currentDynamicPredicate;
+    }
+}
@@ -22,6 +22,8 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.hdfs.BlockMissingException;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_MISSING_DATA;
@@ -42,7 +44,18 @@ public class HdfsOrcDataSource
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats)
     {
-        super(id, size, options);
+        this(id, size, options, inputStream, stats, Optional.empty());
+    }
+
+    public HdfsOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            OrcReaderOptions options,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            Optional<Executor> readExecutor)
+    {
+        super(id, size, options, readExecutor);
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
         this.stats = requireNonNull(stats, "stats is null");
     }
@@ -51,6 +64,7 @@ public class HdfsOrcDataSource
     public void close()
             throws IOException
     {
+        stats.addSplitReads(getReadBytes(), getWastedReadBytes(), getReadRequests());
         inputStream.close();
     }
 
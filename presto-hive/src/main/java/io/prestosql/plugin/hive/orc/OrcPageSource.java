@@ -19,6 +19,7 @@ import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
 import io.prestosql.orc.OrcRecordReader;
+import io.prestosql.plugin.hive.DecodedBlockCache.FileBlocks;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.orc.OrcDeletedRows.MaskDeletedRowsFunction;
 import io.prestosql.spi.Page;
@@ -51,6 +52,7 @@ public class OrcPageSource
     private final List<ColumnAdaptation> columnAdaptations;
     private final OrcDataSource orcDataSource;
     private final Optional<OrcDeletedRows> deletedRows;
+    private final Optional<FileBlocks> fileBlocks;
 
     private boolean closed;
 
@@ -67,6 +69,7 @@ public class OrcPageSource
             OrcDataSource orcDataSource,
             Optional<OrcDeletedRows> deletedRows,
             Optional<Long> originalFileRowId,
+            Optional<FileBlocks> fileBlocks,
             AggregatedMemoryContext systemMemoryContext,
             FileFormatDataSourceStats stats)
     {
@@ -77,6 +80,7 @@ public class OrcPageSource
         this.stats = requireNonNull(stats, "stats is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.originalFileRowId = requireNonNull(originalFileRowId, "originalFileRowId is null");
+        this.fileBlocks = requireNonNull(fileBlocks, "fileBlocks is null");
     }
 
     @Override
@@ -100,20 +104,25 @@ public class OrcPageSource
     @Override
     public Page getNextPage()
     {
-        Page page;
+        Page readerPage;
         try {
-            page = recordReader.nextPage();
+            readerPage = recordReader.nextPage();
         }
         catch (IOException | RuntimeException e) {
             closeWithSuppression(e);
             throw handleException(orcDataSource.getId(), e);
         }
 
-        if (page == null) {
+        if (readerPage == null) {
             close();
             return null;
         }
 
+        // file positions are unique within the file, so the stripe does not need to be part of the cache key
+        Page page = fileBlocks
+                .map(blocks -> blocks.getPage(0, recordReader.getFilePosition(), readerPage))
+                .orElse(readerPage);
+
         OptionalLong startRowId = originalFileRowId.isPresent() ?
                 OptionalLong.of(originalFileRowId.get() + recordReader.getFilePosition()) : OptionalLong.empty();
 
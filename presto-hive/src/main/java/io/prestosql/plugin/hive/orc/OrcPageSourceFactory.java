@@ -16,10 +16,12 @@ package io.prestosql.plugin.hive.orc;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcColumn;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
+import io.prestosql.orc.OrcPredicate;
 import io.prestosql.orc.OrcReader;
 import io.prestosql.orc.OrcReaderOptions;
 import io.prestosql.orc.OrcRecordReader;
@@ -27,7 +29,10 @@ import io.prestosql.orc.TupleDomainOrcPredicate;
 import io.prestosql.orc.TupleDomainOrcPredicate.TupleDomainOrcPredicateBuilder;
 import io.prestosql.orc.metadata.OrcType.OrcTypeKind;
 import io.prestosql.plugin.hive.AcidInfo;
+import io.prestosql.plugin.hive.DecodedBlockCache;
+import io.prestosql.plugin.hive.DecodedBlockCache.FileBlocks;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.FileReadExecutor;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveColumnProjectionInfo;
@@ -55,10 +60,14 @@ import javax.inject.Inject;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -115,11 +124,35 @@ public class OrcPageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final DateTimeZone legacyTimeZone;
+    private final DecodedBlockCache blockCache;
+    private final Optional<Executor> readExecutor;
 
-    @Inject
     public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, HiveConfig hiveConfig)
     {
-        this(config.toOrcReaderOptions(), hdfsEnvironment, stats, requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone());
+        this(config, hdfsEnvironment, stats, hiveConfig, new DecodedBlockCache(DataSize.ofBytes(0)));
+    }
+
+    public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, HiveConfig hiveConfig, DecodedBlockCache blockCache)
+    {
+        this(config, hdfsEnvironment, stats, hiveConfig, blockCache, new FileReadExecutor(0));
+    }
+
+    @Inject
+    public OrcPageSourceFactory(
+            OrcReaderConfig config,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            HiveConfig hiveConfig,
+            DecodedBlockCache blockCache,
+            FileReadExecutor fileReadExecutor)
+    {
+        this(
+                config.toOrcReaderOptions(),
+                hdfsEnvironment,
+                stats,
+                requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone(),
+                blockCache,
+                requireNonNull(fileReadExecutor, "fileReadExecutor is null").getExecutor());
     }
 
     public OrcPageSourceFactory(
@@ -127,11 +160,54 @@ public class OrcPageSourceFactory
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats,
             DateTimeZone legacyTimeZone)
+    {
+        this(orcReaderOptions, hdfsEnvironment, stats, legacyTimeZone, new DecodedBlockCache(DataSize.ofBytes(0)));
+    }
+
+    public OrcPageSourceFactory(
+            OrcReaderOptions orcReaderOptions,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            DateTimeZone legacyTimeZone,
+            DecodedBlockCache blockCache)
+    {
+        this(orcReaderOptions, hdfsEnvironment, stats, legacyTimeZone, blockCache, Optional.empty());
+    }
+
+    /**
+     * @param readExecutor reads the ranges of the stripes concurrently, if present
+     */
+    public OrcPageSourceFactory(
+            OrcReaderOptions orcReaderOptions,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            DateTimeZone legacyTimeZone,
+            DecodedBlockCache blockCache,
+            Optional<Executor> readExecutor)
     {
         this.orcReaderOptions = requireNonNull(orcReaderOptions, "orcReaderOptions is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.legacyTimeZone = legacyTimeZone;
+        this.blockCache = requireNonNull(blockCache, "blockCache is null");
+        this.readExecutor = requireNonNull(readExecutor, "readExecutor is null");
+    }
+
+    @Override
+    public Optional<ReaderPageSourceWithProjections> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Optional<AcidInfo> acidInfo)
+    {
+        // without the modification time the file version is unknown, so blocks are not cached
+        return createPageSource(configuration, session, path, start, length, fileSize, schema, columns, effectivePredicate, TupleDomain::all, acidInfo, columnKeys -> Optional.empty());
     }
 
     @Override
@@ -142,10 +218,41 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
             Optional<AcidInfo> acidInfo)
+    {
+        return createPageSource(
+                configuration,
+                session,
+                path,
+                start,
+                length,
+                fileSize,
+                schema,
+                columns,
+                effectivePredicate,
+                dynamicFilter,
+                acidInfo,
+                columnKeys -> blockCache.forFile(path, fileSize, fileModifiedTime, columnKeys));
+    }
+
+    private Optional<ReaderPageSourceWithProjections> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Optional<AcidInfo> acidInfo,
+            Function<List<String>, Optional<FileBlocks>> fileBlocksFactory)
     {
         if (!isDeserializerClass(schema, OrcSerde.class)) {
             return Optional.empty();
@@ -174,6 +281,7 @@ public class OrcPageSourceFactory
                 isUseOrcColumnNames(session),
                 isFullAcidTable(Maps.fromProperties(schema)),
                 effectivePredicate,
+                dynamicFilter,
                 legacyTimeZone,
                 orcReaderOptions
                         .withMaxMergeDistance(getOrcMaxMergeDistance(session))
@@ -185,7 +293,9 @@ public class OrcPageSourceFactory
                         .withNestedLazy(isOrcNestedLazy(session))
                         .withBloomFiltersEnabled(isOrcBloomFiltersEnabled(session)),
                 acidInfo,
-                stats);
+                fileBlocksFactory,
+                stats,
+                readExecutor);
 
         return Optional.of(new ReaderPageSourceWithProjections(orcPageSource, projectedReaderColumns));
     }
@@ -203,10 +313,13 @@ public class OrcPageSourceFactory
             boolean useOrcColumnNames,
             boolean isFullAcid,
             TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
             DateTimeZone legacyFileTimeZone,
             OrcReaderOptions options,
             Optional<AcidInfo> acidInfo,
-            FileFormatDataSourceStats stats)
+            Function<List<String>, Optional<FileBlocks>> fileBlocksFactory,
+            FileFormatDataSourceStats stats,
+            Optional<Executor> readExecutor)
     {
         for (HiveColumnHandle column : columns) {
             checkArgument(column.getColumnType() == REGULAR, "column type must be regular: %s", column);
@@ -224,7 +337,8 @@ public class OrcPageSourceFactory
                     fileSize,
                     options,
                     inputStream,
-                    stats);
+                    stats,
+                    readExecutor);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -242,6 +356,7 @@ public class OrcPageSourceFactory
             List<OrcColumn> fileReadColumns = new ArrayList<>(columns.size() + (isFullAcid ? 2 : 0));
             List<Type> fileReadTypes = new ArrayList<>(columns.size() + (isFullAcid ? 2 : 0));
             List<OrcReader.ProjectedLayout> fileReadLayouts = new ArrayList<>(columns.size() + (isFullAcid ? 2 : 0));
+            List<String> fileReadKeys = new ArrayList<>(columns.size() + (isFullAcid ? 2 : 0));
             if (isFullAcid && !originalFilesPresent) {
                 verifyAcidSchema(reader, path);
                 Map<String, OrcColumn> acidColumnsByName = uniqueIndex(fileColumns, orcColumn -> orcColumn.getColumnName().toLowerCase(ENGLISH));
@@ -250,10 +365,12 @@ public class OrcPageSourceFactory
                 fileReadColumns.add(acidColumnsByName.get(ACID_COLUMN_ORIGINAL_TRANSACTION.toLowerCase(ENGLISH)));
                 fileReadTypes.add(BIGINT);
                 fileReadLayouts.add(fullyProjectedLayout());
+                fileReadKeys.add(blockCacheKey(fileReadColumns.get(0), BIGINT, ImmutableList.of()));
 
                 fileReadColumns.add(acidColumnsByName.get(ACID_COLUMN_ROW_ID.toLowerCase(ENGLISH)));
                 fileReadTypes.add(BIGINT);
                 fileReadLayouts.add(fullyProjectedLayout());
+                fileReadKeys.add(blockCacheKey(fileReadColumns.get(1), BIGINT, ImmutableList.of()));
             }
 
             Map<String, OrcColumn> fileColumnsByName = ImmutableMap.of();
@@ -283,33 +400,26 @@ public class OrcPageSourceFactory
                                         toList())));
             }
 
-            TupleDomainOrcPredicateBuilder predicateBuilder = TupleDomainOrcPredicate.builder()
-                    .setBloomFiltersEnabled(options.isBloomFiltersEnabled());
-            Map<HiveColumnHandle, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
-                    .orElseThrow(() -> new IllegalArgumentException("Effective predicate is none"));
+            Map<HiveColumnHandle, OrcColumn> predicateColumns = new LinkedHashMap<>();
             List<ColumnAdaptation> columnAdaptations = new ArrayList<>(columns.size());
             for (HiveColumnHandle column : columns) {
                 OrcColumn orcColumn = null;
                 OrcReader.ProjectedLayout projectedLayout = null;
-                Map<Optional<HiveColumnProjectionInfo>, Domain> columnDomains = null;
+                List<List<String>> dereferences = null;
 
                 if (useOrcColumnNames || isFullAcid) {
                     String columnName = column.getName().toLowerCase(ENGLISH);
                     orcColumn = fileColumnsByName.get(columnName);
                     if (orcColumn != null) {
-                        projectedLayout = createProjectedLayout(orcColumn, projectionsByColumnName.get(columnName));
-                        columnDomains = effectivePredicateDomains.entrySet().stream()
-                                .filter(columnDomain -> columnDomain.getKey().getBaseColumnName().toLowerCase(ENGLISH).equals(columnName))
-                                .collect(toImmutableMap(columnDomain -> columnDomain.getKey().getHiveColumnProjectionInfo(), Map.Entry::getValue));
+                        dereferences = projectionsByColumnName.get(columnName);
+                        projectedLayout = createProjectedLayout(orcColumn, dereferences);
                     }
                 }
                 else if (column.getBaseHiveColumnIndex() < fileColumns.size()) {
                     orcColumn = fileColumns.get(column.getBaseHiveColumnIndex());
                     if (orcColumn != null) {
-                        projectedLayout = createProjectedLayout(orcColumn, projectionsByColumnIndex.get(column.getBaseHiveColumnIndex()));
-                        columnDomains = effectivePredicateDomains.entrySet().stream()
-                                .filter(columnDomain -> columnDomain.getKey().getBaseHiveColumnIndex() == column.getBaseHiveColumnIndex())
-                                .collect(toImmutableMap(columnDomain -> columnDomain.getKey().getHiveColumnProjectionInfo(), Map.Entry::getValue));
+                        dereferences = projectionsByColumnIndex.get(column.getBaseHiveColumnIndex());
+                        projectedLayout = createProjectedLayout(orcColumn, dereferences);
                     }
                 }
 
@@ -320,25 +430,25 @@ public class OrcPageSourceFactory
                     fileReadColumns.add(orcColumn);
                     fileReadTypes.add(readType);
                     fileReadLayouts.add(projectedLayout);
-
-                    // Add predicates on top-level and nested columns
-                    for (Map.Entry<Optional<HiveColumnProjectionInfo>, Domain> columnDomain : columnDomains.entrySet()) {
-                        OrcColumn nestedColumn = getNestedColumn(orcColumn, columnDomain.getKey());
-                        if (nestedColumn != null) {
-                            predicateBuilder.addColumn(nestedColumn.getColumnId(), columnDomain.getValue());
-                        }
-                    }
+                    fileReadKeys.add(blockCacheKey(orcColumn, readType, dereferences));
+                    predicateColumns.put(column, orcColumn);
                 }
                 else {
                     columnAdaptations.add(ColumnAdaptation.nullColumn(readType));
                 }
             }
 
+            boolean matchColumnsByName = useOrcColumnNames || isFullAcid;
+            OrcPredicate predicate = new DynamicFilterOrcPredicate(
+                    createOrcPredicate(effectivePredicate, predicateColumns, matchColumnsByName, options.isBloomFiltersEnabled()),
+                    dynamicFilter,
+                    dynamicPredicate -> createOrcPredicate(dynamicPredicate, predicateColumns, matchColumnsByName, options.isBloomFiltersEnabled()));
+
             OrcRecordReader recordReader = reader.createRecordReader(
                     fileReadColumns,
                     fileReadTypes,
                     fileReadLayouts,
-                    predicateBuilder.build(),
+                    predicate,
                     start,
                     length,
                     legacyFileTimeZone,
@@ -373,6 +483,7 @@ public class OrcPageSourceFactory
                     orcDataSource,
                     deletedRows,
                     originalFileRowId,
+                    fileBlocksFactory.apply(fileReadKeys),
                     systemMemoryUsage,
                     stats);
         }
@@ -393,6 +504,51 @@ public class OrcPageSourceFactory
         }
     }
 
+    private static String blockCacheKey(OrcColumn orcColumn, Type readType, List<List<String>> dereferences)
+    {
+        // the projected layout is derived from the dereferences, so it does not need to be part of the key
+        return orcColumn.getColumnId().getId() + ":" + readType.getTypeSignature() + ":" + dereferences;
+    }
+
+    private static OrcPredicate createOrcPredicate(
+            TupleDomain<HiveColumnHandle> predicate,
+            Map<HiveColumnHandle, OrcColumn> predicateColumns,
+            boolean matchColumnsByName,
+            boolean bloomFiltersEnabled)
+    {
+        if (predicate.isNone()) {
+            return (numberOfRows, allColumnStatistics) -> false;
+        }
+        Map<HiveColumnHandle, Domain> predicateDomains = predicate.getDomains().get();
+
+        TupleDomainOrcPredicateBuilder predicateBuilder = TupleDomainOrcPredicate.builder()
+                .setBloomFiltersEnabled(bloomFiltersEnabled);
+        for (Map.Entry<HiveColumnHandle, OrcColumn> entry : predicateColumns.entrySet()) {
+            HiveColumnHandle column = entry.getKey();
+            Map<Optional<HiveColumnProjectionInfo>, Domain> columnDomains;
+            if (matchColumnsByName) {
+                String columnName = column.getName().toLowerCase(ENGLISH);
+                columnDomains = predicateDomains.entrySet().stream()
+                        .filter(columnDomain -> columnDomain.getKey().getBaseColumnName().toLowerCase(ENGLISH).equals(columnName))
+                        .collect(toImmutableMap(columnDomain -> columnDomain.getKey().getHiveColumnProjectionInfo(), Map.Entry::getValue));
+            }
+            else {
+                columnDomains = predicateDomains.entrySet().stream()
+                        .filter(columnDomain -> columnDomain.getKey().getBaseHiveColumnIndex() == column.getBaseHiveColumnIndex())
+                        .collect(toImmutableMap(columnDomain -> columnDomain.getKey().getHiveColumnProjectionInfo(), Map.Entry::getValue));
+            }
+
+            // Add predicates on top-level and nested columns
+            for (Map.Entry<Optional<HiveColumnProjectionInfo>, Domain> columnDomain : columnDomains.entrySet()) {
+                OrcColumn nestedColumn = getNestedColumn(entry.getValue(), columnDomain.getKey());
+                if (nestedColumn != null) {
+                    predicateBuilder.addColumn(nestedColumn.getColumnId(), columnDomain.getValue());
+                }
+            }
+        }
+        return predicateBuilder.build();
+    }
+
     private static boolean hasOriginalFilesAndDeleteDeltas(AcidInfo acidInfo)
     {
         return !acidInfo.getDeleteDeltas().isEmpty() && !acidInfo.getOriginalFiles().isEmpty();
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.parquet;
+
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
+import io.prestosql.parquet.predicate.DictionaryDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
+import io.prestosql.plugin.hive.HiveColumnHandle;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.statistics.Statistics;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates the latest dynamic filter, so that the Parquet reader can skip row groups
+ * using dynamic filters collected after the split started.
+ */
+class DynamicFilterParquetPredicate
+        implements Predicate
+{
+    private final Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter;
+    private final Function<TupleDomain<HiveColumnHandle>, Predicate> predicateFactory;
+
+    private TupleDomain<HiveColumnHandle> currentDynamicFilter;
+    private Predicate currentPredicate;
+
+    public DynamicFilterParquetPredicate(
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Function<TupleDomain<HiveColumnHandle>, Predicate> predicateFactory)
+    {
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.predicateFactory = requireNonNull(predicateFactory, "predicateFactory is null");
+    }
+
+    @Override
+    public boolean matches(long numberOfRows, Map<ColumnDescriptor, Statistics<?>> statistics, ParquetDataSourceId id, boolean failOnCorruptedParquetStatistics)
+            throws ParquetCorruptionException
+    {
+        return getCurrentPredicate().matches(numberOfRows, statistics, id, failOnCorruptedParquetStatistics);
+    }
+
+    @Override
+    public boolean matches(DictionaryDescriptor dictionary)
+    {
+        return getCurrentPredicate().matches(dictionary);
+    }
+
+    @Override
+    public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+    {
+        return getCurrentPredicate().matches(column, bloomFilter);
+    }
+
+    private Predicate getCurrentPredicate()
+    {
+        TupleDomain<HiveColumnHandle> latestDynamicFilter = dynamicFilter.get();
+        if (currentPredicate == null || !latestDynamicFilter.equals(currentDynamicFilter)) {
+            // the reader is single threaded, so the predicate is rebuilt at most once per filter change
+            currentDynamicFilter = latestDynamicFilter;
+            currentPredicate = predicateFactory.apply(latestDynamicFilter.simplify());
+        }
+        return currentPredicate;
+    }
+}
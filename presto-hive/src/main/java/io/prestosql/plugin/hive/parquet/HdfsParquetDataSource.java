@@ -33,14 +33,21 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
+import static java.lang.Math.max;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class HdfsParquetDataSource
         implements ParquetDataSource
@@ -48,23 +55,29 @@ public class HdfsParquetDataSource
     private final ParquetDataSourceId id;
     private final long size;
     private final FSDataInputStream inputStream;
-    private long readTimeNanos;
-    private long readBytes;
+    // chunks read ahead are read by the threads of the read executor
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong wastedReadBytes = new AtomicLong();
+    private final AtomicLong readRequests = new AtomicLong();
     private final FileFormatDataSourceStats stats;
     private final ParquetReaderOptions options;
+    private final Optional<Executor> readExecutor;
 
     public HdfsParquetDataSource(
             ParquetDataSourceId id,
             long size,
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats,
-            ParquetReaderOptions options)
+            ParquetReaderOptions options,
+            Optional<Executor> readExecutor)
     {
         this.id = requireNonNull(id, "id is null");
         this.size = size;
         this.inputStream = inputStream;
         this.stats = stats;
         this.options = requireNonNull(options, "options is null");
+        this.readExecutor = requireNonNull(readExecutor, "readExecutor is null");
     }
 
     @Override
@@ -76,13 +89,13 @@ public class HdfsParquetDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -95,6 +108,7 @@ public class HdfsParquetDataSource
     public void close()
             throws IOException
     {
+        stats.addSplitReads(readBytes.get(), wastedReadBytes.get(), readRequests.get());
         inputStream.close();
     }
 
@@ -107,7 +121,8 @@ public class HdfsParquetDataSource
     @Override
     public final void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
-        readBytes += bufferLength;
+        readBytes.addAndGet(bufferLength);
+        readRequests.incrementAndGet();
 
         long start = System.nanoTime();
         try {
@@ -122,7 +137,7 @@ public class HdfsParquetDataSource
         }
         long currentReadTimeNanos = System.nanoTime() - start;
 
-        readTimeNanos += currentReadTimeNanos;
+        readTimeNanos.addAndGet(currentReadTimeNanos);
         stats.readDataBytesPerSecond(bufferLength, currentReadTimeNanos);
     }
 
@@ -171,7 +186,13 @@ public class HdfsParquetDataSource
 
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
         for (DiskRange mergedRange : mergedRanges) {
-            ReferenceCountedReader mergedRangeLoader = new ReferenceCountedReader(mergedRange);
+            long wastedBytes = mergedRange.getLength();
+            for (DiskRange diskRange : diskRanges.values()) {
+                if (mergedRange.contains(diskRange)) {
+                    wastedBytes -= diskRange.getLength();
+                }
+            }
+            ReferenceCountedReader mergedRangeLoader = new ReferenceCountedReader(mergedRange, max(wastedBytes, 0));
 
             for (Map.Entry<K, DiskRange> diskRangeEntry : diskRanges.entrySet()) {
                 DiskRange diskRange = diskRangeEntry.getValue();
@@ -187,6 +208,12 @@ public class HdfsParquetDataSource
                             return mergedRangeLoader.read().slice(offset, diskRange.getLength());
                         }
 
+                        @Override
+                        public void prefetch()
+                        {
+                            mergedRangeLoader.prefetch();
+                        }
+
                         @Override
                         public void free()
                         {
@@ -212,7 +239,7 @@ public class HdfsParquetDataSource
 
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
         for (Map.Entry<K, DiskRange> entry : diskRanges.entrySet()) {
-            slices.put(entry.getKey(), new ReferenceCountedReader(entry.getValue()));
+            slices.put(entry.getKey(), new ReferenceCountedReader(entry.getValue(), 0));
         }
         return slices.build();
     }
@@ -224,7 +251,18 @@ public class HdfsParquetDataSource
             FileFormatDataSourceStats stats,
             ParquetReaderOptions options)
     {
-        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), fileSize, inputStream, stats, options);
+        return buildHdfsParquetDataSource(inputStream, path, fileSize, stats, options, Optional.empty());
+    }
+
+    public static HdfsParquetDataSource buildHdfsParquetDataSource(
+            FSDataInputStream inputStream,
+            Path path,
+            long fileSize,
+            FileFormatDataSourceStats stats,
+            ParquetReaderOptions options,
+            Optional<Executor> readExecutor)
+    {
+        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), fileSize, inputStream, stats, options, readExecutor);
     }
 
     public static List<DiskRange> mergeAdjacentDiskRanges(Collection<DiskRange> diskRanges, DataSize maxMergeDistance, DataSize maxReadSize)
@@ -266,12 +304,15 @@ public class HdfsParquetDataSource
             implements ChunkReader
     {
         private final DiskRange range;
+        private final long wastedBytes;
         private Slice data;
+        private CompletableFuture<Slice> prefetchedData;
         private int referenceCount = 1;
 
-        public ReferenceCountedReader(DiskRange range)
+        public ReferenceCountedReader(DiskRange range, long wastedBytes)
         {
             this.range = range;
+            this.wastedBytes = wastedBytes;
         }
 
         public void addReference()
@@ -286,14 +327,36 @@ public class HdfsParquetDataSource
             checkState(referenceCount > 0, "Chunk reader is already closed");
 
             if (data == null) {
-                byte[] buffer = new byte[range.getLength()];
-                readFully(range.getOffset(), buffer, 0, buffer.length);
-                data = Slices.wrappedBuffer(buffer);
+                if (prefetchedData != null) {
+                    data = getFutureValue(prefetchedData);
+                    prefetchedData = null;
+                }
+                else {
+                    data = readRange();
+                }
             }
 
             return data;
         }
 
+        @Override
+        public void prefetch()
+        {
+            checkState(referenceCount > 0, "Chunk reader is already closed");
+
+            if (data == null && prefetchedData == null && readExecutor.isPresent()) {
+                prefetchedData = supplyAsync(this::readRange, readExecutor.get());
+            }
+        }
+
+        private Slice readRange()
+        {
+            byte[] buffer = new byte[range.getLength()];
+            readFully(range.getOffset(), buffer, 0, buffer.length);
+            wastedReadBytes.addAndGet(wastedBytes);
+            return Slices.wrappedBuffer(buffer);
+        }
+
         @Override
         public void free()
         {
@@ -302,6 +365,11 @@ public class HdfsParquetDataSource
             referenceCount--;
             if (referenceCount == 0) {
                 data = null;
+                if (prefetchedData != null) {
+                    // a read which has not started yet is skipped
+                    prefetchedData.cancel(false);
+                    prefetchedData = null;
+                }
             }
         }
     }
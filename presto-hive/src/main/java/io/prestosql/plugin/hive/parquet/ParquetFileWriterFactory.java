@@ -13,6 +13,8 @@
  */
 package io.prestosql.plugin.hive.parquet;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import io.prestosql.parquet.writer.ParquetSchemaConverter;
 import io.prestosql.parquet.writer.ParquetWriterOptions;
 import io.prestosql.plugin.hive.FileWriter;
@@ -37,9 +39,11 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
+import static io.prestosql.plugin.hive.HiveMetadata.PARQUET_BLOOM_FILTER_COLUMNS_KEY;
 import static io.prestosql.plugin.hive.util.HiveUtil.getColumnNames;
 import static io.prestosql.plugin.hive.util.HiveUtil.getColumnTypes;
 import static java.util.Objects.requireNonNull;
@@ -80,6 +84,7 @@ public class ParquetFileWriterFactory
         ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
                 .setMaxPageSize(HiveSessionProperties.getParquetWriterPageSize(session))
                 .setMaxBlockSize(HiveSessionProperties.getParquetWriterBlockSize(session))
+                .setBloomFilterColumns(getBloomFilterColumns(schema))
                 .build();
 
         CompressionCodecName compressionCodecName = getCompression(conf);
@@ -118,6 +123,15 @@ public class ParquetFileWriterFactory
         }
     }
 
+    private static Set<String> getBloomFilterColumns(Properties schema)
+    {
+        String columns = schema.getProperty(PARQUET_BLOOM_FILTER_COLUMNS_KEY);
+        if (columns == null) {
+            return ImmutableSet.of();
+        }
+        return ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(columns));
+    }
+
     private static CompressionCodecName getCompression(JobConf configuration)
     {
         String compressionName = configuration.get(ParquetOutputFormat.COMPRESSION);
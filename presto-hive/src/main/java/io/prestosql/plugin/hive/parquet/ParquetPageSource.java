@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import io.prestosql.parquet.Field;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.plugin.hive.DecodedBlockCache.FileBlocks;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
@@ -42,15 +43,22 @@ public class ParquetPageSource
     private final ParquetReader parquetReader;
     private final List<Type> types;
     private final List<Optional<Field>> fields;
+    private final Optional<FileBlocks> fileBlocks;
 
     private int batchId;
     private boolean closed;
 
     public ParquetPageSource(ParquetReader parquetReader, List<Type> types, List<Optional<Field>> fields)
+    {
+        this(parquetReader, types, fields, Optional.empty());
+    }
+
+    public ParquetPageSource(ParquetReader parquetReader, List<Type> types, List<Optional<Field>> fields, Optional<FileBlocks> fileBlocks)
     {
         this.parquetReader = requireNonNull(parquetReader, "parquetReader is null");
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.fields = ImmutableList.copyOf(requireNonNull(fields, "fields is null"));
+        this.fileBlocks = requireNonNull(fileBlocks, "fileBlocks is null");
     }
 
     @Override
@@ -94,6 +102,13 @@ public class ParquetPageSource
                 Optional<Field> field = fields.get(fieldId);
                 if (field.isPresent()) {
                     blocks[fieldId] = new LazyBlock(batchSize, new ParquetBlockLoader(field.get()));
+                    if (fileBlocks.isPresent()) {
+                        blocks[fieldId] = fileBlocks.get().getBlock(
+                                fieldId,
+                                parquetReader.getCurrentRowGroupStartingPosition(),
+                                parquetReader.getCurrentBatchPositionInRowGroup(),
+                                blocks[fieldId]);
+                    }
                 }
                 else {
                     blocks[fieldId] = RunLengthEncodedBlock.create(types.get(fieldId), null, batchSize);
@@ -105,6 +120,14 @@ public class ParquetPageSource
             closeWithSuppression(e);
             throw e;
         }
+        catch (ParquetCorruptionException e) {
+            closeWithSuppression(e);
+            throw new PrestoException(HIVE_BAD_DATA, e);
+        }
+        catch (IOException e) {
+            closeWithSuppression(e);
+            throw new PrestoException(HIVE_CURSOR_ERROR, e);
+        }
         catch (RuntimeException e) {
             closeWithSuppression(e);
             throw new PrestoException(HIVE_CURSOR_ERROR, e);
@@ -173,5 +196,32 @@ public class ParquetPageSource
             loaded = true;
             return block;
         }
+
+        @Override
+        public boolean isLoadPositionsSupported()
+        {
+            return ParquetReader.canReadPositions(field);
+        }
+
+        @Override
+        public Block loadPositions(int[] positions, int offset, int length)
+        {
+            checkState(!loaded, "Already loaded");
+            checkState(batchId == expectedBatchId);
+
+            Block block;
+            try {
+                block = parquetReader.readBlock(field, positions, offset, length);
+            }
+            catch (ParquetCorruptionException e) {
+                throw new PrestoException(HIVE_BAD_DATA, e);
+            }
+            catch (IOException e) {
+                throw new PrestoException(HIVE_CURSOR_ERROR, e);
+            }
+
+            loaded = true;
+            return block;
+        }
     }
 }
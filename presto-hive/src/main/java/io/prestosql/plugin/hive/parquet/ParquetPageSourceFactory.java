@@ -16,6 +16,7 @@ package io.prestosql.plugin.hive.parquet;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
 import io.prestosql.parquet.Field;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSource;
@@ -25,7 +26,10 @@ import io.prestosql.parquet.predicate.Predicate;
 import io.prestosql.parquet.reader.MetadataReader;
 import io.prestosql.parquet.reader.ParquetReader;
 import io.prestosql.plugin.hive.AcidInfo;
+import io.prestosql.plugin.hive.DecodedBlockCache;
+import io.prestosql.plugin.hive.DecodedBlockCache.FileBlocks;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.FileReadExecutor;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
@@ -46,6 +50,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.FileMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIO;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.MessageType;
@@ -61,6 +66,9 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.nullToEmpty;
@@ -78,6 +86,8 @@ import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getParquetMaxReadBlockSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isFailOnCorruptedParquetStatistics;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isParquetUseBloomFilter;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isParquetUseColumnIndex;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static io.prestosql.plugin.hive.ReaderProjections.projectBaseColumns;
 import static io.prestosql.plugin.hive.ReaderProjections.projectSufficientColumns;
@@ -100,13 +110,33 @@ public class ParquetPageSourceFactory
     private final FileFormatDataSourceStats stats;
     private final ParquetReaderOptions options;
     private final DateTimeZone timeZone;
+    private final DecodedBlockCache blockCache;
+    private final Optional<Executor> readExecutor;
 
-    @Inject
     public ParquetPageSourceFactory(HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, ParquetReaderConfig config, HiveConfig hiveConfig)
+    {
+        this(hdfsEnvironment, stats, config, hiveConfig, new DecodedBlockCache(DataSize.ofBytes(0)));
+    }
+
+    public ParquetPageSourceFactory(HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, ParquetReaderConfig config, HiveConfig hiveConfig, DecodedBlockCache blockCache)
+    {
+        this(hdfsEnvironment, stats, config, hiveConfig, blockCache, new FileReadExecutor(0));
+    }
+
+    @Inject
+    public ParquetPageSourceFactory(
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            ParquetReaderConfig config,
+            HiveConfig hiveConfig,
+            DecodedBlockCache blockCache,
+            FileReadExecutor fileReadExecutor)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         requireNonNull(config, "config is null");
+        this.blockCache = requireNonNull(blockCache, "blockCache is null");
+        this.readExecutor = requireNonNull(fileReadExecutor, "fileReadExecutor is null").getExecutor();
 
         options = config.toParquetReaderOptions();
         timeZone = requireNonNull(hiveConfig, "hiveConfig is null").getParquetDateTimeZone();
@@ -124,6 +154,54 @@ public class ParquetPageSourceFactory
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             Optional<AcidInfo> acidInfo)
+    {
+        // without the modification time the file version is unknown, so blocks are not cached
+        return createPageSource(configuration, session, path, start, length, fileSize, schema, columns, effectivePredicate, TupleDomain::all, acidInfo, columnKeys -> Optional.empty());
+    }
+
+    @Override
+    public Optional<ReaderPageSourceWithProjections> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            long fileModifiedTime,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Optional<AcidInfo> acidInfo)
+    {
+        return createPageSource(
+                configuration,
+                session,
+                path,
+                start,
+                length,
+                fileSize,
+                schema,
+                columns,
+                effectivePredicate,
+                dynamicFilter,
+                acidInfo,
+                columnKeys -> blockCache.forFile(path, fileSize, fileModifiedTime, columnKeys));
+    }
+
+    private Optional<ReaderPageSourceWithProjections> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            Optional<AcidInfo> acidInfo,
+            Function<List<String>, Optional<FileBlocks>> fileBlocksFactory)
     {
         if (!PARQUET_SERDE_CLASS_NAMES.contains(getDeserializerClassName(schema))) {
             return Optional.empty();
@@ -138,6 +216,7 @@ public class ParquetPageSourceFactory
                 fileSize,
                 columns,
                 effectivePredicate,
+                dynamicFilter,
                 isUseParquetColumnNames(session),
                 hdfsEnvironment,
                 configuration,
@@ -145,7 +224,11 @@ public class ParquetPageSourceFactory
                 timeZone,
                 stats,
                 options.withFailOnCorruptedStatistics(isFailOnCorruptedParquetStatistics(session))
-                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))));
+                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))
+                        .withUseColumnIndex(isParquetUseColumnIndex(session))
+                        .withUseBloomFilter(isParquetUseBloomFilter(session)),
+                fileBlocksFactory,
+                readExecutor));
     }
 
     /**
@@ -158,6 +241,7 @@ public class ParquetPageSourceFactory
             long fileSize,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
             boolean useColumnNames,
             HdfsEnvironment hdfsEnvironment,
             Configuration configuration,
@@ -165,6 +249,47 @@ public class ParquetPageSourceFactory
             DateTimeZone timeZone,
             FileFormatDataSourceStats stats,
             ParquetReaderOptions options)
+    {
+        return createPageSource(
+                path,
+                start,
+                length,
+                fileSize,
+                columns,
+                effectivePredicate,
+                dynamicFilter,
+                useColumnNames,
+                hdfsEnvironment,
+                configuration,
+                user,
+                timeZone,
+                stats,
+                options,
+                columnKeys -> Optional.empty(),
+                Optional.empty());
+    }
+
+    /**
+     * @param fileBlocksFactory creates the cache of decoded blocks for the file, given the identifiers of the read columns
+     * @param readExecutor reads the column chunks ahead of the reader, if present
+     */
+    public static ReaderPageSourceWithProjections createPageSource(
+            Path path,
+            long start,
+            long length,
+            long fileSize,
+            List<HiveColumnHandle> columns,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            Supplier<TupleDomain<HiveColumnHandle>> dynamicFilter,
+            boolean useColumnNames,
+            HdfsEnvironment hdfsEnvironment,
+            Configuration configuration,
+            String user,
+            DateTimeZone timeZone,
+            FileFormatDataSourceStats stats,
+            ParquetReaderOptions options,
+            Function<List<String>, Optional<FileBlocks>> fileBlocksFactory,
+            Optional<Executor> readExecutor)
     {
         // Ignore predicates on partial columns for now.
         effectivePredicate = effectivePredicate.filter((column, domain) -> column.isBaseColumn());
@@ -180,7 +305,7 @@ public class ParquetPageSourceFactory
             ParquetMetadata parquetMetadata = MetadataReader.readFooter(inputStream, path, fileSize);
             FileMetaData fileMetaData = parquetMetadata.getFileMetaData();
             fileSchema = fileMetaData.getSchema();
-            dataSource = buildHdfsParquetDataSource(inputStream, path, fileSize, stats, options);
+            dataSource = buildHdfsParquetDataSource(inputStream, path, fileSize, stats, options, readExecutor);
 
             Optional<MessageType> message = projectSufficientColumns(columns)
                     .map(ReaderProjections::getReaderColumns)
@@ -209,7 +334,7 @@ public class ParquetPageSourceFactory
             Predicate parquetPredicate = buildPredicate(requestedSchema, parquetTupleDomain, descriptorsByPath, timeZone);
             ImmutableList.Builder<BlockMetaData> blocks = ImmutableList.builder();
             for (BlockMetaData block : footerBlocks.build()) {
-                if (predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, options.isFailOnCorruptedStatistics())) {
+                if (predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, options.isFailOnCorruptedStatistics(), options.isUseBloomFilter())) {
                     blocks.add(block);
                 }
             }
@@ -220,7 +345,15 @@ public class ParquetPageSourceFactory
                     dataSource,
                     timeZone,
                     newSimpleAggregatedMemoryContext(),
-                    options);
+                    options,
+                    Optional.of(new DynamicFilterParquetPredicate(
+                            dynamicFilter,
+                            dynamicPredicate -> buildPredicate(
+                                    requestedSchema,
+                                    getParquetTupleDomain(descriptorsByPath, dynamicPredicate.filter((column, domain) -> column.isBaseColumn()), fileSchema, useColumnNames),
+                                    descriptorsByPath,
+                                    timeZone))),
+                    descriptorsByPath);
         }
         catch (Exception e) {
             try {
@@ -259,19 +392,23 @@ public class ParquetPageSourceFactory
                 .collect(toImmutableList());
         ImmutableList.Builder<Type> prestoTypes = ImmutableList.builder();
         ImmutableList.Builder<Optional<Field>> internalFields = ImmutableList.builder();
+        ImmutableList.Builder<String> blockCacheKeys = ImmutableList.builder();
         for (int columnIndex = 0; columnIndex < baseColumns.size(); columnIndex++) {
             HiveColumnHandle column = baseColumns.get(columnIndex);
             Optional<org.apache.parquet.schema.Type> parquetField = parquetFields.get(columnIndex);
 
             prestoTypes.add(column.getBaseType());
 
-            internalFields.add(parquetField.flatMap(field -> {
+            Optional<ColumnIO> columnIO = parquetField.map(field -> {
                 String columnName = useColumnNames ? column.getBaseColumnName() : fileSchema.getFields().get(column.getBaseHiveColumnIndex()).getName();
-                return constructField(column.getBaseType(), lookupColumnByName(messageColumn, columnName));
-            }));
+                return lookupColumnByName(messageColumn, columnName);
+            });
+            internalFields.add(columnIO.flatMap(io -> constructField(column.getBaseType(), io)));
+            // the requested Parquet type identifies both the column and the nested fields that are read
+            blockCacheKeys.add(columnIO.map(io -> io.getType().toString()).orElse("") + ":" + column.getBaseType().getTypeSignature());
         }
 
-        ConnectorPageSource parquetPageSource = new ParquetPageSource(parquetReader, prestoTypes.build(), internalFields.build());
+        ConnectorPageSource parquetPageSource = new ParquetPageSource(parquetReader, prestoTypes.build(), internalFields.build(), fileBlocksFactory.apply(blockCacheKeys.build()));
         return new ReaderPageSourceWithProjections(parquetPageSource, readerProjections);
     }
 
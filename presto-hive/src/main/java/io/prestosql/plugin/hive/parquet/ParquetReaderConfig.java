@@ -81,6 +81,32 @@ public class ParquetReaderConfig
         return this;
     }
 
+    public boolean isUseColumnIndex()
+    {
+        return options.isUseColumnIndex();
+    }
+
+    @Config("parquet.use-column-index")
+    @ConfigDescription("Skip data pages using the column indexes of the row groups")
+    public ParquetReaderConfig setUseColumnIndex(boolean useColumnIndex)
+    {
+        options = options.withUseColumnIndex(useColumnIndex);
+        return this;
+    }
+
+    public boolean isUseBloomFilter()
+    {
+        return options.isUseBloomFilter();
+    }
+
+    @Config("parquet.use-bloom-filter")
+    @ConfigDescription("Skip row groups using the Bloom filters of their column chunks")
+    public ParquetReaderConfig setUseBloomFilter(boolean useBloomFilter)
+    {
+        options = options.withUseBloomFilter(useBloomFilter);
+        return this;
+    }
+
     public ParquetReaderOptions toParquetReaderOptions()
     {
         return options;
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.DecodedBlockCache.FileBlocks;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LazyBlock;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createStringSequenceBlock;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.testing.assertions.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestDecodedBlockCache
+{
+    private static final Path PATH = new Path("hdfs://test/table/file.orc");
+
+    @Test
+    public void testDisabled()
+    {
+        DecodedBlockCache cache = new DecodedBlockCache(DataSize.ofBytes(0));
+        assertFalse(cache.forFile(PATH, 100, 1, ImmutableList.of("a")).isPresent());
+    }
+
+    @Test
+    public void testCacheHit()
+    {
+        DecodedBlockCache cache = new DecodedBlockCache(DataSize.of(1, MEGABYTE));
+        AtomicInteger loads = new AtomicInteger();
+
+        FileBlocks fileBlocks = cache.forFile(PATH, 100, 1, ImmutableList.of("a", "b")).orElseThrow();
+        Page page = fileBlocks.getPage(0, 0, new Page(countingBlock(createLongSequenceBlock(0, 10), loads), countingBlock(createStringSequenceBlock(0, 10), loads)));
+        assertEquals(page.getChannelCount(), 2);
+        assertBlockEquals(page.getBlock(0), createLongSequenceBlock(0, 10));
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getSize(), 1);
+        assertTrue(cache.getRetainedSizeInBytes() > 0);
+
+        // a second scan of the same file reads the first column from the cache
+        fileBlocks = cache.forFile(PATH, 100, 1, ImmutableList.of("a", "b")).orElseThrow();
+        page = fileBlocks.getPage(0, 0, new Page(countingBlock(createLongSequenceBlock(0, 10), loads), countingBlock(createStringSequenceBlock(0, 10), loads)));
+        assertBlockEquals(page.getBlock(0), createLongSequenceBlock(0, 10));
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getHitCount(), 1);
+
+        // the second column was never loaded, so it was not cached
+        page.getBlock(1).getLoadedBlock();
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.getSize(), 2);
+    }
+
+    @Test
+    public void testFileVersion()
+    {
+        DecodedBlockCache cache = new DecodedBlockCache(DataSize.of(1, MEGABYTE));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.forFile(PATH, 100, 1, ImmutableList.of("a")).orElseThrow()
+                .getBlock(0, 0, 0, countingBlock(createLongSequenceBlock(0, 10), loads))
+                .getLoadedBlock();
+        assertEquals(loads.get(), 1);
+
+        // a rewritten file does not use the blocks cached for the previous version
+        Block block = cache.forFile(PATH, 100, 2, ImmutableList.of("a")).orElseThrow()
+                .getBlock(0, 0, 0, countingBlock(createLongSequenceBlock(5, 15), loads));
+        assertBlockEquals(block, createLongSequenceBlock(5, 15));
+        assertEquals(loads.get(), 2);
+
+        // neither does a different section of the file
+        cache.forFile(PATH, 100, 2, ImmutableList.of("a")).orElseThrow()
+                .getBlock(0, 1000, 0, countingBlock(createLongSequenceBlock(0, 10), loads))
+                .getLoadedBlock();
+        assertEquals(loads.get(), 3);
+        assertEquals(cache.getMissCount(), 3);
+    }
+
+    @Test
+    public void testEviction()
+    {
+        DecodedBlockCache cache = new DecodedBlockCache(DataSize.ofBytes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.forFile(PATH, 100, 1, ImmutableList.of("a")).orElseThrow()
+                .getBlock(0, 0, 0, countingBlock(createLongSequenceBlock(0, 10), loads))
+                .getLoadedBlock();
+        assertEquals(cache.getSize(), 0);
+        assertEquals(cache.getRetainedSizeInBytes(), 0);
+    }
+
+    private static Block countingBlock(Block block, AtomicInteger loads)
+    {
+        return new LazyBlock(block.getPositionCount(), () -> {
+            loads.incrementAndGet();
+            return block;
+        });
+    }
+
+    private static void assertBlockEquals(Block actual, Block expected)
+    {
+        assertEquals(actual.getPositionCount(), expected.getPositionCount());
+        for (int position = 0; position < expected.getPositionCount(); position++) {
+            assertEquals(BIGINT.getLong(actual, position), BIGINT.getLong(expected, position));
+        }
+    }
+}
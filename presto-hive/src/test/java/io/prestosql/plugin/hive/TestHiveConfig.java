@@ -90,6 +90,8 @@ public class TestHiveConfig
                 .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES))
                 .setFileStatusCacheMaxSize(1000 * 1000)
                 .setFileStatusCacheTables("")
+                .setDecodedBlockCacheMaxSize(DataSize.ofBytes(0))
+                .setReadAheadMaxThreads(0)
                 .setTranslateHiveViews(false)
                 .setHiveTransactionHeartbeatInterval(null)
                 .setHiveTransactionHeartbeatThreads(5)
@@ -159,6 +161,8 @@ public class TestHiveConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.decoded-block-cache.max-size", "2GB")
+                .put("hive.read-ahead.max-threads", "16")
                 .put("hive.translate-hive-views", "true")
                 .put("hive.transaction-heartbeat-interval", "10s")
                 .put("hive.transaction-heartbeat-threads", "10")
@@ -225,6 +229,8 @@ public class TestHiveConfig
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setDecodedBlockCacheMaxSize(DataSize.of(2, Unit.GIGABYTE))
+                .setReadAheadMaxThreads(16)
                 .setTranslateHiveViews(true)
                 .setHiveTransactionHeartbeatInterval(new Duration(10, TimeUnit.SECONDS))
                 .setHiveTransactionHeartbeatThreads(10)
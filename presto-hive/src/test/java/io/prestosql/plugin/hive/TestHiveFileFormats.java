@@ -920,6 +920,7 @@ public class TestHiveFileFormats
                 Instant.now().toEpochMilli(),
                 splitProperties,
                 TupleDomain.all(),
+                TupleDomain::all,
                 getColumnHandles(testReadColumns),
                 partitionName,
                 partitionKeys,
@@ -986,6 +987,7 @@ public class TestHiveFileFormats
                 Instant.now().toEpochMilli(),
                 splitProperties,
                 TupleDomain.all(),
+                TupleDomain::all,
                 columnHandles,
                 partitionName,
                 partitionKeys,
@@ -3189,6 +3189,32 @@ public class TestHiveIntegrationSmokeTest
         }
     }
 
+    @Test
+    public void testParquetBloomFilter()
+    {
+        Session session = Session.builder(getSession())
+                .setCatalogSessionProperty(catalog, "parquet_optimized_writer_enabled", "true")
+                .build();
+        try {
+            assertUpdate(
+                    session,
+                    "CREATE TABLE test_parquet_bloom_filter WITH (format = 'PARQUET', parquet_bloom_filter_columns = ARRAY['orderkey', 'orderpriority']) AS " +
+                            "SELECT orderkey, orderpriority, totalprice FROM tpch.tiny.orders",
+                    "SELECT count(*) FROM orders");
+            assertThat((String) computeActual("SHOW CREATE TABLE test_parquet_bloom_filter").getOnlyValue())
+                    .contains("parquet_bloom_filter_columns = ARRAY['orderkey','orderpriority']");
+
+            assertQuery("SELECT totalprice FROM test_parquet_bloom_filter WHERE orderkey = 7", "SELECT totalprice FROM orders WHERE orderkey = 7");
+            assertQuery("SELECT count(*) FROM test_parquet_bloom_filter WHERE orderkey IN (1, 2, 3)", "SELECT count(*) FROM orders WHERE orderkey IN (1, 2, 3)");
+            assertQuery("SELECT count(*) FROM test_parquet_bloom_filter WHERE orderpriority = '1-URGENT'", "SELECT count(*) FROM orders WHERE orderpriority = '1-URGENT'");
+            // order keys are sparse
+            assertQuery("SELECT count(*) FROM test_parquet_bloom_filter WHERE orderkey = 10", "VALUES 0");
+        }
+        finally {
+            assertUpdate("DROP TABLE IF EXISTS test_parquet_bloom_filter");
+        }
+    }
+
     @Test
     public void testTableCommentsTable()
     {
@@ -3592,6 +3618,10 @@ public class TestHiveIntegrationSmokeTest
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'TEXTFILE', orc_bloom_filter_columns = ARRAY['col1'])"))
                 .hasMessageMatching("Cannot specify orc_bloom_filter_columns table property for storage format: TEXTFILE");
 
+        // PARQUET
+        assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'ORC', parquet_bloom_filter_columns = ARRAY['col1'])"))
+                .hasMessageMatching("Cannot specify parquet_bloom_filter_columns table property for storage format: ORC");
+
         // TEXTFILE
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE test_orc_skip_header (col1 bigint) WITH (format = 'ORC', skip_header_line_count = 1)"))
                 .hasMessageMatching("Cannot specify skip_header_line_count table property for storage format: ORC");
@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import io.airlift.stats.Distribution;
@@ -495,6 +496,7 @@ public class TestOrcPageSourceMemoryTracking
                     Instant.now().toEpochMilli(),
                     schema,
                     TupleDomain.all(),
+                    TupleDomain::all,
                     columns,
                     partitonName,
                     partitionKeys,
@@ -515,7 +517,8 @@ public class TestOrcPageSourceMemoryTracking
                     (session, split, table, columnHandles, dynamicFilter) -> pageSource,
                     TEST_TABLE_HANDLE,
                     columns.stream().map(columnHandle -> (ColumnHandle) columnHandle).collect(toImmutableList()),
-                    TupleDomain::all);
+                    TupleDomain::all,
+                    ImmutableMap::of);
             SourceOperator operator = sourceOperatorFactory.createOperator(driverContext);
             operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
             return operator;
@@ -540,6 +543,7 @@ public class TestOrcPageSourceMemoryTracking
                     TEST_TABLE_HANDLE,
                     columns.stream().map(columnHandle -> (ColumnHandle) columnHandle).collect(toList()),
                     TupleDomain::all,
+                    ImmutableMap::of,
                     types,
                     DataSize.ofBytes(0),
                     0);
@@ -216,6 +216,7 @@ public class TestOrcPredicates
                 Instant.now().toEpochMilli(),
                 splitProperties,
                 predicate,
+                TupleDomain::all,
                 columnHandles,
                 partitionName,
                 partitionKeys,
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.parquet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.ParquetReaderOptions;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.reader.MetadataReader;
+import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.parquet.writer.ParquetSchemaConverter;
+import io.prestosql.parquet.writer.ParquetWriter;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.HiveColumnHandle;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.ParquetTypeUtils.lookupColumnByName;
+import static io.prestosql.parquet.predicate.PredicateUtils.buildPredicate;
+import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
+import static io.prestosql.plugin.hive.HiveColumnHandle.createBaseColumn;
+import static io.prestosql.plugin.hive.HiveType.HIVE_LONG;
+import static io.prestosql.plugin.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
+import static io.prestosql.plugin.hive.parquet.ParquetColumnIOConverter.constructField;
+import static io.prestosql.plugin.hive.parquet.ParquetPageSourceFactory.getParquetTupleDomain;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestDynamicFilterParquetPredicate
+{
+    private static final int ROW_GROUP_COUNT = 4;
+    private static final int ROWS_PER_ROW_GROUP = 1000;
+    private static final HiveColumnHandle COLUMN = createBaseColumn("x", 0, HIVE_LONG, BIGINT, REGULAR, Optional.empty());
+
+    @Test
+    public void testDynamicFilterCompletedAfterReaderOpened()
+            throws Exception
+    {
+        File file = File.createTempFile("test", ".parquet");
+        try {
+            writeRowGroups(file);
+
+            Path path = new Path(file.toURI());
+            FSDataInputStream inputStream = FileSystem.getLocal(new Configuration(false)).open(path);
+            ParquetMetadata parquetMetadata = MetadataReader.readFooter(inputStream, path, file.length());
+            assertEquals(parquetMetadata.getBlocks().size(), ROW_GROUP_COUNT);
+            MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+            MessageColumnIO messageColumn = getColumnIO(fileSchema, fileSchema);
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath = getDescriptors(fileSchema, fileSchema);
+            Field field = constructField(BIGINT, lookupColumnByName(messageColumn, COLUMN.getName())).orElseThrow();
+
+            AtomicReference<TupleDomain<HiveColumnHandle>> dynamicFilter = new AtomicReference<>(TupleDomain.all());
+            ParquetReaderOptions options = new ParquetReaderOptions();
+            ImmutableList.Builder<Long> values = ImmutableList.builder();
+            try (ParquetReader reader = new ParquetReader(
+                    Optional.ofNullable(parquetMetadata.getFileMetaData().getCreatedBy()),
+                    messageColumn,
+                    parquetMetadata.getBlocks(),
+                    buildHdfsParquetDataSource(inputStream, path, file.length(), new FileFormatDataSourceStats(), options),
+                    UTC,
+                    newSimpleAggregatedMemoryContext(),
+                    options,
+                    Optional.of(new DynamicFilterParquetPredicate(
+                            dynamicFilter::get,
+                            dynamicPredicate -> buildPredicate(
+                                    fileSchema,
+                                    getParquetTupleDomain(descriptorsByPath, dynamicPredicate, fileSchema, true),
+                                    descriptorsByPath,
+                                    UTC))),
+                    descriptorsByPath)) {
+                // the filter completes while the first row group is read
+                assertEquals(reader.nextBatch(), 1);
+                values.addAll(readValues(reader.readBlock(field)));
+                dynamicFilter.set(TupleDomain.withColumnDomains(ImmutableMap.of(
+                        COLUMN,
+                        Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 3000L, true, 3999L, true)), false))));
+
+                while (reader.nextBatch() > 0) {
+                    values.addAll(readValues(reader.readBlock(field)));
+                }
+            }
+
+            // the first row group is read to the end, the second and third are skipped
+            ImmutableList.Builder<Long> expected = ImmutableList.builder();
+            for (long value = 0; value < ROWS_PER_ROW_GROUP; value++) {
+                expected.add(value);
+            }
+            for (long value = 3000; value < 3000 + ROWS_PER_ROW_GROUP; value++) {
+                expected.add(value);
+            }
+            assertEquals(values.build(), expected.build());
+        }
+        finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    private static void writeRowGroups(File file)
+            throws Exception
+    {
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(ImmutableList.of(BIGINT), ImmutableList.of(COLUMN.getName()));
+        ParquetWriter writer = new ParquetWriter(
+                new FileOutputStream(file),
+                schemaConverter.getMessageType(),
+                schemaConverter.getPrimitiveTypes(),
+                ParquetWriterOptions.builder()
+                        // every page written is flushed as a row group
+                        .setMaxBlockSize(DataSize.ofBytes(1))
+                        .build(),
+                UNCOMPRESSED);
+        for (int rowGroup = 0; rowGroup < ROW_GROUP_COUNT; rowGroup++) {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_ROW_GROUP);
+            for (int row = 0; row < ROWS_PER_ROW_GROUP; row++) {
+                BIGINT.writeLong(blockBuilder, rowGroup * 1000L + row);
+            }
+            writer.write(new Page(blockBuilder.build()));
+        }
+        writer.close();
+    }
+
+    private static List<Long> readValues(Block block)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            values.add(BIGINT.getLong(block, position));
+        }
+        return values.build();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.parquet;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.ParquetReaderOptions;
+import io.prestosql.parquet.reader.MetadataReader;
+import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.parquet.writer.ParquetSchemaConverter;
+import io.prestosql.parquet.writer.ParquetWriter;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.ParquetTypeUtils.lookupColumnByName;
+import static io.prestosql.plugin.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
+import static io.prestosql.plugin.hive.parquet.ParquetColumnIOConverter.constructField;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetReaderPositions
+{
+    private static final String COLUMN_NAME = "x";
+    private static final int ROW_GROUP_COUNT = 2;
+    private static final int ROWS_PER_ROW_GROUP = 5000;
+
+    private File file;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        file = File.createTempFile("test", ".parquet");
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(ImmutableList.of(BIGINT), ImmutableList.of(COLUMN_NAME));
+        ParquetWriter writer = new ParquetWriter(
+                new FileOutputStream(file),
+                schemaConverter.getMessageType(),
+                schemaConverter.getPrimitiveTypes(),
+                ParquetWriterOptions.builder()
+                        // every page written is flushed as a row group
+                        .setMaxBlockSize(DataSize.ofBytes(1))
+                        // small data pages, so that whole pages are skipped
+                        .setMaxPageSize(DataSize.ofBytes(1000))
+                        .build(),
+                UNCOMPRESSED);
+        for (int rowGroup = 0; rowGroup < ROW_GROUP_COUNT; rowGroup++) {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_ROW_GROUP);
+            for (int row = 0; row < ROWS_PER_ROW_GROUP; row++) {
+                if (row % 11 == 0) {
+                    blockBuilder.appendNull();
+                }
+                else {
+                    BIGINT.writeLong(blockBuilder, rowGroup * ROWS_PER_ROW_GROUP + row);
+                }
+            }
+            writer.write(new Page(blockBuilder.build()));
+        }
+        writer.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testSparsePositions()
+            throws Exception
+    {
+        assertPositions((position, batchSize) -> position % 7 == 3);
+    }
+
+    @Test
+    public void testDensePositions()
+            throws Exception
+    {
+        // most positions are selected, so the batch is read in bulk
+        assertPositions((position, batchSize) -> position % 5 != 0);
+    }
+
+    @Test
+    public void testBatchBoundaries()
+            throws Exception
+    {
+        assertPositions((position, batchSize) -> position == 0);
+        assertPositions((position, batchSize) -> position == batchSize - 1);
+        assertPositions((position, batchSize) -> position == 1 || position == batchSize - 2);
+    }
+
+    @Test
+    public void testNullPositions()
+            throws Exception
+    {
+        assertPositions((position, batchSize) -> position % 11 == 0);
+    }
+
+    private void assertPositions(BiPredicate<Integer, Integer> isSelected)
+            throws IOException
+    {
+        try (ParquetReader fullReader = createReader();
+                ParquetReader positionsReader = createReader()) {
+            Field field = getField();
+            int batchSize = fullReader.nextBatch();
+            while (batchSize > 0) {
+                assertEquals(positionsReader.nextBatch(), batchSize);
+                Block fullBlock = fullReader.readBlock(field);
+
+                // the first entry is not a position, to cover the offset
+                int[] positions = new int[batchSize + 1];
+                int positionCount = 0;
+                for (int position = 0; position < batchSize; position++) {
+                    if (isSelected.test(position, batchSize)) {
+                        positions[1 + positionCount] = position;
+                        positionCount++;
+                    }
+                }
+                if (positionCount > 0) {
+                    Block positionsBlock = positionsReader.readBlock(field, positions, 1, positionCount);
+                    assertEquals(
+                            readValues(positionsBlock),
+                            readValues(fullBlock.getPositions(positions, 1, positionCount)));
+                }
+                batchSize = fullReader.nextBatch();
+            }
+            assertEquals(positionsReader.nextBatch(), -1);
+        }
+    }
+
+    private ParquetReader createReader()
+            throws IOException
+    {
+        Path path = new Path(file.toURI());
+        FSDataInputStream inputStream = FileSystem.getLocal(new Configuration(false)).open(path);
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(inputStream, path, file.length());
+        assertEquals(parquetMetadata.getBlocks().size(), ROW_GROUP_COUNT);
+        MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+        ParquetReaderOptions options = new ParquetReaderOptions();
+        return new ParquetReader(
+                Optional.ofNullable(parquetMetadata.getFileMetaData().getCreatedBy()),
+                getColumnIO(fileSchema, fileSchema),
+                parquetMetadata.getBlocks(),
+                buildHdfsParquetDataSource(inputStream, path, file.length(), new FileFormatDataSourceStats(), options),
+                UTC,
+                newSimpleAggregatedMemoryContext(),
+                options,
+                Optional.empty(),
+                getDescriptors(fileSchema, fileSchema));
+    }
+
+    private Field getField()
+            throws IOException
+    {
+        Path path = new Path(file.toURI());
+        try (FSDataInputStream inputStream = FileSystem.getLocal(new Configuration(false)).open(path)) {
+            MessageType fileSchema = MetadataReader.readFooter(inputStream, path, file.length()).getFileMetaData().getSchema();
+            MessageColumnIO messageColumn = getColumnIO(fileSchema, fileSchema);
+            return constructField(BIGINT, lookupColumnByName(messageColumn, COLUMN_NAME)).orElseThrow();
+        }
+    }
+
+    private static List<Long> readValues(Block block)
+    {
+        List<Long> values = new ArrayList<>(block.getPositionCount());
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            values.add(block.isNull(position) ? null : BIGINT.getLong(block, position));
+        }
+        return values;
+    }
+}
@@ -317,6 +317,7 @@ public class IcebergPageSourceProvider
                     orcDataSource,
                     Optional.empty(),
                     Optional.empty(),
+                    Optional.empty(),
                     systemMemoryUsage,
                     stats);
         }
@@ -388,7 +389,7 @@ public class IcebergPageSourceProvider
             for (BlockMetaData block : parquetMetadata.getBlocks()) {
                 long firstDataPage = block.getColumns().get(0).getFirstDataPageOffset();
                 if ((firstDataPage >= start) && (firstDataPage < (start + length)) &&
-                        predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, options.isFailOnCorruptedStatistics())) {
+                        predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, options.isFailOnCorruptedStatistics(), options.isUseBloomFilter())) {
                     blocks.add(block);
                 }
             }
@@ -18,6 +18,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.execution.QueryManagerConfig;
 import io.prestosql.execution.TaskManagerConfig;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.memory.MemoryManagerConfig;
 import io.prestosql.memory.NodeMemoryConfig;
 import io.prestosql.spi.PrestoException;
@@ -37,8 +38,10 @@ import static io.prestosql.plugin.base.session.PropertyMetadataUtil.dataSizeProp
 import static io.prestosql.plugin.base.session.PropertyMetadataUtil.durationProperty;
 import static io.prestosql.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
 import static io.prestosql.spi.session.PropertyMetadata.booleanProperty;
+import static io.prestosql.spi.session.PropertyMetadata.doubleProperty;
 import static io.prestosql.spi.session.PropertyMetadata.enumProperty;
 import static io.prestosql.spi.session.PropertyMetadata.integerProperty;
+import static io.prestosql.spi.session.PropertyMetadata.longProperty;
 import static io.prestosql.spi.session.PropertyMetadata.stringProperty;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
@@ -52,6 +55,8 @@ public final class SystemSessionProperties
 {
     public static final String OPTIMIZE_HASH_GENERATION = "optimize_hash_generation";
     public static final String JOIN_DISTRIBUTION_TYPE = "join_distribution_type";
+    public static final String SKEWED_JOIN_SPREAD_FACTOR = "skewed_join_spread_factor";
+    public static final String JOIN_LOOKUP_SOURCE_CACHE_ENABLED = "join_lookup_source_cache_enabled";
     public static final String JOIN_MAX_BROADCAST_TABLE_SIZE = "join_max_broadcast_table_size";
     public static final String DISTRIBUTED_INDEX_JOIN = "distributed_index_join";
     public static final String HASH_PARTITION_COUNT = "hash_partition_count";
@@ -84,6 +89,7 @@ public final class SystemSessionProperties
     public static final String REORDER_JOINS = "reorder_joins";
     public static final String JOIN_REORDERING_STRATEGY = "join_reordering_strategy";
     public static final String MAX_REORDERED_JOINS = "max_reordered_joins";
+    public static final String MAX_GREEDY_REORDERED_JOINS = "max_greedy_reordered_joins";
     public static final String INITIAL_SPLITS_PER_NODE = "initial_splits_per_node";
     public static final String SPLIT_CONCURRENCY_ADJUSTMENT_INTERVAL = "split_concurrency_adjustment_interval";
     public static final String OPTIMIZE_METADATA_QUERIES = "optimize_metadata_queries";
@@ -92,11 +98,18 @@ public final class SystemSessionProperties
     public static final String SPILL_ENABLED = "spill_enabled";
     public static final String SPILL_ORDER_BY = "spill_order_by";
     public static final String SPILL_WINDOW_OPERATOR = "spill_window_operator";
+    public static final String SPILL_JOIN_UNSPILL_CONCURRENCY = "spill_join_unspill_concurrency";
     public static final String AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT = "aggregation_operator_unspill_memory_limit";
+    public static final String AGGREGATION_OPERATOR_PARTITION_COUNT = "aggregation_operator_partition_count";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_ENABLED = "adaptive_partial_aggregation_enabled";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS = "adaptive_partial_aggregation_min_rows";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
     public static final String OPTIMIZE_DISTINCT_AGGREGATIONS = "optimize_mixed_distinct_aggregations";
     public static final String ITERATIVE_OPTIMIZER_TIMEOUT = "iterative_optimizer_timeout";
     public static final String ENABLE_FORCED_EXCHANGE_BELOW_GROUP_ID = "enable_forced_exchange_below_group_id";
     public static final String EXCHANGE_COMPRESSION = "exchange_compression";
+    public static final String EXCHANGE_COMPRESSION_CODEC = "exchange_compression_codec";
+    public static final String EXCHANGE_ADAPTIVE_COMPRESSION = "exchange_adaptive_compression";
     public static final String ENABLE_INTERMEDIATE_AGGREGATIONS = "enable_intermediate_aggregations";
     public static final String PUSH_AGGREGATION_THROUGH_OUTER_JOIN = "push_aggregation_through_outer_join";
     public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN = "push_partial_aggregation_through_join";
@@ -125,6 +138,8 @@ public final class SystemSessionProperties
     public static final String QUERY_MAX_TOTAL_MEMORY_PER_NODE = "query_max_total_memory_per_node";
     public static final String DYNAMIC_FILTERING_MAX_PER_DRIVER_ROW_COUNT = "dynamic_filtering_max_per_driver_row_count";
     public static final String DYNAMIC_FILTERING_MAX_PER_DRIVER_SIZE = "dynamic_filtering_max_per_driver_size";
+    public static final String DYNAMIC_FILTERING_BLOOM_FILTER_ENABLED = "dynamic_filtering_bloom_filter_enabled";
+    public static final String DYNAMIC_FILTERING_BLOOM_FILTER_SIZE = "dynamic_filtering_bloom_filter_size";
     public static final String IGNORE_DOWNSTREAM_PREFERENCES = "ignore_downstream_preferences";
     public static final String ITERATIVE_COLUMN_PRUNING = "iterative_rule_based_column_pruning";
     public static final String REQUIRED_WORKERS_COUNT = "required_workers_count";
@@ -164,6 +179,16 @@ public final class SystemSessionProperties
                         JoinDistributionType.class,
                         featuresConfig.getJoinDistributionType(),
                         false),
+                integerProperty(
+                        SKEWED_JOIN_SPREAD_FACTOR,
+                        "Experimental: number of partitions over which the probe rows of hot partitions of a partitioned join are spread, the build side is always copied to as many partitions",
+                        featuresConfig.getSkewedJoinSpreadFactor(),
+                        false),
+                booleanProperty(
+                        JOIN_LOOKUP_SOURCE_CACHE_ENABLED,
+                        "Share the lookup sources of broadcast joins across queries which join against the same table",
+                        featuresConfig.isJoinLookupSourceCacheEnabled(),
+                        false),
                 dataSizeProperty(
                         JOIN_MAX_BROADCAST_TABLE_SIZE,
                         "Maximum estimated size of a table that can be broadcast when using automatic join type selection",
@@ -338,6 +363,11 @@ public final class SystemSessionProperties
                             return intValue;
                         },
                         value -> value),
+                integerProperty(
+                        MAX_GREEDY_REORDERED_JOINS,
+                        "The maximum number of joins to reorder as one group, groups larger than max_reordered_joins being reordered greedily",
+                        featuresConfig.getMaxGreedyReorderedJoins(),
+                        false),
                 booleanProperty(
                         FAST_INEQUALITY_JOINS,
                         "Use faster handling of inequality join if it is possible",
@@ -378,11 +408,40 @@ public final class SystemSessionProperties
                         "Spill in WindowOperator if spill_enabled is also set",
                         featuresConfig.isSpillWindowOperator(),
                         false),
+                integerProperty(
+                        SPILL_JOIN_UNSPILL_CONCURRENCY,
+                        "Number of spilled partitions of a join unspilled at the same time",
+                        featuresConfig.getSpillJoinUnspillConcurrency(),
+                        false),
                 dataSizeProperty(
                         AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT,
                         "How much memory should be allocated per aggregation operator in unspilling process",
                         featuresConfig.getAggregationOperatorUnspillMemoryLimit(),
                         false),
+                new PropertyMetadata<>(
+                        AGGREGATION_OPERATOR_PARTITION_COUNT,
+                        "Experimental: number of hash partitions aggregated separately by each aggregation operator",
+                        BIGINT,
+                        Integer.class,
+                        featuresConfig.getAggregationOperatorPartitionCount(),
+                        false,
+                        value -> validateValueIsPowerOfTwo(value, AGGREGATION_OPERATOR_PARTITION_COUNT),
+                        value -> value),
+                booleanProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_ENABLED,
+                        "Skip partial aggregation when it does not reduce the number of rows",
+                        featuresConfig.isAdaptivePartialAggregationEnabled(),
+                        false),
+                longProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS,
+                        "Minimum number of rows processed by partial aggregation before it can be skipped",
+                        featuresConfig.getAdaptivePartialAggregationMinRows(),
+                        false),
+                doubleProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD,
+                        "Ratio of output to input rows of partial aggregation above which partial aggregation is skipped",
+                        featuresConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
+                        false),
                 booleanProperty(
                         OPTIMIZE_DISTINCT_AGGREGATIONS,
                         "Optimize mixed non-distinct and distinct aggregations",
@@ -403,6 +462,17 @@ public final class SystemSessionProperties
                         "Enable compression in exchanges",
                         featuresConfig.isExchangeCompressionEnabled(),
                         false),
+                enumProperty(
+                        EXCHANGE_COMPRESSION_CODEC,
+                        "Codec used to compress exchanges",
+                        CompressionCodec.class,
+                        featuresConfig.getExchangeCompressionCodec(),
+                        false),
+                booleanProperty(
+                        EXCHANGE_ADAPTIVE_COMPRESSION,
+                        "Skip compressing exchange pages after pages of the same output were found to be incompressible",
+                        featuresConfig.isExchangeAdaptiveCompressionEnabled(),
+                        false),
                 booleanProperty(
                         ENABLE_INTERMEDIATE_AGGREGATIONS,
                         "Enable the use of intermediate aggregations",
@@ -551,6 +621,16 @@ public final class SystemSessionProperties
                         "Experimental: maximum number of bytes to be collected for dynamic filtering per-driver",
                         featuresConfig.getDynamicFilteringMaxPerDriverSize(),
                         false),
+                booleanProperty(
+                        DYNAMIC_FILTERING_BLOOM_FILTER_ENABLED,
+                        "Experimental: collect bloom filters of build-side values for dynamic filtering",
+                        featuresConfig.isDynamicFilteringBloomFilterEnabled(),
+                        false),
+                dataSizeProperty(
+                        DYNAMIC_FILTERING_BLOOM_FILTER_SIZE,
+                        "Experimental: size of a single dynamic filtering bloom filter",
+                        featuresConfig.getDynamicFilteringBloomFilterSize(),
+                        false),
                 booleanProperty(
                         IGNORE_DOWNSTREAM_PREFERENCES,
                         "Ignore Parent's PreferredProperties in AddExchange optimizer",
@@ -603,6 +683,18 @@ public final class SystemSessionProperties
         return session.getSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.class);
     }
 
+    public static int getSkewedJoinSpreadFactor(Session session)
+    {
+        int spreadFactor = session.getSystemProperty(SKEWED_JOIN_SPREAD_FACTOR, Integer.class);
+        checkArgument(spreadFactor >= 1, "%s must be positive", SKEWED_JOIN_SPREAD_FACTOR);
+        return spreadFactor;
+    }
+
+    public static boolean isJoinLookupSourceCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(JOIN_LOOKUP_SOURCE_CACHE_ENABLED, Boolean.class);
+    }
+
     public static DataSize getJoinMaxBroadcastTableSize(Session session)
     {
         return session.getSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, DataSize.class);
@@ -740,6 +832,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(MAX_REORDERED_JOINS, Integer.class);
     }
 
+    public static int getMaxGreedyReorderedJoins(Session session)
+    {
+        return session.getSystemProperty(MAX_GREEDY_REORDERED_JOINS, Integer.class);
+    }
+
     public static boolean isColocatedJoinEnabled(Session session)
     {
         return session.getSystemProperty(COLOCATED_JOIN, Boolean.class);
@@ -807,6 +904,13 @@ public final class SystemSessionProperties
         return session.getSystemProperty(SPILL_WINDOW_OPERATOR, Boolean.class);
     }
 
+    public static int getSpillJoinUnspillConcurrency(Session session)
+    {
+        int concurrency = session.getSystemProperty(SPILL_JOIN_UNSPILL_CONCURRENCY, Integer.class);
+        checkArgument(concurrency >= 1, "%s must be positive", SPILL_JOIN_UNSPILL_CONCURRENCY);
+        return concurrency;
+    }
+
     public static DataSize getAggregationOperatorUnspillMemoryLimit(Session session)
     {
         DataSize memoryLimitForMerge = session.getSystemProperty(AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT, DataSize.class);
@@ -814,6 +918,26 @@ public final class SystemSessionProperties
         return memoryLimitForMerge;
     }
 
+    public static int getAggregationOperatorPartitionCount(Session session)
+    {
+        return session.getSystemProperty(AGGREGATION_OPERATOR_PARTITION_COUNT, Integer.class);
+    }
+
+    public static boolean isAdaptivePartialAggregationEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_ENABLED, Boolean.class);
+    }
+
+    public static long getAdaptivePartialAggregationMinRows(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, Long.class);
+    }
+
+    public static double getAdaptivePartialAggregationUniqueRowsRatioThreshold(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
+    }
+
     public static boolean isOptimizeDistinctAggregationEnabled(Session session)
     {
         return session.getSystemProperty(OPTIMIZE_DISTINCT_AGGREGATIONS, Boolean.class);
@@ -834,6 +958,19 @@ public final class SystemSessionProperties
         return session.getSystemProperty(EXCHANGE_COMPRESSION, Boolean.class);
     }
 
+    public static Optional<CompressionCodec> getExchangeCompressionCodec(Session session)
+    {
+        if (!isExchangeCompressionEnabled(session)) {
+            return Optional.empty();
+        }
+        return Optional.of(session.getSystemProperty(EXCHANGE_COMPRESSION_CODEC, CompressionCodec.class));
+    }
+
+    public static boolean isExchangeAdaptiveCompressionEnabled(Session session)
+    {
+        return session.getSystemProperty(EXCHANGE_ADAPTIVE_COMPRESSION, Boolean.class);
+    }
+
     public static boolean isEnableIntermediateAggregations(Session session)
     {
         return session.getSystemProperty(ENABLE_INTERMEDIATE_AGGREGATIONS, Boolean.class);
@@ -1011,6 +1148,14 @@ public final class SystemSessionProperties
         return session.getSystemProperty(DYNAMIC_FILTERING_MAX_PER_DRIVER_SIZE, DataSize.class);
     }
 
+    public static Optional<DataSize> getDynamicFilteringBloomFilterSize(Session session)
+    {
+        if (!session.getSystemProperty(DYNAMIC_FILTERING_BLOOM_FILTER_ENABLED, Boolean.class)) {
+            return Optional.empty();
+        }
+        return Optional.of(session.getSystemProperty(DYNAMIC_FILTERING_BLOOM_FILTER_SIZE, DataSize.class));
+    }
+
     public static boolean ignoreDownStreamPreferences(Session session)
     {
         return session.getSystemProperty(IGNORE_DOWNSTREAM_PREFERENCES, Boolean.class);
@@ -13,6 +13,7 @@
  */
 package io.prestosql.execution;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -29,8 +30,18 @@ import io.prestosql.server.BasicQueryInfo;
 import io.prestosql.server.protocol.Slug;
 import io.prestosql.spi.QueryId;
 import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.tree.Commit;
+import io.prestosql.sql.tree.Deallocate;
 import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.Prepare;
+import io.prestosql.sql.tree.ResetSession;
+import io.prestosql.sql.tree.Rollback;
+import io.prestosql.sql.tree.SetPath;
+import io.prestosql.sql.tree.SetRole;
+import io.prestosql.sql.tree.SetSession;
+import io.prestosql.sql.tree.StartTransaction;
 import io.prestosql.sql.tree.Statement;
+import io.prestosql.sql.tree.Use;
 import io.prestosql.transaction.TransactionManager;
 import org.joda.time.DateTime;
 
@@ -40,6 +51,7 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -51,6 +63,19 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 public class DataDefinitionExecution<T extends Statement>
         implements QueryExecution
 {
+    // statements which only change the session or the transaction, and so do not invalidate cached plans
+    private static final Set<Class<? extends Statement>> SESSION_STATEMENTS = ImmutableSet.of(
+            Commit.class,
+            Deallocate.class,
+            Prepare.class,
+            ResetSession.class,
+            Rollback.class,
+            SetPath.class,
+            SetRole.class,
+            SetSession.class,
+            StartTransaction.class,
+            Use.class);
+
     private final DataDefinitionTask<T> task;
     private final T statement;
     private final Slug slug;
@@ -59,6 +84,7 @@ public class DataDefinitionExecution<T extends Statement>
     private final AccessControl accessControl;
     private final QueryStateMachine stateMachine;
     private final List<Expression> parameters;
+    private final PlanCache planCache;
 
     private DataDefinitionExecution(
             DataDefinitionTask<T> task,
@@ -68,7 +94,8 @@ public class DataDefinitionExecution<T extends Statement>
             Metadata metadata,
             AccessControl accessControl,
             QueryStateMachine stateMachine,
-            List<Expression> parameters)
+            List<Expression> parameters,
+            PlanCache planCache)
     {
         this.task = requireNonNull(task, "task is null");
         this.statement = requireNonNull(statement, "statement is null");
@@ -78,6 +105,7 @@ public class DataDefinitionExecution<T extends Statement>
         this.accessControl = requireNonNull(accessControl, "accessControl is null");
         this.stateMachine = requireNonNull(stateMachine, "stateMachine is null");
         this.parameters = parameters;
+        this.planCache = requireNonNull(planCache, "planCache is null");
     }
 
     @Override
@@ -171,6 +199,9 @@ public class DataDefinitionExecution<T extends Statement>
                 public void onSuccess(@Nullable Object result)
                 {
                     stateMachine.transitionToFinishing();
+                    if (!SESSION_STATEMENTS.contains(statement.getClass())) {
+                        planCache.invalidateAll();
+                    }
                 }
 
                 @Override
@@ -288,18 +319,21 @@ public class DataDefinitionExecution<T extends Statement>
         private final Metadata metadata;
         private final AccessControl accessControl;
         private final Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks;
+        private final PlanCache planCache;
 
         @Inject
         public DataDefinitionExecutionFactory(
                 TransactionManager transactionManager,
                 Metadata metadata,
                 AccessControl accessControl,
-                Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks)
+                Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks,
+                PlanCache planCache)
         {
             this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
             this.metadata = requireNonNull(metadata, "metadata is null");
             this.accessControl = requireNonNull(accessControl, "accessControl is null");
             this.tasks = requireNonNull(tasks, "tasks is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -323,7 +357,7 @@ public class DataDefinitionExecution<T extends Statement>
             checkArgument(task != null, "no task for statement: %s", statement.getClass().getSimpleName());
 
             stateMachine.setUpdateType(task.getName());
-            return new DataDefinitionExecution<>(task, statement, slug, transactionManager, metadata, accessControl, stateMachine, parameters);
+            return new DataDefinitionExecution<>(task, statement, slug, transactionManager, metadata, accessControl, stateMachine, parameters, planCache);
         }
     }
 }
@@ -0,0 +1,360 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.Duration;
+import io.prestosql.Session;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.execution.QueryPreparer.PreparedQuery;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.connector.ConnectorTableLayoutHandle;
+import io.prestosql.spi.security.SelectedRole;
+import io.prestosql.spi.type.TimeZoneKey;
+import io.prestosql.sql.ExpressionFormatter;
+import io.prestosql.sql.SqlPath;
+import io.prestosql.sql.analyzer.Analysis;
+import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.planner.plan.IndexSourceNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.SimplePlanRewriter;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.CurrentTime;
+import io.prestosql.sql.tree.NodeRef;
+import io.prestosql.sql.tree.Query;
+import io.prestosql.transaction.TransactionManager;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.prestosql.sql.SqlFormatter.formatSql;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Optimized plans of SELECT queries, so that repeated executions of a statement skip planning.
+ * The statement is still analyzed, which checks access control and resolves the tables again.
+ * <p>
+ * A plan is cached for the formatted statement, its parameter values, the session properties
+ * which affect planning, and the table handles resolved by the analysis. Connectors do not version
+ * their metadata, so entries expire after a fixed time, and they are invalidated when a catalog
+ * they read from is written to, or when any schema changes through this coordinator.
+ * Plans of statements reading tables with row filters or column masks are not cached.
+ */
+public class PlanCache
+{
+    // functions which the optimizer evaluates to the start time of the query
+    private static final Set<String> SESSION_TIME_FUNCTIONS = ImmutableSet.of(
+            "now",
+            "current_date",
+            "current_time",
+            "current_timestamp",
+            "current_timezone",
+            "localtime",
+            "localtimestamp",
+            "$current_time",
+            "$current_timestamp",
+            "$localtime",
+            "$localtimestamp");
+
+    private final TransactionManager transactionManager;
+    private final boolean enabled;
+    private final Cache<Key, Plan> plans;
+
+    @Inject
+    public PlanCache(TransactionManager transactionManager, QueryManagerConfig config)
+    {
+        this(transactionManager, config.getPlanCacheMaxEntries(), config.getPlanCacheTtl(), Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    PlanCache(TransactionManager transactionManager, int maxEntries, Duration ttl, Ticker ticker)
+    {
+        this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
+        this.enabled = maxEntries > 0;
+        this.plans = CacheBuilder.newBuilder()
+                .recordStats()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(requireNonNull(ttl, "ttl is null").toMillis(), MILLISECONDS)
+                .ticker(requireNonNull(ticker, "ticker is null"))
+                .build();
+    }
+
+    /**
+     * Returns the key of the plan of an analyzed statement, or empty if its plan cannot be cached.
+     */
+    public Optional<Key> createKey(PreparedQuery preparedQuery, Analysis analysis, Session session)
+    {
+        if (!enabled || !(preparedQuery.getStatement() instanceof Query) || analysis.isDescribe()) {
+            return Optional.empty();
+        }
+        // row filters and column masks are resolved by access control for every execution, and are not part of the key
+        if (analysis.hasRowFiltersOrColumnMasks()) {
+            return Optional.empty();
+        }
+        boolean usesSessionTime = analysis.getTypes().keySet().stream()
+                .map(NodeRef::getNode)
+                .anyMatch(CurrentTime.class::isInstance) ||
+                analysis.getRoutines().stream()
+                        .anyMatch(routine -> SESSION_TIME_FUNCTIONS.contains(routine.getRoutine()));
+        if (usesSessionTime) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Key(
+                formatSql(preparedQuery.getStatement()),
+                preparedQuery.getParameters().stream()
+                        .map(ExpressionFormatter::formatExpression)
+                        .collect(toImmutableList()),
+                session,
+                analysis.getTables().stream()
+                        .map(table -> new TableKey(table.getCatalogName(), table.getConnectorHandle(), table.getLayout()))
+                        .collect(toImmutableSet())));
+    }
+
+    /**
+     * Returns the cached plan for the key, with its table handles bound to the transaction of the session.
+     */
+    public Optional<Plan> get(Key key, Session session)
+    {
+        Plan plan = plans.getIfPresent(key);
+        if (plan == null) {
+            return Optional.empty();
+        }
+        PlanNode root = SimplePlanRewriter.rewriteWith(new TransactionRewriter(transactionManager, session), plan.getRoot());
+        return Optional.of(new Plan(root, plan.getTypes(), plan.getStatsAndCosts()));
+    }
+
+    public void put(Key key, Plan plan)
+    {
+        // index handles are bound to the transaction of the query which created them
+        if (searchFrom(plan.getRoot()).where(IndexSourceNode.class::isInstance).matches()) {
+            return;
+        }
+        plans.put(key, plan);
+    }
+
+    /**
+     * Invalidates the plans reading from the catalog, e.g. after data or metadata of one of its tables changed.
+     */
+    public void invalidate(String catalogName)
+    {
+        plans.asMap().keySet().removeIf(key -> key.getTables().stream()
+                .anyMatch(table -> table.getCatalogName().getCatalogName().equals(catalogName)));
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        plans.invalidateAll();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return plans.size();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return plans.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return plans.stats().missCount();
+    }
+
+    private static class TransactionRewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final TransactionManager transactionManager;
+        private final Session session;
+
+        public TransactionRewriter(TransactionManager transactionManager, Session session)
+        {
+            this.transactionManager = transactionManager;
+            this.session = session;
+        }
+
+        @Override
+        public PlanNode visitTableScan(TableScanNode node, RewriteContext<Void> context)
+        {
+            TableHandle table = node.getTable();
+            TableHandle boundTable = new TableHandle(
+                    table.getCatalogName(),
+                    table.getConnectorHandle(),
+                    transactionManager.getConnectorTransaction(session.getRequiredTransactionId(), table.getCatalogName()),
+                    table.getLayout());
+            return new TableScanNode(node.getId(), boundTable, node.getOutputSymbols(), node.getAssignments(), node.getEnforcedConstraint());
+        }
+    }
+
+    public static final class Key
+    {
+        private final String statement;
+        private final List<String> parameters;
+        private final String user;
+        private final Set<String> groups;
+        private final Map<String, SelectedRole> roles;
+        private final Optional<String> catalog;
+        private final Optional<String> schema;
+        private final SqlPath path;
+        private final TimeZoneKey timeZoneKey;
+        private final Locale locale;
+        private final Set<String> clientCapabilities;
+        private final Map<String, String> systemProperties;
+        private final Map<CatalogName, Map<String, String>> connectorProperties;
+        private final Set<TableKey> tables;
+
+        private Key(String statement, List<String> parameters, Session session, Set<TableKey> tables)
+        {
+            this.statement = requireNonNull(statement, "statement is null");
+            this.parameters = ImmutableList.copyOf(requireNonNull(parameters, "parameters is null"));
+            this.user = session.getIdentity().getUser();
+            this.groups = ImmutableSet.copyOf(session.getIdentity().getGroups());
+            this.roles = ImmutableMap.copyOf(session.getIdentity().getRoles());
+            this.catalog = session.getCatalog();
+            this.schema = session.getSchema();
+            this.path = session.getPath();
+            this.timeZoneKey = session.getTimeZoneKey();
+            this.locale = session.getLocale();
+            this.clientCapabilities = ImmutableSet.copyOf(session.getClientCapabilities());
+            this.systemProperties = ImmutableMap.copyOf(session.getSystemProperties());
+            this.connectorProperties = ImmutableMap.copyOf(session.getConnectorProperties());
+            this.tables = ImmutableSet.copyOf(requireNonNull(tables, "tables is null"));
+        }
+
+        public Set<TableKey> getTables()
+        {
+            return tables;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return statement.equals(that.statement) &&
+                    parameters.equals(that.parameters) &&
+                    user.equals(that.user) &&
+                    groups.equals(that.groups) &&
+                    roles.equals(that.roles) &&
+                    catalog.equals(that.catalog) &&
+                    schema.equals(that.schema) &&
+                    path.equals(that.path) &&
+                    timeZoneKey.equals(that.timeZoneKey) &&
+                    locale.equals(that.locale) &&
+                    clientCapabilities.equals(that.clientCapabilities) &&
+                    systemProperties.equals(that.systemProperties) &&
+                    connectorProperties.equals(that.connectorProperties) &&
+                    tables.equals(that.tables);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(statement, parameters, user, groups, roles, catalog, schema, path, timeZoneKey, locale, clientCapabilities, systemProperties, connectorProperties, tables);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statement", statement)
+                    .add("parameters", parameters)
+                    .add("user", user)
+                    .add("tables", tables)
+                    .toString();
+        }
+    }
+
+    /**
+     * A table handle resolved by the analysis, without the transaction it was resolved in.
+     */
+    public static final class TableKey
+    {
+        private final CatalogName catalogName;
+        private final ConnectorTableHandle connectorHandle;
+        private final Optional<ConnectorTableLayoutHandle> layout;
+
+        public TableKey(CatalogName catalogName, ConnectorTableHandle connectorHandle, Optional<ConnectorTableLayoutHandle> layout)
+        {
+            this.catalogName = requireNonNull(catalogName, "catalogName is null");
+            this.connectorHandle = requireNonNull(connectorHandle, "connectorHandle is null");
+            this.layout = requireNonNull(layout, "layout is null");
+        }
+
+        public CatalogName getCatalogName()
+        {
+            return catalogName;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TableKey that = (TableKey) o;
+            return catalogName.equals(that.catalogName) &&
+                    connectorHandle.equals(that.connectorHandle) &&
+                    layout.equals(that.layout);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(catalogName, connectorHandle, layout);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("catalogName", catalogName)
+                    .add("connectorHandle", connectorHandle)
+                    .add("layout", layout)
+                    .toString();
+        }
+    }
+}
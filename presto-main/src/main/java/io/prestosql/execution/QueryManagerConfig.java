@@ -67,6 +67,9 @@ public class QueryManagerConfig
     private int requiredWorkers = 1;
     private Duration requiredWorkersMaxWait = new Duration(5, TimeUnit.MINUTES);
 
+    private int planCacheMaxEntries;
+    private Duration planCacheTtl = new Duration(1, TimeUnit.MINUTES);
+
     @Min(1)
     public int getScheduleSplitBatchSize()
     {
@@ -364,4 +367,32 @@ public class QueryManagerConfig
         this.requiredWorkersMaxWait = requiredWorkersMaxWait;
         return this;
     }
+
+    @Min(0)
+    public int getPlanCacheMaxEntries()
+    {
+        return planCacheMaxEntries;
+    }
+
+    @Config("query.plan-cache.max-entries")
+    @ConfigDescription("Maximum number of optimized plans of SELECT queries cached by the coordinator, 0 disables the cache")
+    public QueryManagerConfig setPlanCacheMaxEntries(int planCacheMaxEntries)
+    {
+        this.planCacheMaxEntries = planCacheMaxEntries;
+        return this;
+    }
+
+    @NotNull
+    public Duration getPlanCacheTtl()
+    {
+        return planCacheTtl;
+    }
+
+    @Config("query.plan-cache.ttl")
+    @ConfigDescription("Time after which a cached plan is planned again")
+    public QueryManagerConfig setPlanCacheTtl(Duration planCacheTtl)
+    {
+        this.planCacheTtl = planCacheTtl;
+        return this;
+    }
 }
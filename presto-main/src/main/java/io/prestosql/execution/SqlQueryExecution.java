@@ -85,6 +85,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.prestosql.execution.QueryState.FINISHED;
 import static io.prestosql.execution.buffer.OutputBuffers.BROADCAST_PARTITION_ID;
 import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.execution.scheduler.SqlQueryScheduler.createSqlQueryScheduler;
@@ -125,6 +126,8 @@ public class SqlQueryExecution
     private final StatsCalculator statsCalculator;
     private final CostCalculator costCalculator;
     private final DynamicFilterService dynamicFilterService;
+    private final PlanCache planCache;
+    private final Optional<PlanCache.Key> planCacheKey;
 
     private SqlQueryExecution(
             PreparedQuery preparedQuery,
@@ -150,6 +153,7 @@ public class SqlQueryExecution
             StatsCalculator statsCalculator,
             CostCalculator costCalculator,
             DynamicFilterService dynamicFilterService,
+            PlanCache planCache,
             WarningCollector warningCollector)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
@@ -170,6 +174,7 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -178,6 +183,14 @@ public class SqlQueryExecution
 
             // analyze query
             this.analysis = analyze(preparedQuery, stateMachine, metadata, accessControl, sqlParser, queryExplainer, warningCollector);
+            this.planCacheKey = planCache.createKey(preparedQuery, analysis, stateMachine.getSession());
+
+            // cached plans reading from the written catalog may no longer be the best ones
+            analysis.getTarget().ifPresent(target -> stateMachine.addStateChangeListener(state -> {
+                if (state == FINISHED) {
+                    planCache.invalidate(target.getCatalogName());
+                }
+            }));
 
             stateMachine.addStateChangeListener(state -> unregisterDynamicFilteringQuery());
 
@@ -420,9 +433,20 @@ public class SqlQueryExecution
     private PlanRoot doPlanQuery()
     {
         // plan query
-        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
-        LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, idAllocator, metadata, new TypeAnalyzer(sqlParser, metadata), statsCalculator, costCalculator, stateMachine.getWarningCollector());
-        Plan plan = logicalPlanner.plan(analysis);
+        Optional<Plan> cachedPlan = planCacheKey.flatMap(key -> planCache.get(key, stateMachine.getSession()));
+        Plan plan;
+        if (cachedPlan.isPresent()) {
+            plan = cachedPlan.get();
+        }
+        else {
+            PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+            LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, idAllocator, metadata, new TypeAnalyzer(sqlParser, metadata), statsCalculator, costCalculator, stateMachine.getWarningCollector());
+            plan = logicalPlanner.plan(analysis);
+            // plans with warnings are not cached, so that every execution reports them
+            if (planCacheKey.isPresent() && stateMachine.getWarningCollector().getWarnings().isEmpty()) {
+                planCache.put(planCacheKey.get(), plan);
+            }
+        }
         queryPlan.set(plan);
 
         // extract inputs
@@ -685,6 +709,7 @@ public class SqlQueryExecution
         private final StatsCalculator statsCalculator;
         private final CostCalculator costCalculator;
         private final DynamicFilterService dynamicFilterService;
+        private final PlanCache planCache;
 
         @Inject
         SqlQueryExecutionFactory(
@@ -707,7 +732,8 @@ public class SqlQueryExecution
                 SplitSchedulerStats schedulerStats,
                 StatsCalculator statsCalculator,
                 CostCalculator costCalculator,
-                DynamicFilterService dynamicFilterService)
+                DynamicFilterService dynamicFilterService,
+                PlanCache planCache)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -730,6 +756,7 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -767,6 +794,7 @@ public class SqlQueryExecution
                     statsCalculator,
                     costCalculator,
                     dynamicFilterService,
+                    planCache,
                     warningCollector);
         }
     }
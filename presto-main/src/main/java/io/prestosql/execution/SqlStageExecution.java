@@ -289,12 +289,17 @@ public final class SqlStageExecution
 
     public StageDynamicFilters getStageDynamicFilters()
     {
-        List<RemoteTask> tasks = getAllTasks();
+        List<TaskStatus> taskStatuses = getAllTasks().stream()
+                .map(RemoteTask::getTaskStatus)
+                .collect(toImmutableList());
         return new StageDynamicFilters(
                 stateMachine.getState(),
-                tasks.size(),
-                tasks.stream()
-                        .map(task -> task.getTaskStatus().getDynamicFilterDomains())
+                taskStatuses.size(),
+                taskStatuses.stream()
+                        .map(TaskStatus::getDynamicFilterDomains)
+                        .collect(toImmutableList()),
+                taskStatuses.stream()
+                        .map(TaskStatus::getDynamicFilterBloomFilters)
                         .collect(toImmutableList()));
     }
 
@@ -35,6 +35,7 @@ import io.prestosql.operator.PipelineContext;
 import io.prestosql.operator.PipelineStatus;
 import io.prestosql.operator.TaskContext;
 import io.prestosql.operator.TaskStats;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.plan.DynamicFilterId;
@@ -242,6 +243,7 @@ public class SqlTask
         long fullGcCount = 0;
         Duration fullGcTime = new Duration(0, MILLISECONDS);
         Map<DynamicFilterId, Domain> dynamicTupleDomains = ImmutableMap.of();
+        Map<DynamicFilterId, BlockedBloomFilter> dynamicFilterBloomFilters = ImmutableMap.of();
         if (taskHolder.getFinalTaskInfo() != null) {
             TaskInfo taskInfo = taskHolder.getFinalTaskInfo();
             TaskStats taskStats = taskInfo.getStats();
@@ -254,6 +256,7 @@ public class SqlTask
             fullGcCount = taskStats.getFullGcCount();
             fullGcTime = taskStats.getFullGcTime();
             dynamicTupleDomains = taskInfo.getTaskStatus().getDynamicFilterDomains();
+            dynamicFilterBloomFilters = taskInfo.getTaskStatus().getDynamicFilterBloomFilters();
         }
         else if (taskHolder.getTaskExecution() != null) {
             long physicalWrittenBytes = 0;
@@ -272,6 +275,7 @@ public class SqlTask
             fullGcCount = taskContext.getFullGcCount();
             fullGcTime = taskContext.getFullGcTime();
             dynamicTupleDomains = taskContext.getDynamicTupleDomains();
+            dynamicFilterBloomFilters = taskContext.getDynamicFilterBloomFilters();
         }
         // Compact TupleDomain before reporting dynamic filters to coordinator to avoid bloating QueryInfo
         Map<DynamicFilterId, Domain> compactDynamicTupleDomains = dynamicTupleDomains.entrySet().stream()
@@ -294,7 +298,8 @@ public class SqlTask
                 revocableMemoryReservation,
                 fullGcCount,
                 fullGcTime,
-                compactDynamicTupleDomains);
+                compactDynamicTupleDomains,
+                dynamicFilterBloomFilters);
     }
 
     private TaskStats getTaskStats(TaskHolder taskHolder)
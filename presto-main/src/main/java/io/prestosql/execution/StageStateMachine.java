@@ -23,6 +23,7 @@ import io.prestosql.execution.StateMachine.StateChangeListener;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
 import io.prestosql.operator.BlockedReason;
 import io.prestosql.operator.OperatorStats;
+import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import io.prestosql.operator.PipelineStats;
 import io.prestosql.operator.TaskStats;
 import io.prestosql.spi.eventlistener.StageGcStatistics;
@@ -63,6 +64,7 @@ import static io.prestosql.execution.StageState.SCHEDULED;
 import static io.prestosql.execution.StageState.SCHEDULING;
 import static io.prestosql.execution.StageState.SCHEDULING_SPLITS;
 import static io.prestosql.execution.StageState.TERMINAL_STAGE_STATES;
+import static io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputInfo.mergePartitionRows;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
@@ -495,6 +497,13 @@ public class StageStateMachine
             }
         }
 
+        List<Long> outputPartitionPositions = ImmutableList.of();
+        for (OperatorStats operatorStats : operatorToStats.values()) {
+            if (operatorStats.getInfo() instanceof PartitionedOutputInfo) {
+                outputPartitionPositions = mergePartitionRows(outputPartitionPositions, ((PartitionedOutputInfo) operatorStats.getInfo()).getPartitionRowsAdded());
+            }
+        }
+
         StageStats stageStats = new StageStats(
                 schedulingComplete.get(),
                 getSplitDistribution.snapshot(),
@@ -536,6 +545,7 @@ public class StageStateMachine
                 succinctBytes(bufferedDataSize),
                 succinctBytes(outputDataSize),
                 outputPositions,
+                outputPartitionPositions,
                 succinctBytes(physicalWrittenDataSize),
 
                 new StageGcStatistics(
@@ -83,6 +83,7 @@ public class StageStats
     private final DataSize bufferedDataSize;
     private final DataSize outputDataSize;
     private final long outputPositions;
+    private final List<Long> outputPartitionPositions;
 
     private final DataSize physicalWrittenDataSize;
 
@@ -135,6 +136,7 @@ public class StageStats
             @JsonProperty("bufferedDataSize") DataSize bufferedDataSize,
             @JsonProperty("outputDataSize") DataSize outputDataSize,
             @JsonProperty("outputPositions") long outputPositions,
+            @JsonProperty("outputPartitionPositions") List<Long> outputPartitionPositions,
 
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
@@ -197,6 +199,7 @@ public class StageStats
         this.outputDataSize = requireNonNull(outputDataSize, "outputDataSize is null");
         checkArgument(outputPositions >= 0, "outputPositions is negative");
         this.outputPositions = outputPositions;
+        this.outputPartitionPositions = ImmutableList.copyOf(requireNonNull(outputPartitionPositions, "outputPartitionPositions is null"));
 
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "writtenDataSize is null");
 
@@ -403,6 +406,15 @@ public class StageStats
         return outputPositions;
     }
 
+    /**
+     * Number of positions sent to each output partition of a hash partitioned stage
+     */
+    @JsonProperty
+    public List<Long> getOutputPartitionPositions()
+    {
+        return outputPartitionPositions;
+    }
+
     @JsonProperty
     public DataSize getPhysicalWrittenDataSize()
     {
@@ -48,6 +48,8 @@ public class TaskManagerConfig
     private DataSize maxLocalExchangeBufferSize = DataSize.of(32, Unit.MEGABYTE);
     private DataSize maxIndexMemoryUsage = DataSize.of(64, Unit.MEGABYTE);
     private boolean shareIndexLoading;
+    private DataSize joinLookupSourceCacheMaxSize = DataSize.of(256, Unit.MEGABYTE);
+    private Duration joinLookupSourceCacheTtl = new Duration(5, TimeUnit.MINUTES);
     private int maxWorkerThreads = Runtime.getRuntime().availableProcessors() * 2;
     private Integer minDrivers;
     private Integer initialSplitsPerNode;
@@ -73,6 +75,7 @@ public class TaskManagerConfig
     private int taskYieldThreads = 3;
 
     private BigDecimal levelTimeMultiplier = new BigDecimal(2.0);
+    private boolean adaptiveLevelThresholdsEnabled;
 
     @MinDuration("1ms")
     @MaxDuration("10s")
@@ -194,6 +197,34 @@ public class TaskManagerConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getJoinLookupSourceCacheMaxSize()
+    {
+        return joinLookupSourceCacheMaxSize;
+    }
+
+    @Config("task.join-lookup-source-cache.max-size")
+    @ConfigDescription("Maximum memory used by the lookup sources of broadcast joins shared across queries")
+    public TaskManagerConfig setJoinLookupSourceCacheMaxSize(DataSize joinLookupSourceCacheMaxSize)
+    {
+        this.joinLookupSourceCacheMaxSize = joinLookupSourceCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getJoinLookupSourceCacheTtl()
+    {
+        return joinLookupSourceCacheTtl;
+    }
+
+    @Config("task.join-lookup-source-cache.ttl")
+    @ConfigDescription("Time after which a shared lookup source of a broadcast join is built again, as changes to the joined table are not detected")
+    public TaskManagerConfig setJoinLookupSourceCacheTtl(Duration joinLookupSourceCacheTtl)
+    {
+        this.joinLookupSourceCacheTtl = joinLookupSourceCacheTtl;
+        return this;
+    }
+
     @Min(0)
     public BigDecimal getLevelTimeMultiplier()
     {
@@ -208,6 +239,19 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isAdaptiveLevelThresholdsEnabled()
+    {
+        return adaptiveLevelThresholdsEnabled;
+    }
+
+    @Config("task.adaptive-level-thresholds-enabled")
+    @ConfigDescription("Scale the scheduled time thresholds of the split queue levels with the observed split quanta")
+    public TaskManagerConfig setAdaptiveLevelThresholdsEnabled(boolean adaptiveLevelThresholdsEnabled)
+    {
+        this.adaptiveLevelThresholdsEnabled = adaptiveLevelThresholdsEnabled;
+        return this;
+    }
+
     @Min(1)
     public int getMaxWorkerThreads()
     {
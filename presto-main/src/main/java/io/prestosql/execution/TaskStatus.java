@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.sql.planner.plan.DynamicFilterId;
 
@@ -76,6 +77,7 @@ public class TaskStatus
     private final List<ExecutionFailureInfo> failures;
 
     private final Map<DynamicFilterId, Domain> dynamicFilterDomains;
+    private final Map<DynamicFilterId, BlockedBloomFilter> dynamicFilterBloomFilters;
 
     @JsonCreator
     public TaskStatus(
@@ -96,7 +98,8 @@ public class TaskStatus
             @JsonProperty("revocableMemoryReservation") DataSize revocableMemoryReservation,
             @JsonProperty("fullGcCount") long fullGcCount,
             @JsonProperty("fullGcTime") Duration fullGcTime,
-            @JsonProperty("dynamicFilterDomains") Map<DynamicFilterId, Domain> dynamicFilterDomains)
+            @JsonProperty("dynamicFilterDomains") Map<DynamicFilterId, Domain> dynamicFilterDomains,
+            @JsonProperty("dynamicFilterBloomFilters") Map<DynamicFilterId, BlockedBloomFilter> dynamicFilterBloomFilters)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
@@ -127,6 +130,7 @@ public class TaskStatus
         this.fullGcCount = fullGcCount;
         this.fullGcTime = requireNonNull(fullGcTime, "fullGcTime is null");
         this.dynamicFilterDomains = ImmutableMap.copyOf(requireNonNull(dynamicFilterDomains, "dynamicFilterDomains is null"));
+        this.dynamicFilterBloomFilters = ImmutableMap.copyOf(requireNonNull(dynamicFilterBloomFilters, "dynamicFilterBloomFilters is null"));
     }
 
     @JsonProperty
@@ -237,6 +241,12 @@ public class TaskStatus
         return dynamicFilterDomains;
     }
 
+    @JsonProperty
+    public Map<DynamicFilterId, BlockedBloomFilter> getDynamicFilterBloomFilters()
+    {
+        return dynamicFilterBloomFilters;
+    }
+
     @Override
     public String toString()
     {
@@ -266,6 +276,7 @@ public class TaskStatus
                 DataSize.ofBytes(0),
                 0,
                 new Duration(0, MILLISECONDS),
+                ImmutableMap.of(),
                 ImmutableMap.of());
     }
 
@@ -289,6 +300,7 @@ public class TaskStatus
                 taskStatus.getRevocableMemoryReservation(),
                 taskStatus.getFullGcCount(),
                 taskStatus.getFullGcTime(),
-                taskStatus.getDynamicFilterDomains());
+                taskStatus.getDynamicFilterDomains(),
+                taskStatus.getDynamicFilterBloomFilters());
     }
 }
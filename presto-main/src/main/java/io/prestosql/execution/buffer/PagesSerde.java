@@ -17,7 +17,6 @@ import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
-import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 import io.prestosql.execution.buffer.PageCodecMarker.MarkerSet;
 import io.prestosql.spi.Page;
@@ -30,10 +29,13 @@ import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.execution.buffer.PageCodecMarker.COMPRESSED;
 import static io.prestosql.execution.buffer.PageCodecMarker.ENCRYPTED;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readRawPage;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writeRawPage;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
@@ -41,61 +43,106 @@ import static java.util.Objects.requireNonNull;
 public class PagesSerde
 {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+    // larger buffers are released after use, so a single large page does not pin memory
+    private static final int MAXIMUM_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int MAXIMUM_SKIPPED_COMPRESSIONS = 64;
 
     private final BlockEncodingSerde blockEncodingSerde;
     private final Optional<Compressor> compressor;
     private final Optional<Decompressor> decompressor;
     private final Optional<SpillCipher> spillCipher;
+    private final boolean adaptiveCompression;
+    private final PagesSerdeStats stats;
+
+    // when adaptive compression is enabled, compression is skipped for the next pages after an incompressible page,
+    // and the number of skipped pages doubles while the sampled pages remain incompressible
+    private int skippedCompressions;
+    private int nextSkippedCompressions = 1;
+
+    // buffers reused across pages, the serialized pages are copied out of them
+    private DynamicSliceOutput serializationBuffer;
+    private byte[] compressionBuffer = new byte[0];
+    private byte[] encryptionBuffer = new byte[0];
 
     public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
+    {
+        this(blockEncodingSerde, compressor, decompressor, spillCipher, false, new PagesSerdeStats());
+    }
+
+    public PagesSerde(
+            BlockEncodingSerde blockEncodingSerde,
+            Optional<Compressor> compressor,
+            Optional<Decompressor> decompressor,
+            Optional<SpillCipher> spillCipher,
+            boolean adaptiveCompression,
+            PagesSerdeStats stats)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
         checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
         this.compressor = requireNonNull(compressor, "compressor is null");
         this.decompressor = requireNonNull(decompressor, "decompressor is null");
         this.spillCipher = requireNonNull(spillCipher, "spillCipher is null");
+        this.adaptiveCompression = adaptiveCompression;
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     public SerializedPage serialize(Page page)
     {
-        SliceOutput serializationBuffer = new DynamicSliceOutput(toIntExact(page.getSizeInBytes() + Integer.BYTES)); // block length is an int
+        long initialRetainedSize = 0;
+        if (serializationBuffer == null) {
+            serializationBuffer = new DynamicSliceOutput(toIntExact(page.getSizeInBytes() + Integer.BYTES)); // block length is an int
+        }
+        else {
+            serializationBuffer.reset();
+            initialRetainedSize = serializationBuffer.getRetainedSize();
+        }
         writeRawPage(page, serializationBuffer, blockEncodingSerde);
         Slice slice = serializationBuffer.slice();
         int uncompressedSize = serializationBuffer.size();
+
+        long allocatedBytes = serializationBuffer.getRetainedSize() - initialRetainedSize;
+        stats.recordAllocation(allocatedBytes);
+        stats.recordReuse(max(0, uncompressedSize - allocatedBytes));
         MarkerSet markers = MarkerSet.empty();
 
-        if (compressor.isPresent()) {
-            byte[] compressed = new byte[compressor.get().maxCompressedLength(uncompressedSize)];
+        if (compressor.isPresent() && shouldCompress()) {
+            compressionBuffer = ensureCapacity(compressionBuffer, compressor.get().maxCompressedLength(uncompressedSize));
             int compressedSize = compressor.get().compress(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
                     uncompressedSize,
-                    compressed,
+                    compressionBuffer,
                     0,
-                    compressed.length);
+                    compressionBuffer.length);
 
             if ((((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO) {
-                slice = Slices.wrappedBuffer(compressed, 0, compressedSize);
+                slice = Slices.wrappedBuffer(compressionBuffer, 0, compressedSize);
                 markers.add(COMPRESSED);
+                nextSkippedCompressions = 1;
+            }
+            else if (adaptiveCompression) {
+                skippedCompressions = nextSkippedCompressions;
+                nextSkippedCompressions = min(nextSkippedCompressions * 2, MAXIMUM_SKIPPED_COMPRESSIONS);
             }
         }
 
         if (spillCipher.isPresent()) {
-            byte[] encrypted = new byte[spillCipher.get().encryptedMaxLength(slice.length())];
+            encryptionBuffer = ensureCapacity(encryptionBuffer, spillCipher.get().encryptedMaxLength(slice.length()));
             int encryptedSize = spillCipher.get().encrypt(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
                     slice.length(),
-                    encrypted,
+                    encryptionBuffer,
                     0);
 
-            slice = Slices.wrappedBuffer(encrypted, 0, encryptedSize);
+            slice = Slices.wrappedBuffer(encryptionBuffer, 0, encryptedSize);
             markers.add(ENCRYPTED);
         }
 
-        if (!slice.isCompact()) {
-            slice = Slices.copyOf(slice);
-        }
+        // the serialized page outlives this call, so it is the only allocation that is not reused
+        slice = Slices.copyOf(slice);
+        stats.recordAllocation(slice.length());
+        releaseLargeBuffers();
 
         return new SerializedPage(slice, markers, page.getPositionCount(), uncompressedSize);
     }
@@ -109,7 +156,17 @@ public class PagesSerde
         if (serializedPage.isEncrypted()) {
             checkState(spillCipher.isPresent(), "Page is encrypted, but spill cipher is missing");
 
-            byte[] decrypted = new byte[spillCipher.get().decryptedMaxLength(slice.length())];
+            int decryptedMaxLength = spillCipher.get().decryptedMaxLength(slice.length());
+            byte[] decrypted;
+            if (serializedPage.isCompressed()) {
+                // the decrypted data is only read by the decompressor, so the buffer can be reused
+                encryptionBuffer = ensureCapacity(encryptionBuffer, decryptedMaxLength);
+                decrypted = encryptionBuffer;
+            }
+            else {
+                decrypted = new byte[decryptedMaxLength];
+                stats.recordAllocation(decryptedMaxLength);
+            }
             int decryptedSize = spillCipher.get().decrypt(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
@@ -123,8 +180,10 @@ public class PagesSerde
         if (serializedPage.isCompressed()) {
             checkState(decompressor.isPresent(), "Page is compressed, but decompressor is missing");
 
+            // the blocks of the deserialized page may reference the decompressed data, so it is never reused
             int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
             byte[] decompressed = new byte[uncompressedSize];
+            stats.recordAllocation(uncompressedSize);
             checkState(decompressor.get().decompress(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
@@ -135,7 +194,52 @@ public class PagesSerde
 
             slice = Slices.wrappedBuffer(decompressed);
         }
+        releaseLargeBuffers();
 
         return readRawPage(serializedPage.getPositionCount(), slice.getInput(), blockEncodingSerde);
     }
+
+    /**
+     * Returns the size of the buffers retained for serializing the next pages.
+     */
+    public long getRetainedSizeInBytes()
+    {
+        long retainedSize = sizeOf(compressionBuffer) + sizeOf(encryptionBuffer);
+        if (serializationBuffer != null) {
+            retainedSize += serializationBuffer.getRetainedSize();
+        }
+        return retainedSize;
+    }
+
+    private boolean shouldCompress()
+    {
+        if (skippedCompressions > 0) {
+            skippedCompressions--;
+            return false;
+        }
+        return true;
+    }
+
+    private byte[] ensureCapacity(byte[] buffer, int capacity)
+    {
+        if (buffer.length >= capacity) {
+            stats.recordReuse(capacity);
+            return buffer;
+        }
+        stats.recordAllocation(capacity);
+        return new byte[capacity];
+    }
+
+    private void releaseLargeBuffers()
+    {
+        if (serializationBuffer != null && serializationBuffer.getRetainedSize() > MAXIMUM_RETAINED_BUFFER_SIZE) {
+            serializationBuffer = null;
+        }
+        if (compressionBuffer.length > MAXIMUM_RETAINED_BUFFER_SIZE) {
+            compressionBuffer = new byte[0];
+        }
+        if (encryptionBuffer.length > MAXIMUM_RETAINED_BUFFER_SIZE) {
+            encryptionBuffer = new byte[0];
+        }
+    }
 }
@@ -13,42 +13,61 @@
  */
 package io.prestosql.execution.buffer;
 
-import io.airlift.compress.lz4.Lz4Compressor;
-import io.airlift.compress.lz4.Lz4Decompressor;
 import io.prestosql.spi.block.BlockEncodingSerde;
 import io.prestosql.spiller.SpillCipher;
 
 import java.util.Optional;
 
+import static io.prestosql.execution.buffer.CompressionCodec.LZ4;
 import static java.util.Objects.requireNonNull;
 
 public class PagesSerdeFactory
 {
     private final BlockEncodingSerde blockEncodingSerde;
-    private final boolean compressionEnabled;
+    private final Optional<CompressionCodec> compressionCodec;
+    private final boolean adaptiveCompression;
 
     public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled)
+    {
+        this(blockEncodingSerde, compressionEnabled ? Optional.of(LZ4) : Optional.empty(), false);
+    }
+
+    /**
+     * @param adaptiveCompression skip compressing pages after pages of the same serde were found to be incompressible
+     */
+    public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, Optional<CompressionCodec> compressionCodec, boolean adaptiveCompression)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        this.compressionEnabled = compressionEnabled;
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.adaptiveCompression = adaptiveCompression;
     }
 
     public PagesSerde createPagesSerde()
     {
-        return createPagesSerdeInternal(Optional.empty());
+        return createPagesSerdeInternal(Optional.empty(), new PagesSerdeStats());
     }
 
-    public PagesSerde createPagesSerdeForSpill(Optional<SpillCipher> spillCipher)
+    /**
+     * @param stats buffer allocation statistics shared by the serdes of a task
+     */
+    public PagesSerde createPagesSerde(PagesSerdeStats stats)
     {
-        return createPagesSerdeInternal(spillCipher);
+        return createPagesSerdeInternal(Optional.empty(), stats);
     }
 
-    private PagesSerde createPagesSerdeInternal(Optional<SpillCipher> spillCipher)
+    public PagesSerde createPagesSerdeForSpill(Optional<SpillCipher> spillCipher)
     {
-        if (compressionEnabled) {
-            return new PagesSerde(blockEncodingSerde, Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), spillCipher);
-        }
+        return createPagesSerdeInternal(spillCipher, new PagesSerdeStats());
+    }
 
-        return new PagesSerde(blockEncodingSerde, Optional.empty(), Optional.empty(), spillCipher);
+    private PagesSerde createPagesSerdeInternal(Optional<SpillCipher> spillCipher, PagesSerdeStats stats)
+    {
+        return new PagesSerde(
+                blockEncodingSerde,
+                compressionCodec.map(CompressionCodec::createCompressor),
+                compressionCodec.map(CompressionCodec::createDecompressor),
+                spillCipher,
+                adaptiveCompression,
+                stats);
     }
 }
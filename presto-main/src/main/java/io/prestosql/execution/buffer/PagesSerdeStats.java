@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Buffer allocations of the {@link PagesSerde} instances of a task. Allocated bytes
+ * are the sizes of the buffers created during serialization and deserialization, and
+ * reused bytes are the sizes of the requests served by buffers retained by the serde.
+ */
+@ThreadSafe
+public class PagesSerdeStats
+{
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong reusedBytes = new AtomicLong();
+
+    public void recordAllocation(long bytes)
+    {
+        allocatedBytes.addAndGet(bytes);
+    }
+
+    public void recordReuse(long bytes)
+    {
+        reusedBytes.addAndGet(bytes);
+    }
+
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes.get();
+    }
+
+    public long getReusedBytes()
+    {
+        return reusedBytes.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("allocatedBytes", allocatedBytes)
+                .add("reusedBytes", reusedBytes)
+                .toString();
+    }
+}
@@ -16,68 +16,98 @@ package io.prestosql.execution.executor;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.prestosql.execution.TaskManagerConfig;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Each level has its own queue (and lock), so runner threads offering and taking splits
+ * of different levels do not contend with each other. The shared lock is only used
+ * to park runner threads when all the levels are empty.
+ */
 @ThreadSafe
 public class MultilevelSplitQueue
 {
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-    @GuardedBy("lock")
-    private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+    // with adaptive level thresholds, the thresholds above apply to splits running this long before yielding
+    static final long REFERENCE_QUANTA_NANOS = MILLISECONDS.toNanos(100);
+    static final double MIN_LEVEL_THRESHOLD_SCALE = 0.25;
+    static final double MAX_LEVEL_THRESHOLD_SCALE = 4;
+    private static final int QUANTA_AVERAGE_WEIGHT = 64;
+
+    private final List<PriorityBlockingQueue<PrioritizedSplitRunner>> levelWaitingSplits;
 
     private final AtomicLong[] levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
 
     private final AtomicLong[] levelMinPriority;
     private final List<CounterStat> selectedLevelCounters;
+    private final List<TimeStat> levelWaitTimes;
+    private final List<CounterStat> levelCpuTimeMicros;
 
     private final ReentrantLock lock = new ReentrantLock();
     private final Condition notEmpty = lock.newCondition();
+    private final AtomicInteger waitingTakers = new AtomicInteger();
 
     private final double levelTimeMultiplier;
+    private final boolean adaptiveLevelThresholds;
+
+    // updated without synchronization, lost updates only make the average slightly less precise
+    private volatile long averageQuantaNanos = REFERENCE_QUANTA_NANOS;
 
     @Inject
     public MultilevelSplitQueue(TaskManagerConfig taskManagerConfig)
     {
-        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue());
+        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue(), taskManagerConfig.isAdaptiveLevelThresholdsEnabled());
     }
 
     public MultilevelSplitQueue(double levelTimeMultiplier)
+    {
+        this(levelTimeMultiplier, false);
+    }
+
+    public MultilevelSplitQueue(double levelTimeMultiplier, boolean adaptiveLevelThresholds)
     {
         this.levelMinPriority = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
         this.levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
         ImmutableList.Builder<CounterStat> counters = ImmutableList.builder();
+        ImmutableList.Builder<TimeStat> waitTimes = ImmutableList.builder();
+        ImmutableList.Builder<CounterStat> cpuTimes = ImmutableList.builder();
 
         for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
             levelScheduledTime[i] = new AtomicLong();
             levelMinPriority[i] = new AtomicLong(-1);
-            levelWaitingSplits.add(new PriorityQueue<>());
+            levelWaitingSplits.add(new PriorityBlockingQueue<>());
             counters.add(new CounterStat());
+            waitTimes.add(new TimeStat(NANOSECONDS));
+            cpuTimes.add(new CounterStat());
         }
 
         this.selectedLevelCounters = counters.build();
+        this.levelWaitTimes = waitTimes.build();
+        this.levelCpuTimeMicros = cpuTimes.build();
 
         this.levelTimeMultiplier = levelTimeMultiplier;
+        this.adaptiveLevelThresholds = adaptiveLevelThresholds;
     }
 
     private void addLevelTime(int level, long nanos)
@@ -101,24 +131,30 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
-        lock.lock();
-        try {
-            if (levelWaitingSplits.get(level).isEmpty()) {
-                // Accesses to levelScheduledTime are not synchronized, so we have a data race
-                // here - our level time math will be off. However, the staleness is bounded by
-                // the fact that only running splits that complete during this computation
-                // can update the level time. Therefore, this is benign.
-                long level0Time = getLevel0TargetTime();
-                long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-                long delta = levelExpectedTime - levelScheduledTime[level].get();
-                levelScheduledTime[level].addAndGet(delta);
-            }
-
-            levelWaitingSplits.get(level).offer(split);
-            notEmpty.signal();
+        PriorityBlockingQueue<PrioritizedSplitRunner> waitingSplits = levelWaitingSplits.get(level);
+        if (waitingSplits.isEmpty()) {
+            // Accesses to levelScheduledTime are not synchronized, so we have a data race
+            // here - our level time math will be off. However, the staleness is bounded by
+            // the fact that only running splits that complete during this computation
+            // can update the level time. Therefore, this is benign.
+            long level0Time = getLevel0TargetTime();
+            long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+            long delta = levelExpectedTime - levelScheduledTime[level].get();
+            levelScheduledTime[level].addAndGet(delta);
         }
-        finally {
-            lock.unlock();
+
+        waitingSplits.offer(split);
+
+        // A taker registers itself before scanning the levels, so either it sees this split
+        // or we see it waiting (or about to wait) and wake it up.
+        if (waitingTakers.get() > 0) {
+            lock.lock();
+            try {
+                notEmpty.signal();
+            }
+            finally {
+                lock.unlock();
+            }
         }
     }
 
@@ -126,27 +162,40 @@ public class MultilevelSplitQueue
             throws InterruptedException
     {
         while (true) {
-            lock.lockInterruptibly();
-            try {
-                PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
-                }
+            PrioritizedSplitRunner result = pollSplit();
+            if (result == null) {
+                result = awaitSplit();
+            }
 
-                if (result.updateLevelPriority()) {
-                    offer(result);
-                    continue;
-                }
+            if (result.updateLevelPriority()) {
+                offer(result);
+                continue;
+            }
 
-                int selectedLevel = result.getPriority().getLevel();
-                levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
-                selectedLevelCounters.get(selectedLevel).update(1);
+            int selectedLevel = result.getPriority().getLevel();
+            levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
+            selectedLevelCounters.get(selectedLevel).update(1);
+            levelWaitTimes.get(selectedLevel).add(result.getReadyNanos(), NANOSECONDS);
 
-                return result;
-            }
-            finally {
-                lock.unlock();
+            return result;
+        }
+    }
+
+    private PrioritizedSplitRunner awaitSplit()
+            throws InterruptedException
+    {
+        lock.lockInterruptibly();
+        waitingTakers.incrementAndGet();
+        try {
+            PrioritizedSplitRunner result;
+            while ((result = pollSplit()) == null) {
+                notEmpty.await();
             }
+            return result;
+        }
+        finally {
+            waitingTakers.decrementAndGet();
+            lock.unlock();
         }
     }
 
@@ -157,37 +206,40 @@ public class MultilevelSplitQueue
      * This function selects the level that has the the lowest ratio of actual to the target time
      * with the objective of minimizing deviation from the target scheduled time. From this level,
      * we pick the split with the lowest priority.
+     * <p>
+     * The levels are not locked together, so the selected level may be drained by another thread
+     * before we poll it. In that case the selection is repeated until all levels are empty.
      */
-    @GuardedBy("lock")
     private PrioritizedSplitRunner pollSplit()
     {
-        long targetScheduledTime = getLevel0TargetTime();
-        double worstRatio = 1;
-        int selectedLevel = -1;
-        for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-            if (!levelWaitingSplits.get(level).isEmpty()) {
-                long levelTime = levelScheduledTime[level].get();
-                double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
-                if (selectedLevel == -1 || ratio > worstRatio) {
-                    worstRatio = ratio;
-                    selectedLevel = level;
+        while (true) {
+            long targetScheduledTime = getLevel0TargetTime();
+            double worstRatio = 1;
+            int selectedLevel = -1;
+            for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                if (!levelWaitingSplits.get(level).isEmpty()) {
+                    long levelTime = levelScheduledTime[level].get();
+                    double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
+                    if (selectedLevel == -1 || ratio > worstRatio) {
+                        worstRatio = ratio;
+                        selectedLevel = level;
+                    }
                 }
+
+                targetScheduledTime /= levelTimeMultiplier;
             }
 
-            targetScheduledTime /= levelTimeMultiplier;
-        }
+            if (selectedLevel == -1) {
+                return null;
+            }
 
-        if (selectedLevel == -1) {
-            return null;
+            PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
+            if (result != null) {
+                return result;
+            }
         }
-
-        PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
-        checkState(result != null, "pollSplit cannot return null");
-
-        return result;
     }
 
-    @GuardedBy("lock")
     private long getLevel0TargetTime()
     {
         long level0TargetTime = levelScheduledTime[0].get();
@@ -216,8 +268,15 @@ public class MultilevelSplitQueue
      */
     public Priority updatePriority(Priority oldPriority, long quantaNanos, long scheduledNanos)
     {
+        if (adaptiveLevelThresholds) {
+            long average = averageQuantaNanos;
+            averageQuantaNanos = average + (quantaNanos - average) / QUANTA_AVERAGE_WEIGHT;
+        }
+        double thresholdScale = getLevelThresholdScale();
+
         int oldLevel = oldPriority.getLevel();
-        int newLevel = computeLevel(scheduledNanos);
+        // the thresholds may shrink or grow over time, but a task never moves back to a lower level
+        int newLevel = Math.max(oldLevel, computeLevel(scheduledNanos, thresholdScale));
 
         long levelContribution = Math.min(quantaNanos, LEVEL_CONTRIBUTION_CAP);
 
@@ -233,7 +292,8 @@ public class MultilevelSplitQueue
         // if the split had a particularly long quanta, accrue time to each level as if it had run
         // in that level up to the level limit.
         for (int currentLevel = oldLevel; currentLevel < newLevel; currentLevel++) {
-            long timeAccruedToLevel = Math.min(SECONDS.toNanos(LEVEL_THRESHOLD_SECONDS[currentLevel + 1] - LEVEL_THRESHOLD_SECONDS[currentLevel]), remainingLevelContribution);
+            long levelDuration = getLevelThresholdNanos(currentLevel + 1, thresholdScale) - getLevelThresholdNanos(currentLevel, thresholdScale);
+            long timeAccruedToLevel = Math.min(levelDuration, remainingLevelContribution);
             addLevelTime(currentLevel, timeAccruedToLevel);
             remainingLevelContribution -= timeAccruedToLevel;
             remainingTaskTime -= timeAccruedToLevel;
@@ -244,30 +304,26 @@ public class MultilevelSplitQueue
         return new Priority(newLevel, newLevelMinPriority + remainingTaskTime);
     }
 
+    /**
+     * Records the CPU time used by a split while it was running in the given level.
+     */
+    public void addLevelCpuTime(int level, long cpuNanos)
+    {
+        levelCpuTimeMicros.get(level).update(NANOSECONDS.toMicros(cpuNanos));
+    }
+
     public void remove(PrioritizedSplitRunner split)
     {
         checkArgument(split != null, "split is null");
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (PriorityBlockingQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
+            level.remove(split);
         }
     }
 
     public void removeAll(Collection<PrioritizedSplitRunner> splits)
     {
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (PriorityBlockingQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
+            level.removeAll(splits);
         }
     }
 
@@ -279,24 +335,22 @@ public class MultilevelSplitQueue
 
     public int size()
     {
-        lock.lock();
-        try {
-            int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
-            }
-            return total;
-        }
-        finally {
-            lock.unlock();
+        int total = 0;
+        for (PriorityBlockingQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
+            total += level.size();
         }
+        return total;
     }
 
-    public static int computeLevel(long threadUsageNanos)
+    public int computeLevel(long threadUsageNanos)
+    {
+        return computeLevel(threadUsageNanos, getLevelThresholdScale());
+    }
+
+    private static int computeLevel(long threadUsageNanos, double thresholdScale)
     {
-        long seconds = NANOSECONDS.toSeconds(threadUsageNanos);
         for (int i = 0; i < (LEVEL_THRESHOLD_SECONDS.length - 1); i++) {
-            if (seconds < LEVEL_THRESHOLD_SECONDS[i + 1]) {
+            if (threadUsageNanos < getLevelThresholdNanos(i + 1, thresholdScale)) {
                 return i;
             }
         }
@@ -304,6 +358,40 @@ public class MultilevelSplitQueue
         return LEVEL_THRESHOLD_SECONDS.length - 1;
     }
 
+    private static long getLevelThresholdNanos(int level, double thresholdScale)
+    {
+        return (long) (SECONDS.toNanos(LEVEL_THRESHOLD_SECONDS[level]) * thresholdScale);
+    }
+
+    /**
+     * The default thresholds assume splits run for about {@link #REFERENCE_QUANTA_NANOS} before
+     * yielding. When splits run longer quanta (e.g. CPU bound splits), a task would leave the first
+     * level after a handful of quanta, so the thresholds are raised. When splits yield quickly
+     * (e.g. thousands of short splits), long running tasks would stay in the first levels for a
+     * large number of quanta and compete with short queries, so the thresholds are lowered.
+     */
+    @Managed
+    public double getLevelThresholdScale()
+    {
+        if (!adaptiveLevelThresholds) {
+            return 1;
+        }
+        double scale = averageQuantaNanos / (double) REFERENCE_QUANTA_NANOS;
+        return Math.min(Math.max(scale, MIN_LEVEL_THRESHOLD_SCALE), MAX_LEVEL_THRESHOLD_SCALE);
+    }
+
+    private double getLevelCpuShare(int level)
+    {
+        double total = 0;
+        for (CounterStat cpuTime : levelCpuTimeMicros) {
+            total += cpuTime.getOneMinute().getCount();
+        }
+        if (total == 0) {
+            return 0;
+        }
+        return levelCpuTimeMicros.get(level).getOneMinute().getCount() / total;
+    }
+
     @VisibleForTesting
     long getLevelScheduledTime(int level)
     {
@@ -374,4 +462,75 @@ public class MultilevelSplitQueue
     {
         return selectedLevelCounters.get(4);
     }
+
+    @Managed
+    @Nested
+    public TimeStat getLevel0WaitTime()
+    {
+        return levelWaitTimes.get(0);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getLevel1WaitTime()
+    {
+        return levelWaitTimes.get(1);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getLevel2WaitTime()
+    {
+        return levelWaitTimes.get(2);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getLevel3WaitTime()
+    {
+        return levelWaitTimes.get(3);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getLevel4WaitTime()
+    {
+        return levelWaitTimes.get(4);
+    }
+
+    @Managed
+    public double getLevel0CpuShare()
+    {
+        return getLevelCpuShare(0);
+    }
+
+    @Managed
+    public double getLevel1CpuShare()
+    {
+        return getLevelCpuShare(1);
+    }
+
+    @Managed
+    public double getLevel2CpuShare()
+    {
+        return getLevelCpuShare(2);
+    }
+
+    @Managed
+    public double getLevel3CpuShare()
+    {
+        return getLevelCpuShare(3);
+    }
+
+    @Managed
+    public double getLevel4CpuShare()
+    {
+        return getLevelCpuShare(4);
+    }
+
+    @Managed
+    public long getAverageQuantaNanos()
+    {
+        return averageQuantaNanos;
+    }
 }
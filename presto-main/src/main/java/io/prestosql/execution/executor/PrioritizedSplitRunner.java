@@ -152,6 +152,7 @@ public class PrioritizedSplitRunner
     public ListenableFuture<?> process()
     {
         try {
+            int level = priority.get().getLevel();
             long startNanos = ticker.read();
             start.compareAndSet(0, startNanos);
             lastReady.compareAndSet(0, startNanos);
@@ -178,6 +179,7 @@ public class PrioritizedSplitRunner
 
             long quantaCpuNanos = elapsed.getCpu().roundTo(NANOSECONDS);
             cpuTimeNanos.addAndGet(quantaCpuNanos);
+            taskHandle.addLevelCpuTime(level, quantaCpuNanos);
 
             globalCpuTimeMicros.update(quantaCpuNanos / 1000);
             globalScheduledTimeMicros.update(quantaScheduledNanos / 1000);
@@ -195,6 +197,14 @@ public class PrioritizedSplitRunner
         lastReady.set(ticker.read());
     }
 
+    /**
+     * Returns the time since this split was last made ready to run.
+     */
+    public long getReadyNanos()
+    {
+        return ticker.read() - lastReady.get();
+    }
+
     /**
      * Updates the (potentially stale) priority value cached in this object.
      * This should be called when this object is outside the queue.
@@ -65,7 +65,6 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.concurrent.Threads.threadsNamed;
-import static io.prestosql.execution.executor.MultilevelSplitQueue.computeLevel;
 import static io.prestosql.util.MoreMath.min;
 import static io.prestosql.version.EmbedVersion.testingVersionEmbedder;
 import static java.lang.String.format;
@@ -300,7 +299,7 @@ public class TaskExecutor
 
         // record completed stats
         long threadUsageNanos = taskHandle.getScheduledNanos();
-        completedTasksPerLevel.incrementAndGet(computeLevel(threadUsageNanos));
+        completedTasksPerLevel.incrementAndGet(waitingSplits.computeLevel(threadUsageNanos));
 
         log.debug("Task finished or failed " + taskHandle.getTaskId());
     }
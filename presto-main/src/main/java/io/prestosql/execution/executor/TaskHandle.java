@@ -87,6 +87,11 @@ public class TaskHandle
         return newPriority;
     }
 
+    public void addLevelCpuTime(int level, long cpuNanos)
+    {
+        splitQueue.addLevelCpuTime(level, cpuNanos);
+    }
+
     public synchronized Priority resetLevelPriority()
     {
         long levelMinPriority = splitQueue.getLevelMinPriority(priority.get().getLevel(), scheduledNanos);
@@ -31,6 +31,7 @@ import java.util.function.Supplier;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.execution.QueryState.RUNNING;
+import static io.prestosql.operator.LookupSourceCache.CACHE_QUERY_ID;
 import static java.util.Objects.requireNonNull;
 import static org.joda.time.DateTime.now;
 import static org.joda.time.Seconds.secondsBetween;
@@ -61,6 +62,8 @@ public class ClusterMemoryLeakDetector
         Map<QueryId, Long> leakedQueryReservations = queryMemoryReservations.entrySet()
                 .stream()
                 .filter(entry -> entry.getValue() > 0)
+                // the lookup source cache outlives the queries which populate it
+                .filter(entry -> !entry.getKey().equals(CACHE_QUERY_ID))
                 .filter(entry -> isLeaked(queryIdToInfo, entry.getKey()))
                 .collect(toImmutableMap(Entry::getKey, Entry::getValue));
 
@@ -22,33 +22,52 @@ import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.Type;
-import io.prestosql.type.BigintOperators;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.prestosql.spi.type.AbstractLongType.hash;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.type.TypeUtils.NULL_HASH_CODE;
 import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
 import static it.unimi.dsi.fastutil.HashCommon.arraySize;
 import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A {@link GroupByHash} for a single key of an integral type, whose values are all handled as longs.
+ * <p>
+ * For keys narrower than bigint, the group ids are looked up directly in an array indexed by the value
+ * while the distinct values span a small range, such as the dates of a few years or the values of a
+ * tinyint or smallint. Once the values span more than {@link #MAX_DIRECT_RANGE}, the hash table is built
+ * and used instead. Bigint keys are mostly identifiers spread over a large range, so they always use
+ * the hash table.
+ */
 public class BigintGroupByHash
         implements GroupByHash
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(BigintGroupByHash.class).instanceSize();
 
     private static final float FILL_RATIO = 0.75f;
-    private static final List<Type> TYPES = ImmutableList.of(BIGINT);
-    private static final List<Type> TYPES_WITH_RAW_HASH = ImmutableList.of(BIGINT, BIGINT);
+    private static final int MIN_DIRECT_RANGE = 1024;
+    @VisibleForTesting
+    static final int MAX_DIRECT_RANGE = 1 << 16;
 
+    private final Type type;
+    private final List<Type> types;
     private final int hashChannel;
     private final boolean outputRawHash;
 
@@ -56,7 +75,13 @@ public class BigintGroupByHash
     private int maxFill;
     private int mask;
 
-    // the hash table from values to groupIds
+    // the group ids of the values from directBase, until the values span too large a range
+    private int[] directGroupIds;
+    private long directBase;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue = Long.MIN_VALUE;
+
+    // the hash table from values to groupIds, built once the values do not fit directGroupIds
     private LongBigArray values;
     private IntBigArray groupIds;
 
@@ -77,9 +102,17 @@ public class BigintGroupByHash
 
     public BigintGroupByHash(int hashChannel, boolean outputRawHash, int expectedSize, UpdateMemory updateMemory)
     {
+        this(BIGINT, hashChannel, outputRawHash, expectedSize, updateMemory);
+    }
+
+    public BigintGroupByHash(Type type, int hashChannel, boolean outputRawHash, int expectedSize, UpdateMemory updateMemory)
+    {
+        checkArgument(isSupportedType(type), "unsupported type: %s", type);
         checkArgument(hashChannel >= 0, "hashChannel must be at least zero");
         checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
 
+        this.type = type;
+        this.types = outputRawHash ? ImmutableList.of(type, BIGINT) : ImmutableList.of(type);
         this.hashChannel = hashChannel;
         this.outputRawHash = outputRawHash;
 
@@ -87,25 +120,34 @@ public class BigintGroupByHash
 
         maxFill = calculateMaxFill(hashCapacity);
         mask = hashCapacity - 1;
-        values = new LongBigArray();
-        values.ensureCapacity(hashCapacity);
-        groupIds = new IntBigArray(-1);
-        groupIds.ensureCapacity(hashCapacity);
 
         valuesByGroupId = new LongBigArray();
         valuesByGroupId.ensureCapacity(hashCapacity);
 
+        if (type.equals(BIGINT)) {
+            buildHashTable();
+        }
+
         // This interface is used for actively reserving memory (push model) for rehash.
         // The caller can also query memory usage on this object (pull model)
         this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
     }
 
+    /**
+     * Integral types, which are all hashed the same as their values as bigints.
+     */
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE);
+    }
+
     @Override
     public long getEstimatedSize()
     {
         return INSTANCE_SIZE +
-                groupIds.sizeOf() +
-                values.sizeOf() +
+                (directGroupIds == null ? 0 : sizeOf(directGroupIds)) +
+                (groupIds == null ? 0 : groupIds.sizeOf()) +
+                (values == null ? 0 : values.sizeOf()) +
                 valuesByGroupId.sizeOf() +
                 preallocatedMemoryInBytes;
     }
@@ -125,7 +167,7 @@ public class BigintGroupByHash
     @Override
     public List<Type> getTypes()
     {
-        return outputRawHash ? TYPES_WITH_RAW_HASH : TYPES;
+        return types;
     }
 
     @Override
@@ -143,7 +185,7 @@ public class BigintGroupByHash
             blockBuilder.appendNull();
         }
         else {
-            BIGINT.writeLong(blockBuilder, valuesByGroupId.get(groupId));
+            type.writeLong(blockBuilder, valuesByGroupId.get(groupId));
         }
 
         if (outputRawHash) {
@@ -152,7 +194,7 @@ public class BigintGroupByHash
                 BIGINT.writeLong(hashBlockBuilder, NULL_HASH_CODE);
             }
             else {
-                BIGINT.writeLong(hashBlockBuilder, BigintOperators.hashCode(valuesByGroupId.get(groupId)));
+                BIGINT.writeLong(hashBlockBuilder, hash(valuesByGroupId.get(groupId)));
             }
         }
     }
@@ -179,7 +221,11 @@ public class BigintGroupByHash
             return nullGroupId >= 0;
         }
 
-        long value = BIGINT.getLong(block, position);
+        long value = type.getLong(block, position);
+        if (values == null) {
+            long index = value - directBase;
+            return directGroupIds != null && index >= 0 && index < directGroupIds.length && directGroupIds[(int) index] != -1;
+        }
         long hashPosition = getHashPosition(value, mask);
 
         // look for an empty slot or a slot containing this key
@@ -200,7 +246,7 @@ public class BigintGroupByHash
     @Override
     public long getRawHash(int groupId)
     {
-        return BigintType.hash(valuesByGroupId.get(groupId));
+        return hash(valuesByGroupId.get(groupId));
     }
 
     @VisibleForTesting
@@ -221,7 +267,20 @@ public class BigintGroupByHash
             return nullGroupId;
         }
 
-        long value = BIGINT.getLong(block, position);
+        long value = type.getLong(block, position);
+        if (values == null) {
+            long index = value - directBase;
+            if (directGroupIds != null && index >= 0 && index < directGroupIds.length) {
+                int groupId = directGroupIds[(int) index];
+                if (groupId != -1) {
+                    return groupId;
+                }
+                return addNewDirectGroup(index, value);
+            }
+            if (growDirectGroupIds(value)) {
+                return addNewDirectGroup(value - directBase, value);
+            }
+        }
         long hashPosition = getHashPosition(value, mask);
 
         // look for an empty slot or a slot containing this key
@@ -243,6 +302,83 @@ public class BigintGroupByHash
         return addNewGroup(hashPosition, value);
     }
 
+    private int addNewDirectGroup(long index, long value)
+    {
+        int groupId = nextGroupId++;
+
+        directGroupIds[(int) index] = groupId;
+        valuesByGroupId.set(groupId, value);
+        minValue = min(minValue, value);
+        maxValue = max(maxValue, value);
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    /**
+     * Makes directGroupIds cover the value, or builds the hash table when the values would span too large a range.
+     */
+    private boolean growDirectGroupIds(long value)
+    {
+        long newMinValue = min(minValue, value);
+        long newMaxValue = max(maxValue, value);
+        // the difference overflows when the values span more than half of the long range
+        long span = newMaxValue - newMinValue + 1;
+        if (span <= 0 || span > MAX_DIRECT_RANGE) {
+            buildHashTable();
+            return false;
+        }
+
+        // leave room on both sides of the values seen so far
+        int newLength = toIntExact(min(MAX_DIRECT_RANGE, max(MIN_DIRECT_RANGE, Long.highestOneBit(span) * 4)));
+        long newBase = newMinValue - (newLength - span) / 2;
+        int[] newGroupIds = new int[newLength];
+        Arrays.fill(newGroupIds, -1);
+        if (directGroupIds != null) {
+            for (int index = 0; index < directGroupIds.length; index++) {
+                if (directGroupIds[index] != -1) {
+                    newGroupIds[toIntExact(directBase + index - newBase)] = directGroupIds[index];
+                }
+            }
+        }
+        directGroupIds = newGroupIds;
+        directBase = newBase;
+        return true;
+    }
+
+    private void buildHashTable()
+    {
+        values = new LongBigArray();
+        values.ensureCapacity(hashCapacity);
+        groupIds = new IntBigArray(-1);
+        groupIds.ensureCapacity(hashCapacity);
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            if (groupId != nullGroupId) {
+                insertGroup(values, groupIds, mask, groupId);
+            }
+        }
+        directGroupIds = null;
+    }
+
+    private void insertGroup(LongBigArray values, IntBigArray groupIds, int mask, int groupId)
+    {
+        long value = valuesByGroupId.get(groupId);
+
+        // find an empty slot for the address
+        long hashPosition = getHashPosition(value, mask);
+        while (groupIds.get(hashPosition) != -1) {
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+
+        // record the mapping
+        values.set(hashPosition, value);
+        groupIds.set(hashPosition, groupId);
+    }
+
     private int addNewGroup(long hashPosition, long value)
     {
         // record group id in hash
@@ -268,8 +404,10 @@ public class BigintGroupByHash
         int newCapacity = toIntExact(newCapacityLong);
 
         // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
-        // This includes the new capacity for values, groupIds, and valuesByGroupId as well as the size of the current page
-        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Long.BYTES + Integer.BYTES) + (calculateMaxFill(newCapacity) - maxFill) * Long.BYTES + currentPageSizeInBytes;
+        // This includes the new capacity for values, groupIds, and valuesByGroupId as well as the size of the current page.
+        // While the group ids are looked up directly, only valuesByGroupId grows.
+        long hashTableBytes = values == null ? 0 : (newCapacity - hashCapacity) * (long) (Long.BYTES + Integer.BYTES);
+        preallocatedMemoryInBytes = hashTableBytes + (calculateMaxFill(newCapacity) - maxFill) * Long.BYTES + currentPageSizeInBytes;
         if (!updateMemory.update()) {
             // reserved memory but has exceeded the limit
             return false;
@@ -279,34 +417,24 @@ public class BigintGroupByHash
         expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
 
         int newMask = newCapacity - 1;
-        LongBigArray newValues = new LongBigArray();
-        newValues.ensureCapacity(newCapacity);
-        IntBigArray newGroupIds = new IntBigArray(-1);
-        newGroupIds.ensureCapacity(newCapacity);
-
-        for (int groupId = 0; groupId < nextGroupId; groupId++) {
-            if (groupId == nullGroupId) {
-                continue;
-            }
-            long value = valuesByGroupId.get(groupId);
-
-            // find an empty slot for the address
-            long hashPosition = getHashPosition(value, newMask);
-            while (newGroupIds.get(hashPosition) != -1) {
-                hashPosition = (hashPosition + 1) & newMask;
-                hashCollisions++;
+        if (values != null) {
+            LongBigArray newValues = new LongBigArray();
+            newValues.ensureCapacity(newCapacity);
+            IntBigArray newGroupIds = new IntBigArray(-1);
+            newGroupIds.ensureCapacity(newCapacity);
+
+            for (int groupId = 0; groupId < nextGroupId; groupId++) {
+                if (groupId != nullGroupId) {
+                    insertGroup(newValues, newGroupIds, newMask, groupId);
+                }
             }
-
-            // record the mapping
-            newValues.set(hashPosition, value);
-            newGroupIds.set(hashPosition, groupId);
+            values = newValues;
+            groupIds = newGroupIds;
         }
 
         mask = newMask;
         hashCapacity = newCapacity;
         maxFill = calculateMaxFill(hashCapacity);
-        values = newValues;
-        groupIds = newGroupIds;
 
         this.valuesByGroupId.ensureCapacity(maxFill);
         return true;
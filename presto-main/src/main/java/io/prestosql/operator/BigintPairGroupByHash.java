@@ -0,0 +1,486 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import io.prestosql.array.ByteBigArray;
+import io.prestosql.array.IntBigArray;
+import io.prestosql.array.LongBigArray;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.Type;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.prestosql.spi.type.AbstractLongType.hash;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.type.TypeUtils.NULL_HASH_CODE;
+import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GroupByHash} for two keys of integral types, whose values are all handled as longs.
+ * The values and their null flags are kept in the hash table, so that a lookup does not leave it.
+ */
+public class BigintPairGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BigintPairGroupByHash.class).instanceSize();
+
+    private static final float FILL_RATIO = 0.75f;
+    private static final byte FIRST_NULL = 1;
+    private static final byte SECOND_NULL = 2;
+
+    private final Type firstType;
+    private final Type secondType;
+    private final List<Type> types;
+    private final int firstChannel;
+    private final int secondChannel;
+    private final boolean outputRawHash;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+
+    // the hash table from values to groupIds
+    private LongBigArray firstValues;
+    private LongBigArray secondValues;
+    private ByteBigArray nulls;
+    private IntBigArray groupIds;
+
+    // reverse index from the groupId back to the values
+    private final LongBigArray firstValuesByGroupId;
+    private final LongBigArray secondValuesByGroupId;
+    private final ByteBigArray nullsByGroupId;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+
+    public BigintPairGroupByHash(List<? extends Type> hashTypes, int[] hashChannels, boolean outputRawHash, int expectedSize, UpdateMemory updateMemory)
+    {
+        requireNonNull(hashTypes, "hashTypes is null");
+        requireNonNull(hashChannels, "hashChannels is null");
+        checkArgument(hashTypes.size() == 2 && hashChannels.length == 2, "expected two hash channels");
+        checkArgument(hashTypes.stream().allMatch(BigintGroupByHash::isSupportedType), "unsupported hash types: %s", hashTypes);
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+
+        this.firstType = hashTypes.get(0);
+        this.secondType = hashTypes.get(1);
+        this.types = outputRawHash ? ImmutableList.of(firstType, secondType, BIGINT) : ImmutableList.of(firstType, secondType);
+        this.firstChannel = hashChannels[0];
+        this.secondChannel = hashChannels[1];
+        this.outputRawHash = outputRawHash;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        firstValues = new LongBigArray();
+        firstValues.ensureCapacity(hashCapacity);
+        secondValues = new LongBigArray();
+        secondValues.ensureCapacity(hashCapacity);
+        nulls = new ByteBigArray();
+        nulls.ensureCapacity(hashCapacity);
+        groupIds = new IntBigArray(-1);
+        groupIds.ensureCapacity(hashCapacity);
+
+        firstValuesByGroupId = new LongBigArray();
+        firstValuesByGroupId.ensureCapacity(hashCapacity);
+        secondValuesByGroupId = new LongBigArray();
+        secondValuesByGroupId.ensureCapacity(hashCapacity);
+        nullsByGroupId = new ByteBigArray();
+        nullsByGroupId.ensureCapacity(hashCapacity);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                groupIds.sizeOf() +
+                firstValues.sizeOf() +
+                secondValues.sizeOf() +
+                nulls.sizeOf() +
+                firstValuesByGroupId.sizeOf() +
+                secondValuesByGroupId.sizeOf() +
+                nullsByGroupId.sizeOf() +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        checkArgument(groupId >= 0, "groupId is negative");
+        byte nullFlags = nullsByGroupId.get(groupId);
+        BlockBuilder firstBlockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset);
+        if ((nullFlags & FIRST_NULL) != 0) {
+            firstBlockBuilder.appendNull();
+        }
+        else {
+            firstType.writeLong(firstBlockBuilder, firstValuesByGroupId.get(groupId));
+        }
+        BlockBuilder secondBlockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + 1);
+        if ((nullFlags & SECOND_NULL) != 0) {
+            secondBlockBuilder.appendNull();
+        }
+        else {
+            secondType.writeLong(secondBlockBuilder, secondValuesByGroupId.get(groupId));
+        }
+
+        if (outputRawHash) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + 2), getRawHash(groupId));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        return new AddPageWork(page.getBlock(firstChannel), page.getBlock(secondChannel));
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        return new GetGroupIdsWork(page.getBlock(firstChannel), page.getBlock(secondChannel));
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        Block firstBlock = page.getBlock(hashChannels[0]);
+        Block secondBlock = page.getBlock(hashChannels[1]);
+        byte nullFlags = getNullFlags(firstBlock, secondBlock, position);
+        long firstValue = (nullFlags & FIRST_NULL) != 0 ? 0 : firstType.getLong(firstBlock, position);
+        long secondValue = (nullFlags & SECOND_NULL) != 0 ? 0 : secondType.getLong(secondBlock, position);
+
+        return groupIds.get(findPosition(firstValue, secondValue, nullFlags, false)) != -1;
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        byte nullFlags = nullsByGroupId.get(groupId);
+        return rawHash(firstValuesByGroupId.get(groupId), secondValuesByGroupId.get(groupId), nullFlags);
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private int putIfAbsent(int position, Block firstBlock, Block secondBlock)
+    {
+        byte nullFlags = getNullFlags(firstBlock, secondBlock, position);
+        long firstValue = (nullFlags & FIRST_NULL) != 0 ? 0 : firstType.getLong(firstBlock, position);
+        long secondValue = (nullFlags & SECOND_NULL) != 0 ? 0 : secondType.getLong(secondBlock, position);
+
+        long hashPosition = findPosition(firstValue, secondValue, nullFlags, true);
+        int groupId = groupIds.get(hashPosition);
+        if (groupId != -1) {
+            return groupId;
+        }
+        return addNewGroup(hashPosition, firstValue, secondValue, nullFlags);
+    }
+
+    /**
+     * Returns the position of the slot containing the values, or of the empty slot where they would be added.
+     */
+    private long findPosition(long firstValue, long secondValue, byte nullFlags, boolean countCollisions)
+    {
+        long hashPosition = getHashPosition(rawHash(firstValue, secondValue, nullFlags), mask);
+
+        // look for an empty slot or a slot containing this key
+        while (groupIds.get(hashPosition) != -1) {
+            if (firstValue == firstValues.get(hashPosition) && secondValue == secondValues.get(hashPosition) && nullFlags == nulls.get(hashPosition)) {
+                return hashPosition;
+            }
+
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            if (countCollisions) {
+                hashCollisions++;
+            }
+        }
+        return hashPosition;
+    }
+
+    private int addNewGroup(long hashPosition, long firstValue, long secondValue, byte nullFlags)
+    {
+        // record group id in hash
+        int groupId = nextGroupId++;
+
+        firstValues.set(hashPosition, firstValue);
+        secondValues.set(hashPosition, secondValue);
+        nulls.set(hashPosition, nullFlags);
+        groupIds.set(hashPosition, groupId);
+        firstValuesByGroupId.set(groupId, firstValue);
+        secondValuesByGroupId.set(groupId, secondValue);
+        nullsByGroupId.set(groupId, nullFlags);
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new PrestoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for the values, nulls, groupIds, and the values by groupId as well as the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Long.BYTES * 2 + Byte.BYTES + Integer.BYTES) +
+                (calculateMaxFill(newCapacity) - maxFill) * (long) (Long.BYTES * 2 + Byte.BYTES) +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        LongBigArray newFirstValues = new LongBigArray();
+        newFirstValues.ensureCapacity(newCapacity);
+        LongBigArray newSecondValues = new LongBigArray();
+        newSecondValues.ensureCapacity(newCapacity);
+        ByteBigArray newNulls = new ByteBigArray();
+        newNulls.ensureCapacity(newCapacity);
+        IntBigArray newGroupIds = new IntBigArray(-1);
+        newGroupIds.ensureCapacity(newCapacity);
+
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long firstValue = firstValuesByGroupId.get(groupId);
+            long secondValue = secondValuesByGroupId.get(groupId);
+            byte nullFlags = nullsByGroupId.get(groupId);
+
+            // find an empty slot for the values
+            long hashPosition = getHashPosition(rawHash(firstValue, secondValue, nullFlags), newMask);
+            while (newGroupIds.get(hashPosition) != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+
+            // record the mapping
+            newFirstValues.set(hashPosition, firstValue);
+            newSecondValues.set(hashPosition, secondValue);
+            newNulls.set(hashPosition, nullFlags);
+            newGroupIds.set(hashPosition, groupId);
+        }
+
+        mask = newMask;
+        hashCapacity = newCapacity;
+        maxFill = calculateMaxFill(hashCapacity);
+        firstValues = newFirstValues;
+        secondValues = newSecondValues;
+        nulls = newNulls;
+        groupIds = newGroupIds;
+
+        firstValuesByGroupId.ensureCapacity(maxFill);
+        secondValuesByGroupId.ensureCapacity(maxFill);
+        nullsByGroupId.ensureCapacity(maxFill);
+        return true;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private static byte getNullFlags(Block firstBlock, Block secondBlock, int position)
+    {
+        byte nullFlags = 0;
+        if (firstBlock.isNull(position)) {
+            nullFlags |= FIRST_NULL;
+        }
+        if (secondBlock.isNull(position)) {
+            nullFlags |= SECOND_NULL;
+        }
+        return nullFlags;
+    }
+
+    /**
+     * The same hash as {@link InterpretedHashGenerator} computes for the two keys.
+     */
+    private static long rawHash(long firstValue, long secondValue, byte nullFlags)
+    {
+        long firstHash = (nullFlags & FIRST_NULL) != 0 ? NULL_HASH_CODE : hash(firstValue);
+        long secondHash = (nullFlags & SECOND_NULL) != 0 ? NULL_HASH_CODE : hash(secondValue);
+        return 31 * firstHash + secondHash;
+    }
+
+    private static long getHashPosition(long rawHash, int mask)
+    {
+        return murmurHash3(rawHash) & mask;
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    private class AddPageWork
+            implements Work<Void>
+    {
+        private final Block firstBlock;
+        private final Block secondBlock;
+
+        private int lastPosition;
+
+        public AddPageWork(Block firstBlock, Block secondBlock)
+        {
+            this.firstBlock = requireNonNull(firstBlock, "firstBlock is null");
+            this.secondBlock = requireNonNull(secondBlock, "secondBlock is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = firstBlock.getPositionCount();
+            checkState(lastPosition < positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // get the group for the current row
+                putIfAbsent(lastPosition, firstBlock, secondBlock);
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final BlockBuilder blockBuilder;
+        private final Block firstBlock;
+        private final Block secondBlock;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetGroupIdsWork(Block firstBlock, Block secondBlock)
+        {
+            this.firstBlock = requireNonNull(firstBlock, "firstBlock is null");
+            this.secondBlock = requireNonNull(secondBlock, "secondBlock is null");
+            // we know the exact size required for the block
+            this.blockBuilder = BIGINT.createFixedSizeBlockBuilder(firstBlock.getPositionCount());
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = firstBlock.getPositionCount();
+            checkState(lastPosition < positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                BIGINT.writeLong(blockBuilder, putIfAbsent(lastPosition, firstBlock, secondBlock));
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == firstBlock.getPositionCount(), "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, blockBuilder.build());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Drops the positions of table scan pages which are rejected by any of the dynamic filter bloom filters.
+ * Only the filtered channels are loaded, the remaining (possibly lazy) blocks are wrapped with the retained positions.
+ */
+final class DynamicBloomFilterPageFilter
+{
+    private final int[] channels;
+    private final BlockedBloomFilter[] bloomFilters;
+
+    private DynamicBloomFilterPageFilter(int[] channels, BlockedBloomFilter[] bloomFilters)
+    {
+        this.channels = requireNonNull(channels, "channels is null");
+        this.bloomFilters = requireNonNull(bloomFilters, "bloomFilters is null");
+    }
+
+    public static Optional<DynamicBloomFilterPageFilter> create(List<ColumnHandle> columns, Map<ColumnHandle, BlockedBloomFilter> bloomFilters)
+    {
+        ImmutableList.Builder<Integer> channels = ImmutableList.builder();
+        ImmutableList.Builder<BlockedBloomFilter> channelBloomFilters = ImmutableList.builder();
+        for (int channel = 0; channel < columns.size(); channel++) {
+            BlockedBloomFilter bloomFilter = bloomFilters.get(columns.get(channel));
+            if (bloomFilter != null) {
+                channels.add(channel);
+                channelBloomFilters.add(bloomFilter);
+            }
+        }
+        List<Integer> filteredChannels = channels.build();
+        if (filteredChannels.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new DynamicBloomFilterPageFilter(
+                filteredChannels.stream().mapToInt(Integer::intValue).toArray(),
+                channelBloomFilters.build().toArray(new BlockedBloomFilter[0])));
+    }
+
+    public Page filter(Page page)
+    {
+        int[] positions = new int[page.getPositionCount()];
+        int positionCount = page.getPositionCount();
+        for (int position = 0; position < positionCount; position++) {
+            positions[position] = position;
+        }
+
+        // every filter only needs to examine the positions retained by the previous ones
+        for (int i = 0; i < channels.length && positionCount > 0; i++) {
+            Block block = page.getBlock(channels[i]).getLoadedBlock();
+            BlockedBloomFilter bloomFilter = bloomFilters[i];
+            int retainedCount = 0;
+            for (int index = 0; index < positionCount; index++) {
+                int position = positions[index];
+                if (bloomFilter.mightContain(block, position)) {
+                    positions[retainedCount] = position;
+                    retainedCount++;
+                }
+            }
+            positionCount = retainedCount;
+        }
+
+        if (positionCount == page.getPositionCount()) {
+            return page;
+        }
+        return page.getPositions(positions, 0, positionCount);
+    }
+}
@@ -16,10 +16,12 @@ package io.prestosql.operator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.aggregation.TypedSet;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.predicate.ValueSet;
@@ -31,6 +33,7 @@ import io.prestosql.sql.planner.plan.PlanNodeId;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -44,6 +47,11 @@ import static java.util.stream.Collectors.toSet;
  * This operator acts as a simple "pass-through" pipe, while saving its input pages.
  * The collected pages' value are used for creating a run-time filtering constraint (for probe-side table scan in an inner join).
  * We support only small build-side pages (which should be the case when using "broadcast" join).
+ * <p>
+ * When bloom filters are enabled and the collected values exceed the limits of the exact predicate, the operator
+ * hashes the values collected so far and all the following build-side values into a {@link BlockedBloomFilter}
+ * per channel instead. The bloom filters are reported (before the predicate) when the operator finishes, so that
+ * the probe side can still be filtered.
  */
 public class DynamicFilterSourceOperator
         implements Operator
@@ -70,9 +78,11 @@ public class DynamicFilterSourceOperator
         private final int operatorId;
         private final PlanNodeId planNodeId;
         private final Consumer<TupleDomain<DynamicFilterId>> dynamicPredicateConsumer;
+        private final Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer;
         private final List<Channel> channels;
         private final int maxFilterPositionsCount;
         private final DataSize maxFilterSize;
+        private final Optional<DataSize> bloomFilterSize;
 
         private boolean closed;
 
@@ -83,10 +93,24 @@ public class DynamicFilterSourceOperator
                 List<Channel> channels,
                 int maxFilterPositionsCount,
                 DataSize maxFilterSize)
+        {
+            this(operatorId, planNodeId, dynamicPredicateConsumer, bloomFilters -> {}, channels, maxFilterPositionsCount, maxFilterSize, Optional.empty());
+        }
+
+        public DynamicFilterSourceOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                Consumer<TupleDomain<DynamicFilterId>> dynamicPredicateConsumer,
+                Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer,
+                List<Channel> channels,
+                int maxFilterPositionsCount,
+                DataSize maxFilterSize,
+                Optional<DataSize> bloomFilterSize)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
             this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
+            this.bloomFilterConsumer = requireNonNull(bloomFilterConsumer, "bloomFilterConsumer is null");
             this.channels = requireNonNull(channels, "channels is null");
             verify(channels.stream().map(channel -> channel.filterId).collect(toSet()).size() == channels.size(),
                     "duplicate dynamic filters are not allowed");
@@ -94,6 +118,7 @@ public class DynamicFilterSourceOperator
                     "duplicate channel indices are not allowed");
             this.maxFilterPositionsCount = maxFilterPositionsCount;
             this.maxFilterSize = maxFilterSize;
+            this.bloomFilterSize = requireNonNull(bloomFilterSize, "bloomFilterSize is null");
         }
 
         @Override
@@ -103,10 +128,12 @@ public class DynamicFilterSourceOperator
             return new DynamicFilterSourceOperator(
                     driverContext.addOperatorContext(operatorId, planNodeId, DynamicFilterSourceOperator.class.getSimpleName()),
                     dynamicPredicateConsumer,
+                    bloomFilterConsumer,
                     channels,
                     planNodeId,
                     maxFilterPositionsCount,
-                    maxFilterSize);
+                    maxFilterSize,
+                    bloomFilterSize);
         }
 
         @Override
@@ -127,8 +154,10 @@ public class DynamicFilterSourceOperator
     private boolean finished;
     private Page current;
     private final Consumer<TupleDomain<DynamicFilterId>> dynamicPredicateConsumer;
+    private final Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer;
     private final int maxFilterPositionsCount;
     private final long maxFilterSizeInBytes;
+    private final Optional<DataSize> bloomFilterSize;
 
     private final List<Channel> channels;
 
@@ -138,20 +167,30 @@ public class DynamicFilterSourceOperator
     @Nullable
     private TypedSet[] valueSets;
 
+    // Present only when bloom filters are enabled and the predicate became too large, dropped when the operator finishes.
+    @Nullable
+    private BlockedBloomFilter.Builder[] bloomFilterBuilders;
+    private final LocalMemoryContext bloomFilterMemoryContext;
+
     private DynamicFilterSourceOperator(
             OperatorContext context,
             Consumer<TupleDomain<DynamicFilterId>> dynamicPredicateConsumer,
+            Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer,
             List<Channel> channels,
             PlanNodeId planNodeId,
             int maxFilterPositionsCount,
-            DataSize maxFilterSize)
+            DataSize maxFilterSize,
+            Optional<DataSize> bloomFilterSize)
     {
         this.context = requireNonNull(context, "context is null");
         this.maxFilterPositionsCount = maxFilterPositionsCount;
         this.maxFilterSizeInBytes = maxFilterSize.toBytes();
+        this.bloomFilterSize = requireNonNull(bloomFilterSize, "bloomFilterSize is null");
 
         this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
+        this.bloomFilterConsumer = requireNonNull(bloomFilterConsumer, "bloomFilterConsumer is null");
         this.channels = requireNonNull(channels, "channels is null");
+        this.bloomFilterMemoryContext = context.localUserMemoryContext();
 
         this.blockBuilders = new BlockBuilder[channels.size()];
         this.valueSets = new TypedSet[channels.size()];
@@ -185,6 +224,15 @@ public class DynamicFilterSourceOperator
     {
         verify(!finished, "DynamicFilterSourceOperator: addInput() may not be called after finish()");
         current = page;
+        if (bloomFilterBuilders != null) {
+            for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+                Block block = page.getBlock(channels.get(channelIndex).index);
+                BlockedBloomFilter.Builder bloomFilterBuilder = bloomFilterBuilders[channelIndex];
+                for (int position = 0; position < block.getPositionCount(); ++position) {
+                    bloomFilterBuilder.add(block, position);
+                }
+            }
+        }
         if (valueSets == null) {
             return;  // the predicate became too large.
         }
@@ -210,11 +258,31 @@ public class DynamicFilterSourceOperator
 
     private void handleTooLargePredicate()
     {
-        // The resulting predicate is too large, allow all probe-side values to be read.
-        dynamicPredicateConsumer.accept(TupleDomain.all());
+        if (bloomFilterSize.isPresent()) {
+            // Switch to bloom filters, starting with the distinct values collected so far (including the current page).
+            bloomFilterBuilders = new BlockedBloomFilter.Builder[channels.size()];
+            long bloomFiltersSizeInBytes = 0;
+            for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+                BlockedBloomFilter.Builder bloomFilterBuilder = BlockedBloomFilter.builder(channels.get(channelIndex).type, bloomFilterSize.get().toBytes());
+                Block values = blockBuilders[channelIndex].build();
+                for (int position = 0; position < values.getPositionCount(); ++position) {
+                    bloomFilterBuilder.add(values, position);
+                }
+                bloomFilterBuilders[channelIndex] = bloomFilterBuilder;
+                bloomFiltersSizeInBytes += bloomFilterBuilder.getRetainedSizeInBytes();
+            }
+            bloomFilterMemoryContext.setBytes(bloomFiltersSizeInBytes);
+        }
+
         // Drop references to collected values.
         valueSets = null;
         blockBuilders = null;
+        if (bloomFilterBuilders != null) {
+            // The predicate will be reported together with the bloom filters in finish().
+            return;
+        }
+        // The resulting predicate is too large, allow all probe-side values to be read.
+        dynamicPredicateConsumer.accept(TupleDomain.all());
     }
 
     @Override
@@ -233,6 +301,20 @@ public class DynamicFilterSourceOperator
             return;
         }
         finished = true;
+        if (bloomFilterBuilders != null) {
+            ImmutableMap.Builder<DynamicFilterId, BlockedBloomFilter> bloomFilters = ImmutableMap.builder();
+            for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+                bloomFilters.put(channels.get(channelIndex).filterId, bloomFilterBuilders[channelIndex].build());
+            }
+            bloomFilterBuilders = null;
+            bloomFilterMemoryContext.setBytes(0);
+            bloomFilterConsumer.accept(bloomFilters.build());
+            if (valueSets == null) {
+                // The predicate became too large, the probe side can only be filtered using the bloom filters.
+                dynamicPredicateConsumer.accept(TupleDomain.all());
+                return;
+            }
+        }
         if (valueSets == null) {
             return; // the predicate became too large.
         }
@@ -77,7 +77,7 @@ public class ExchangeOperator
             return new ExchangeOperator(
                     operatorContext,
                     sourceId,
-                    serdeFactory.createPagesSerde(),
+                    serdeFactory.createPagesSerde(driverContext.getPipelineContext().getTaskContext().getPagesSerdeStats()),
                     exchangeClient);
         }
 
@@ -0,0 +1,691 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.array.LongBigArray;
+import io.prestosql.operator.scalar.CombineHashFunction;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
+import io.prestosql.spi.type.CharType;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+import io.prestosql.spi.type.VarcharType;
+import io.prestosql.type.TypeUtils;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.operator.SyntheticAddress.decodePosition;
+import static io.prestosql.operator.SyntheticAddress.decodeSliceIndex;
+import static io.prestosql.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.sql.planner.optimizations.HashGenerationOptimizer.INITIAL_HASH_VALUE;
+import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GroupByHash} for multiple key columns which stores the groups in a flat, row oriented layout.
+ * Every group is a fixed number of consecutive longs: the raw hash, a null bitmap, and one slot per
+ * fixed width key or two slots (address and length) per variable width key, whose bytes are copied
+ * into large shared chunks. Resolving a collision compares the inline raw hash first and then the key
+ * values directly, instead of going through the blocks holding the keys.
+ * <p>
+ * Only keys whose types are equal exactly when their stored representations are equal are supported,
+ * see {@link #isSupportedType(Type)}.
+ */
+// This implementation assumes arrays used in the hash are always a power of 2
+public class FlatGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FlatGroupByHash.class).instanceSize();
+    private static final float FILL_RATIO = 0.75f;
+    private static final int VARIABLE_WIDTH_CHUNK_SIZE = 64 * 1024;
+
+    private final List<Type> types;
+    private final List<Type> hashTypes;
+    private final int[] channels;
+    private final boolean hasPrecomputedHash;
+    private final HashGenerator hashGenerator;
+
+    // row layout, in longs
+    private final int nullWordCount;
+    private final int[] valueOffsets;
+    private final boolean[] variableWidth;
+    private final int rowStride;
+
+    private final LongBigArray rows = new LongBigArray();
+    private final ObjectArrayList<Slice> variableWidthChunks = new ObjectArrayList<>();
+    private long variableWidthChunksSize;
+    private int variableWidthChunkOffset;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+    private int[] groupIdsByHash;
+    private byte[] rawHashByHashPosition;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+
+    public FlatGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            UpdateMemory updateMemory)
+    {
+        this.hashTypes = ImmutableList.copyOf(requireNonNull(hashTypes, "hashTypes is null"));
+        requireNonNull(hashChannels, "hashChannels is null");
+        requireNonNull(inputHashChannel, "inputHashChannel is null");
+        checkArgument(hashTypes.size() == hashChannels.length, "hashTypes and hashChannels have different sizes");
+        checkArgument(hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType), "unsupported hash types: %s", hashTypes);
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+
+        this.types = inputHashChannel.isPresent() ? ImmutableList.copyOf(Iterables.concat(hashTypes, ImmutableList.of(BIGINT))) : this.hashTypes;
+        this.channels = hashChannels.clone();
+        this.hasPrecomputedHash = inputHashChannel.isPresent();
+        this.hashGenerator = inputHashChannel.isPresent() ? new PrecomputedHashGenerator(inputHashChannel.get()) : new InterpretedHashGenerator(this.hashTypes, hashChannels);
+
+        this.nullWordCount = (hashChannels.length + Long.SIZE - 1) / Long.SIZE;
+        this.valueOffsets = new int[hashChannels.length];
+        this.variableWidth = new boolean[hashChannels.length];
+        int offset = 1 + nullWordCount;
+        for (int i = 0; i < hashChannels.length; i++) {
+            valueOffsets[i] = offset;
+            variableWidth[i] = isVariableWidth(this.hashTypes.get(i));
+            offset += variableWidth[i] ? 2 : 1;
+        }
+        this.rowStride = offset;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        groupIdsByHash = new int[hashCapacity];
+        Arrays.fill(groupIdsByHash, -1);
+        rawHashByHashPosition = new byte[hashCapacity];
+        rows.ensureCapacity((long) maxFill * rowStride);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(BOOLEAN) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort()) ||
+                isVariableWidth(type);
+    }
+
+    private static boolean isVariableWidth(Type type)
+    {
+        return type instanceof VarcharType || type instanceof VarbinaryType || type instanceof CharType;
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return rows.get(rowAddress(groupId));
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                rows.sizeOf() +
+                variableWidthChunksSize +
+                sizeOf(variableWidthChunks.elements()) +
+                sizeOf(groupIdsByHash) +
+                sizeOf(rawHashByHashPosition) +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        long rowAddress = rowAddress(groupId);
+        for (int i = 0; i < channels.length; i++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + i);
+            if (isNull(rowAddress, i)) {
+                blockBuilder.appendNull();
+                continue;
+            }
+
+            Type type = hashTypes.get(i);
+            long valueAddress = rowAddress + valueOffsets[i];
+            if (variableWidth[i]) {
+                long address = rows.get(valueAddress);
+                int length = (int) rows.get(valueAddress + 1);
+                type.writeSlice(blockBuilder, variableWidthChunks.get(decodeSliceIndex(address)), decodePosition(address), length);
+            }
+            else if (type.getJavaType() == boolean.class) {
+                type.writeBoolean(blockBuilder, rows.get(valueAddress) != 0);
+            }
+            else {
+                type.writeLong(blockBuilder, rows.get(valueAddress));
+            }
+        }
+        if (hasPrecomputedHash) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + channels.length), rows.get(rowAddress));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new AddRunLengthEncodedPageWork(page);
+        }
+        return new AddPageWork(page);
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new GetRunLengthEncodedGroupIdsWork(page);
+        }
+        return new GetGroupIdsWork(page);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        long rawHash = INITIAL_HASH_VALUE;
+        for (int i = 0; i < hashChannels.length; i++) {
+            rawHash = CombineHashFunction.getHash(rawHash, TypeUtils.hashPosition(hashTypes.get(i), page.getBlock(hashChannels[i]), position));
+        }
+        return contains(position, page, hashChannels, rawHash);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        int hashPosition = getHashPosition(rawHash, mask);
+
+        // look for a slot containing this key
+        int groupId;
+        while ((groupId = groupIdsByHash[hashPosition]) != -1) {
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowNotDistinctFromPosition(groupId, rawHash, position, page, hashChannels)) {
+                // found an existing slot for this key
+                return true;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+        }
+        return false;
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private int putIfAbsent(int position, Page page)
+    {
+        long rawHash = hashGenerator.hashPosition(position, page);
+        int hashPosition = getHashPosition(rawHash, mask);
+
+        // look for an empty slot or a slot containing this key
+        int groupId;
+        while ((groupId = groupIdsByHash[hashPosition]) != -1) {
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowNotDistinctFromPosition(groupId, rawHash, position, page, channels)) {
+                // found an existing slot for this key
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+        return addNewGroup(hashPosition, position, page, rawHash);
+    }
+
+    private int addNewGroup(int hashPosition, int position, Page page, long rawHash)
+    {
+        int groupId = nextGroupId++;
+        long rowAddress = rowAddress(groupId);
+        rows.set(rowAddress, rawHash);
+        for (int word = 0; word < nullWordCount; word++) {
+            rows.set(rowAddress + 1 + word, 0);
+        }
+
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            long valueAddress = rowAddress + valueOffsets[i];
+            if (block.isNull(position)) {
+                long nullWordAddress = rowAddress + 1 + (i / Long.SIZE);
+                rows.set(nullWordAddress, rows.get(nullWordAddress) | (1L << (i % Long.SIZE)));
+                rows.set(valueAddress, 0);
+                if (variableWidth[i]) {
+                    rows.set(valueAddress + 1, 0);
+                }
+            }
+            else if (variableWidth[i]) {
+                int length = block.getSliceLength(position);
+                rows.set(valueAddress, appendVariableWidthValue(block, position, length));
+                rows.set(valueAddress + 1, length);
+            }
+            else {
+                rows.set(valueAddress, getFixedWidthValue(i, block, position));
+            }
+        }
+
+        // record group id in hash
+        groupIdsByHash[hashPosition] = groupId;
+        rawHashByHashPosition[hashPosition] = (byte) rawHash;
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    private long appendVariableWidthValue(Block block, int position, int length)
+    {
+        if (variableWidthChunks.isEmpty() || variableWidthChunkOffset + length > variableWidthChunks.get(variableWidthChunks.size() - 1).length()) {
+            // values larger than a chunk get a chunk of their own
+            Slice chunk = Slices.allocate(max(VARIABLE_WIDTH_CHUNK_SIZE, length));
+            variableWidthChunks.add(chunk);
+            variableWidthChunksSize += chunk.getRetainedSize();
+            variableWidthChunkOffset = 0;
+        }
+        int chunkIndex = variableWidthChunks.size() - 1;
+        if (length > 0) {
+            variableWidthChunks.get(chunkIndex).setBytes(variableWidthChunkOffset, block.getSlice(position, 0, length));
+        }
+        long address = encodeSyntheticAddress(chunkIndex, variableWidthChunkOffset);
+        variableWidthChunkOffset += length;
+        return address;
+    }
+
+    private long getFixedWidthValue(int keyIndex, Block block, int position)
+    {
+        Type type = hashTypes.get(keyIndex);
+        if (type.getJavaType() == boolean.class) {
+            return type.getBoolean(block, position) ? 1 : 0;
+        }
+        return type.getLong(block, position);
+    }
+
+    private boolean rowNotDistinctFromPosition(int groupId, long rawHash, int position, Page page, int[] hashChannels)
+    {
+        long rowAddress = rowAddress(groupId);
+        if (rows.get(rowAddress) != rawHash) {
+            return false;
+        }
+
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            boolean rowNull = isNull(rowAddress, i);
+            if (block.isNull(position)) {
+                if (!rowNull) {
+                    return false;
+                }
+                continue;
+            }
+            if (rowNull) {
+                return false;
+            }
+
+            long valueAddress = rowAddress + valueOffsets[i];
+            if (variableWidth[i]) {
+                int length = (int) rows.get(valueAddress + 1);
+                if (block.getSliceLength(position) != length) {
+                    return false;
+                }
+                long address = rows.get(valueAddress);
+                if (!block.bytesEqual(position, 0, variableWidthChunks.get(decodeSliceIndex(address)), decodePosition(address), length)) {
+                    return false;
+                }
+            }
+            else if (rows.get(valueAddress) != getFixedWidthValue(i, block, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNull(long rowAddress, int keyIndex)
+    {
+        return (rows.get(rowAddress + 1 + (keyIndex / Long.SIZE)) & (1L << (keyIndex % Long.SIZE))) != 0;
+    }
+
+    private long rowAddress(int groupId)
+    {
+        return (long) groupId * rowStride;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new PrestoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for groupIdsByHash, rawHashByHashPosition and the rows as well as the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Integer.BYTES + Byte.BYTES) +
+                (calculateMaxFill(newCapacity) - maxFill) * (long) rowStride * Long.BYTES +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        int[] newGroupIds = new int[newCapacity];
+        Arrays.fill(newGroupIds, -1);
+        byte[] newRawHashes = new byte[newCapacity];
+
+        // the raw hashes are stored in the rows, so the keys do not need to be hashed again
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = rows.get(rowAddress(groupId));
+            int hashPosition = getHashPosition(rawHash, newMask);
+            while (newGroupIds[hashPosition] != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+            newGroupIds[hashPosition] = groupId;
+            newRawHashes[hashPosition] = (byte) rawHash;
+        }
+
+        this.mask = newMask;
+        this.hashCapacity = newCapacity;
+        this.maxFill = calculateMaxFill(newCapacity);
+        this.groupIdsByHash = newGroupIds;
+        this.rawHashByHashPosition = newRawHashes;
+        rows.ensureCapacity((long) maxFill * rowStride);
+        return true;
+    }
+
+    private static int getHashPosition(long rawHash, int mask)
+    {
+        return (int) (murmurHash3(rawHash) & mask);
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    private boolean isRunLengthEncoded(Page page)
+    {
+        for (int i = 0; i < channels.length; i++) {
+            if (!(page.getBlock(channels[i]) instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class AddPageWork
+            implements Work<Void>
+    {
+        private final Page page;
+
+        private int lastPosition;
+
+        public AddPageWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = page.getPositionCount();
+            checkState(lastPosition < positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                putIfAbsent(lastPosition, page);
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class AddRunLengthEncodedPageWork
+            implements Work<Void>
+    {
+        private final Page page;
+
+        private boolean finished;
+
+        public AddRunLengthEncodedPageWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!finished);
+            if (page.getPositionCount() == 0) {
+                finished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // Only needs to process the first row since it is Run Length Encoded
+            putIfAbsent(0, page);
+            finished = true;
+            return true;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final BlockBuilder blockBuilder;
+        private final Page page;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+            // we know the exact size required for the block
+            this.blockBuilder = BIGINT.createFixedSizeBlockBuilder(page.getPositionCount());
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = page.getPositionCount();
+            checkState(lastPosition <= positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                BIGINT.writeLong(blockBuilder, putIfAbsent(lastPosition, page));
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == page.getPositionCount(), "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, blockBuilder.build());
+        }
+    }
+
+    private class GetRunLengthEncodedGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final Page page;
+
+        int groupId = -1;
+        private boolean processFinished;
+        private boolean resultProduced;
+
+        public GetRunLengthEncodedGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!processFinished);
+            if (page.getPositionCount() == 0) {
+                processFinished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // Only needs to process the first row since it is Run Length Encoded
+            groupId = putIfAbsent(0, page);
+            processFinished = true;
+            return true;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(processFinished);
+            checkState(!resultProduced);
+            resultProduced = true;
+
+            return new GroupByIdBlock(
+                    nextGroupId,
+                    new RunLengthEncodedBlock(
+                            BIGINT.createFixedSizeBlockBuilder(1).writeLong(groupId).build(),
+                            page.getPositionCount()));
+        }
+    }
+}
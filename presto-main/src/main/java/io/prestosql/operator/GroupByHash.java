@@ -25,7 +25,6 @@ import java.util.Optional;
 
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.UpdateMemory.NOOP;
-import static io.prestosql.spi.type.BigintType.BIGINT;
 
 public interface GroupByHash
 {
@@ -49,8 +48,14 @@ public interface GroupByHash
             JoinCompiler joinCompiler,
             UpdateMemory updateMemory)
     {
-        if (hashTypes.size() == 1 && hashTypes.get(0).equals(BIGINT) && hashChannels.length == 1) {
-            return new BigintGroupByHash(hashChannels[0], inputHashChannel.isPresent(), expectedSize, updateMemory);
+        if (hashTypes.size() == 1 && BigintGroupByHash.isSupportedType(hashTypes.get(0)) && hashChannels.length == 1) {
+            return new BigintGroupByHash(hashTypes.get(0), hashChannels[0], inputHashChannel.isPresent(), expectedSize, updateMemory);
+        }
+        if (hashTypes.size() == 2 && hashTypes.stream().allMatch(BigintGroupByHash::isSupportedType) && hashChannels.length == 2) {
+            return new BigintPairGroupByHash(hashTypes, hashChannels, inputHashChannel.isPresent(), expectedSize, updateMemory);
+        }
+        if (hashChannels.length > 1 && hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType)) {
+            return new FlatGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, updateMemory);
         }
         return new MultiChannelGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, joinCompiler, updateMemory);
     }
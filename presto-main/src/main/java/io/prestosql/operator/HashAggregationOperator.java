@@ -22,6 +22,8 @@ import io.prestosql.operator.aggregation.Accumulator;
 import io.prestosql.operator.aggregation.AccumulatorFactory;
 import io.prestosql.operator.aggregation.builder.HashAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder;
+import io.prestosql.operator.aggregation.builder.PartitionedHashAggregationBuilder;
+import io.prestosql.operator.aggregation.builder.SkipAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.SpillableHashAggregationBuilder;
 import io.prestosql.operator.scalar.CombineHashFunction;
 import io.prestosql.spi.Page;
@@ -40,6 +42,10 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
+import static io.prestosql.SystemSessionProperties.getAggregationOperatorPartitionCount;
+import static io.prestosql.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder.toTypes;
 import static io.prestosql.sql.planner.optimizations.HashGenerationOptimizer.INITIAL_HASH_VALUE;
 import static io.prestosql.type.TypeUtils.NULL_HASH_CODE;
@@ -268,6 +274,10 @@ public class HashAggregationOperator
     private final SpillerFactory spillerFactory;
     private final JoinCompiler joinCompiler;
     private final boolean useSystemMemory;
+    private final int partitionCount;
+    private final boolean adaptivePartialAggregation;
+    private final long adaptivePartialAggregationMinRows;
+    private final double adaptivePartialAggregationUniqueRowsRatioThreshold;
 
     private final List<Type> types;
     private final HashCollisionsCounter hashCollisionsCounter;
@@ -282,6 +292,15 @@ public class HashAggregationOperator
     // for yield when memory is not available
     private Work<?> unfinishedWork;
 
+    // rows added to and produced by the current aggregation builder
+    private long aggregationBuilderInputPositions;
+    private long aggregationBuilderOutputPositions;
+    // rows added to and produced by the flushed partial aggregation builders
+    private long partialAggregationInputPositions;
+    private long partialAggregationOutputPositions;
+    private boolean skipPartialAggregation;
+    private long partialAggregationSkippedPositions;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -323,8 +342,13 @@ public class HashAggregationOperator
         this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
-        operatorContext.setInfoSupplier(hashCollisionsCounter);
+        operatorContext.setInfoSupplier(this::getInfo);
         this.useSystemMemory = useSystemMemory;
+        this.partitionCount = getAggregationOperatorPartitionCount(operatorContext.getSession());
+        // ORDER BY and DISTINCT aggregations cannot be converted to intermediate state row by row
+        this.adaptivePartialAggregation = step == Step.PARTIAL && !hasOrderBy() && !hasDistinct() && isAdaptivePartialAggregationEnabled(operatorContext.getSession());
+        this.adaptivePartialAggregationMinRows = getAdaptivePartialAggregationMinRows(operatorContext.getSession());
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = getAdaptivePartialAggregationUniqueRowsRatioThreshold(operatorContext.getSession());
 
         this.memoryContext = operatorContext.localUserMemoryContext();
         if (useSystemMemory) {
@@ -372,27 +396,46 @@ public class HashAggregationOperator
         requireNonNull(page, "page is null");
         inputProcessed = true;
 
+        if (skipPartialAggregation) {
+            if (aggregationBuilder == null) {
+                aggregationBuilder = new SkipAggregationBuilder(groupByChannels, hashChannel, accumulatorFactories);
+            }
+            partialAggregationSkippedPositions += page.getPositionCount();
+            aggregationBuilder.processPage(page);
+            return;
+        }
+        aggregationBuilderInputPositions += page.getPositionCount();
+
         if (aggregationBuilder == null) {
             // TODO: We ignore spillEnabled here if any aggregate has ORDER BY clause or DISTINCT because they are not yet implemented for spilling.
             if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
-                aggregationBuilder = new InMemoryHashAggregationBuilder(
-                        accumulatorFactories,
-                        step,
-                        expectedGroups,
-                        groupByTypes,
-                        groupByChannels,
-                        hashChannel,
-                        operatorContext,
-                        maxPartialMemory,
-                        joinCompiler,
-                        () -> {
-                            memoryContext.setBytes(((InMemoryHashAggregationBuilder) aggregationBuilder).getSizeInMemory());
-                            if (step.isOutputPartial() && maxPartialMemory.isPresent()) {
-                                // do not yield on memory for partial aggregations
-                                return true;
-                            }
-                            return operatorContext.isWaitingForMemory().isDone();
-                        });
+                if (partitionCount > 1) {
+                    aggregationBuilder = new PartitionedHashAggregationBuilder(
+                            accumulatorFactories,
+                            step,
+                            expectedGroups,
+                            groupByTypes,
+                            groupByChannels,
+                            hashChannel,
+                            operatorContext,
+                            maxPartialMemory,
+                            partitionCount,
+                            joinCompiler,
+                            () -> updateInMemoryAggregationMemory(((PartitionedHashAggregationBuilder) aggregationBuilder).getSizeInMemory()));
+                }
+                else {
+                    aggregationBuilder = new InMemoryHashAggregationBuilder(
+                            accumulatorFactories,
+                            step,
+                            expectedGroups,
+                            groupByTypes,
+                            groupByChannels,
+                            hashChannel,
+                            operatorContext,
+                            maxPartialMemory,
+                            joinCompiler,
+                            () -> updateInMemoryAggregationMemory(((InMemoryHashAggregationBuilder) aggregationBuilder).getSizeInMemory()));
+                }
             }
             else {
                 verify(!useSystemMemory, "using system memory in spillable aggregations is not supported");
@@ -424,6 +467,16 @@ public class HashAggregationOperator
         aggregationBuilder.updateMemory();
     }
 
+    private boolean updateInMemoryAggregationMemory(long sizeInMemory)
+    {
+        memoryContext.setBytes(sizeInMemory);
+        if (step.isOutputPartial() && maxPartialMemory.isPresent()) {
+            // do not yield on memory for partial aggregations
+            return true;
+        }
+        return operatorContext.isWaitingForMemory().isDone();
+    }
+
     private boolean hasOrderBy()
     {
         return accumulatorFactories.stream().anyMatch(AccumulatorFactory::hasOrderBy);
@@ -495,11 +548,44 @@ public class HashAggregationOperator
         }
 
         if (outputPages.isFinished()) {
+            if (adaptivePartialAggregation && !skipPartialAggregation) {
+                updatePartialAggregationRatio();
+            }
             closeAggregationBuilder();
             return null;
         }
 
-        return outputPages.getResult();
+        Page page = outputPages.getResult();
+        aggregationBuilderOutputPositions += page.getPositionCount();
+        return page;
+    }
+
+    /**
+     * Switches partial aggregation to pass-through mode when, over enough rows,
+     * the flushed partial aggregations did not reduce the number of rows enough.
+     */
+    private void updatePartialAggregationRatio()
+    {
+        partialAggregationInputPositions += aggregationBuilderInputPositions;
+        partialAggregationOutputPositions += aggregationBuilderOutputPositions;
+        if (partialAggregationInputPositions >= adaptivePartialAggregationMinRows
+                && partialAggregationOutputPositions > partialAggregationInputPositions * adaptivePartialAggregationUniqueRowsRatioThreshold) {
+            skipPartialAggregation = true;
+        }
+    }
+
+    private HashAggregationOperatorInfo getInfo()
+    {
+        return new HashAggregationOperatorInfo(
+                hashCollisionsCounter.get(),
+                skipPartialAggregation ? 1 : 0,
+                partialAggregationSkippedPositions);
+    }
+
+    @VisibleForTesting
+    boolean isSkipPartialAggregation()
+    {
+        return skipPartialAggregation;
     }
 
     @Override
@@ -517,6 +603,8 @@ public class HashAggregationOperator
     private void closeAggregationBuilder()
     {
         outputPages = null;
+        aggregationBuilderInputPositions = 0;
+        aggregationBuilderOutputPositions = 0;
         if (aggregationBuilder != null) {
             aggregationBuilder.recordHashCollisions(hashCollisionsCounter);
             aggregationBuilder.close();
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.prestosql.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public class HashAggregationOperatorInfo
+        implements Mergeable<HashAggregationOperatorInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long partialAggregationSkippedDrivers;
+    private final long partialAggregationSkippedPositions;
+
+    @JsonCreator
+    public HashAggregationOperatorInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("partialAggregationSkippedDrivers") long partialAggregationSkippedDrivers,
+            @JsonProperty("partialAggregationSkippedPositions") long partialAggregationSkippedPositions)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.partialAggregationSkippedDrivers = partialAggregationSkippedDrivers;
+        this.partialAggregationSkippedPositions = partialAggregationSkippedPositions;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * Number of drivers which switched partial aggregation to pass-through mode
+     */
+    @JsonProperty
+    public long getPartialAggregationSkippedDrivers()
+    {
+        return partialAggregationSkippedDrivers;
+    }
+
+    /**
+     * Number of input positions which were passed through without being aggregated
+     */
+    @JsonProperty
+    public long getPartialAggregationSkippedPositions()
+    {
+        return partialAggregationSkippedPositions;
+    }
+
+    @Override
+    public HashAggregationOperatorInfo mergeWith(HashAggregationOperatorInfo other)
+    {
+        return new HashAggregationOperatorInfo(
+                hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                partialAggregationSkippedDrivers + other.getPartialAggregationSkippedDrivers(),
+                partialAggregationSkippedPositions + other.getPartialAggregationSkippedPositions());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hashCollisionsInfo", hashCollisionsInfo)
+                .add("partialAggregationSkippedDrivers", partialAggregationSkippedDrivers)
+                .add("partialAggregationSkippedPositions", partialAggregationSkippedPositions)
+                .toString();
+    }
+}
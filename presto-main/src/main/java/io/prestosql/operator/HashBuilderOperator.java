@@ -263,6 +263,12 @@ public class HashBuilderOperator
 
         this.spillEnabled = spillEnabled;
         this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+        checkArgument(!spillEnabled || !lookupSourceFactory.isLookupSourceCacheable(), "Spilling is not supported for cacheable lookup sources");
+
+        if (lookupSourceFactory.hasCachedLookupSource()) {
+            // Finish early, the lookup source has been built by another query
+            state = State.CLOSED;
+        }
     }
 
     @Override
@@ -503,7 +509,9 @@ public class HashBuilderOperator
             return;
         }
 
-        index.clear();
+        if (!lookupSourceFactory.stopLookupSourceCaching()) {
+            index.clear();
+        }
         localRevocableMemoryContext.setBytes(0);
         localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
         lookupSourceSupplier = null;
@@ -623,7 +631,11 @@ public class HashBuilderOperator
         finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
 
         try (Closer closer = Closer.create()) {
-            closer.register(index::clear);
+            if (!lookupSourceFactory.stopLookupSourceCaching()) {
+                // The lookup source shares its hash channels with the index, so it is not cleared
+                // when the lookup source is used by other queries through the cache
+                closer.register(index::clear);
+            }
             spiller.ifPresent(closer::register);
             closer.register(() -> localUserMemoryContext.setBytes(0));
             closer.register(() -> localRevocableMemoryContext.setBytes(0));
@@ -15,9 +15,12 @@ package io.prestosql.operator;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
 import io.prestosql.operator.LookupJoinOperators.JoinType;
 import io.prestosql.util.Mergeable;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -32,8 +35,15 @@ public class JoinOperatorInfo
     private final long[] logHistogramProbes;
     private final long[] logHistogramOutput;
     private final Optional<Long> lookupSourcePositions;
+    private final Map<Integer, Long> partitionUnspillNanos;
+    private final Map<Integer, Long> partitionUnspillWaitNanos;
 
-    public static JoinOperatorInfo createJoinOperatorInfo(JoinType joinType, long[] logHistogramCounters, Optional<Long> lookupSourcePositions)
+    public static JoinOperatorInfo createJoinOperatorInfo(
+            JoinType joinType,
+            long[] logHistogramCounters,
+            Optional<Long> lookupSourcePositions,
+            Map<Integer, Long> partitionUnspillNanos,
+            Map<Integer, Long> partitionUnspillWaitNanos)
     {
         long[] logHistogramProbes = new long[HISTOGRAM_BUCKETS];
         long[] logHistogramOutput = new long[HISTOGRAM_BUCKETS];
@@ -41,7 +51,7 @@ public class JoinOperatorInfo
             logHistogramProbes[i] = logHistogramCounters[2 * i];
             logHistogramOutput[i] = logHistogramCounters[2 * i + 1];
         }
-        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions);
+        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions, partitionUnspillNanos, partitionUnspillWaitNanos);
     }
 
     @JsonCreator
@@ -49,7 +59,9 @@ public class JoinOperatorInfo
             @JsonProperty("joinType") JoinType joinType,
             @JsonProperty("logHistogramProbes") long[] logHistogramProbes,
             @JsonProperty("logHistogramOutput") long[] logHistogramOutput,
-            @JsonProperty("lookupSourcePositions") Optional<Long> lookupSourcePositions)
+            @JsonProperty("lookupSourcePositions") Optional<Long> lookupSourcePositions,
+            @JsonProperty("partitionUnspillNanos") Map<Integer, Long> partitionUnspillNanos,
+            @JsonProperty("partitionUnspillWaitNanos") Map<Integer, Long> partitionUnspillWaitNanos)
     {
         checkArgument(logHistogramProbes.length == HISTOGRAM_BUCKETS);
         checkArgument(logHistogramOutput.length == HISTOGRAM_BUCKETS);
@@ -57,6 +69,8 @@ public class JoinOperatorInfo
         this.logHistogramProbes = logHistogramProbes;
         this.logHistogramOutput = logHistogramOutput;
         this.lookupSourcePositions = lookupSourcePositions;
+        this.partitionUnspillNanos = ImmutableMap.copyOf(partitionUnspillNanos);
+        this.partitionUnspillWaitNanos = ImmutableMap.copyOf(partitionUnspillWaitNanos);
     }
 
     @JsonProperty
@@ -86,6 +100,24 @@ public class JoinOperatorInfo
         return lookupSourcePositions;
     }
 
+    /**
+     * Time spent unspilling and building the lookup source of each spilled partition
+     */
+    @JsonProperty
+    public Map<Integer, Long> getPartitionUnspillNanos()
+    {
+        return partitionUnspillNanos;
+    }
+
+    /**
+     * Time the probe side waited for the lookup source of each spilled partition to be unspilled
+     */
+    @JsonProperty
+    public Map<Integer, Long> getPartitionUnspillWaitNanos()
+    {
+        return partitionUnspillWaitNanos;
+    }
+
     @Override
     public String toString()
     {
@@ -94,6 +126,8 @@ public class JoinOperatorInfo
                 .add("logHistogramProbes", logHistogramProbes)
                 .add("logHistogramOutput", logHistogramOutput)
                 .add("lookupSourcePositions", lookupSourcePositions)
+                .add("partitionUnspillNanos", partitionUnspillNanos)
+                .add("partitionUnspillWaitNanos", partitionUnspillWaitNanos)
                 .toString();
     }
 
@@ -113,7 +147,13 @@ public class JoinOperatorInfo
             mergedSourcePositions = Optional.of(this.lookupSourcePositions.orElse(0L) + other.lookupSourcePositions.orElse(0L));
         }
 
-        return new JoinOperatorInfo(this.joinType, logHistogramProbes, logHistogramOutput, mergedSourcePositions);
+        // partitions are unspilled once for all the probe operators of a task, so the longest time is kept
+        Map<Integer, Long> partitionUnspillNanos = new HashMap<>(this.partitionUnspillNanos);
+        other.partitionUnspillNanos.forEach((partition, nanos) -> partitionUnspillNanos.merge(partition, nanos, Math::max));
+        Map<Integer, Long> partitionUnspillWaitNanos = new HashMap<>(this.partitionUnspillWaitNanos);
+        other.partitionUnspillWaitNanos.forEach((partition, nanos) -> partitionUnspillWaitNanos.merge(partition, nanos, Long::sum));
+
+        return new JoinOperatorInfo(this.joinType, logHistogramProbes, logHistogramOutput, mergedSourcePositions, partitionUnspillNanos, partitionUnspillWaitNanos);
     }
 
     @Override
@@ -15,7 +15,9 @@ package io.prestosql.operator;
 
 import io.prestosql.operator.LookupJoinOperators.JoinType;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import static io.prestosql.operator.JoinOperatorInfo.createJoinOperatorInfo;
@@ -41,6 +43,10 @@ public class JoinStatisticsCounter
      */
     private Optional<Long> lookupSourcePositions = Optional.empty();
 
+    // read by the operator info supplier concurrently with the updates
+    private final Map<Integer, Long> partitionUnspillNanos = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> partitionUnspillWaitNanos = new ConcurrentHashMap<>();
+
     public JoinStatisticsCounter(JoinType joinType)
     {
         this.joinType = requireNonNull(joinType, "joinType is null");
@@ -51,6 +57,12 @@ public class JoinStatisticsCounter
         this.lookupSourcePositions = Optional.of(this.lookupSourcePositions.orElse(0L) + lookupSourcePositionsDelta);
     }
 
+    public void recordPartitionUnspill(int partition, long unspillNanos, long unspillWaitNanos)
+    {
+        partitionUnspillNanos.merge(partition, unspillNanos, Math::max);
+        partitionUnspillWaitNanos.merge(partition, unspillWaitNanos, Long::sum);
+    }
+
     public void recordProbe(int numSourcePositions)
     {
         int bucket;
@@ -73,6 +85,6 @@ public class JoinStatisticsCounter
     @Override
     public JoinOperatorInfo get()
     {
-        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions);
+        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions, partitionUnspillNanos, partitionUnspillWaitNanos);
     }
 }
@@ -523,6 +523,7 @@ public class LookupJoinOperator
         private Partition<Supplier<LookupSource>> previousPartition;
         @Nullable
         private ListenableFuture<Supplier<LookupSource>> previousPartitionLookupSource;
+        private long previousPartitionRequestNanos;
 
         private SpillingJoinProcessor(
                 ProcessorContext processorContext,
@@ -587,6 +588,10 @@ public class LookupJoinOperator
                     return ProcessState.blocked(previousPartitionLookupSource);
                 }
 
+                statisticsCounter.recordPartitionUnspill(
+                        previousPartition.number(),
+                        previousPartition.getLoadNanos(),
+                        previousPartition.getLoadWaitNanos(previousPartitionRequestNanos));
                 previousPartition.release();
                 previousPartition = null;
                 previousPartitionLookupSource = null;
@@ -599,6 +604,7 @@ public class LookupJoinOperator
 
             Partition<Supplier<LookupSource>> partition = lookupPartitions.next();
             previousPartition = partition;
+            previousPartitionRequestNanos = System.nanoTime();
             previousPartitionLookupSource = partition.load();
 
             return ProcessState.ofResult(joinUnspilledPages(partition));
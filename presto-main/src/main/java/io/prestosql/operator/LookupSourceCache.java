@@ -0,0 +1,340 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.execution.TaskManagerConfig;
+import io.prestosql.memory.MemoryPool;
+import io.prestosql.memory.MemoryPoolListener;
+import io.prestosql.spi.QueryId;
+import io.prestosql.sql.planner.LookupSourceCacheKey;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Lookup sources of broadcast joins shared by the queries running on a worker.
+ * An entry is referenced by the {@link PartitionedLookupSourceFactory} of every join using it,
+ * and its memory is released once it has been evicted and is no longer referenced.
+ * The memory is reserved in the memory pool of the query which built the lookup source,
+ * on behalf of a dedicated query id, so it is accounted for by the worker but not by the query.
+ * The {@link io.prestosql.memory.ClusterMemoryLeakDetector} does not report this id as a leaked query.
+ * As the low memory killer cannot reclaim this memory, all entries charged to a memory pool are evicted
+ * as soon as a reservation exhausts the pool, so that the memory is released before any query is killed.
+ */
+@ThreadSafe
+public class LookupSourceCache
+{
+    public static final QueryId CACHE_QUERY_ID = new QueryId("lookup_source_cache");
+    private static final String ALLOCATION_TAG = LookupSourceCache.class.getSimpleName();
+
+    private final long maxSizeInBytes;
+    private final long ttlNanos;
+    private final Ticker ticker;
+    private final MemoryPoolListener memoryPoolListener = MemoryPoolListener.onMemoryReserved(this::onMemoryReserved);
+
+    @GuardedBy("this")
+    private final Set<MemoryPool> memoryPools = new HashSet<>();
+    @GuardedBy("this")
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private long sizeInBytes;
+    @GuardedBy("this")
+    private long hits;
+    @GuardedBy("this")
+    private long misses;
+
+    @Inject
+    public LookupSourceCache(TaskManagerConfig config)
+    {
+        this(config.getJoinLookupSourceCacheMaxSize(), config.getJoinLookupSourceCacheTtl(), Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    public LookupSourceCache(DataSize maxSize, Duration ttl, Ticker ticker)
+    {
+        this.maxSizeInBytes = requireNonNull(maxSize, "maxSize is null").toBytes();
+        this.ttlNanos = requireNonNull(ttl, "ttl is null").roundTo(NANOSECONDS);
+        this.ticker = requireNonNull(ticker, "ticker is null");
+    }
+
+    /**
+     * Returns the entry for the key, if any. The returned entry must be released with {@link #release(Entry)}.
+     */
+    public synchronized Optional<Entry> acquire(Key key)
+    {
+        requireNonNull(key, "key is null");
+        removeExpiredEntries();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        entry.references++;
+        return Optional.of(entry);
+    }
+
+    public synchronized void release(Entry entry)
+    {
+        requireNonNull(entry, "entry is null");
+        checkState(entry.references > 0, "entry is not referenced");
+        entry.references--;
+        if (entry.references == 0 && entry.removed) {
+            free(entry);
+        }
+    }
+
+    /**
+     * Adds the partitions of a lookup source to the cache, unless it already contains the key
+     * or there is not enough space for the lookup source, even after evicting the unreferenced entries.
+     */
+    public synchronized boolean offer(Key key, List<Supplier<LookupSource>> partitions, long partitionsSizeInBytes, MemoryPool memoryPool)
+    {
+        requireNonNull(key, "key is null");
+        requireNonNull(partitions, "partitions is null");
+        requireNonNull(memoryPool, "memoryPool is null");
+        checkArgument(partitions.size() == key.getPartitionCount(), "expected %s partitions, but got %s", key.getPartitionCount(), partitions.size());
+        checkArgument(partitionsSizeInBytes >= 0, "partitionsSizeInBytes is negative");
+
+        removeExpiredEntries();
+        if (entries.containsKey(key) || partitionsSizeInBytes > maxSizeInBytes) {
+            return false;
+        }
+
+        // evict the least recently used entries, but only if that makes enough room
+        long evictableBytes = 0;
+        for (Entry entry : entries.values()) {
+            if (sizeInBytes - evictableBytes + partitionsSizeInBytes <= maxSizeInBytes) {
+                break;
+            }
+            if (entry.references == 0) {
+                evictableBytes += entry.sizeInBytes;
+            }
+        }
+        if (sizeInBytes - evictableBytes + partitionsSizeInBytes > maxSizeInBytes) {
+            return false;
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (sizeInBytes + partitionsSizeInBytes > maxSizeInBytes) {
+            Entry entry = iterator.next();
+            if (entry.references == 0) {
+                iterator.remove();
+                remove(entry);
+            }
+        }
+
+        if (memoryPools.add(memoryPool)) {
+            memoryPool.addListener(memoryPoolListener);
+        }
+        if (!memoryPool.tryReserve(CACHE_QUERY_ID, ALLOCATION_TAG, partitionsSizeInBytes)) {
+            return false;
+        }
+        entries.put(key, new Entry(partitions, partitionsSizeInBytes, memoryPool, ticker.read()));
+        sizeInBytes += partitionsSizeInBytes;
+        return true;
+    }
+
+    @Managed
+    public synchronized long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    @Managed
+    public synchronized int getEntryCount()
+    {
+        return entries.size();
+    }
+
+    @Managed
+    public synchronized long getHitCount()
+    {
+        return hits;
+    }
+
+    @Managed
+    public synchronized long getMissCount()
+    {
+        return misses;
+    }
+
+    @Managed
+    public synchronized void invalidateAll()
+    {
+        entries.values().forEach(this::remove);
+        entries.clear();
+    }
+
+    private void onMemoryReserved(MemoryPool memoryPool)
+    {
+        if (memoryPool.getFreeBytes() > 0) {
+            return;
+        }
+        synchronized (this) {
+            // entries in use are freed when released by their last reference
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.memoryPool == memoryPool) {
+                    iterator.remove();
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void removeExpiredEntries()
+    {
+        long now = ticker.read();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.createTime >= ttlNanos) {
+                iterator.remove();
+                remove(entry);
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void remove(Entry entry)
+    {
+        entry.removed = true;
+        sizeInBytes -= entry.sizeInBytes;
+        if (entry.references == 0) {
+            free(entry);
+        }
+    }
+
+    private static void free(Entry entry)
+    {
+        entry.memoryPool.free(CACHE_QUERY_ID, ALLOCATION_TAG, entry.sizeInBytes);
+    }
+
+    public static final class Entry
+    {
+        private final List<Supplier<LookupSource>> partitions;
+        private final long sizeInBytes;
+        private final MemoryPool memoryPool;
+        private final long createTime;
+
+        // guarded by the cache
+        private int references;
+        private boolean removed;
+
+        private Entry(List<Supplier<LookupSource>> partitions, long sizeInBytes, MemoryPool memoryPool, long createTime)
+        {
+            this.partitions = ImmutableList.copyOf(partitions);
+            this.sizeInBytes = sizeInBytes;
+            this.memoryPool = memoryPool;
+            this.createTime = createTime;
+        }
+
+        public List<Supplier<LookupSource>> getPartitions()
+        {
+            return partitions;
+        }
+
+        public long getSizeInBytes()
+        {
+            return sizeInBytes;
+        }
+    }
+
+    /**
+     * Identifies a lookup source by the rows of the build side and by the layout of the lookup source built from them.
+     */
+    public static final class Key
+    {
+        private final LookupSourceCacheKey buildKey;
+        private final List<Integer> outputChannels;
+        private final List<Integer> hashChannels;
+        private final OptionalInt preComputedHashChannel;
+        private final int partitionCount;
+
+        public Key(LookupSourceCacheKey buildKey, List<Integer> outputChannels, List<Integer> hashChannels, OptionalInt preComputedHashChannel, int partitionCount)
+        {
+            this.buildKey = requireNonNull(buildKey, "buildKey is null");
+            this.outputChannels = ImmutableList.copyOf(requireNonNull(outputChannels, "outputChannels is null"));
+            this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
+            this.preComputedHashChannel = requireNonNull(preComputedHashChannel, "preComputedHashChannel is null");
+            this.partitionCount = partitionCount;
+        }
+
+        public int getPartitionCount()
+        {
+            return partitionCount;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return partitionCount == that.partitionCount &&
+                    buildKey.equals(that.buildKey) &&
+                    outputChannels.equals(that.outputChannels) &&
+                    hashChannels.equals(that.hashChannels) &&
+                    preComputedHashChannel.equals(that.preComputedHashChannel);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(buildKey, outputChannels, hashChannels, preComputedHashChannel, partitionCount);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("buildKey", buildKey)
+                    .add("outputChannels", outputChannels)
+                    .add("hashChannels", hashChannels)
+                    .add("preComputedHashChannel", preComputedHashChannel)
+                    .add("partitionCount", partitionCount)
+                    .toString();
+        }
+    }
+}
@@ -98,7 +98,7 @@ public class MergeOperator
                     operatorContext,
                     sourceId,
                     exchangeClientSupplier,
-                    serdeFactory.createPagesSerde(),
+                    serdeFactory.createPagesSerde(driverContext.getPipelineContext().getTaskContext().getPagesSerdeStats()),
                     orderingCompiler.compilePageWithPositionComparator(types, sortChannels, sortOrder),
                     outputChannels,
                     outputTypes);
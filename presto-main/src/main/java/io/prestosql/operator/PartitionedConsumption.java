@@ -24,10 +24,12 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
 
@@ -48,22 +50,34 @@ public final class PartitionedConsumption<T>
 
     PartitionedConsumption(int consumersCount, Iterable<Integer> partitionNumbers, IntFunction<ListenableFuture<T>> loader, IntConsumer disposer)
     {
-        this(consumersCount, immediateFuture(null), partitionNumbers, loader, disposer);
+        this(consumersCount, 1, partitionNumbers, loader, disposer);
+    }
+
+    /**
+     * @param loadConcurrency maximum number of partitions loaded at the same time. When greater than 1, the
+     * following partitions are loaded while the consumers process the requested one.
+     */
+    PartitionedConsumption(int consumersCount, int loadConcurrency, Iterable<Integer> partitionNumbers, IntFunction<ListenableFuture<T>> loader, IntConsumer disposer)
+    {
+        this(consumersCount, loadConcurrency, immediateFuture(null), partitionNumbers, loader, disposer);
     }
 
     private PartitionedConsumption(
             int consumersCount,
+            int loadConcurrency,
             ListenableFuture<?> activator,
             Iterable<Integer> partitionNumbers,
             IntFunction<ListenableFuture<T>> loader,
             IntConsumer disposer)
     {
         checkArgument(consumersCount > 0, "consumersCount must be positive");
+        checkArgument(loadConcurrency > 0, "loadConcurrency must be positive");
         this.consumersCount = consumersCount;
-        this.partitions = createPartitions(activator, partitionNumbers, loader, disposer);
+        this.partitions = createPartitions(loadConcurrency, activator, partitionNumbers, loader, disposer);
     }
 
     private List<Partition<T>> createPartitions(
+            int loadConcurrency,
             ListenableFuture<?> activator,
             Iterable<Integer> partitionNumbers,
             IntFunction<ListenableFuture<T>> loader,
@@ -73,14 +87,19 @@ public final class PartitionedConsumption<T>
         requireNonNull(loader, "loader is null");
         requireNonNull(disposer, "disposer is null");
 
-        ImmutableList.Builder<Partition<T>> partitions = ImmutableList.builder();
-        ListenableFuture<?> partitionActivator = activator;
+        List<Partition<T>> partitions = new ArrayList<>();
         for (Integer partitionNumber : partitionNumbers) {
+            int index = partitions.size();
+            // A partition is loaded once the partition loadConcurrency positions before it is released,
+            // and it is requested as soon as the partition loadConcurrency - 1 positions before it is.
+            ListenableFuture<?> partitionActivator = index < loadConcurrency ? activator : partitions.get(index - loadConcurrency).released;
             Partition<T> partition = new Partition<>(consumersCount, partitionNumber, loader, partitionActivator, disposer);
+            if (index > 0 && loadConcurrency > 1) {
+                partitions.get(Math.max(0, index - loadConcurrency + 1)).requested.addListener(partition::request, directExecutor());
+            }
             partitions.add(partition);
-            partitionActivator = partition.released;
         }
-        return partitions.build();
+        return ImmutableList.copyOf(partitions);
     }
 
     Iterator<Partition<T>> beginConsumption()
@@ -112,6 +131,8 @@ public final class PartitionedConsumption<T>
         private final SettableFuture<?> requested;
         private final ListenableFuture<T> loaded;
         private final SettableFuture<?> released;
+        private final AtomicLong loadStartNanos = new AtomicLong();
+        private final AtomicLong loadEndNanos = new AtomicLong();
 
         @GuardedBy("this")
         private int pendingReleases;
@@ -125,9 +146,19 @@ public final class PartitionedConsumption<T>
         {
             this.partitionNumber = partitionNumber;
             this.requested = SettableFuture.create();
-            this.loaded = Futures.transformAsync(
+            ListenableFuture<T> loading = Futures.transformAsync(
                     allAsList(requested, previousReleased),
-                    ignored -> loader.apply(partitionNumber),
+                    ignored -> {
+                        loadStartNanos.set(System.nanoTime());
+                        return loader.apply(partitionNumber);
+                    },
+                    directExecutor());
+            this.loaded = Futures.transform(
+                    loading,
+                    value -> {
+                        loadEndNanos.set(System.nanoTime());
+                        return value;
+                    },
                     directExecutor());
             this.released = SettableFuture.create();
             released.addListener(() -> disposer.accept(partitionNumber), directExecutor());
@@ -141,10 +172,34 @@ public final class PartitionedConsumption<T>
 
         public ListenableFuture<T> load()
         {
-            requested.set(null);
+            request();
             return loaded;
         }
 
+        private void request()
+        {
+            requested.set(null);
+        }
+
+        /**
+         * Time spent loading the partition, once it is loaded.
+         */
+        public long getLoadNanos()
+        {
+            checkState(loaded.isDone(), "partition is not loaded");
+            return loadEndNanos.get() - loadStartNanos.get();
+        }
+
+        /**
+         * Time between {@code since} and the end of loading the partition, once it is loaded.
+         * This is zero when the partition was already loaded, e.g. because it has been prefetched.
+         */
+        public long getLoadWaitNanos(long since)
+        {
+            checkState(loaded.isDone(), "partition is not loaded");
+            return Math.max(0, loadEndNanos.get() - since);
+        }
+
         public synchronized void release()
         {
             checkState(loaded.isDone());
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.prestosql.memory.MemoryPool;
 import io.prestosql.operator.LookupSourceProvider.LookupSourceLease;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
@@ -31,6 +32,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -60,7 +62,9 @@ public final class PartitionedLookupSourceFactory
     private final List<Type> outputTypes;
     private final List<Type> hashChannelTypes;
     private final boolean outer;
+    private final int unspillConcurrency;
     private final SpilledLookupSource spilledLookupSource;
+    private final Optional<LookupSourceCacheContext> lookupSourceCacheContext;
 
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -84,6 +88,15 @@ public final class PartitionedLookupSourceFactory
     @GuardedBy("lock")
     private TrackingLookupSourceSupplier lookupSourceSupplier;
 
+    @GuardedBy("lock")
+    private Optional<LookupSourceCache.Entry> cachedLookupSource = Optional.empty();
+
+    @GuardedBy("lock")
+    private boolean lookupSourceCached;
+
+    @GuardedBy("lock")
+    private boolean lookupSourceCachingStopped;
+
     @GuardedBy("lock")
     private final List<SettableFuture<LookupSourceProvider>> lookupSourceFutures = new ArrayList<>();
 
@@ -106,6 +119,18 @@ public final class PartitionedLookupSourceFactory
     private final ConcurrentHashMap<SpillAwareLookupSourceProvider, LookupSource> suppliedLookupSources = new ConcurrentHashMap<>();
 
     public PartitionedLookupSourceFactory(List<Type> types, List<Type> outputTypes, List<Type> hashChannelTypes, int partitionCount, boolean outer)
+    {
+        this(types, outputTypes, hashChannelTypes, partitionCount, outer, 1, Optional.empty());
+    }
+
+    public PartitionedLookupSourceFactory(
+            List<Type> types,
+            List<Type> outputTypes,
+            List<Type> hashChannelTypes,
+            int partitionCount,
+            boolean outer,
+            int unspillConcurrency,
+            Optional<LookupSourceCacheContext> lookupSourceCacheContext)
     {
         checkArgument(Integer.bitCount(partitionCount) == 1, "partitionCount must be a power of 2");
 
@@ -116,7 +141,23 @@ public final class PartitionedLookupSourceFactory
         //noinspection unchecked
         this.partitions = (Supplier<LookupSource>[]) new Supplier<?>[partitionCount];
         this.outer = outer;
+        checkArgument(unspillConcurrency > 0, "unspillConcurrency must be positive");
+        this.unspillConcurrency = unspillConcurrency;
         spilledLookupSource = new SpilledLookupSource(outputTypes.size());
+        this.lookupSourceCacheContext = requireNonNull(lookupSourceCacheContext, "lookupSourceCacheContext is null");
+        checkArgument(lookupSourceCacheContext.isEmpty() || !outer, "Lookup sources of outer joins cannot be cached");
+
+        lookupSourceCacheContext.ifPresent(context -> {
+            cachedLookupSource = context.getCache().acquire(context.getKey());
+            cachedLookupSource.ifPresent(entry -> {
+                // the build side does not need to run, as the lookup source is supplied right away
+                for (int partition = 0; partition < partitionCount; partition++) {
+                    partitions[partition] = entry.getPartitions().get(partition);
+                }
+                partitionsSet = partitionCount;
+                lookupSourceSupplier = createLookupSourceSupplier();
+            });
+        });
     }
 
     @Override
@@ -131,6 +172,46 @@ public final class PartitionedLookupSourceFactory
         return outputTypes;
     }
 
+    /**
+     * Whether the lookup source was taken from the {@link LookupSourceCache}, in which case
+     * the build side does not need to provide any partition.
+     */
+    public boolean hasCachedLookupSource()
+    {
+        lock.readLock().lock();
+        try {
+            return cachedLookupSource.isPresent();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the partitions provided by the build side may be added to the {@link LookupSourceCache},
+     * in which case they must remain valid after they are no longer needed by this join.
+     */
+    public boolean isLookupSourceCacheable()
+    {
+        return lookupSourceCacheContext.isPresent();
+    }
+
+    /**
+     * Prevents the partitions provided by the build side from being added to the {@link LookupSourceCache}
+     * from now on. Returns whether they were already added, in which case they must remain valid.
+     */
+    public boolean stopLookupSourceCaching()
+    {
+        lock.writeLock().lock();
+        try {
+            lookupSourceCachingStopped = true;
+            return lookupSourceCached;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     // partitions is final, so we don't need a lock to read its length here
     @SuppressWarnings("FieldAccessNotGuarded")
     @Override
@@ -258,6 +339,7 @@ public final class PartitionedLookupSourceFactory
         checkState(!lock.isWriteLockedByCurrentThread());
 
         List<SettableFuture<LookupSourceProvider>> lookupSourceFutures;
+        Optional<List<Supplier<LookupSource>>> cacheablePartitions = Optional.empty();
 
         lock.writeLock().lock();
         try {
@@ -268,16 +350,9 @@ public final class PartitionedLookupSourceFactory
                 return;
             }
 
-            if (partitionsSet != 1) {
-                List<Supplier<LookupSource>> partitions = ImmutableList.copyOf(this.partitions);
-                this.lookupSourceSupplier = createPartitionedLookupSourceSupplier(partitions, hashChannelTypes, outer);
-            }
-            else if (outer) {
-                this.lookupSourceSupplier = createOuterLookupSourceSupplier(partitions[0]);
-            }
-            else {
-                checkState(!spillingInfo.hasSpilled(), "Spill not supported when there is single partition");
-                this.lookupSourceSupplier = TrackingLookupSourceSupplier.nonTracking(partitions[0]);
+            this.lookupSourceSupplier = createLookupSourceSupplier();
+            if (lookupSourceCacheContext.isPresent() && !spillingInfo.hasSpilled()) {
+                cacheablePartitions = Optional.of(ImmutableList.copyOf(partitions));
             }
 
             // store futures into local variables so they can be used outside of the lock
@@ -287,11 +362,49 @@ public final class PartitionedLookupSourceFactory
             lock.writeLock().unlock();
         }
 
+        // the partitions are offered before the probe side can finish, so that the builders do not release them first
+        cacheablePartitions.ifPresent(this::offerToLookupSourceCache);
+
         for (SettableFuture<LookupSourceProvider> lookupSourceFuture : lookupSourceFutures) {
             lookupSourceFuture.set(new SpillAwareLookupSourceProvider());
         }
     }
 
+    private TrackingLookupSourceSupplier createLookupSourceSupplier()
+    {
+        if (partitionsSet != 1) {
+            List<Supplier<LookupSource>> partitions = ImmutableList.copyOf(this.partitions);
+            return createPartitionedLookupSourceSupplier(partitions, hashChannelTypes, outer);
+        }
+        if (outer) {
+            return createOuterLookupSourceSupplier(partitions[0]);
+        }
+        checkState(!spillingInfo.hasSpilled(), "Spill not supported when there is single partition");
+        return TrackingLookupSourceSupplier.nonTracking(partitions[0]);
+    }
+
+    private void offerToLookupSourceCache(List<Supplier<LookupSource>> partitions)
+    {
+        LookupSourceCacheContext context = lookupSourceCacheContext.orElseThrow();
+        lock.writeLock().lock();
+        try {
+            if (lookupSourceCachingStopped) {
+                // a builder has already released its partition
+                return;
+            }
+            long sizeInBytes = 0;
+            for (Supplier<LookupSource> partition : partitions) {
+                try (LookupSource lookupSource = partition.get()) {
+                    sizeInBytes += lookupSource.getInMemorySizeInBytes();
+                }
+            }
+            lookupSourceCached = context.getCache().offer(context.getKey(), partitions, sizeInBytes, context.getMemoryPool());
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> finishProbeOperator(OptionalInt lookupJoinsCount)
     {
@@ -324,6 +437,7 @@ public final class PartitionedLookupSourceFactory
                 verify(!partitionedConsumption.isDone());
                 partitionedConsumption.set(new PartitionedConsumption<>(
                         partitionedConsumptionParticipants.getAsInt(),
+                        unspillConcurrency,
                         spilledPartitions.keySet(),
                         this::loadSpilledLookupSource,
                         this::disposeSpilledLookupSource));
@@ -381,6 +495,8 @@ public final class PartitionedLookupSourceFactory
         try {
             freePartitions();
             spilledPartitions.values().forEach(SpilledLookupSourceHandle::dispose);
+            cachedLookupSource.ifPresent(entry -> lookupSourceCacheContext.orElseThrow().getCache().release(entry));
+            cachedLookupSource = Optional.empty();
 
             // Setting destroyed must be last because it's a part of the state exposed by isDestroyed() without synchronization.
             destroyed.set(null);
@@ -575,6 +691,35 @@ public final class PartitionedLookupSourceFactory
         }
     }
 
+    public static final class LookupSourceCacheContext
+    {
+        private final LookupSourceCache cache;
+        private final LookupSourceCache.Key key;
+        private final MemoryPool memoryPool;
+
+        public LookupSourceCacheContext(LookupSourceCache cache, LookupSourceCache.Key key, MemoryPool memoryPool)
+        {
+            this.cache = requireNonNull(cache, "cache is null");
+            this.key = requireNonNull(key, "key is null");
+            this.memoryPool = requireNonNull(memoryPool, "memoryPool is null");
+        }
+
+        public LookupSourceCache getCache()
+        {
+            return cache;
+        }
+
+        public LookupSourceCache.Key getKey()
+        {
+            return key;
+        }
+
+        public MemoryPool getMemoryPool()
+        {
+            return memoryPool;
+        }
+    }
+
     @Immutable
     private static final class SpillingInfo
     {
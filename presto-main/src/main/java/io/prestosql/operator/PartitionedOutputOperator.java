@@ -15,6 +15,7 @@ package io.prestosql.operator;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import io.prestosql.execution.buffer.OutputBuffer;
@@ -28,6 +29,7 @@ import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.SkewedJoinPartitioning;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.util.Mergeable;
 
@@ -35,12 +37,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.execution.buffer.PageSplitterUtil.splitPage;
 import static io.prestosql.spi.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.sql.planner.SkewedJoinPartitioning.Side.BUILD;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
@@ -58,6 +62,7 @@ public class PartitionedOutputOperator
         private final OutputBuffer outputBuffer;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel;
+        private final Optional<SkewedJoinPartitioning> skewedJoinPartitioning;
         private final DataSize maxMemory;
 
         public PartitionedOutputFactory(
@@ -66,6 +71,7 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<SkewedJoinPartitioning> skewedJoinPartitioning,
                 OutputBuffer outputBuffer,
                 DataSize maxMemory)
         {
@@ -74,6 +80,7 @@ public class PartitionedOutputOperator
             this.partitionConstants = requireNonNull(partitionConstants, "partitionConstants is null");
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            this.skewedJoinPartitioning = requireNonNull(skewedJoinPartitioning, "skewedJoinPartitioning is null");
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
         }
@@ -96,6 +103,7 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    skewedJoinPartitioning,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -114,6 +122,7 @@ public class PartitionedOutputOperator
         private final List<Optional<NullableValue>> partitionConstants;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel;
+        private final Optional<SkewedJoinPartitioning> skewedJoinPartitioning;
         private final OutputBuffer outputBuffer;
         private final PagesSerdeFactory serdeFactory;
         private final DataSize maxMemory;
@@ -128,6 +137,7 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<SkewedJoinPartitioning> skewedJoinPartitioning,
                 OutputBuffer outputBuffer,
                 PagesSerdeFactory serdeFactory,
                 DataSize maxMemory)
@@ -141,6 +151,7 @@ public class PartitionedOutputOperator
             this.partitionConstants = requireNonNull(partitionConstants, "partitionConstants is null");
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            this.skewedJoinPartitioning = requireNonNull(skewedJoinPartitioning, "skewedJoinPartitioning is null");
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
@@ -159,6 +170,7 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    skewedJoinPartitioning,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -182,6 +194,7 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    skewedJoinPartitioning,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -204,6 +217,7 @@ public class PartitionedOutputOperator
             List<Optional<NullableValue>> partitionConstants,
             boolean replicatesAnyRow,
             OptionalInt nullChannel,
+            Optional<SkewedJoinPartitioning> skewedJoinPartitioning,
             OutputBuffer outputBuffer,
             PagesSerdeFactory serdeFactory,
             DataSize maxMemory)
@@ -216,6 +230,7 @@ public class PartitionedOutputOperator
                 partitionConstants,
                 replicatesAnyRow,
                 nullChannel,
+                skewedJoinPartitioning,
                 outputBuffer,
                 serdeFactory,
                 sourceTypes,
@@ -294,6 +309,10 @@ public class PartitionedOutputOperator
 
     private static class PagePartitioner
     {
+        private static final long SKEW_DETECTION_MIN_ROWS = 1_000;
+        // a partition is skewed when it gets more than this many times its fair share of the rows
+        private static final long SKEWED_PARTITION_SHARE_FACTOR = 2;
+
         private final OutputBuffer outputBuffer;
         private final List<Type> sourceTypes;
         private final PartitionFunction partitionFunction;
@@ -303,8 +322,14 @@ public class PartitionedOutputOperator
         private final PageBuilder[] pageBuilders;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel; // when present, send the position to every partition if this channel is null.
+        private final Optional<SkewedJoinPartitioning.Side> skewedJoinSide;
+        private final int spreadFactor;
+        private final long[] homePartitionRows;
+        private long totalHomePartitionRows;
+        private int nextSpreadOffset;
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
+        private final AtomicLongArray partitionRowsAdded;
         private boolean hasAnyRowBeenReplicated;
         private OperatorContext operatorContext;
 
@@ -314,6 +339,7 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<SkewedJoinPartitioning> skewedJoinPartitioning,
                 OutputBuffer outputBuffer,
                 PagesSerdeFactory serdeFactory,
                 List<Type> sourceTypes,
@@ -327,12 +353,20 @@ public class PartitionedOutputOperator
                     .collect(toImmutableList());
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            requireNonNull(skewedJoinPartitioning, "skewedJoinPartitioning is null");
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.sourceTypes = requireNonNull(sourceTypes, "sourceTypes is null");
-            this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde();
+            this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde(operatorContext.getDriverContext().getPipelineContext().getTaskContext().getPagesSerdeStats());
             this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
             int partitionCount = partitionFunction.getPartitionCount();
+            this.skewedJoinSide = skewedJoinPartitioning.map(SkewedJoinPartitioning::getSide);
+            this.spreadFactor = skewedJoinPartitioning
+                    .map(skewed -> min(skewed.getSpreadFactor(), partitionCount))
+                    .orElse(1);
+            this.homePartitionRows = new long[partitionCount];
+            this.partitionRowsAdded = new AtomicLongArray(partitionCount);
+
             int pageSize = toIntExact(min(DEFAULT_MAX_PAGE_SIZE_IN_BYTES, maxMemory.toBytes() / partitionCount));
             pageSize = max(1, pageSize);
 
@@ -351,7 +385,7 @@ public class PartitionedOutputOperator
         {
             // We use a foreach loop instead of streams
             // as it has much better performance.
-            long sizeInBytes = 0;
+            long sizeInBytes = serde.getRetainedSizeInBytes();
             for (PageBuilder pageBuilder : pageBuilders) {
                 sizeInBytes += pageBuilder.getSizeInBytes();
             }
@@ -372,7 +406,11 @@ public class PartitionedOutputOperator
 
         public PartitionedOutputInfo getInfo()
         {
-            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage());
+            ImmutableList.Builder<Long> partitionRows = ImmutableList.builder();
+            for (int partition = 0; partition < partitionRowsAdded.length(); partition++) {
+                partitionRows.add(partitionRowsAdded.get(partition));
+            }
+            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage(), partitionRows.build());
         }
 
         public void partitionPage(Page page)
@@ -391,12 +429,43 @@ public class PartitionedOutputOperator
                 }
                 else {
                     int partition = partitionFunction.getPartition(partitionFunctionArgs, position);
-                    appendRow(pageBuilders[partition], page, position);
+                    if (!skewedJoinSide.isPresent() || spreadFactor == 1) {
+                        appendRow(pageBuilders[partition], page, position);
+                    }
+                    else if (skewedJoinSide.get() == BUILD) {
+                        // the matching probe rows may have been spread to any of the next partitions
+                        for (int offset = 0; offset < spreadFactor; offset++) {
+                            appendRow(pageBuilders[(partition + offset) % pageBuilders.length], page, position);
+                        }
+                    }
+                    else {
+                        appendRow(pageBuilders[spreadProbePartition(partition)], page, position);
+                    }
                 }
             }
             flush(false);
         }
 
+        /**
+         * Rows of a partition which received a disproportionate share of the rows seen so far
+         * are sent round robin to that partition and the next {@code spreadFactor - 1} partitions.
+         * The build side replicates its rows to the same partitions, so every probe row still
+         * meets all the build rows with the same key. Skew is tracked per hash partition by each
+         * driver rather than per key, as this is all the build side replication can rely on.
+         */
+        private int spreadProbePartition(int partition)
+        {
+            homePartitionRows[partition]++;
+            totalHomePartitionRows++;
+            if (totalHomePartitionRows < SKEW_DETECTION_MIN_ROWS ||
+                    homePartitionRows[partition] * homePartitionRows.length <= totalHomePartitionRows * SKEWED_PARTITION_SHARE_FACTOR) {
+                return partition;
+            }
+            int offset = nextSpreadOffset;
+            nextSpreadOffset = (nextSpreadOffset + 1) % spreadFactor;
+            return (partition + offset) % homePartitionRows.length;
+        }
+
         private Page getPartitionFunctionArguments(Page page)
         {
             Block[] blocks = new Block[partitionChannels.size()];
@@ -440,6 +509,7 @@ public class PartitionedOutputOperator
                     outputBuffer.enqueue(partition, serializedPages);
                     pagesAdded.incrementAndGet();
                     rowsAdded.addAndGet(pagePartition.getPositionCount());
+                    partitionRowsAdded.addAndGet(partition, pagePartition.getPositionCount());
                 }
             }
         }
@@ -451,16 +521,19 @@ public class PartitionedOutputOperator
         private final long rowsAdded;
         private final long pagesAdded;
         private final long outputBufferPeakMemoryUsage;
+        private final List<Long> partitionRowsAdded;
 
         @JsonCreator
         public PartitionedOutputInfo(
                 @JsonProperty("rowsAdded") long rowsAdded,
                 @JsonProperty("pagesAdded") long pagesAdded,
-                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage)
+                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage,
+                @JsonProperty("partitionRowsAdded") List<Long> partitionRowsAdded)
         {
             this.rowsAdded = rowsAdded;
             this.pagesAdded = pagesAdded;
             this.outputBufferPeakMemoryUsage = outputBufferPeakMemoryUsage;
+            this.partitionRowsAdded = ImmutableList.copyOf(requireNonNull(partitionRowsAdded, "partitionRowsAdded is null"));
         }
 
         @JsonProperty
@@ -481,13 +554,39 @@ public class PartitionedOutputOperator
             return outputBufferPeakMemoryUsage;
         }
 
+        /**
+         * Number of rows sent to each output partition
+         */
+        @JsonProperty
+        public List<Long> getPartitionRowsAdded()
+        {
+            return partitionRowsAdded;
+        }
+
         @Override
         public PartitionedOutputInfo mergeWith(PartitionedOutputInfo other)
         {
             return new PartitionedOutputInfo(
                     rowsAdded + other.rowsAdded,
                     pagesAdded + other.pagesAdded,
-                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage));
+                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage),
+                    mergePartitionRows(partitionRowsAdded, other.partitionRowsAdded));
+        }
+
+        public static List<Long> mergePartitionRows(List<Long> first, List<Long> second)
+        {
+            ImmutableList.Builder<Long> merged = ImmutableList.builder();
+            for (int partition = 0; partition < max(first.size(), second.size()); partition++) {
+                long rows = 0;
+                if (partition < first.size()) {
+                    rows += first.get(partition);
+                }
+                if (partition < second.size()) {
+                    rows += second.get(partition);
+                }
+                merged.add(rows);
+            }
+            return merged.build();
         }
 
         @Override
@@ -503,6 +602,7 @@ public class PartitionedOutputOperator
                     .add("rowsAdded", rowsAdded)
                     .add("pagesAdded", pagesAdded)
                     .add("outputBufferPeakMemoryUsage", outputBufferPeakMemoryUsage)
+                    .add("partitionRowsAdded", partitionRowsAdded)
                     .toString();
         }
     }
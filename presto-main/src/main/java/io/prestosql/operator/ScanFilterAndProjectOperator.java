@@ -36,6 +36,7 @@ import io.prestosql.spi.connector.EmptyPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
 import io.prestosql.spi.connector.UpdatablePageSource;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.split.EmptySplit;
@@ -47,6 +48,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -88,6 +90,7 @@ public class ScanFilterAndProjectOperator
             TableHandle table,
             Iterable<ColumnHandle> columns,
             Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+            Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters,
             Iterable<Type> types,
             DataSize minOutputPageSize,
             int minOutputPageRowCount,
@@ -103,6 +106,7 @@ public class ScanFilterAndProjectOperator
                         table,
                         columns,
                         dynamicFilter,
+                        dynamicBloomFilters,
                         types,
                         requireNonNull(memoryTrackingContext, "memoryTrackingContext is null").aggregateSystemMemoryContext(),
                         minOutputPageSize,
@@ -190,6 +194,7 @@ public class ScanFilterAndProjectOperator
         final TableHandle table;
         final List<ColumnHandle> columns;
         final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+        final Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters;
         final List<Type> types;
         final LocalMemoryContext memoryContext;
         final AggregatedMemoryContext localAggregatedMemoryContext;
@@ -208,6 +213,7 @@ public class ScanFilterAndProjectOperator
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
                 Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+                Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters,
                 Iterable<Type> types,
                 AggregatedMemoryContext aggregatedMemoryContext,
                 DataSize minOutputPageSize,
@@ -222,6 +228,7 @@ public class ScanFilterAndProjectOperator
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.dynamicFilter = dynamicFilter;
+            this.dynamicBloomFilters = requireNonNull(dynamicBloomFilters, "dynamicBloomFilters is null");
             this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
             this.memoryContext = aggregatedMemoryContext.newLocalMemoryContext(ScanFilterAndProjectOperator.class.getSimpleName());
             this.localAggregatedMemoryContext = newSimpleAggregatedMemoryContext();
@@ -260,7 +267,7 @@ public class ScanFilterAndProjectOperator
             }
             else {
                 pageSource = source;
-                return ofResult(processPageSource());
+                return ofResult(processPageSource(DynamicBloomFilterPageFilter.create(columns, dynamicBloomFilters.get())));
             }
         }
 
@@ -272,17 +279,22 @@ public class ScanFilterAndProjectOperator
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
 
-        WorkProcessor<Page> processPageSource()
+        WorkProcessor<Page> processPageSource(Optional<DynamicBloomFilterPageFilter> bloomFilterPageFilter)
         {
-            return WorkProcessor
+            WorkProcessor<Page> pages = WorkProcessor
                     .create(new ConnectorPageSourceToPages(pageSourceMemoryContext))
-                    .yielding(yieldSignal::isSet)
+                    .yielding(yieldSignal::isSet);
+            if (bloomFilterPageFilter.isPresent()) {
+                pages = pages.map(bloomFilterPageFilter.get()::filter);
+            }
+            return pages
                     .flatMap(page -> pageProcessor.createWorkProcessor(
                             session.toConnectorSession(),
                             yieldSignal,
                             outputMemoryContext,
                             page,
-                            avoidPageMaterialization))
+                            avoidPageMaterialization,
+                            true))
                     .transformProcessor(processor -> mergePages(types, minOutputPageSize.toBytes(), minOutputPageRowCount, processor, localAggregatedMemoryContext))
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
@@ -408,6 +420,7 @@ public class ScanFilterAndProjectOperator
         private final TableHandle table;
         private final List<ColumnHandle> columns;
         private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+        private final Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters;
         private final List<Type> types;
         private final DataSize minOutputPageSize;
         private final int minOutputPageRowCount;
@@ -423,6 +436,7 @@ public class ScanFilterAndProjectOperator
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
                 Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+                Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters,
                 List<Type> types,
                 DataSize minOutputPageSize,
                 int minOutputPageRowCount)
@@ -436,6 +450,7 @@ public class ScanFilterAndProjectOperator
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.dynamicFilter = dynamicFilter;
+            this.dynamicBloomFilters = requireNonNull(dynamicBloomFilters, "dynamicBloomFilters is null");
             this.types = requireNonNull(types, "types is null");
             this.minOutputPageSize = requireNonNull(minOutputPageSize, "minOutputPageSize is null");
             this.minOutputPageRowCount = minOutputPageRowCount;
@@ -511,6 +526,7 @@ public class ScanFilterAndProjectOperator
                     table,
                     columns,
                     dynamicFilter,
+                    dynamicBloomFilters,
                     types,
                     minOutputPageSize,
                     minOutputPageRowCount,
@@ -26,6 +26,7 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.EmptyPageSource;
 import io.prestosql.spi.connector.UpdatablePageSource;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.split.EmptySplit;
 import io.prestosql.split.PageSourceProvider;
@@ -36,6 +37,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -56,6 +58,7 @@ public class TableScanOperator
         private final TableHandle table;
         private final List<ColumnHandle> columns;
         private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+        private final Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters;
         private boolean closed;
 
         public TableScanOperatorFactory(
@@ -64,7 +67,8 @@ public class TableScanOperator
                 PageSourceProvider pageSourceProvider,
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
-                Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+                Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+                Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters)
         {
             this.operatorId = operatorId;
             this.sourceId = requireNonNull(sourceId, "sourceId is null");
@@ -72,6 +76,7 @@ public class TableScanOperator
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+            this.dynamicBloomFilters = requireNonNull(dynamicBloomFilters, "dynamicBloomFilters is null");
         }
 
         @Override
@@ -109,7 +114,8 @@ public class TableScanOperator
                     pageSourceProvider,
                     table,
                     columns,
-                    dynamicFilter);
+                    dynamicFilter,
+                    dynamicBloomFilters);
         }
 
         @Override
@@ -126,7 +132,8 @@ public class TableScanOperator
                     pageSourceProvider,
                     table,
                     columns,
-                    dynamicFilter);
+                    dynamicFilter,
+                    dynamicBloomFilters);
         }
 
         @Override
@@ -142,6 +149,7 @@ public class TableScanOperator
     private final TableHandle table;
     private final List<ColumnHandle> columns;
     private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+    private final Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters;
     private final LocalMemoryContext systemMemoryContext;
     private final SettableFuture<?> blocked = SettableFuture.create();
 
@@ -149,6 +157,7 @@ public class TableScanOperator
     private Split split;
     @Nullable
     private ConnectorPageSource source;
+    private Optional<DynamicBloomFilterPageFilter> bloomFilterPageFilter = Optional.empty();
 
     private boolean finished;
 
@@ -161,7 +170,8 @@ public class TableScanOperator
             PageSourceProvider pageSourceProvider,
             TableHandle table,
             Iterable<ColumnHandle> columns,
-            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+            Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -169,6 +179,7 @@ public class TableScanOperator
         this.table = requireNonNull(table, "table is null");
         this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
         this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.dynamicBloomFilters = requireNonNull(dynamicBloomFilters, "dynamicBloomFilters is null");
         this.systemMemoryContext = operatorContext.newLocalSystemMemoryContext(TableScanOperator.class.getSimpleName());
     }
 
@@ -296,6 +307,7 @@ public class TableScanOperator
                 operatorContext.recordDynamicFilterSplitProcessed(1L);
             }
             source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, table, columns, dynamicFilter);
+            bloomFilterPageFilter = DynamicBloomFilterPageFilter.create(columns, dynamicBloomFilters.get());
         }
 
         Page page = source.getNextPage();
@@ -310,6 +322,10 @@ public class TableScanOperator
             operatorContext.recordProcessedInput(page.getSizeInBytes(), page.getPositionCount());
             completedBytes = endCompletedBytes;
             readTimeNanos = endReadTimeNanos;
+
+            if (bloomFilterPageFilter.isPresent()) {
+                page = bloomFilterPageFilter.get().filter(page);
+            }
         }
 
         // updating system memory usage should happen after page is loaded.
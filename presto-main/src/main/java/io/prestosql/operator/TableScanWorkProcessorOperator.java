@@ -29,6 +29,7 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.EmptyPageSource;
 import io.prestosql.spi.connector.UpdatablePageSource;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.split.EmptySplit;
 import io.prestosql.split.PageSourceProvider;
@@ -38,6 +39,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -61,7 +63,8 @@ public class TableScanWorkProcessorOperator
             PageSourceProvider pageSourceProvider,
             TableHandle table,
             Iterable<ColumnHandle> columns,
-            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+            Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters)
     {
         this.splitToPages = new SplitToPages(
                 session,
@@ -69,6 +72,7 @@ public class TableScanWorkProcessorOperator
                 table,
                 columns,
                 dynamicFilter,
+                dynamicBloomFilters,
                 memoryTrackingContext.aggregateSystemMemoryContext());
         this.pages = splits.flatTransform(splitToPages);
     }
@@ -135,6 +139,7 @@ public class TableScanWorkProcessorOperator
         final TableHandle table;
         final List<ColumnHandle> columns;
         final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+        final Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters;
         final AggregatedMemoryContext aggregatedMemoryContext;
 
         long processedBytes;
@@ -150,6 +155,7 @@ public class TableScanWorkProcessorOperator
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
                 Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
+                Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters,
                 AggregatedMemoryContext aggregatedMemoryContext)
         {
             this.session = requireNonNull(session, "session is null");
@@ -157,6 +163,7 @@ public class TableScanWorkProcessorOperator
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+            this.dynamicBloomFilters = requireNonNull(dynamicBloomFilters, "dynamicBloomFilters is null");
             this.aggregatedMemoryContext = requireNonNull(aggregatedMemoryContext, "aggregatedMemoryContext is null");
         }
 
@@ -179,13 +186,17 @@ public class TableScanWorkProcessorOperator
                 source = pageSourceProvider.createPageSource(session, split, table, columns, dynamicFilter);
             }
 
-            return TransformationState.ofResult(
-                    WorkProcessor.create(new ConnectorPageSourceToPages(aggregatedMemoryContext, source))
-                            .map(page -> {
-                                processedPositions += page.getPositionCount();
-                                recordMaterializedBytes(page, sizeInBytes -> processedBytes += sizeInBytes);
-                                return page;
-                            }));
+            WorkProcessor<Page> pages = WorkProcessor.create(new ConnectorPageSourceToPages(aggregatedMemoryContext, source))
+                    .map(page -> {
+                        processedPositions += page.getPositionCount();
+                        recordMaterializedBytes(page, sizeInBytes -> processedBytes += sizeInBytes);
+                        return page;
+                    });
+            Optional<DynamicBloomFilterPageFilter> bloomFilterPageFilter = DynamicBloomFilterPageFilter.create(columns, dynamicBloomFilters.get());
+            if (bloomFilterPageFilter.isPresent()) {
+                pages = pages.map(bloomFilterPageFilter.get()::filter);
+            }
+            return TransformationState.ofResult(pages);
         }
 
         Supplier<Optional<UpdatablePageSource>> getUpdatablePageSourceSupplier()
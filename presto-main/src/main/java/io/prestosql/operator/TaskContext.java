@@ -29,10 +29,12 @@ import io.prestosql.execution.TaskId;
 import io.prestosql.execution.TaskState;
 import io.prestosql.execution.TaskStateMachine;
 import io.prestosql.execution.buffer.LazyOutputBuffer;
+import io.prestosql.execution.buffer.PagesSerdeStats;
 import io.prestosql.memory.QueryContext;
 import io.prestosql.memory.QueryContextVisitor;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.memory.context.MemoryTrackingContext;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.sql.planner.plan.DynamicFilterId;
 import org.joda.time.DateTime;
@@ -106,9 +108,14 @@ public class TaskContext
 
     private final MemoryTrackingContext taskMemoryContext;
 
+    private final PagesSerdeStats pagesSerdeStats = new PagesSerdeStats();
+
     @GuardedBy("this")
     private final Map<DynamicFilterId, Domain> dynamicTupleDomains = new HashMap<>();
 
+    @GuardedBy("this")
+    private final Map<DynamicFilterId, BlockedBloomFilter> dynamicFilterBloomFilters = new HashMap<>();
+
     public static TaskContext createTaskContext(
             QueryContext queryContext,
             TaskStateMachine taskStateMachine,
@@ -382,6 +389,11 @@ public class TaskContext
         return toIntExact(max(0, endFullGcCount - startFullGcCount));
     }
 
+    public PagesSerdeStats getPagesSerdeStats()
+    {
+        return pagesSerdeStats;
+    }
+
     public synchronized void collectDynamicTupleDomain(Map<DynamicFilterId, Domain> dynamicFilterDomains)
     {
         for (Map.Entry<DynamicFilterId, Domain> entry : dynamicFilterDomains.entrySet()) {
@@ -394,6 +406,16 @@ public class TaskContext
         return ImmutableMap.copyOf(dynamicTupleDomains);
     }
 
+    public synchronized void collectDynamicFilterBloomFilters(Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
+    {
+        bloomFilters.forEach(dynamicFilterBloomFilters::putIfAbsent);
+    }
+
+    public synchronized Map<DynamicFilterId, BlockedBloomFilter> getDynamicFilterBloomFilters()
+    {
+        return ImmutableMap.copyOf(dynamicFilterBloomFilters);
+    }
+
     public TaskStats getTaskStats()
     {
         // check for end state to avoid callback ordering problems
@@ -547,6 +569,8 @@ public class TaskContext
                 succinctBytes(outputDataSize),
                 outputPositions,
                 succinctBytes(physicalWrittenDataSize),
+                succinctBytes(pagesSerdeStats.getAllocatedBytes()),
+                succinctBytes(pagesSerdeStats.getReusedBytes()),
                 fullGcCount,
                 fullGcTime,
                 pipelineStats);
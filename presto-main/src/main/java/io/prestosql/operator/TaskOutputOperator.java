@@ -98,7 +98,7 @@ public class TaskOutputOperator
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
         this.pagePreprocessor = requireNonNull(pagePreprocessor, "pagePreprocessor is null");
-        this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde();
+        this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde(operatorContext.getDriverContext().getPipelineContext().getTaskContext().getPagesSerdeStats());
     }
 
     @Override
@@ -116,7 +116,9 @@ public class TaskOutputOperator
     @Override
     public boolean isFinished()
     {
-        return finished && isBlocked().isDone();
+        // The output buffer finishes early when all consumers abort their buffers, for example when a broadcast
+        // join finds its lookup source in the cache, and the remaining input need not be produced
+        return (finished || outputBuffer.isFinished()) && isBlocked().isDone();
     }
 
     @Override
@@ -129,7 +131,7 @@ public class TaskOutputOperator
     @Override
     public boolean needsInput()
     {
-        return !finished && isBlocked().isDone();
+        return !finished && !outputBuffer.isFinished() && isBlocked().isDone();
     }
 
     @Override
@@ -148,6 +150,7 @@ public class TaskOutputOperator
 
         outputBuffer.enqueue(serializedPages);
         operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+        operatorContext.localSystemMemoryContext().setBytes(serde.getRetainedSizeInBytes());
     }
 
     @Override
@@ -79,6 +79,9 @@ public class TaskStats
 
     private final DataSize physicalWrittenDataSize;
 
+    private final DataSize pagesSerdeAllocatedDataSize;
+    private final DataSize pagesSerdeReusedDataSize;
+
     private final int fullGcCount;
     private final Duration fullGcTime;
 
@@ -121,6 +124,8 @@ public class TaskStats
                 DataSize.ofBytes(0),
                 0,
                 DataSize.ofBytes(0),
+                DataSize.ofBytes(0),
+                DataSize.ofBytes(0),
                 0,
                 new Duration(0, MILLISECONDS),
                 ImmutableList.of());
@@ -173,6 +178,9 @@ public class TaskStats
 
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
+            @JsonProperty("pagesSerdeAllocatedDataSize") DataSize pagesSerdeAllocatedDataSize,
+            @JsonProperty("pagesSerdeReusedDataSize") DataSize pagesSerdeReusedDataSize,
+
             @JsonProperty("fullGcCount") int fullGcCount,
             @JsonProperty("fullGcTime") Duration fullGcTime,
 
@@ -238,6 +246,9 @@ public class TaskStats
 
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "writtenDataSize is null");
 
+        this.pagesSerdeAllocatedDataSize = requireNonNull(pagesSerdeAllocatedDataSize, "pagesSerdeAllocatedDataSize is null");
+        this.pagesSerdeReusedDataSize = requireNonNull(pagesSerdeReusedDataSize, "pagesSerdeReusedDataSize is null");
+
         checkArgument(fullGcCount >= 0, "fullGcCount is negative");
         this.fullGcCount = fullGcCount;
         this.fullGcTime = requireNonNull(fullGcTime, "fullGcTime is null");
@@ -447,6 +458,18 @@ public class TaskStats
         return physicalWrittenDataSize;
     }
 
+    @JsonProperty
+    public DataSize getPagesSerdeAllocatedDataSize()
+    {
+        return pagesSerdeAllocatedDataSize;
+    }
+
+    @JsonProperty
+    public DataSize getPagesSerdeReusedDataSize()
+    {
+        return pagesSerdeReusedDataSize;
+    }
+
     @JsonProperty
     public List<PipelineStats> getPipelines()
     {
@@ -515,6 +538,8 @@ public class TaskStats
                 outputDataSize,
                 outputPositions,
                 physicalWrittenDataSize,
+                pagesSerdeAllocatedDataSize,
+                pagesSerdeReusedDataSize,
                 fullGcCount,
                 fullGcTime,
                 ImmutableList.of());
@@ -558,6 +583,8 @@ public class TaskStats
                 outputDataSize,
                 outputPositions,
                 physicalWrittenDataSize,
+                pagesSerdeAllocatedDataSize,
+                pagesSerdeReusedDataSize,
                 fullGcCount,
                 fullGcTime,
                 pipelines.stream()
@@ -21,6 +21,8 @@ import com.google.common.collect.PeekingIterator;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.WorkProcessor.ProcessState;
 import io.prestosql.operator.WorkProcessor.Transformation;
@@ -37,6 +39,8 @@ import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -52,6 +56,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterators.peekingIterator;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.operator.WorkProcessor.TransformationState.needsMoreData;
 import static io.prestosql.spi.block.SortOrder.ASC_NULLS_LAST;
 import static io.prestosql.util.MergeSortedPages.mergeSortedPages;
@@ -61,6 +66,11 @@ import static java.util.Objects.requireNonNull;
 public class WindowOperator
         implements Operator
 {
+    // Merging spilled runs buffers a page of each run, so runs are merged in multiple passes when there are more of them
+    private static final int MAX_SPILLED_RUNS_TO_MERGE = 64;
+    // Merged runs are spilled in chunks of about this size
+    private static final long MERGED_CHUNK_SIZE_IN_BYTES = DataSize.of(1, MEGABYTE).toBytes();
+
     public static class WindowOperatorFactory
             implements OperatorFactory
     {
@@ -79,6 +89,7 @@ public class WindowOperator
         private final PagesIndex.Factory pagesIndexFactory;
         private final boolean spillEnabled;
         private final SpillerFactory spillerFactory;
+        private final int maxSpilledRunsToMerge;
         private final OrderingCompiler orderingCompiler;
 
         public WindowOperatorFactory(
@@ -97,6 +108,44 @@ public class WindowOperator
                 boolean spillEnabled,
                 SpillerFactory spillerFactory,
                 OrderingCompiler orderingCompiler)
+        {
+            this(
+                    operatorId,
+                    planNodeId,
+                    sourceTypes,
+                    outputChannels,
+                    windowFunctionDefinitions,
+                    partitionChannels,
+                    preGroupedChannels,
+                    sortChannels,
+                    sortOrder,
+                    preSortedChannelPrefix,
+                    expectedPositions,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    MAX_SPILLED_RUNS_TO_MERGE,
+                    orderingCompiler);
+        }
+
+        @VisibleForTesting
+        WindowOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<WindowFunctionDefinition> windowFunctionDefinitions,
+                List<Integer> partitionChannels,
+                List<Integer> preGroupedChannels,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                int preSortedChannelPrefix,
+                int expectedPositions,
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                SpillerFactory spillerFactory,
+                int maxSpilledRunsToMerge,
+                OrderingCompiler orderingCompiler)
         {
             requireNonNull(sourceTypes, "sourceTypes is null");
             requireNonNull(planNodeId, "planNodeId is null");
@@ -113,6 +162,7 @@ public class WindowOperator
             checkArgument(sortChannels.size() == sortOrder.size(), "Must have same number of sort channels as sort orders");
             checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
             checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
+            checkArgument(maxSpilledRunsToMerge >= 2, "maxSpilledRunsToMerge must be at least 2");
 
             this.pagesIndexFactory = pagesIndexFactory;
             this.operatorId = operatorId;
@@ -128,6 +178,7 @@ public class WindowOperator
             this.expectedPositions = expectedPositions;
             this.spillEnabled = spillEnabled;
             this.spillerFactory = spillerFactory;
+            this.maxSpilledRunsToMerge = maxSpilledRunsToMerge;
             this.orderingCompiler = orderingCompiler;
         }
 
@@ -151,6 +202,7 @@ public class WindowOperator
                     pagesIndexFactory,
                     spillEnabled,
                     spillerFactory,
+                    maxSpilledRunsToMerge,
                     orderingCompiler);
         }
 
@@ -178,6 +230,7 @@ public class WindowOperator
                     pagesIndexFactory,
                     spillEnabled,
                     spillerFactory,
+                    maxSpilledRunsToMerge,
                     orderingCompiler);
         }
     }
@@ -209,6 +262,41 @@ public class WindowOperator
             boolean spillEnabled,
             SpillerFactory spillerFactory,
             OrderingCompiler orderingCompiler)
+    {
+        this(
+                operatorContext,
+                sourceTypes,
+                outputChannels,
+                windowFunctionDefinitions,
+                partitionChannels,
+                preGroupedChannels,
+                sortChannels,
+                sortOrder,
+                preSortedChannelPrefix,
+                expectedPositions,
+                pagesIndexFactory,
+                spillEnabled,
+                spillerFactory,
+                MAX_SPILLED_RUNS_TO_MERGE,
+                orderingCompiler);
+    }
+
+    WindowOperator(
+            OperatorContext operatorContext,
+            List<Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<WindowFunctionDefinition> windowFunctionDefinitions,
+            List<Integer> partitionChannels,
+            List<Integer> preGroupedChannels,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            int preSortedChannelPrefix,
+            int expectedPositions,
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            SpillerFactory spillerFactory,
+            int maxSpilledRunsToMerge,
+            OrderingCompiler orderingCompiler)
     {
         requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(outputChannels, "outputChannels is null");
@@ -288,6 +376,7 @@ public class WindowOperator
                     orderChannels,
                     ordering,
                     spillerFactory,
+                    maxSpilledRunsToMerge,
                     orderingCompiler.compilePageWithPositionComparator(sourceTypes, unGroupedOrderChannels, unGroupedOrdering)));
 
             this.outputPages = pageBuffer.pages()
@@ -543,6 +632,8 @@ public class WindowOperator
         final LocalMemoryContext localRevocableMemoryContext;
         final LocalMemoryContext localUserMemoryContext;
         final SpillerFactory spillerFactory;
+        final AggregatedMemoryContext spillerMemoryContext;
+        final int maxSpilledRunsToMerge;
         final PageWithPositionComparator pageWithPositionComparator;
 
         boolean spillingWhenConvertingRevocableMemory;
@@ -551,9 +642,21 @@ public class WindowOperator
 
         Optional<Page> currentSpillGroupRowPage;
         Optional<Spiller> spiller;
+        int spilledRunCount;
         // Spill can be trigger by Driver, by us or both. `spillInProgress` is not empty when spill was triggered but not `finishMemoryRevoke()` yet
         Optional<ListenableFuture<?>> spillInProgress = Optional.empty();
 
+        // State of the merge pass, which merges the runs of `spiller` into fewer runs of `mergeSpiller`
+        Optional<Spiller> mergeSpiller = Optional.empty();
+        // memory of the merge pass, closed when the pass finishes
+        Optional<AggregatedMemoryContext> mergeMemoryContext = Optional.empty();
+        Optional<LocalMemoryContext> mergedChunkMemoryContext = Optional.empty();
+        List<Iterator<Page>> runsToMerge = ImmutableList.of();
+        int mergedRunCount;
+        // the merged pages of the run being written, which are spilled in chunks
+        Optional<Iterator<Page>> mergedRun = Optional.empty();
+        Optional<ListenableFuture<?>> mergeInProgress = Optional.empty();
+
         SpillablePagesToPagesIndexes(
                 PagesIndexWithHashStrategies inMemoryPagesIndexWithHashStrategies,
                 PagesIndexWithHashStrategies mergedPagesIndexWithHashStrategies,
@@ -561,6 +664,7 @@ public class WindowOperator
                 List<Integer> orderChannels,
                 List<SortOrder> ordering,
                 SpillerFactory spillerFactory,
+                int maxSpilledRunsToMerge,
                 PageWithPositionComparator pageWithPositionComparator)
         {
             this.inMemoryPagesIndexWithHashStrategies = inMemoryPagesIndexWithHashStrategies;
@@ -571,6 +675,8 @@ public class WindowOperator
             this.localUserMemoryContext = operatorContext.aggregateUserMemoryContext().newLocalMemoryContext(SpillablePagesToPagesIndexes.class.getSimpleName());
             this.localRevocableMemoryContext = operatorContext.aggregateRevocableMemoryContext().newLocalMemoryContext(SpillablePagesToPagesIndexes.class.getSimpleName());
             this.spillerFactory = spillerFactory;
+            this.spillerMemoryContext = operatorContext.newAggregateSystemMemoryContext();
+            this.maxSpilledRunsToMerge = maxSpilledRunsToMerge;
             this.pageWithPositionComparator = pageWithPositionComparator;
 
             this.currentSpillGroupRowPage = Optional.empty();
@@ -602,6 +708,7 @@ public class WindowOperator
                 localRevocableMemoryContext.close();
                 localUserMemoryContext.close();
                 closeSpiller();
+                spillerMemoryContext.close();
                 return TransformationState.finished();
             }
 
@@ -623,6 +730,17 @@ public class WindowOperator
         {
             spiller.ifPresent(Spiller::close);
             spiller = Optional.empty();
+            spilledRunCount = 0;
+
+            mergeSpiller.ifPresent(Spiller::close);
+            mergeSpiller = Optional.empty();
+            mergeMemoryContext.ifPresent(AggregatedMemoryContext::close);
+            mergeMemoryContext = Optional.empty();
+            mergedChunkMemoryContext = Optional.empty();
+            runsToMerge = ImmutableList.of();
+            mergedRunCount = 0;
+            mergedRun = Optional.empty();
+            mergeInProgress = Optional.empty();
         }
 
         TransformationState<WorkProcessor<PagesIndexWithHashStrategies>> fullGroupBuffered()
@@ -640,11 +758,99 @@ public class WindowOperator
                 }
             }
 
+            if (mergeInProgress.isPresent() || spilledRunCount > maxSpilledRunsToMerge) {
+                Optional<ListenableFuture<?>> merge = mergeSpilledRuns();
+                if (merge.isPresent()) {
+                    return TransformationState.blocked(merge.get());
+                }
+            }
+
             sortPagesIndexIfNecessary(inMemoryPagesIndexWithHashStrategies, orderChannels, ordering);
             resetPagesIndex = true;
             return TransformationState.ofResult(unspill(), false);
         }
 
+        /**
+         * Merges the spilled runs, at most {@code maxSpilledRunsToMerge} at a time, until there are
+         * few enough runs to merge them all while unspilling. The runs are merged on the driver thread,
+         * since reading them ahead needs the spiller executor, and each call spills the next chunk of the
+         * merged run in the background. Returns empty when no more merging is needed.
+         */
+        Optional<ListenableFuture<?>> mergeSpilledRuns()
+        {
+            if (mergeInProgress.isPresent()) {
+                if (!mergeInProgress.get().isDone()) {
+                    return mergeInProgress;
+                }
+                checkSuccess(mergeInProgress.get(), "merging spilled runs failed");
+                mergeInProgress = Optional.empty();
+                mergedChunkMemoryContext.get().setBytes(0);
+            }
+
+            if (mergedRun.isPresent() && !mergedRun.get().hasNext()) {
+                mergedRun = Optional.empty();
+            }
+
+            if (mergeSpiller.isPresent() && mergedRun.isEmpty() && runsToMerge.isEmpty()) {
+                // the merge pass is complete, so the merged runs replace the spilled runs
+                spiller.get().close();
+                spiller = mergeSpiller;
+                spilledRunCount = mergedRunCount;
+                mergeSpiller = Optional.empty();
+                mergedRunCount = 0;
+                mergeMemoryContext.get().close();
+                mergeMemoryContext = Optional.empty();
+                mergedChunkMemoryContext = Optional.empty();
+            }
+
+            if (mergeSpiller.isEmpty()) {
+                if (spilledRunCount <= maxSpilledRunsToMerge) {
+                    return Optional.empty();
+                }
+                runsToMerge = new ArrayList<>(spiller.get().getSpills());
+                mergeSpiller = Optional.of(spillerFactory.create(
+                        sourceTypes,
+                        operatorContext.getSpillContext(),
+                        spillerMemoryContext));
+                mergeMemoryContext = Optional.of(operatorContext.newAggregateSystemMemoryContext());
+                mergedChunkMemoryContext = Optional.of(mergeMemoryContext.get().newLocalMemoryContext(SpillablePagesToPagesIndexes.class.getSimpleName()));
+            }
+
+            boolean newRun = mergedRun.isEmpty();
+            if (newRun) {
+                List<Iterator<Page>> runs = runsToMerge.subList(0, Math.min(maxSpilledRunsToMerge, runsToMerge.size()));
+                WorkProcessor<Page> mergedPages = mergeSortedPages(
+                        runs.stream()
+                                .map(WorkProcessor::fromIterator)
+                                .collect(toImmutableList()),
+                        pageWithPositionComparator,
+                        sourceTypes,
+                        mergeMemoryContext.get(),
+                        // the amount of work per call is bounded by the chunk size instead
+                        new DriverYieldSignal());
+                runs.clear();
+                mergedRunCount++;
+                mergedRun = Optional.of(mergedPages.iterator());
+            }
+
+            List<Page> chunk = new ArrayList<>();
+            long chunkBytes = 0;
+            while (chunkBytes < MERGED_CHUNK_SIZE_IN_BYTES && mergedRun.get().hasNext()) {
+                Page page = mergedRun.get().next();
+                chunk.add(page);
+                chunkBytes += page.getSizeInBytes();
+            }
+            mergedChunkMemoryContext.get().setBytes(chunkBytes);
+
+            if (newRun) {
+                mergeInProgress = Optional.of(mergeSpiller.get().spill(chunk.iterator()));
+            }
+            else {
+                mergeInProgress = Optional.of(mergeSpiller.get().spillToLastStream(chunk.iterator()));
+            }
+            return mergeInProgress;
+        }
+
         ListenableFuture<?> spill()
         {
             if (spillInProgress.isPresent()) {
@@ -662,7 +868,7 @@ public class WindowOperator
                 spiller = Optional.of(spillerFactory.create(
                         sourceTypes,
                         operatorContext.getSpillContext(),
-                        operatorContext.newAggregateSystemMemoryContext()));
+                        spillerMemoryContext));
             }
 
             verify(inMemoryPagesIndexWithHashStrategies.pagesIndex.getPositionCount() > 0);
@@ -672,6 +878,7 @@ public class WindowOperator
             verify(anyPage.getPositionCount() != 0, "PagesIndex.getSortedPages returned an empty page");
             currentSpillGroupRowPage = Optional.of(anyPage.getSingleValuePage(/* any */0));
             spillInProgress = Optional.of(spiller.get().spill(sortedPages));
+            spilledRunCount++;
 
             return spillInProgress.get();
         }
@@ -0,0 +1,415 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.aggregation.builder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.prestosql.operator.HashCollisionsCounter;
+import io.prestosql.operator.InterpretedHashGenerator;
+import io.prestosql.operator.OperatorContext;
+import io.prestosql.operator.UpdateMemory;
+import io.prestosql.operator.Work;
+import io.prestosql.operator.WorkProcessor;
+import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.JoinCompiler;
+import io.prestosql.sql.planner.plan.AggregationNode.Step;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hash aggregation that scatters the input positions into partitions by the top bits of
+ * their raw hash, and aggregates every partition in a separate {@link InMemoryHashAggregationBuilder}.
+ * The partitions are small enough for their hash tables to stay in CPU caches, even when
+ * the total number of groups is large.
+ * <p>
+ * Partitions are ordered by hash, so the concatenated hash sorted results of the partitions
+ * are hash sorted as a whole. This lets a subset of the partitions be spilled on its own.
+ */
+public class PartitionedHashAggregationBuilder
+        implements HashAggregationBuilder
+{
+    private final List<AccumulatorFactory> accumulatorFactories;
+    private final Step step;
+    private final int expectedGroupsPerPartition;
+    private final List<Type> groupByTypes;
+    private final List<Integer> groupByChannels;
+    private final Optional<Integer> hashChannel;
+    private final OperatorContext operatorContext;
+    private final OptionalLong maxPartialMemory;
+    private final JoinCompiler joinCompiler;
+    private final UpdateMemory updateMemory;
+
+    private final InMemoryHashAggregationBuilder[] partitions;
+    private final int partitionBits;
+    private final InterpretedHashGenerator hashGenerator;
+
+    // hash collisions of the partitions which were evicted
+    private long evictedHashCollisions;
+    private double evictedExpectedHashCollisions;
+
+    private boolean full;
+
+    public PartitionedHashAggregationBuilder(
+            List<AccumulatorFactory> accumulatorFactories,
+            Step step,
+            int expectedGroups,
+            List<Type> groupByTypes,
+            List<Integer> groupByChannels,
+            Optional<Integer> hashChannel,
+            OperatorContext operatorContext,
+            Optional<DataSize> maxPartialMemory,
+            int partitionCount,
+            JoinCompiler joinCompiler,
+            UpdateMemory updateMemory)
+    {
+        checkArgument(Integer.bitCount(partitionCount) == 1, "partitionCount must be a power of 2: %s", partitionCount);
+        this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+        this.step = requireNonNull(step, "step is null");
+        this.expectedGroupsPerPartition = max(expectedGroups / partitionCount, 1);
+        this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+        this.groupByChannels = ImmutableList.copyOf(requireNonNull(groupByChannels, "groupByChannels is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.maxPartialMemory = requireNonNull(maxPartialMemory, "maxPartialMemory is null")
+                .map(dataSize -> OptionalLong.of(dataSize.toBytes()))
+                .orElseGet(OptionalLong::empty);
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+
+        this.partitionBits = Integer.numberOfTrailingZeros(partitionCount);
+        this.hashGenerator = new InterpretedHashGenerator(this.groupByTypes, this.groupByChannels);
+        this.partitions = new InMemoryHashAggregationBuilder[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions[partition] = createPartition();
+        }
+    }
+
+    private InMemoryHashAggregationBuilder createPartition()
+    {
+        // the memory limit of partial aggregations applies to all partitions together
+        return new InMemoryHashAggregationBuilder(
+                accumulatorFactories,
+                step,
+                expectedGroupsPerPartition,
+                groupByTypes,
+                groupByChannels,
+                hashChannel,
+                operatorContext,
+                Optional.empty(),
+                joinCompiler,
+                updateMemory);
+    }
+
+    @Override
+    public Work<?> processPage(Page page)
+    {
+        if (partitions.length == 1) {
+            return partitions[0].processPage(page);
+        }
+        return new PartitionedWork(partitionPage(page));
+    }
+
+    private Page[] partitionPage(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        int[] partitionByPosition = new int[positionCount];
+        int[] partitionSizes = new int[partitions.length];
+        for (int position = 0; position < positionCount; position++) {
+            int partition = getPartition(getRawHash(page, position));
+            partitionByPosition[position] = partition;
+            partitionSizes[partition]++;
+        }
+
+        int[][] partitionPositions = new int[partitions.length][];
+        for (int partition = 0; partition < partitions.length; partition++) {
+            partitionPositions[partition] = new int[partitionSizes[partition]];
+        }
+        int[] partitionOffsets = new int[partitions.length];
+        for (int position = 0; position < positionCount; position++) {
+            int partition = partitionByPosition[position];
+            partitionPositions[partition][partitionOffsets[partition]++] = position;
+        }
+
+        // copy the positions, so that every partition processes a compact page of its own rows
+        Page[] partitionPages = new Page[partitions.length];
+        for (int partition = 0; partition < partitions.length; partition++) {
+            int partitionSize = partitionSizes[partition];
+            if (partitionSize == 0) {
+                continue;
+            }
+            if (partitionSize == positionCount) {
+                partitionPages[partition] = page;
+                continue;
+            }
+            Block[] blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = page.getBlock(channel).copyPositions(partitionPositions[partition], 0, partitionSize);
+            }
+            partitionPages[partition] = new Page(partitionSize, blocks);
+        }
+        return partitionPages;
+    }
+
+    private long getRawHash(Page page, int position)
+    {
+        if (hashChannel.isPresent()) {
+            return BIGINT.getLong(page.getBlock(hashChannel.get()), position);
+        }
+        return hashGenerator.hashPosition(position, page);
+    }
+
+    /**
+     * Partitions by the top bits of the hash with the sign bit flipped, so that partitions
+     * are in the same order as the signed raw hashes used to sort the results.
+     */
+    @VisibleForTesting
+    int getPartition(long rawHash)
+    {
+        if (partitionBits == 0) {
+            return 0;
+        }
+        return (int) ((rawHash ^ Long.MIN_VALUE) >>> (Long.SIZE - partitionBits));
+    }
+
+    @Override
+    public void updateMemory()
+    {
+        updateMemory.update();
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return full;
+    }
+
+    @Override
+    public void recordHashCollisions(HashCollisionsCounter hashCollisionsCounter)
+    {
+        hashCollisionsCounter.recordHashCollision(getHashCollisions(), getExpectedHashCollisions());
+    }
+
+    public long getHashCollisions()
+    {
+        long hashCollisions = evictedHashCollisions;
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            hashCollisions += partition.getHashCollisions();
+        }
+        return hashCollisions;
+    }
+
+    public double getExpectedHashCollisions()
+    {
+        double expectedHashCollisions = evictedExpectedHashCollisions;
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            expectedHashCollisions += partition.getExpectedHashCollisions();
+        }
+        return expectedHashCollisions;
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        throw new UnsupportedOperationException("startMemoryRevoke not supported for PartitionedHashAggregationBuilder");
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        throw new UnsupportedOperationException("finishMemoryRevoke not supported for PartitionedHashAggregationBuilder");
+    }
+
+    public long getSizeInMemory()
+    {
+        long sizeInMemory = 0;
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            sizeInMemory += partition.getSizeInMemory();
+        }
+
+        if (step.isOutputPartial() && maxPartialMemory.isPresent()) {
+            full = sizeInMemory > maxPartialMemory.getAsLong();
+        }
+        return sizeInMemory;
+    }
+
+    /**
+     * building hash sorted results requires memory for sorting group IDs.
+     * This method returns size of that memory requirement.
+     */
+    public long getGroupIdsSortingSize()
+    {
+        long groupIdsSortingSize = 0;
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            groupIdsSortingSize += partition.getGroupIdsSortingSize();
+        }
+        return groupIdsSortingSize;
+    }
+
+    public void setOutputPartial()
+    {
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            partition.setOutputPartial();
+        }
+    }
+
+    public int getKeyChannels()
+    {
+        return partitions[0].getKeyChannels();
+    }
+
+    public long getGroupCount()
+    {
+        long groupCount = 0;
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            groupCount += partition.getGroupCount();
+        }
+        return groupCount;
+    }
+
+    @VisibleForTesting
+    public int getPartitionCount()
+    {
+        return partitions.length;
+    }
+
+    @Override
+    public WorkProcessor<Page> buildResult()
+    {
+        return WorkProcessor.fromIterable(ImmutableList.copyOf(partitions))
+                .flatMap(InMemoryHashAggregationBuilder::buildResult);
+    }
+
+    public WorkProcessor<Page> buildHashSortedResult()
+    {
+        return WorkProcessor.fromIterable(ImmutableList.copyOf(partitions))
+                .flatMap(InMemoryHashAggregationBuilder::buildHashSortedResult);
+    }
+
+    /**
+     * Replaces the largest partitions, which together hold at least {@code minimumBytes} of memory,
+     * with empty partitions. Returns the hash sorted partial results of the replaced partitions,
+     * which keep owning their memory until the results are consumed.
+     */
+    public WorkProcessor<Page> evictPartitions(long minimumBytes)
+    {
+        List<Integer> partitionsBySize = IntStream.range(0, partitions.length).boxed()
+                .sorted(Comparator.comparingLong((Integer partition) -> partitions[partition].getSizeInMemory()).reversed())
+                .collect(toImmutableList());
+
+        boolean[] evicted = new boolean[partitions.length];
+        long evictedBytes = 0;
+        for (int partition : partitionsBySize) {
+            if (evictedBytes >= minimumBytes) {
+                break;
+            }
+            evictedBytes += partitions[partition].getSizeInMemory();
+            evicted[partition] = true;
+        }
+
+        ImmutableList.Builder<InMemoryHashAggregationBuilder> evictedPartitions = ImmutableList.builder();
+        for (int partition = 0; partition < partitions.length; partition++) {
+            if (!evicted[partition]) {
+                continue;
+            }
+            InMemoryHashAggregationBuilder evictedPartition = partitions[partition];
+            evictedPartition.setOutputPartial();
+            evictedHashCollisions += evictedPartition.getHashCollisions();
+            evictedExpectedHashCollisions += evictedPartition.getExpectedHashCollisions();
+            evictedPartitions.add(evictedPartition);
+            partitions[partition] = createPartition();
+        }
+
+        return WorkProcessor.fromIterable(evictedPartitions.build())
+                .flatMap(InMemoryHashAggregationBuilder::buildHashSortedResult);
+    }
+
+    public List<Type> buildIntermediateTypes()
+    {
+        return partitions[0].buildIntermediateTypes();
+    }
+
+    public List<Type> buildTypes()
+    {
+        return partitions[0].buildTypes();
+    }
+
+    @Override
+    public void close()
+    {
+        for (InMemoryHashAggregationBuilder partition : partitions) {
+            partition.close();
+        }
+    }
+
+    /**
+     * Processes the pages of the partitions one after the other. The work of
+     * a partition can yield, in which case it is resumed on the next call.
+     */
+    private class PartitionedWork
+            implements Work<Void>
+    {
+        private final Page[] partitionPages;
+        private int partition;
+        private Work<?> partitionWork;
+
+        private PartitionedWork(Page[] partitionPages)
+        {
+            this.partitionPages = requireNonNull(partitionPages, "partitionPages is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            while (partition < partitionPages.length) {
+                if (partitionWork == null) {
+                    if (partitionPages[partition] == null) {
+                        partition++;
+                        continue;
+                    }
+                    partitionWork = partitions[partition].processPage(partitionPages[partition]);
+                }
+                if (!partitionWork.process()) {
+                    return false;
+                }
+                partitionWork = null;
+                partitionPages[partition] = null;
+                partition++;
+            }
+            return true;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            checkState(partition == partitionPages.length, "process has not finished");
+            return null;
+        }
+    }
+}
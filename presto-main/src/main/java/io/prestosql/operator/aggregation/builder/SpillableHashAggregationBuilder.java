@@ -40,13 +40,14 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.prestosql.SystemSessionProperties.getAggregationOperatorPartitionCount;
 import static io.prestosql.operator.Operator.NOT_BLOCKED;
 import static java.lang.Math.max;
 
 public class SpillableHashAggregationBuilder
         implements HashAggregationBuilder
 {
-    private InMemoryHashAggregationBuilder hashAggregationBuilder;
+    private PartitionedHashAggregationBuilder hashAggregationBuilder;
     private final SpillerFactory spillerFactory;
     private final List<AccumulatorFactory> accumulatorFactories;
     private final AggregationNode.Step step;
@@ -59,6 +60,7 @@ public class SpillableHashAggregationBuilder
     private final LocalMemoryContext localRevocableMemoryContext;
     private final long memoryLimitForMerge;
     private final long memoryLimitForMergeWithMemory;
+    private final int partitionCount;
     private Optional<Spiller> spiller = Optional.empty();
     private Optional<MergingHashAggregationBuilder> merger = Optional.empty();
     private Optional<MergeHashSort> mergeHashSort = Optional.empty();
@@ -98,6 +100,7 @@ public class SpillableHashAggregationBuilder
         this.memoryLimitForMergeWithMemory = memoryLimitForMergeWithMemory.toBytes();
         this.spillerFactory = spillerFactory;
         this.joinCompiler = joinCompiler;
+        this.partitionCount = getAggregationOperatorPartitionCount(operatorContext.getSession());
 
         rebuildHashAggregationBuilder();
     }
@@ -162,6 +165,9 @@ public class SpillableHashAggregationBuilder
             return NOT_BLOCKED;
         }
 
+        if (partitionCount > 1) {
+            return spillLargestPartitionsToDisk();
+        }
         return spillToDisk();
     }
 
@@ -244,13 +250,7 @@ public class SpillableHashAggregationBuilder
     {
         checkState(hasPreviousSpillCompletedSuccessfully(), "Previous spill hasn't yet finished");
         hashAggregationBuilder.setOutputPartial();
-
-        if (spiller.isEmpty()) {
-            spiller = Optional.of(spillerFactory.create(
-                    hashAggregationBuilder.buildTypes(),
-                    operatorContext.getSpillContext(),
-                    operatorContext.newAggregateSystemMemoryContext()));
-        }
+        createSpillerIfNecessary();
 
         // start spilling process with current content of the hashAggregationBuilder builder...
         spillInProgress = spiller.get().spill(hashAggregationBuilder.buildHashSortedResult().iterator());
@@ -261,6 +261,33 @@ public class SpillableHashAggregationBuilder
         return spillInProgress;
     }
 
+    /**
+     * Spills the largest partitions, which hold at least half of the revocable memory,
+     * and keeps aggregating the remaining partitions in memory.
+     */
+    private ListenableFuture<?> spillLargestPartitionsToDisk()
+    {
+        checkState(hasPreviousSpillCompletedSuccessfully(), "Previous spill hasn't yet finished");
+        createSpillerIfNecessary();
+
+        // evicted partitions are replaced with empty ones, so memory ownership over
+        // the evicted partitions is transferred from this thread to a spilling thread
+        long revocableBytes = hashAggregationBuilder.getSizeInMemory() - emptyHashAggregationBuilderSize;
+        spillInProgress = spiller.get().spill(hashAggregationBuilder.evictPartitions(revocableBytes / 2).iterator());
+
+        return spillInProgress;
+    }
+
+    private void createSpillerIfNecessary()
+    {
+        if (spiller.isEmpty()) {
+            spiller = Optional.of(spillerFactory.create(
+                    hashAggregationBuilder.buildTypes(),
+                    operatorContext.getSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+    }
+
     private WorkProcessor<Page> mergeFromDiskAndMemory()
     {
         checkState(spiller.isPresent());
@@ -325,7 +352,7 @@ public class SpillableHashAggregationBuilder
             hashAggregationBuilder.close();
         }
 
-        hashAggregationBuilder = new InMemoryHashAggregationBuilder(
+        hashAggregationBuilder = new PartitionedHashAggregationBuilder(
                 accumulatorFactories,
                 step,
                 expectedGroups,
@@ -334,6 +361,7 @@ public class SpillableHashAggregationBuilder
                 hashChannel,
                 operatorContext,
                 Optional.of(DataSize.succinctBytes(0)),
+                partitionCount,
                 joinCompiler,
                 () -> {
                     updateMemory();
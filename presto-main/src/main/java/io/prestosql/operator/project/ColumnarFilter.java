@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.spi.block.Block;
+
+/**
+ * A predicate on a single channel, which is evaluated for a batch of positions at a time.
+ */
+public interface ColumnarFilter
+{
+    int getChannel();
+
+    /**
+     * Retains the positions for which the predicate is true, moving them to the
+     * beginning of {@code positions} in their original order.
+     *
+     * @return the number of retained positions
+     */
+    int filter(Block block, int[] positions, int positionCount);
+}
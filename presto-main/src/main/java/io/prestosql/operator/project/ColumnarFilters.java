@@ -0,0 +1,547 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.IntArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.block.VariableWidthBlock;
+import io.prestosql.spi.type.Type;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.Collection;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.type.RealType.REAL;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Columnar implementations of simple predicates. Each filter has a loop specialized
+ * for the flat block types, in which the value access is monomorphic and the selection
+ * is branch free, and a generic loop for the other encodings. Null values never match.
+ */
+public final class ColumnarFilters
+{
+    private ColumnarFilters() {}
+
+    public static ColumnarFilter isNull(int channel, boolean negated)
+    {
+        return new IsNullFilter(channel, negated);
+    }
+
+    /**
+     * Values of a type represented as long, which are within {@code [low, high]}, or outside of it when negated.
+     */
+    public static ColumnarFilter longRange(int channel, Type type, long low, long high, boolean negated)
+    {
+        return new LongRangeFilter(channel, type, low, high, negated);
+    }
+
+    public static ColumnarFilter longIn(int channel, Type type, Collection<Long> values, boolean negated)
+    {
+        return new LongInFilter(channel, type, new LongOpenHashSet(values), negated);
+    }
+
+    /**
+     * Values of DOUBLE or REAL type, which are within {@code [low, high]}, or outside of it when negated.
+     */
+    public static ColumnarFilter doubleRange(int channel, Type type, double low, double high, boolean negated)
+    {
+        return new DoubleRangeFilter(channel, type, low, high, negated);
+    }
+
+    /**
+     * Values of VARCHAR type within the range. A null bound means the range is unbounded on that side.
+     */
+    public static ColumnarFilter sliceRange(int channel, Slice low, boolean lowInclusive, Slice high, boolean highInclusive)
+    {
+        return new SliceRangeFilter(channel, low, lowInclusive, high, highInclusive);
+    }
+
+    public static ColumnarFilter sliceIn(int channel, Type type, Collection<Slice> values, boolean negated)
+    {
+        return new SliceInFilter(channel, type, ImmutableSet.copyOf(values), negated);
+    }
+
+    private static final class IsNullFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final boolean negated;
+
+        private IsNullFilter(int channel, boolean negated)
+        {
+            this.channel = channel;
+            this.negated = negated;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (!block.mayHaveNull()) {
+                return negated ? positionCount : 0;
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                positions[selectedCount] = position;
+                selectedCount += block.isNull(position) != negated ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+
+    private static final class LongRangeFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final Type type;
+        private final long low;
+        private final long high;
+        private final boolean negated;
+
+        private LongRangeFilter(int channel, Type type, long low, long high, boolean negated)
+        {
+            checkArgument(type.getJavaType() == long.class, "Type is not represented as long: %s", type);
+            this.channel = channel;
+            this.type = type;
+            this.low = low;
+            this.high = high;
+            this.negated = negated;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (block instanceof LongArrayBlock) {
+                return filter((LongArrayBlock) block, positions, positionCount);
+            }
+            if (block instanceof IntArrayBlock) {
+                return filter((IntArrayBlock) block, positions, positionCount);
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (!block.isNull(position) && test(type.getLong(block, position))) {
+                    positions[selectedCount] = position;
+                    selectedCount++;
+                }
+            }
+            return selectedCount;
+        }
+
+        private int filter(LongArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                long value = block.getLong(position, 0);
+                positions[selectedCount] = position;
+                selectedCount += test(value) && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private int filter(IntArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                long value = block.getInt(position, 0);
+                positions[selectedCount] = position;
+                selectedCount += test(value) && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private boolean test(long value)
+        {
+            return (low <= value & value <= high) != negated;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("low", low)
+                    .add("high", high)
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+
+    private static final class LongInFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final Type type;
+        private final LongSet values;
+        private final boolean negated;
+
+        private LongInFilter(int channel, Type type, LongSet values, boolean negated)
+        {
+            checkArgument(type.getJavaType() == long.class, "Type is not represented as long: %s", type);
+            this.channel = channel;
+            this.type = type;
+            this.values = requireNonNull(values, "values is null");
+            this.negated = negated;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (block instanceof LongArrayBlock) {
+                return filter((LongArrayBlock) block, positions, positionCount);
+            }
+            if (block instanceof IntArrayBlock) {
+                return filter((IntArrayBlock) block, positions, positionCount);
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (!block.isNull(position) && values.contains(type.getLong(block, position)) != negated) {
+                    positions[selectedCount] = position;
+                    selectedCount++;
+                }
+            }
+            return selectedCount;
+        }
+
+        private int filter(LongArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                positions[selectedCount] = position;
+                selectedCount += values.contains(block.getLong(position, 0)) != negated && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private int filter(IntArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                positions[selectedCount] = position;
+                selectedCount += values.contains(block.getInt(position, 0)) != negated && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("values", values)
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+
+    private static final class DoubleRangeFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final Type type;
+        private final boolean real;
+        private final double low;
+        private final double high;
+        private final boolean negated;
+
+        private DoubleRangeFilter(int channel, Type type, double low, double high, boolean negated)
+        {
+            checkArgument(type.getJavaType() == double.class || type.equals(REAL), "Type is not DOUBLE or REAL: %s", type);
+            this.channel = channel;
+            this.type = type;
+            this.real = type.equals(REAL);
+            this.low = low;
+            this.high = high;
+            this.negated = negated;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (!real && block instanceof LongArrayBlock) {
+                return filter((LongArrayBlock) block, positions, positionCount);
+            }
+            if (real && block instanceof IntArrayBlock) {
+                return filter((IntArrayBlock) block, positions, positionCount);
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (!block.isNull(position) && test(real ? intBitsToFloat((int) type.getLong(block, position)) : type.getDouble(block, position))) {
+                    positions[selectedCount] = position;
+                    selectedCount++;
+                }
+            }
+            return selectedCount;
+        }
+
+        private int filter(LongArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                double value = longBitsToDouble(block.getLong(position, 0));
+                positions[selectedCount] = position;
+                selectedCount += test(value) && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private int filter(IntArrayBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                double value = intBitsToFloat(block.getInt(position, 0));
+                positions[selectedCount] = position;
+                selectedCount += test(value) && !(mayHaveNull && block.isNull(position)) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private boolean test(double value)
+        {
+            // comparisons with NaN are false, so NaN only matches a negated range
+            return (low <= value & value <= high) != negated;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("low", low)
+                    .add("high", high)
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+
+    private static final class SliceRangeFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final Slice low;
+        private final boolean lowInclusive;
+        private final Slice high;
+        private final boolean highInclusive;
+
+        private SliceRangeFilter(int channel, Slice low, boolean lowInclusive, Slice high, boolean highInclusive)
+        {
+            checkArgument(low != null || high != null, "range is unbounded");
+            this.channel = channel;
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (block instanceof VariableWidthBlock) {
+                return filter((VariableWidthBlock) block, positions, positionCount);
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (!block.isNull(position) && test(block, position)) {
+                    positions[selectedCount] = position;
+                    selectedCount++;
+                }
+            }
+            return selectedCount;
+        }
+
+        private int filter(VariableWidthBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                positions[selectedCount] = position;
+                selectedCount += !(mayHaveNull && block.isNull(position)) && test(block, position) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private boolean test(Block block, int position)
+        {
+            int length = block.getSliceLength(position);
+            if (low != null) {
+                int comparison = block.bytesCompare(position, 0, length, low, 0, low.length());
+                if (comparison < 0 || (comparison == 0 && !lowInclusive)) {
+                    return false;
+                }
+            }
+            if (high != null) {
+                int comparison = block.bytesCompare(position, 0, length, high, 0, high.length());
+                return comparison < 0 || (comparison == 0 && highInclusive);
+            }
+            return true;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("low", low == null ? null : low.toStringUtf8())
+                    .add("lowInclusive", lowInclusive)
+                    .add("high", high == null ? null : high.toStringUtf8())
+                    .add("highInclusive", highInclusive)
+                    .toString();
+        }
+    }
+
+    private static final class SliceInFilter
+            implements ColumnarFilter
+    {
+        private final int channel;
+        private final Type type;
+        private final Set<Slice> values;
+        // most lists have a single value, which is compared without creating a slice for each position
+        private final Slice singleValue;
+        private final boolean negated;
+
+        private SliceInFilter(int channel, Type type, Set<Slice> values, boolean negated)
+        {
+            checkArgument(type.getJavaType() == Slice.class, "Type is not represented as Slice: %s", type);
+            this.channel = channel;
+            this.type = type;
+            this.values = requireNonNull(values, "values is null");
+            this.singleValue = values.size() == 1 ? values.iterator().next() : null;
+            this.negated = negated;
+        }
+
+        @Override
+        public int getChannel()
+        {
+            return channel;
+        }
+
+        @Override
+        public int filter(Block block, int[] positions, int positionCount)
+        {
+            if (block instanceof VariableWidthBlock) {
+                return filter((VariableWidthBlock) block, positions, positionCount);
+            }
+
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (!block.isNull(position) && test(block, position)) {
+                    positions[selectedCount] = position;
+                    selectedCount++;
+                }
+            }
+            return selectedCount;
+        }
+
+        private int filter(VariableWidthBlock block, int[] positions, int positionCount)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selectedCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                positions[selectedCount] = position;
+                selectedCount += !(mayHaveNull && block.isNull(position)) && test(block, position) ? 1 : 0;
+            }
+            return selectedCount;
+        }
+
+        private boolean test(Block block, int position)
+        {
+            if (singleValue != null) {
+                int length = block.getSliceLength(position);
+                return (length == singleValue.length() && block.bytesEqual(position, 0, singleValue, 0, length)) != negated;
+            }
+            return values.contains(type.getSlice(block, position)) != negated;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("valueCount", values.size())
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+}
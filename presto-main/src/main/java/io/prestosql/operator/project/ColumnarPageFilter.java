@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.connector.ConnectorSession;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
+import static io.prestosql.operator.project.SelectedPositions.positionsRange;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filter which evaluates the simple conjuncts of a predicate one column at a time, and
+ * the remaining conjuncts with a compiled filter over the positions selected by them.
+ */
+public class ColumnarPageFilter
+        implements PageFilter
+{
+    // pages between reorderings of the filters by their observed selectivity
+    private static final int REORDER_INTERVAL = 16;
+
+    private final ColumnarFilter[] filters;
+    private final Optional<PageFilter> remainingFilter;
+    private final InputChannels inputChannels;
+
+    // the filters run in this order, so that the most selective ones run first
+    private final int[] order;
+    private final long[] inputPositions;
+    private final long[] retainedPositions;
+    private int pagesUntilReorder = REORDER_INTERVAL;
+
+    public ColumnarPageFilter(List<ColumnarFilter> filters, Optional<PageFilter> remainingFilter, InputChannels inputChannels)
+    {
+        checkArgument(!requireNonNull(filters, "filters is null").isEmpty(), "filters is empty");
+        this.filters = filters.toArray(new ColumnarFilter[0]);
+        this.remainingFilter = requireNonNull(remainingFilter, "remainingFilter is null");
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+        this.order = new int[this.filters.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        this.inputPositions = new long[this.filters.length];
+        this.retainedPositions = new long[this.filters.length];
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return remainingFilter.map(PageFilter::isDeterministic).orElse(true);
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        int positionCount = page.getPositionCount();
+        int[] positions = new int[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            positions[position] = position;
+        }
+
+        int selectedCount = positionCount;
+        for (int i = 0; i < order.length && selectedCount > 0; i++) {
+            int filterIndex = order[i];
+            ColumnarFilter filter = filters[filterIndex];
+            inputPositions[filterIndex] += selectedCount;
+            selectedCount = filter(filter, page.getBlock(filter.getChannel()), positions, selectedCount, positionCount);
+            retainedPositions[filterIndex] += selectedCount;
+        }
+        if (--pagesUntilReorder == 0) {
+            reorderFilters();
+            pagesUntilReorder = REORDER_INTERVAL;
+        }
+
+        if (remainingFilter.isPresent() && selectedCount > 0) {
+            PageFilter filter = remainingFilter.get();
+            Page remainingPage = filter.getInputChannels().getInputChannels(page);
+            if (selectedCount != positionCount) {
+                remainingPage = remainingPage.getPositions(positions, 0, selectedCount);
+            }
+            selectedCount = retainPositions(positions, filter.filter(session, remainingPage));
+        }
+
+        if (selectedCount == 0 || selectedCount == positionCount) {
+            return positionsRange(0, selectedCount);
+        }
+        return positionsList(positions, 0, selectedCount);
+    }
+
+    private static int filter(ColumnarFilter filter, Block block, int[] positions, int selectedCount, int positionCount)
+    {
+        if (selectedCount < positionCount && block instanceof LazyBlock) {
+            // decode only the positions selected by the previous filters, when the reader supports it;
+            // PageProcessor only passes lazy blocks supporting this when no one else holds the page
+            Optional<Block> selectedBlock = ((LazyBlock) block).loadPositions(positions, 0, selectedCount);
+            if (selectedBlock.isPresent()) {
+                int[] selected = new int[selectedCount];
+                for (int i = 0; i < selectedCount; i++) {
+                    selected[i] = i;
+                }
+                int retainedCount = filter.filter(selectedBlock.get(), selected, selectedCount);
+                // retained positions are increasing, so positions can be overwritten in place
+                for (int i = 0; i < retainedCount; i++) {
+                    positions[i] = positions[selected[i]];
+                }
+                return retainedCount;
+            }
+        }
+        return filter.filter(block.getLoadedBlock(), positions, selectedCount);
+    }
+
+    private void reorderFilters()
+    {
+        // insertion sort by the fraction of positions retained, which keeps the order of equally selective filters
+        for (int i = 1; i < order.length; i++) {
+            int filterIndex = order[i];
+            double selectivity = getSelectivity(filterIndex);
+            int j = i - 1;
+            while (j >= 0 && getSelectivity(order[j]) > selectivity) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = filterIndex;
+        }
+    }
+
+    private double getSelectivity(int filterIndex)
+    {
+        if (inputPositions[filterIndex] == 0) {
+            // not evaluated yet
+            return 1.0;
+        }
+        return (double) retainedPositions[filterIndex] / inputPositions[filterIndex];
+    }
+
+    private static int retainPositions(int[] positions, SelectedPositions selectedPositions)
+    {
+        int offset = selectedPositions.getOffset();
+        int size = selectedPositions.size();
+        if (!selectedPositions.isList()) {
+            System.arraycopy(positions, offset, positions, 0, size);
+            return size;
+        }
+
+        // selected positions are increasing, so positions can be overwritten in place
+        int[] selected = selectedPositions.getPositions();
+        for (int i = 0; i < size; i++) {
+            positions[i] = positions[selected[offset + i]];
+        }
+        return size;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("filters", ImmutableList.copyOf(filters))
+                .add("remainingFilter", remainingFilter.orElse(null))
+                .toString();
+    }
+}
@@ -25,6 +25,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.DictionaryId;
+import io.prestosql.spi.block.LazyBlock;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.sql.gen.ExpressionProfiler;
 
@@ -109,15 +110,28 @@ public class PageProcessor
     }
 
     public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, boolean avoidPageMaterialization)
+    {
+        return createWorkProcessor(session, yieldSignal, memoryContext, page, avoidPageMaterialization, false);
+    }
+
+    /**
+     * @param ownsPage true if the page is not referenced outside of the processor, so that its lazy blocks
+     * may be loaded only at the positions selected by the filter
+     */
+    public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page inputPage, boolean avoidPageMaterialization, boolean ownsPage)
     {
         // limit the scope of the dictionary ids to just one page
         dictionarySourceIdFunction.reset();
 
-        if (page.getPositionCount() == 0) {
+        if (inputPage.getPositionCount() == 0) {
             return WorkProcessor.of();
         }
 
+        Page page = inputPage;
         if (filter.isPresent()) {
+            if (!ownsPage) {
+                page = wrapSharedLazyBlocks(page);
+            }
             SelectedPositions selectedPositions = filter.get().filter(session, filter.get().getInputChannels().getInputChannels(page));
             if (selectedPositions.isEmpty()) {
                 return WorkProcessor.of();
@@ -129,6 +143,9 @@ public class PageProcessor
             }
 
             if (selectedPositions.size() != page.getPositionCount()) {
+                if (ownsPage && selectedPositions.isList()) {
+                    retainSelectedPositions(page, selectedPositions);
+                }
                 return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, selectedPositions, avoidPageMaterialization));
             }
         }
@@ -136,6 +153,41 @@ public class PageProcessor
         return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount()), avoidPageMaterialization));
     }
 
+    private static Page wrapSharedLazyBlocks(Page page)
+    {
+        // loading only some positions of a lazy block leaves the values of the other positions undefined,
+        // so the lazy blocks of a page with other holders are replaced with blocks which load all positions
+        Block[] blocks = null;
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            Block block = page.getBlock(channel);
+            if (block instanceof LazyBlock && !block.isLoaded()) {
+                if (blocks == null) {
+                    blocks = new Block[page.getChannelCount()];
+                    for (int i = 0; i < blocks.length; i++) {
+                        blocks[i] = page.getBlock(i);
+                    }
+                }
+                blocks[channel] = new LazyBlock(block.getPositionCount(), block::getLoadedBlock);
+            }
+        }
+        if (blocks == null) {
+            return page;
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    private static void retainSelectedPositions(Page page, SelectedPositions selectedPositions)
+    {
+        // projections only access the selected positions, so the columns not loaded by the filter
+        // can skip the values of the other positions
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            Block block = page.getBlock(channel);
+            if (block instanceof LazyBlock && !block.isLoaded()) {
+                ((LazyBlock) block).retainPositions(selectedPositions.getPositions(), selectedPositions.getOffset(), selectedPositions.size());
+            }
+        }
+    }
+
     private class ProjectSelectedPositions
             implements WorkProcessor.Process<Page>
     {
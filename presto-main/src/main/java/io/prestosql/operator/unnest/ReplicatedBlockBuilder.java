@@ -15,6 +15,7 @@ package io.prestosql.operator.unnest;
 
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
 
 import java.util.Arrays;
 
@@ -25,7 +26,9 @@ import static io.prestosql.operator.unnest.UnnestOperatorBlockUtil.calculateNewA
 import static java.util.Objects.requireNonNull;
 
 /**
- * This class manages the details for building replicate channel blocks without copying input data
+ * This class manages the details for building replicate channel blocks without copying input data.
+ * An output with a single source element, e.g. when a large array is unnested, is built as a
+ * run-length encoded block, and any other output as a dictionary over the source block.
  */
 class ReplicatedBlockBuilder
 {
@@ -33,6 +36,10 @@ class ReplicatedBlockBuilder
     private int[] ids;
     private int positionCount;
 
+    // while all the output positions repeat the same source element, ids are not filled
+    private boolean singleElement;
+    private int singleElementIndex;
+
     public void resetInputBlock(Block block)
     {
         this.source = requireNonNull(block, "block is null");
@@ -43,6 +50,7 @@ class ReplicatedBlockBuilder
         checkState(source != null, "source is null");
         this.ids = new int[expectedEntries];
         this.positionCount = 0;
+        this.singleElement = true;
     }
 
     /**
@@ -54,24 +62,65 @@ class ReplicatedBlockBuilder
         checkElementIndex(index, source.getPositionCount());
         checkArgument(count >= 0, "count should be >= 0");
 
+        if (count == 0) {
+            return;
+        }
+        if (positionCount == 0) {
+            singleElementIndex = index;
+        }
+        if (singleElement && index == singleElementIndex) {
+            positionCount += count;
+            return;
+        }
+
         if (positionCount + count > ids.length) {
             // Grow capacity
             int newSize = Math.max(calculateNewArraySize(ids.length), positionCount + count);
             ids = Arrays.copyOf(ids, newSize);
         }
 
+        if (singleElement) {
+            Arrays.fill(ids, 0, positionCount, singleElementIndex);
+            singleElement = false;
+        }
         Arrays.fill(ids, positionCount, positionCount + count, index);
         positionCount += count;
     }
 
     public Block buildOutputAndFlush()
     {
-        Block outputBlock = new DictionaryBlock(positionCount, source, ids);
+        Block outputBlock;
+        if (singleElement && positionCount > 0 && source.isLoaded()) {
+            outputBlock = new RunLengthEncodedBlock(source.getSingleValueBlock(singleElementIndex), positionCount);
+        }
+        else if (singleElement) {
+            // do not load a lazy source just to extract the single element
+            outputBlock = new DictionaryBlock(positionCount, source, fillIds(singleElementIndex));
+        }
+        else if (source instanceof DictionaryBlock) {
+            // avoid a dictionary over a dictionary
+            DictionaryBlock dictionaryBlock = (DictionaryBlock) source;
+            for (int i = 0; i < positionCount; i++) {
+                ids[i] = dictionaryBlock.getId(ids[i]);
+            }
+            outputBlock = new DictionaryBlock(positionCount, dictionaryBlock.getDictionary(), ids);
+        }
+        else {
+            outputBlock = new DictionaryBlock(positionCount, source, ids);
+        }
 
         // Flush stored state, so that ids cannot be modified after the dictionary has been constructed
         ids = new int[0];
         positionCount = 0;
+        singleElement = true;
 
         return outputBlock;
     }
+
+    private int[] fillIds(int index)
+    {
+        int[] singleElementIds = new int[positionCount];
+        Arrays.fill(singleElementIds, index);
+        return singleElementIds;
+    }
 }
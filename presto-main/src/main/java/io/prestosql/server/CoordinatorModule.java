@@ -44,6 +44,7 @@ import io.prestosql.event.QueryMonitorConfig;
 import io.prestosql.execution.ClusterSizeMonitor;
 import io.prestosql.execution.ExplainAnalyzeContext;
 import io.prestosql.execution.ForQueryExecution;
+import io.prestosql.execution.PlanCache;
 import io.prestosql.execution.QueryExecution;
 import io.prestosql.execution.QueryExecutionMBean;
 import io.prestosql.execution.QueryIdGenerator;
@@ -250,6 +251,9 @@ public class CoordinatorModule
         binder.bind(SplitSchedulerStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(SplitSchedulerStats.class).withGeneratedName();
 
+        binder.bind(PlanCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(PlanCache.class).withGeneratedName();
+
         MapBinder<String, ExecutionPolicy> executionPolicyBinder = newMapBinder(binder, String.class, ExecutionPolicy.class);
         executionPolicyBinder.addBinding("all-at-once").to(AllAtOnceExecutionPolicy.class);
         executionPolicyBinder.addBinding("phased").to(PhasedExecutionPolicy.class);
@@ -25,6 +25,7 @@ import io.prestosql.execution.StageState;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.DynamicFilter;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.sql.DynamicFilters;
@@ -40,8 +41,10 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -51,6 +54,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -79,6 +83,8 @@ public class DynamicFilterService
     @GuardedBy("this") // for updates
     private final Map<QueryId, Map<DynamicFilterId, SettableFuture<Domain>>> dynamicFilterSummaries = new ConcurrentHashMap<>();
     @GuardedBy("this") // for updates
+    private final Map<QueryId, Map<DynamicFilterId, BlockedBloomFilter>> dynamicFilterBloomFilters = new ConcurrentHashMap<>();
+    @GuardedBy("this") // for updates
     private final Map<QueryId, Supplier<List<StageDynamicFilters>>> dynamicFilterSuppliers = new ConcurrentHashMap<>();
     @GuardedBy("this") // for updates
     private final Map<QueryId, Set<DynamicFilterId>> queryRepartitionedDynamicFilters = new ConcurrentHashMap<>();
@@ -150,6 +156,7 @@ public class DynamicFilterService
             }
 
             dynamicFilterSummaries.put(queryId, dynamicFilterFutures);
+            dynamicFilterBloomFilters.put(queryId, new ConcurrentHashMap<>());
             dynamicFilterSuppliers.put(queryId, stageDynamicFiltersSupplier);
             queryRepartitionedDynamicFilters.put(queryId, repartitionedDynamicFilters);
             queryReplicatedDynamicFilters.put(queryId, replicatedDynamicFilters);
@@ -159,6 +166,7 @@ public class DynamicFilterService
     public synchronized void removeQuery(QueryId queryId)
     {
         dynamicFilterSummaries.remove(queryId);
+        dynamicFilterBloomFilters.remove(queryId);
         dynamicFilterSuppliers.remove(queryId);
         queryRepartitionedDynamicFilters.remove(queryId);
         queryReplicatedDynamicFilters.remove(queryId);
@@ -171,8 +179,9 @@ public class DynamicFilterService
                 .map(DynamicFilters.Descriptor::getId)
                 .collect(toImmutableSet());
         Map<DynamicFilterId, SettableFuture<Domain>> dynamicFilterFutures = dynamicFilterSummaries.get(queryId);
+        Map<DynamicFilterId, BlockedBloomFilter> bloomFilters = dynamicFilterBloomFilters.get(queryId);
 
-        if (dynamicFilterFutures == null) {
+        if (dynamicFilterFutures == null || bloomFilters == null) {
             // query has been removed
             return EMPTY;
         }
@@ -231,6 +240,21 @@ public class DynamicFilterService
 
                 return dynamicFilter;
             }
+
+            @Override
+            public Map<ColumnHandle, BlockedBloomFilter> getCurrentBloomFilters()
+            {
+                // bloom filters are stored before the corresponding summary futures are completed
+                Map<ColumnHandle, BlockedBloomFilter> result = new HashMap<>();
+                for (DynamicFilterId filter : dynamicFilters) {
+                    BlockedBloomFilter bloomFilter = bloomFilters.get(filter);
+                    if (bloomFilter != null) {
+                        // bloom filters for the same column cannot be intersected, but using any one of them is still correct
+                        result.putIfAbsent(sourceColumnHandles.get(filter), bloomFilter);
+                    }
+                }
+                return ImmutableMap.copyOf(result);
+            }
         };
     }
 
@@ -242,6 +266,7 @@ public class DynamicFilterService
             Set<DynamicFilterId> replicatedDynamicFilters = queryReplicatedDynamicFilters.getOrDefault(queryId, ImmutableSet.of());
             Set<DynamicFilterId> uncollectedFilters = getUncollectedDynamicFilters(queryId);
             ImmutableMap.Builder<DynamicFilterId, Domain> newDynamicFiltersBuilder = ImmutableMap.builder();
+            ImmutableMap.Builder<DynamicFilterId, BlockedBloomFilter> newBloomFiltersBuilder = ImmutableMap.builder();
             for (StageDynamicFilters stageDynamicFilters : entry.getValue().get()) {
                 StageState stageState = stageDynamicFilters.getStageState();
                 stageDynamicFilters.getTaskDynamicFilters().stream()
@@ -258,14 +283,58 @@ public class DynamicFilterService
                             // check if all tasks of a repartitioned dynamic filter source have reported dynamic filter summary
                             return !stageState.canScheduleMoreTasks() && stageDomains.getValue().size() == stageDynamicFilters.getNumberOfTasks();
                         })
-                        .forEach(stageDomains -> newDynamicFiltersBuilder.put(stageDomains.getKey(), union(stageDomains.getValue())));
+                        .forEach(stageDomains -> {
+                            Domain domain = union(stageDomains.getValue());
+                            newDynamicFiltersBuilder.put(stageDomains.getKey(), domain);
+                            if (domain.isAll()) {
+                                unionBloomFilters(stageDynamicFilters, stageDomains.getKey())
+                                        .ifPresent(bloomFilter -> newBloomFiltersBuilder.put(stageDomains.getKey(), bloomFilter));
+                            }
+                        });
             }
 
             Map<DynamicFilterId, Domain> newDynamicFilters = newDynamicFiltersBuilder.build();
             if (!newDynamicFilters.isEmpty()) {
-                addDynamicFilters(queryId, newDynamicFilters);
+                addDynamicFilters(queryId, newDynamicFilters, newBloomFiltersBuilder.build());
+            }
+        }
+    }
+
+    /**
+     * Only the tasks whose predicate became too large report a bloom filter. The predicates of the other tasks
+     * are added to the union, which is possible only if they are still discrete after being simplified by
+     * the task, otherwise some of the build-side values could be missing from the union.
+     */
+    private static Optional<BlockedBloomFilter> unionBloomFilters(StageDynamicFilters stageDynamicFilters, DynamicFilterId filterId)
+    {
+        List<Map<DynamicFilterId, Domain>> taskDynamicFilters = stageDynamicFilters.getTaskDynamicFilters();
+        List<Map<DynamicFilterId, BlockedBloomFilter>> taskBloomFilters = stageDynamicFilters.getTaskDynamicFilterBloomFilters();
+        Optional<Long> sizeInBytes = taskBloomFilters.stream()
+                .map(bloomFilters -> bloomFilters.get(filterId))
+                .filter(Objects::nonNull)
+                .map(BlockedBloomFilter::getSizeInBytes)
+                .findFirst();
+        if (sizeInBytes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<BlockedBloomFilter> bloomFilters = ImmutableList.builder();
+        for (int task = 0; task < taskDynamicFilters.size(); task++) {
+            Domain domain = taskDynamicFilters.get(task).get(filterId);
+            if (domain == null) {
+                continue;
             }
+            BlockedBloomFilter bloomFilter = taskBloomFilters.get(task).get(filterId);
+            if (bloomFilter == null) {
+                Optional<BlockedBloomFilter> domainBloomFilter = BlockedBloomFilter.fromDomain(domain, sizeInBytes.get());
+                if (domainBloomFilter.isEmpty()) {
+                    return Optional.empty();
+                }
+                bloomFilter = domainBloomFilter.get();
+            }
+            bloomFilters.add(bloomFilter);
         }
+        return Optional.of(BlockedBloomFilter.union(bloomFilters.build()));
     }
 
     @VisibleForTesting
@@ -274,12 +343,18 @@ public class DynamicFilterService
         return tryGetFutureValue(dynamicFilterSummaries.get(queryId).get(filterId));
     }
 
+    @VisibleForTesting
+    Optional<BlockedBloomFilter> getBloomFilter(QueryId queryId, DynamicFilterId filterId)
+    {
+        return Optional.ofNullable(dynamicFilterBloomFilters.get(queryId).get(filterId));
+    }
+
     private Map<QueryId, Supplier<List<StageDynamicFilters>>> getDynamicFilterSuppliers()
     {
         return ImmutableMap.copyOf(dynamicFilterSuppliers);
     }
 
-    private synchronized void addDynamicFilters(QueryId queryId, Map<DynamicFilterId, Domain> dynamicFilters)
+    private synchronized void addDynamicFilters(QueryId queryId, Map<DynamicFilterId, Domain> dynamicFilters, Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
     {
         Map<DynamicFilterId, SettableFuture<Domain>> dynamicFilterFutures = dynamicFilterSummaries.get(queryId);
         if (dynamicFilterFutures == null) {
@@ -287,6 +362,9 @@ public class DynamicFilterService
             return;
         }
 
+        // bloom filters must be visible before the futures are completed
+        dynamicFilterBloomFilters.get(queryId).putAll(bloomFilters);
+
         dynamicFilters.forEach((filter, domain) -> {
             SettableFuture<Domain> future = requireNonNull(dynamicFilterFutures.get(filter), "Future not found");
             checkState(future.set(domain), "Same future set twice");
@@ -327,12 +405,19 @@ public class DynamicFilterService
         private final StageState stageState;
         private final int numberOfTasks;
         private final List<Map<DynamicFilterId, Domain>> taskDynamicFilters;
+        private final List<Map<DynamicFilterId, BlockedBloomFilter>> taskDynamicFilterBloomFilters;
 
-        public StageDynamicFilters(StageState stageState, int numberOfTasks, List<Map<DynamicFilterId, Domain>> taskDynamicFilters)
+        public StageDynamicFilters(
+                StageState stageState,
+                int numberOfTasks,
+                List<Map<DynamicFilterId, Domain>> taskDynamicFilters,
+                List<Map<DynamicFilterId, BlockedBloomFilter>> taskDynamicFilterBloomFilters)
         {
             this.stageState = requireNonNull(stageState, "stageState is null");
             this.numberOfTasks = numberOfTasks;
             this.taskDynamicFilters = ImmutableList.copyOf(requireNonNull(taskDynamicFilters, "taskDynamicFilters is null"));
+            this.taskDynamicFilterBloomFilters = ImmutableList.copyOf(requireNonNull(taskDynamicFilterBloomFilters, "taskDynamicFilterBloomFilters is null"));
+            checkArgument(taskDynamicFilters.size() == taskDynamicFilterBloomFilters.size(), "taskDynamicFilters and taskDynamicFilterBloomFilters must have the same size");
         }
 
         private StageState getStageState()
@@ -349,5 +434,10 @@ public class DynamicFilterService
         {
             return taskDynamicFilters;
         }
+
+        private List<Map<DynamicFilterId, BlockedBloomFilter>> getTaskDynamicFilterBloomFilters()
+        {
+            return taskDynamicFilterBloomFilters;
+        }
     }
 }
@@ -84,6 +84,7 @@ import io.prestosql.operator.ExchangeClientFactory;
 import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.operator.ForExchange;
 import io.prestosql.operator.LookupJoinOperators;
+import io.prestosql.operator.LookupSourceCache;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PagesIndex;
 import io.prestosql.operator.index.IndexJoinLookupStats;
@@ -281,6 +282,8 @@ public class ServerMainModule
         binder.bind(MultilevelSplitQueue.class).in(Scopes.SINGLETON);
         newExporter(binder).export(MultilevelSplitQueue.class).withGeneratedName();
         binder.bind(LocalExecutionPlanner.class).in(Scopes.SINGLETON);
+        binder.bind(LookupSourceCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(LookupSourceCache.class).withGeneratedName();
         configBinder(binder).bindConfig(CompilerConfig.class);
         binder.bind(ExpressionCompiler.class).in(Scopes.SINGLETON);
         newExporter(binder).export(ExpressionCompiler.class).withGeneratedName();
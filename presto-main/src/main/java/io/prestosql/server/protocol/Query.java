@@ -96,7 +96,8 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
+import static io.prestosql.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
 import static io.prestosql.execution.QueryState.FAILED;
 import static io.prestosql.server.protocol.QueryResultRows.queryResultRowsBuilder;
 import static io.prestosql.server.protocol.Slug.Context.EXECUTING_QUERY;
@@ -230,7 +231,7 @@ class Query
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
         this.supportsParametricDateTime = session.getClientCapabilities().contains(ClientCapabilities.PARAMETRIC_DATETIME.toString());
-        serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
+        serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)).createPagesSerde();
     }
 
     public void cancel()
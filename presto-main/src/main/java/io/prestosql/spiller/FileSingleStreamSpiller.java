@@ -31,6 +31,7 @@ import io.prestosql.operator.SpillContext;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.Closeable;
@@ -42,13 +43,18 @@ import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writeSerializedPage;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
 import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
 import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 @NotThreadSafe
@@ -58,6 +64,10 @@ public class FileSingleStreamSpiller
     @VisibleForTesting
     static final int BUFFER_SIZE = 4 * 1024;
 
+    // Set while a task of a spiller runs on the executor. Such a task reads spilled pages without read ahead,
+    // because waiting for a read ahead queued behind it could starve the executor.
+    private static final ThreadLocal<Boolean> RUNNING_ON_EXECUTOR = ThreadLocal.withInitial(() -> false);
+
     private final FileHolder targetFile;
     private final Closer closer = Closer.create();
     private final PagesSerde serde;
@@ -66,9 +76,15 @@ public class FileSingleStreamSpiller
     private final LocalMemoryContext memoryContext;
 
     private final ListeningExecutorService executor;
+    private final long readAheadBytes;
 
     private boolean writable = true;
     private long spilledPagesInMemorySize;
+    private long writtenBytes;
+    private long writeNanos;
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+    private volatile boolean closed;
     private ListenableFuture<?> spillInProgress = Futures.immediateFuture(null);
 
     private final Runnable fileSystemErrorHandler;
@@ -81,10 +97,13 @@ public class FileSingleStreamSpiller
             SpillContext spillContext,
             LocalMemoryContext memoryContext,
             Optional<SpillCipher> spillCipher,
-            Runnable fileSystemErrorHandler)
+            Runnable fileSystemErrorHandler,
+            long readAheadBytes)
     {
+        checkArgument(readAheadBytes >= 0, "readAheadBytes is negative");
         this.serde = requireNonNull(serde, "serde is null");
         this.executor = requireNonNull(executor, "executor is null");
+        this.readAheadBytes = readAheadBytes;
         this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
         this.localSpillContext = spillContext.newLocalSpillContext();
         this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
@@ -117,7 +136,10 @@ public class FileSingleStreamSpiller
     {
         requireNonNull(pageIterator, "pageIterator is null");
         checkNoSpillInProgress();
-        spillInProgress = executor.submit(() -> writePages(pageIterator));
+        spillInProgress = submit(() -> {
+            writePages(pageIterator);
+            return null;
+        });
         return spillInProgress;
     }
 
@@ -137,12 +159,27 @@ public class FileSingleStreamSpiller
     @Override
     public ListenableFuture<List<Page>> getAllSpilledPages()
     {
-        return executor.submit(() -> ImmutableList.copyOf(getSpilledPages()));
+        checkNoSpillInProgress();
+        return submit(() -> ImmutableList.copyOf(readPages()));
+    }
+
+    private <T> ListenableFuture<T> submit(Callable<T> task)
+    {
+        return executor.submit(() -> {
+            RUNNING_ON_EXECUTOR.set(true);
+            try {
+                return task.call();
+            }
+            finally {
+                RUNNING_ON_EXECUTOR.set(false);
+            }
+        });
     }
 
     private void writePages(Iterator<Page> pageIterator)
     {
         checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
+        long start = System.nanoTime();
         try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), BUFFER_SIZE)) {
             while (pageIterator.hasNext()) {
                 Page page = pageIterator.next();
@@ -151,6 +188,7 @@ public class FileSingleStreamSpiller
                 long pageSize = serializedPage.getSizeInBytes();
                 localSpillContext.updateBytes(pageSize);
                 spillerStats.addToTotalSpilledBytes(pageSize);
+                writtenBytes += pageSize;
                 writeSerializedPage(output, serializedPage);
             }
         }
@@ -158,6 +196,9 @@ public class FileSingleStreamSpiller
             fileSystemErrorHandler.run();
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
         }
+        long elapsed = System.nanoTime() - start;
+        writeNanos += elapsed;
+        spillerStats.addSpillWrite(elapsed);
     }
 
     private Iterator<Page> readPages()
@@ -167,8 +208,8 @@ public class FileSingleStreamSpiller
 
         try {
             InputStream input = closer.register(targetFile.newInputStream());
-            Iterator<Page> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
-            return closeWhenExhausted(pages, input);
+            Iterator<SerializedPage> serializedPages = PagesSerdeUtil.readSerializedPages(new InputStreamSliceInput(input, BUFFER_SIZE));
+            return closeWhenExhausted(new SpilledPagesReader(serializedPages), input);
         }
         catch (IOException e) {
             fileSystemErrorHandler.run();
@@ -179,6 +220,10 @@ public class FileSingleStreamSpiller
     @Override
     public void close()
     {
+        if (!closed) {
+            closed = true;
+            spillerStats.addSpillFile(writtenBytes, writeNanos, readBytes.get(), readNanos.get());
+        }
         closer.register(localSpillContext);
         closer.register(() -> memoryContext.setBytes(0));
         try {
@@ -195,6 +240,111 @@ public class FileSingleStreamSpiller
         checkState(spillInProgress.isDone(), "spill in progress");
     }
 
+    /**
+     * Deserializes spilled pages on the reading thread. With read ahead, the next batch of
+     * serialized pages is read on the executor while the current batch is being returned,
+     * unless the pages are read by a task of the executor itself.
+     */
+    private class SpilledPagesReader
+            extends AbstractIterator<Page>
+    {
+        private final Iterator<SerializedPage> serializedPages;
+
+        private Iterator<SerializedPage> currentBatch = emptyIterator();
+        @Nullable
+        private ListenableFuture<List<SerializedPage>> nextBatch;
+        private boolean finished;
+
+        SpilledPagesReader(Iterator<SerializedPage> serializedPages)
+        {
+            this.serializedPages = requireNonNull(serializedPages, "serializedPages is null");
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            while (!currentBatch.hasNext()) {
+                if (finished) {
+                    return endOfData();
+                }
+                List<SerializedPage> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    finished = true;
+                }
+                currentBatch = batch.iterator();
+                updateMemoryUsage(batch);
+            }
+            return serde.deserialize(currentBatch.next());
+        }
+
+        private List<SerializedPage> nextBatch()
+        {
+            boolean readAhead = readAheadBytes > 0 && !RUNNING_ON_EXECUTOR.get();
+            if (nextBatch == null) {
+                if (!readAhead) {
+                    return readBatch();
+                }
+                nextBatch = executor.submit(this::readBatch);
+            }
+            boolean blocked = !nextBatch.isDone();
+            long start = System.nanoTime();
+            List<SerializedPage> batch = getFutureValue(nextBatch, PrestoException.class);
+            if (blocked) {
+                spillerStats.addUnspillWait(System.nanoTime() - start);
+            }
+            nextBatch = batch.isEmpty() || !readAhead ? null : executor.submit(this::readBatch);
+            return batch;
+        }
+
+        private void updateMemoryUsage(List<SerializedPage> currentBatch)
+        {
+            if (readAheadBytes == 0) {
+                // pages are read one at a time
+                return;
+            }
+            // the current batch is held until all its pages are returned, and a batch being read ahead is estimated at readAheadBytes
+            long bytes = BUFFER_SIZE;
+            for (SerializedPage page : currentBatch) {
+                bytes += page.getSizeInBytes();
+            }
+            if (nextBatch != null) {
+                bytes += readAheadBytes;
+            }
+            memoryContext.setBytes(bytes);
+        }
+
+        private List<SerializedPage> readBatch()
+        {
+            long start = System.nanoTime();
+            long batchBytes = 0;
+            ImmutableList.Builder<SerializedPage> batch = ImmutableList.builder();
+            try {
+                // always read at least one page, so that large pages are still returned
+                do {
+                    if (!serializedPages.hasNext()) {
+                        break;
+                    }
+                    SerializedPage page = serializedPages.next();
+                    batchBytes += page.getSizeInBytes();
+                    batch.add(page);
+                }
+                while (batchBytes < readAheadBytes);
+            }
+            catch (UncheckedIOException e) {
+                // the file is closed under a read ahead when the spiller is closed before all pages are read
+                if (!closed) {
+                    fileSystemErrorHandler.run();
+                }
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            readBytes.addAndGet(batchBytes);
+            readNanos.addAndGet(elapsed);
+            spillerStats.addUnspillRead(batchBytes, elapsed);
+            return batch.build();
+        }
+    }
+
     private static <T> Iterator<T> closeWhenExhausted(Iterator<T> iterator, Closeable resource)
     {
         requireNonNull(iterator, "iterator is null");
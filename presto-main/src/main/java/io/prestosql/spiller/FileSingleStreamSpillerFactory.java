@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
 import io.prestosql.execution.buffer.PagesSerde;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
 import io.prestosql.memory.context.LocalMemoryContext;
@@ -77,6 +78,7 @@ public class FileSingleStreamSpillerFactory
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
     private final boolean spillEncryptionEnabled;
+    private final long spillReadAheadBytes;
     private int roundRobinIndex;
     private final LoadingCache<Path, Boolean> spillPathHealthCache;
 
@@ -92,7 +94,8 @@ public class FileSingleStreamSpillerFactory
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
                 requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled());
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled(),
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").getSpillReadAheadSize());
     }
 
     @VisibleForTesting
@@ -103,7 +106,8 @@ public class FileSingleStreamSpillerFactory
             List<Path> spillPaths,
             double maxUsedSpaceThreshold,
             boolean spillCompressionEnabled,
-            boolean spillEncryptionEnabled)
+            boolean spillEncryptionEnabled,
+            DataSize spillReadAheadSize)
     {
         this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionEnabled);
         this.executor = requireNonNull(executor, "executor is null");
@@ -123,6 +127,7 @@ public class FileSingleStreamSpillerFactory
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
         this.spillEncryptionEnabled = spillEncryptionEnabled;
+        this.spillReadAheadBytes = requireNonNull(spillReadAheadSize, "spillReadAheadSize is null").toBytes();
         this.roundRobinIndex = 0;
 
         this.spillPathHealthCache = CacheBuilder.newBuilder()
@@ -176,7 +181,8 @@ public class FileSingleStreamSpillerFactory
                 spillContext,
                 memoryContext,
                 spillCipher,
-                spillPathHealthCache::invalidateAll);
+                spillPathHealthCache::invalidateAll,
+                spillReadAheadBytes);
     }
 
     private synchronized Path getNextSpillPath()
@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Iterables.getLast;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -67,6 +68,15 @@ public class GenericSpiller
         return previousSpill;
     }
 
+    @Override
+    public ListenableFuture<?> spillToLastStream(Iterator<Page> pageIterator)
+    {
+        checkNoSpillInProgress();
+        checkState(!singleStreamSpillers.isEmpty(), "no stream spilled yet");
+        previousSpill = getLast(singleStreamSpillers).spill(pageIterator);
+        return previousSpill;
+    }
+
     @Override
     public List<Iterator<Page>> getSpills()
     {
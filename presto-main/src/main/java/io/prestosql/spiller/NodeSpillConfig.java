@@ -14,6 +14,7 @@
 package io.prestosql.spiller;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
 
@@ -26,6 +27,7 @@ public class NodeSpillConfig
 
     private boolean spillCompressionEnabled;
     private boolean spillEncryptionEnabled;
+    private DataSize spillReadAheadSize = DataSize.of(128, DataSize.Unit.KILOBYTE);
 
     @NotNull
     public DataSize getMaxSpillPerNode()
@@ -80,4 +82,18 @@ public class NodeSpillConfig
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         return this;
     }
+
+    @NotNull
+    public DataSize getSpillReadAheadSize()
+    {
+        return spillReadAheadSize;
+    }
+
+    @Config("spill-read-ahead-size")
+    @ConfigDescription("Size of spilled data read in the background while previously read pages are processed, or zero to read synchronously")
+    public NodeSpillConfig setSpillReadAheadSize(DataSize spillReadAheadSize)
+    {
+        this.spillReadAheadSize = spillReadAheadSize;
+        return this;
+    }
 }
@@ -28,6 +28,12 @@ public interface Spiller
      */
     ListenableFuture<?> spill(Iterator<Page> pageIterator);
 
+    /**
+     * Initiate spilling of pages stream at the end of the last spilled stream, so that a stream
+     * can be spilled in parts. Returns completed future once spilling has finished.
+     */
+    ListenableFuture<?> spillToLastStream(Iterator<Page> pageIterator);
+
     /**
      * Returns list of previously spilled Pages streams.
      */
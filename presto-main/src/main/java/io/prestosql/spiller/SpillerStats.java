@@ -13,13 +13,28 @@
  */
 package io.prestosql.spiller;
 
+import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class SpillerStats
 {
     protected final AtomicLong totalSpilledBytes = new AtomicLong();
+    protected final AtomicLong totalUnspilledBytes = new AtomicLong();
+    protected final AtomicLong totalSpillFiles = new AtomicLong();
+
+    private final TimeStat spillWriteTime = new TimeStat(MILLISECONDS);
+    private final TimeStat unspillReadTime = new TimeStat(MILLISECONDS);
+    private final TimeStat unspillWaitTime = new TimeStat(MILLISECONDS);
+    private final DistributionStat spillFileWriteBytesPerSecond = new DistributionStat();
+    private final DistributionStat spillFileReadBytesPerSecond = new DistributionStat();
 
     @Managed
     public long getTotalSpilledBytes()
@@ -31,4 +46,81 @@ public class SpillerStats
     {
         totalSpilledBytes.addAndGet(delta);
     }
+
+    @Managed
+    public long getTotalUnspilledBytes()
+    {
+        return totalUnspilledBytes.get();
+    }
+
+    @Managed
+    public long getTotalSpillFiles()
+    {
+        return totalSpillFiles.get();
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getSpillWriteTime()
+    {
+        return spillWriteTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUnspillReadTime()
+    {
+        return unspillReadTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUnspillWaitTime()
+    {
+        return unspillWaitTime;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSpillFileWriteBytesPerSecond()
+    {
+        return spillFileWriteBytesPerSecond;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSpillFileReadBytesPerSecond()
+    {
+        return spillFileReadBytesPerSecond;
+    }
+
+    public void addSpillWrite(long nanos)
+    {
+        spillWriteTime.add(nanos, NANOSECONDS);
+    }
+
+    public void addUnspillRead(long bytes, long nanos)
+    {
+        totalUnspilledBytes.addAndGet(bytes);
+        unspillReadTime.add(nanos, NANOSECONDS);
+    }
+
+    /**
+     * Records the time a driver was blocked waiting for spilled pages to be read.
+     */
+    public void addUnspillWait(long nanos)
+    {
+        unspillWaitTime.add(nanos, NANOSECONDS);
+    }
+
+    public void addSpillFile(long writtenBytes, long writeNanos, long readBytes, long readNanos)
+    {
+        totalSpillFiles.incrementAndGet();
+        if (writeNanos > 0) {
+            spillFileWriteBytesPerSecond.add((long) (writtenBytes * (double) SECONDS.toNanos(1) / writeNanos));
+        }
+        if (readNanos > 0) {
+            spillFileReadBytesPerSecond.add((long) (readBytes * (double) SECONDS.toNanos(1) / readNanos));
+        }
+    }
 }
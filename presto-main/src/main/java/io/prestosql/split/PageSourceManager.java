@@ -20,10 +20,12 @@ import io.prestosql.metadata.TableHandle;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorPageSourceProvider;
+import io.prestosql.spi.connector.DynamicFilter;
 import io.prestosql.spi.connector.EmptyPageSource;
 import io.prestosql.spi.predicate.TupleDomain;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
@@ -67,7 +69,7 @@ public class PageSourceManager
                 split.getConnectorSplit(),
                 table.getConnectorHandle(),
                 columns,
-                constraint);
+                new LocalDynamicFilter(dynamicFilter));
     }
 
     private ConnectorPageSourceProvider getPageSourceProvider(CatalogName catalogName)
@@ -76,4 +78,38 @@ public class PageSourceManager
         checkArgument(provider != null, "No page source provider for connector: %s", catalogName);
         return provider;
     }
+
+    /**
+     * Exposes the dynamic filter collected by the worker to the connector, so that page sources
+     * can observe filters which are narrowed after the split was opened.
+     */
+    private static class LocalDynamicFilter
+            implements DynamicFilter
+    {
+        private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+
+        private LocalDynamicFilter(Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+        {
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        }
+
+        @Override
+        public CompletableFuture<?> isBlocked()
+        {
+            // local dynamic filters can only be polled
+            return NOT_BLOCKED;
+        }
+
+        @Override
+        public boolean isComplete()
+        {
+            return false;
+        }
+
+        @Override
+        public TupleDomain<ColumnHandle> getCurrentPredicate()
+        {
+            return dynamicFilter.get();
+        }
+    }
 }
@@ -804,6 +804,11 @@ public class Analysis
         return columnMasks.getOrDefault(NodeRef.of(table), ImmutableMap.of());
     }
 
+    public boolean hasRowFiltersOrColumnMasks()
+    {
+        return !rowFilters.isEmpty() || !columnMasks.isEmpty();
+    }
+
     public List<TableInfo> getReferencedTables()
     {
         return tables.entrySet().stream()
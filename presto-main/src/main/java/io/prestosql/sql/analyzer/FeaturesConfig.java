@@ -24,10 +24,13 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MaxDataSize;
 import io.airlift.units.MaxDuration;
+import io.airlift.units.MinDataSize;
 import io.airlift.units.MinDuration;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import io.prestosql.operator.aggregation.histogram.HistogramGroupImplementation;
 import io.prestosql.operator.aggregation.multimapagg.MultimapAggGroupImplementation;
+import io.prestosql.util.PowerOfTwo;
 
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
@@ -73,6 +76,8 @@ public class FeaturesConfig
     private boolean distributedIndexJoinsEnabled;
     private DataSize joinMaxBroadcastTableSize = DataSize.of(100, MEGABYTE);
     private JoinDistributionType joinDistributionType = JoinDistributionType.AUTOMATIC;
+    private int skewedJoinSpreadFactor = 1;
+    private boolean joinLookupSourceCacheEnabled;
     private boolean colocatedJoinsEnabled;
     private boolean groupedExecutionEnabled;
     private boolean dynamicScheduleForGroupedExecution;
@@ -81,6 +86,7 @@ public class FeaturesConfig
     private boolean fastInequalityJoins = true;
     private JoinReorderingStrategy joinReorderingStrategy = JoinReorderingStrategy.AUTOMATIC;
     private int maxReorderedJoins = 9;
+    private int maxGreedyReorderedJoins;
     private boolean redistributeWrites = true;
     private boolean usePreferredWritePartitioning;
     private boolean scaleWriters;
@@ -91,6 +97,8 @@ public class FeaturesConfig
     private boolean pushTableWriteThroughUnion = true;
     private DataIntegrityVerification exchangeDataIntegrityVerification = DataIntegrityVerification.ABORT;
     private boolean exchangeCompressionEnabled;
+    private CompressionCodec exchangeCompressionCodec = CompressionCodec.LZ4;
+    private boolean exchangeAdaptiveCompressionEnabled;
     private boolean optimizeMixedDistinctAggregations;
     private boolean unwrapCasts = true;
     private boolean forceSingleNodeOutput = true;
@@ -110,7 +118,12 @@ public class FeaturesConfig
     private boolean spillEnabled;
     private boolean spillOrderBy = true;
     private boolean spillWindowOperator = true;
+    private int spillJoinUnspillConcurrency = 1;
     private DataSize aggregationOperatorUnspillMemoryLimit = DataSize.of(4, DataSize.Unit.MEGABYTE);
+    private int aggregationOperatorPartitionCount = 1;
+    private boolean adaptivePartialAggregationEnabled = true;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
     private List<Path> spillerSpillPaths = ImmutableList.of();
     private int spillerThreads = 4;
     private double spillMaxUsedSpaceThreshold = 0.9;
@@ -137,6 +150,8 @@ public class FeaturesConfig
     private boolean enableDynamicFiltering = true;
     private int dynamicFilteringMaxPerDriverRowCount = 100;
     private DataSize dynamicFilteringMaxPerDriverSize = DataSize.of(10, KILOBYTE);
+    private boolean dynamicFilteringBloomFilterEnabled;
+    private DataSize dynamicFilteringBloomFilterSize = DataSize.of(1, MEGABYTE);
     private Duration dynamicFilteringRefreshInterval = new Duration(200, MILLISECONDS);
 
     private DataSize filterAndProjectMinOutputPageSize = DataSize.of(500, KILOBYTE);
@@ -247,6 +262,33 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(1)
+    public int getSkewedJoinSpreadFactor()
+    {
+        return skewedJoinSpreadFactor;
+    }
+
+    @Config("skewed-join-spread-factor")
+    @ConfigDescription("Number of partitions over which the probe rows of hot partitions of a partitioned join are spread, multiplying the build side memory by as much; 1 disables skew handling")
+    public FeaturesConfig setSkewedJoinSpreadFactor(int skewedJoinSpreadFactor)
+    {
+        this.skewedJoinSpreadFactor = skewedJoinSpreadFactor;
+        return this;
+    }
+
+    public boolean isJoinLookupSourceCacheEnabled()
+    {
+        return joinLookupSourceCacheEnabled;
+    }
+
+    @Config("join-lookup-source-cache-enabled")
+    @ConfigDescription("Share the lookup sources of broadcast joins across queries which join against the same table")
+    public FeaturesConfig setJoinLookupSourceCacheEnabled(boolean joinLookupSourceCacheEnabled)
+    {
+        this.joinLookupSourceCacheEnabled = joinLookupSourceCacheEnabled;
+        return this;
+    }
+
     @NotNull
     public DataSize getJoinMaxBroadcastTableSize()
     {
@@ -368,6 +410,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(0)
+    public int getMaxGreedyReorderedJoins()
+    {
+        return maxGreedyReorderedJoins;
+    }
+
+    @Config("optimizer.max-greedy-reordered-joins")
+    @ConfigDescription("The maximum number of tables to reorder in cost-based join reordering, when more than optimizer.max-reordered-joins are reordered greedily")
+    public FeaturesConfig setMaxGreedyReorderedJoins(int maxGreedyReorderedJoins)
+    {
+        this.maxGreedyReorderedJoins = maxGreedyReorderedJoins;
+        return this;
+    }
+
     public boolean isRedistributeWrites()
     {
         return redistributeWrites;
@@ -579,6 +635,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(1)
+    public int getSpillJoinUnspillConcurrency()
+    {
+        return spillJoinUnspillConcurrency;
+    }
+
+    @Config("spill-join-unspill-concurrency")
+    @ConfigDescription("Number of spilled partitions of a join unspilled at the same time, the following ones being prefetched while the current one is probed")
+    public FeaturesConfig setSpillJoinUnspillConcurrency(int spillJoinUnspillConcurrency)
+    {
+        this.spillJoinUnspillConcurrency = spillJoinUnspillConcurrency;
+        return this;
+    }
+
     public Duration getIterativeOptimizerTimeout()
     {
         return iterativeOptimizerTimeout;
@@ -668,6 +738,63 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(1)
+    @PowerOfTwo
+    public int getAggregationOperatorPartitionCount()
+    {
+        return aggregationOperatorPartitionCount;
+    }
+
+    @Config("aggregation-operator-partition-count")
+    @ConfigDescription("Number of hash partitions aggregated separately by each aggregation operator")
+    public FeaturesConfig setAggregationOperatorPartitionCount(int aggregationOperatorPartitionCount)
+    {
+        this.aggregationOperatorPartitionCount = aggregationOperatorPartitionCount;
+        return this;
+    }
+
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.enabled")
+    @ConfigDescription("Skip partial aggregation when it does not reduce the number of rows")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("adaptive-partial-aggregation.min-rows")
+    @ConfigDescription("Minimum number of rows processed by partial aggregation before it can be skipped")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("adaptive-partial-aggregation.unique-rows-ratio-threshold")
+    @ConfigDescription("Ratio of output to input rows of partial aggregation above which partial aggregation is skipped")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
+
     public List<Path> getSpillerSpillPaths()
     {
         return spillerSpillPaths;
@@ -781,6 +908,34 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isDynamicFilteringBloomFilterEnabled()
+    {
+        return dynamicFilteringBloomFilterEnabled;
+    }
+
+    @Config("dynamic-filtering-bloom-filter-enabled")
+    @ConfigDescription("Collect bloom filters of build-side values, used for dynamic filtering when the collected values exceed the per-driver limits")
+    public FeaturesConfig setDynamicFilteringBloomFilterEnabled(boolean dynamicFilteringBloomFilterEnabled)
+    {
+        this.dynamicFilteringBloomFilterEnabled = dynamicFilteringBloomFilterEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("8B")
+    @MaxDataSize("64MB")
+    public DataSize getDynamicFilteringBloomFilterSize()
+    {
+        return dynamicFilteringBloomFilterSize;
+    }
+
+    @Config("dynamic-filtering-bloom-filter-size")
+    public FeaturesConfig setDynamicFilteringBloomFilterSize(DataSize dynamicFilteringBloomFilterSize)
+    {
+        this.dynamicFilteringBloomFilterSize = dynamicFilteringBloomFilterSize;
+        return this;
+    }
+
     @MinDuration("1ms")
     @MaxDuration("10s")
     @NotNull
@@ -832,6 +987,33 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getExchangeCompressionCodec()
+    {
+        return exchangeCompressionCodec;
+    }
+
+    @Config("exchange.compression-codec")
+    @ConfigDescription("Codec used to compress exchanges when exchange compression is enabled")
+    public FeaturesConfig setExchangeCompressionCodec(CompressionCodec exchangeCompressionCodec)
+    {
+        this.exchangeCompressionCodec = exchangeCompressionCodec;
+        return this;
+    }
+
+    public boolean isExchangeAdaptiveCompressionEnabled()
+    {
+        return exchangeAdaptiveCompressionEnabled;
+    }
+
+    @Config("exchange.adaptive-compression-enabled")
+    @ConfigDescription("Skip compressing exchange pages after pages of the same output were found to be incompressible")
+    public FeaturesConfig setExchangeAdaptiveCompressionEnabled(boolean exchangeAdaptiveCompressionEnabled)
+    {
+        this.exchangeAdaptiveCompressionEnabled = exchangeAdaptiveCompressionEnabled;
+        return this;
+    }
+
     public DataIntegrityVerification getExchangeDataIntegrityVerification()
     {
         return exchangeDataIntegrityVerification;
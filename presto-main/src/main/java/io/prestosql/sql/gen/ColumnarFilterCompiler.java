@@ -0,0 +1,321 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.prestosql.operator.project.ColumnarFilter;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.metadata.Signature.isOperatorName;
+import static io.prestosql.metadata.Signature.unmangleOperator;
+import static io.prestosql.operator.project.ColumnarFilters.doubleRange;
+import static io.prestosql.operator.project.ColumnarFilters.isNull;
+import static io.prestosql.operator.project.ColumnarFilters.longIn;
+import static io.prestosql.operator.project.ColumnarFilters.longRange;
+import static io.prestosql.operator.project.ColumnarFilters.sliceIn;
+import static io.prestosql.operator.project.ColumnarFilters.sliceRange;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static java.lang.Float.intBitsToFloat;
+
+/**
+ * Translates the conjuncts of a filter which compare a column with constants into {@link ColumnarFilter}s.
+ * Supported are comparisons, BETWEEN, IN and IS NULL on integral, date, floating point and varchar columns.
+ */
+public final class ColumnarFilterCompiler
+{
+    private static final Set<Type> LONG_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DATE);
+
+    private ColumnarFilterCompiler() {}
+
+    public static List<RowExpression> extractConjuncts(RowExpression expression)
+    {
+        if (expression instanceof SpecialForm && ((SpecialForm) expression).getForm() == AND) {
+            ImmutableList.Builder<RowExpression> conjuncts = ImmutableList.builder();
+            for (RowExpression argument : ((SpecialForm) expression).getArguments()) {
+                conjuncts.addAll(extractConjuncts(argument));
+            }
+            return conjuncts.build();
+        }
+        return ImmutableList.of(expression);
+    }
+
+    public static Optional<ColumnarFilter> compileColumnarFilter(RowExpression conjunct)
+    {
+        if (conjunct instanceof SpecialForm) {
+            SpecialForm specialForm = (SpecialForm) conjunct;
+            List<RowExpression> arguments = specialForm.getArguments();
+            switch (specialForm.getForm()) {
+                case IS_NULL:
+                    return compileIsNull(arguments.get(0), false);
+                case BETWEEN:
+                    return compileBetween(arguments.get(0), arguments.get(1), arguments.get(2));
+                case IN:
+                    return compileIn(arguments.get(0), arguments.subList(1, arguments.size()), false);
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        if (conjunct instanceof CallExpression) {
+            CallExpression call = (CallExpression) conjunct;
+            String name = call.getResolvedFunction().getSignature().getName();
+            if (name.equals("not")) {
+                return compileNot(call.getArguments().get(0));
+            }
+            if (isOperatorName(name) && call.getArguments().size() == 2) {
+                return compileComparison(unmangleOperator(name), call.getArguments().get(0), call.getArguments().get(1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnarFilter> compileNot(RowExpression argument)
+    {
+        if (argument instanceof SpecialForm) {
+            SpecialForm specialForm = (SpecialForm) argument;
+            List<RowExpression> arguments = specialForm.getArguments();
+            if (specialForm.getForm() == SpecialForm.Form.IS_NULL) {
+                return compileIsNull(arguments.get(0), true);
+            }
+            if (specialForm.getForm() == SpecialForm.Form.IN) {
+                return compileIn(arguments.get(0), arguments.subList(1, arguments.size()), true);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnarFilter> compileIsNull(RowExpression argument, boolean negated)
+    {
+        if (!(argument instanceof InputReferenceExpression)) {
+            return Optional.empty();
+        }
+        return Optional.of(isNull(((InputReferenceExpression) argument).getField(), negated));
+    }
+
+    private static Optional<ColumnarFilter> compileComparison(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        if (left instanceof ConstantExpression && right instanceof InputReferenceExpression) {
+            Optional<OperatorType> flipped = flip(operator);
+            if (flipped.isEmpty()) {
+                return Optional.empty();
+            }
+            return compileComparison(flipped.get(), right, left);
+        }
+        if (!isColumnAndConstants(left, ImmutableList.of(right))) {
+            return Optional.empty();
+        }
+
+        int channel = ((InputReferenceExpression) left).getField();
+        Type type = left.getType();
+        Object value = ((ConstantExpression) right).getValue();
+
+        if (LONG_TYPES.contains(type)) {
+            long constant = (long) value;
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(longRange(channel, type, constant, constant, false));
+                case NOT_EQUAL:
+                    return Optional.of(longRange(channel, type, constant, constant, true));
+                case LESS_THAN:
+                    if (constant == Long.MIN_VALUE) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(longRange(channel, type, Long.MIN_VALUE, constant - 1, false));
+                case LESS_THAN_OR_EQUAL:
+                    return Optional.of(longRange(channel, type, Long.MIN_VALUE, constant, false));
+                case GREATER_THAN:
+                    if (constant == Long.MAX_VALUE) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(longRange(channel, type, constant + 1, Long.MAX_VALUE, false));
+                case GREATER_THAN_OR_EQUAL:
+                    return Optional.of(longRange(channel, type, constant, Long.MAX_VALUE, false));
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        if (type.equals(DOUBLE) || type.equals(REAL)) {
+            double constant = toDouble(type, value);
+            if (Double.isNaN(constant) || Double.isInfinite(constant)) {
+                return Optional.empty();
+            }
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(doubleRange(channel, type, constant, constant, false));
+                case NOT_EQUAL:
+                    return Optional.of(doubleRange(channel, type, constant, constant, true));
+                case LESS_THAN:
+                    // REAL values are widened to double, so the exclusive bounds are the adjacent doubles
+                    return Optional.of(doubleRange(channel, type, Double.NEGATIVE_INFINITY, Math.nextDown(constant), false));
+                case LESS_THAN_OR_EQUAL:
+                    return Optional.of(doubleRange(channel, type, Double.NEGATIVE_INFINITY, constant, false));
+                case GREATER_THAN:
+                    return Optional.of(doubleRange(channel, type, Math.nextUp(constant), Double.POSITIVE_INFINITY, false));
+                case GREATER_THAN_OR_EQUAL:
+                    return Optional.of(doubleRange(channel, type, constant, Double.POSITIVE_INFINITY, false));
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        if (type instanceof VarcharType) {
+            Slice constant = (Slice) value;
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(sliceIn(channel, type, ImmutableList.of(constant), false));
+                case NOT_EQUAL:
+                    return Optional.of(sliceIn(channel, type, ImmutableList.of(constant), true));
+                case LESS_THAN:
+                    return Optional.of(sliceRange(channel, null, false, constant, false));
+                case LESS_THAN_OR_EQUAL:
+                    return Optional.of(sliceRange(channel, null, false, constant, true));
+                case GREATER_THAN:
+                    return Optional.of(sliceRange(channel, constant, false, null, false));
+                case GREATER_THAN_OR_EQUAL:
+                    return Optional.of(sliceRange(channel, constant, true, null, false));
+                default:
+                    return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnarFilter> compileBetween(RowExpression value, RowExpression min, RowExpression max)
+    {
+        if (!isColumnAndConstants(value, ImmutableList.of(min, max))) {
+            return Optional.empty();
+        }
+
+        int channel = ((InputReferenceExpression) value).getField();
+        Type type = value.getType();
+        Object low = ((ConstantExpression) min).getValue();
+        Object high = ((ConstantExpression) max).getValue();
+
+        if (LONG_TYPES.contains(type)) {
+            return Optional.of(longRange(channel, type, (long) low, (long) high, false));
+        }
+        if (type.equals(DOUBLE) || type.equals(REAL)) {
+            return Optional.of(doubleRange(channel, type, toDouble(type, low), toDouble(type, high), false));
+        }
+        if (type instanceof VarcharType) {
+            return Optional.of(sliceRange(channel, (Slice) low, true, (Slice) high, true));
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnarFilter> compileIn(RowExpression value, List<RowExpression> valueList, boolean negated)
+    {
+        if (!(value instanceof InputReferenceExpression)) {
+            return Optional.empty();
+        }
+
+        // a null in the list makes the result null instead of false, which filters the same, unless it is negated
+        List<Object> values = new ArrayList<>();
+        for (RowExpression item : valueList) {
+            if (!(item instanceof ConstantExpression) || !isSameType(value.getType(), item.getType())) {
+                return Optional.empty();
+            }
+            Object constant = ((ConstantExpression) item).getValue();
+            if (constant == null) {
+                if (negated) {
+                    return Optional.empty();
+                }
+                continue;
+            }
+            values.add(constant);
+        }
+        if (values.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int channel = ((InputReferenceExpression) value).getField();
+        Type type = value.getType();
+        if (LONG_TYPES.contains(type)) {
+            return Optional.of(longIn(channel, type, values.stream().map(Long.class::cast).collect(toImmutableList()), negated));
+        }
+        if (type instanceof VarcharType) {
+            return Optional.of(sliceIn(channel, type, values.stream().map(Slice.class::cast).collect(toImmutableList()), negated));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isColumnAndConstants(RowExpression column, List<RowExpression> constants)
+    {
+        if (!(column instanceof InputReferenceExpression)) {
+            return false;
+        }
+        for (RowExpression constant : constants) {
+            if (!(constant instanceof ConstantExpression) || ((ConstantExpression) constant).getValue() == null || !isSameType(column.getType(), constant.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameType(Type columnType, Type constantType)
+    {
+        // varchar values are compared the same way regardless of the length bound
+        return columnType.equals(constantType) || (columnType instanceof VarcharType && constantType instanceof VarcharType);
+    }
+
+    private static double toDouble(Type type, Object value)
+    {
+        if (type.equals(REAL)) {
+            return intBitsToFloat((int) (long) value);
+        }
+        return (double) value;
+    }
+
+    private static Optional<OperatorType> flip(OperatorType operator)
+    {
+        switch (operator) {
+            case EQUAL:
+            case NOT_EQUAL:
+                return Optional.of(operator);
+            case LESS_THAN:
+                return Optional.of(OperatorType.GREATER_THAN);
+            case LESS_THAN_OR_EQUAL:
+                return Optional.of(OperatorType.GREATER_THAN_OR_EQUAL);
+            case GREATER_THAN:
+                return Optional.of(OperatorType.LESS_THAN);
+            case GREATER_THAN_OR_EQUAL:
+                return Optional.of(OperatorType.LESS_THAN_OR_EQUAL);
+            default:
+                return Optional.empty();
+        }
+    }
+}
@@ -34,6 +34,8 @@ import io.airlift.bytecode.control.IfStatement;
 import io.airlift.jmx.CacheStatsMBean;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.Work;
+import io.prestosql.operator.project.ColumnarFilter;
+import io.prestosql.operator.project.ColumnarPageFilter;
 import io.prestosql.operator.project.ConstantPageProjection;
 import io.prestosql.operator.project.GeneratedPageProjection;
 import io.prestosql.operator.project.InputChannels;
@@ -56,6 +58,7 @@ import io.prestosql.sql.relational.InputReferenceExpression;
 import io.prestosql.sql.relational.LambdaDefinitionExpression;
 import io.prestosql.sql.relational.RowExpression;
 import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
 import org.objectweb.asm.MethodTooLargeException;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
@@ -63,6 +66,7 @@ import org.weakref.jmx.Nested;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -90,9 +94,12 @@ import static io.airlift.bytecode.expression.BytecodeExpressions.newArray;
 import static io.airlift.bytecode.expression.BytecodeExpressions.not;
 import static io.prestosql.operator.project.PageFieldsToInputParametersRewriter.rewritePageFieldsToInputParameters;
 import static io.prestosql.spi.StandardErrorCode.COMPILER_ERROR;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.sql.gen.BytecodeUtils.generateWrite;
 import static io.prestosql.sql.gen.BytecodeUtils.invoke;
+import static io.prestosql.sql.gen.ColumnarFilterCompiler.extractConjuncts;
 import static io.prestosql.sql.gen.LambdaExpressionExtractor.extractLambdaExpressions;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
 import static io.prestosql.util.CompilerUtils.defineClass;
 import static io.prestosql.util.CompilerUtils.makeClassName;
 import static io.prestosql.util.Reflection.constructorMethodHandle;
@@ -102,6 +109,7 @@ public class PageFunctionCompiler
 {
     private final Metadata metadata;
     private final DeterminismEvaluator determinismEvaluator;
+    private final boolean columnarFilterEvaluationEnabled;
 
     private final LoadingCache<RowExpression, Supplier<PageProjection>> projectionCache;
     private final LoadingCache<RowExpression, Supplier<PageFilter>> filterCache;
@@ -112,13 +120,19 @@ public class PageFunctionCompiler
     @Inject
     public PageFunctionCompiler(Metadata metadata, CompilerConfig config)
     {
-        this(metadata, requireNonNull(config, "config is null").getExpressionCacheSize());
+        this(metadata, requireNonNull(config, "config is null").getExpressionCacheSize(), config.isColumnarFilterEvaluationEnabled());
     }
 
     public PageFunctionCompiler(Metadata metadata, int expressionCacheSize)
+    {
+        this(metadata, expressionCacheSize, true);
+    }
+
+    public PageFunctionCompiler(Metadata metadata, int expressionCacheSize, boolean columnarFilterEvaluationEnabled)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.determinismEvaluator = new DeterminismEvaluator(metadata);
+        this.columnarFilterEvaluationEnabled = columnarFilterEvaluationEnabled;
 
         if (expressionCacheSize > 0) {
             projectionCache = CacheBuilder.newBuilder()
@@ -376,6 +390,46 @@ public class PageFunctionCompiler
     {
         requireNonNull(filter, "filter is null");
 
+        if (columnarFilterEvaluationEnabled) {
+            Optional<Supplier<PageFilter>> columnarFilter = compileColumnarFilter(filter, classNameSuffix);
+            if (columnarFilter.isPresent()) {
+                return columnarFilter.get();
+            }
+        }
+        return compileGeneratedFilter(filter, classNameSuffix);
+    }
+
+    private Optional<Supplier<PageFilter>> compileColumnarFilter(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
+
+        ImmutableList.Builder<ColumnarFilter> columnarFilters = ImmutableList.builder();
+        List<RowExpression> remainingConjuncts = new ArrayList<>();
+        for (RowExpression conjunct : extractConjuncts(result.getRewrittenExpression())) {
+            Optional<ColumnarFilter> columnarFilter = ColumnarFilterCompiler.compileColumnarFilter(conjunct);
+            if (columnarFilter.isPresent()) {
+                columnarFilters.add(columnarFilter.get());
+            }
+            else {
+                remainingConjuncts.add(conjunct);
+            }
+        }
+
+        List<ColumnarFilter> filters = columnarFilters.build();
+        if (filters.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // remaining conjuncts refer to the channels of the filter input page
+        Optional<Supplier<PageFilter>> remainingFilter = remainingConjuncts.stream()
+                .reduce((left, right) -> new SpecialForm(AND, BOOLEAN, left, right))
+                .map(remaining -> compileGeneratedFilter(remaining, classNameSuffix));
+        InputChannels inputChannels = result.getInputChannels();
+        return Optional.of(() -> new ColumnarPageFilter(filters, remainingFilter.map(Supplier::get), inputChannels));
+    }
+
+    private Supplier<PageFilter> compileGeneratedFilter(RowExpression filter, Optional<String> classNameSuffix)
+    {
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
 
         CallSiteBinder callSiteBinder = new CallSiteBinder();
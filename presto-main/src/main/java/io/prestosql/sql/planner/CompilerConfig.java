@@ -23,6 +23,7 @@ import javax.validation.constraints.Min;
 public class CompilerConfig
 {
     private int expressionCacheSize = 10_000;
+    private boolean columnarFilterEvaluationEnabled = true;
 
     @Min(0)
     public int getExpressionCacheSize()
@@ -37,4 +38,17 @@ public class CompilerConfig
         this.expressionCacheSize = expressionCacheSize;
         return this;
     }
+
+    public boolean isColumnarFilterEvaluationEnabled()
+    {
+        return columnarFilterEvaluationEnabled;
+    }
+
+    @Config("compiler.columnar-filter-evaluation-enabled")
+    @Description("Evaluate simple filter conjuncts one column at a time instead of with generated code")
+    public CompilerConfig setColumnarFilterEvaluationEnabled(boolean columnarFilterEvaluationEnabled)
+    {
+        this.columnarFilterEvaluationEnabled = columnarFilterEvaluationEnabled;
+        return this;
+    }
 }
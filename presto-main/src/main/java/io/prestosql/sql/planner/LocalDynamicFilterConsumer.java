@@ -13,13 +13,16 @@
  */
 package io.prestosql.sql.planner;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.log.Logger;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
@@ -35,6 +38,7 @@ import io.prestosql.sql.tree.SymbolReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -69,6 +73,10 @@ public class LocalDynamicFilterConsumer
     // The resulting predicates from each build-side partition.
     private final List<TupleDomain<DynamicFilterId>> partitions;
 
+    // The bloom filters from build-side partitions whose predicate became too large (reported before the partition predicate).
+    private final ListMultimap<DynamicFilterId, BlockedBloomFilter> partitionBloomFilters = ArrayListMultimap.create();
+    private final SettableFuture<Map<DynamicFilterId, BlockedBloomFilter>> bloomFiltersFuture;
+
     public LocalDynamicFilterConsumer(Multimap<DynamicFilterId, Symbol> probeSymbols, Map<DynamicFilterId, Integer> buildChannels, Map<DynamicFilterId, Type> filterBuildTypes, int partitionCount)
     {
         this.probeSymbols = requireNonNull(probeSymbols, "probeSymbols is null");
@@ -79,6 +87,7 @@ public class LocalDynamicFilterConsumer
         verify(buildChannels.keySet().equals(filterBuildTypes.keySet()), "filterBuildTypes and buildChannels must have same keys");
 
         this.resultFuture = SettableFuture.create();
+        this.bloomFiltersFuture = SettableFuture.create();
 
         this.partitionCount = partitionCount;
         this.partitions = new ArrayList<>(partitionCount);
@@ -94,6 +103,27 @@ public class LocalDynamicFilterConsumer
         return Futures.transform(resultFuture, this::convertTupleDomainForLocalFilters, directExecutor());
     }
 
+    /**
+     * Bloom filters are returned only for dynamic filters whose collected predicate is unconstrained,
+     * since otherwise the predicate is exact and the bloom filter would not filter anything more.
+     */
+    public ListenableFuture<Map<DynamicFilterId, BlockedBloomFilter>> getDynamicFilterBloomFilters()
+    {
+        return bloomFiltersFuture;
+    }
+
+    public ListenableFuture<Map<Symbol, BlockedBloomFilter>> getNodeLocalBloomFiltersForSymbols()
+    {
+        return Futures.transform(bloomFiltersFuture, this::convertBloomFiltersForLocalFilters, directExecutor());
+    }
+
+    private synchronized void addBloomFilters(Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
+    {
+        // Called concurrently by each DynamicFilterSourceOperator instance (when collection is over).
+        verify(partitions.size() < partitionCount);
+        bloomFilters.forEach(partitionBloomFilters::put);
+    }
+
     private synchronized void addPartition(TupleDomain<DynamicFilterId> tupleDomain)
     {
         // Called concurrently by each DynamicFilterSourceOperator instance (when collection is over).
@@ -103,11 +133,73 @@ public class LocalDynamicFilterConsumer
         partitions.add(tupleDomain);
         if (partitions.size() == partitionCount) {
             TupleDomain<DynamicFilterId> result = TupleDomain.columnWiseUnion(partitions);
+            // Bloom filters must be set first, so that they are available once the predicate is.
+            bloomFiltersFuture.set(unionBloomFilters(result));
             // No more partitions are left to be processed.
             resultFuture.set(result);
         }
     }
 
+    private Map<DynamicFilterId, BlockedBloomFilter> unionBloomFilters(TupleDomain<DynamicFilterId> result)
+    {
+        if (result.isNone()) {
+            return ImmutableMap.of();
+        }
+        Map<DynamicFilterId, Domain> domains = result.getDomains().get();
+        ImmutableMap.Builder<DynamicFilterId, BlockedBloomFilter> builder = ImmutableMap.builder();
+        for (DynamicFilterId filterId : partitionBloomFilters.keySet()) {
+            Domain domain = domains.get(filterId);
+            if (domain == null || domain.isAll()) {
+                unionBloomFilters(filterId, partitionBloomFilters.get(filterId))
+                        .ifPresent(bloomFilter -> builder.put(filterId, bloomFilter));
+            }
+        }
+        partitionBloomFilters.clear();
+        return builder.build();
+    }
+
+    /**
+     * Only the partitions whose predicate became too large report a bloom filter, so the exact predicates
+     * of the other partitions are added to the union, otherwise it would be missing some of the build-side values.
+     */
+    private Optional<BlockedBloomFilter> unionBloomFilters(DynamicFilterId filterId, List<BlockedBloomFilter> bloomFilters)
+    {
+        long sizeInBytes = bloomFilters.get(0).getSizeInBytes();
+        List<BlockedBloomFilter> result = new ArrayList<>(bloomFilters);
+        int unconstrainedPartitions = 0;
+        for (TupleDomain<DynamicFilterId> partition : partitions) {
+            if (partition.isNone()) {
+                // no build-side values match the join
+                continue;
+            }
+            Domain domain = partition.getDomains().get().get(filterId);
+            if (domain == null || domain.isAll()) {
+                unconstrainedPartitions++;
+                continue;
+            }
+            Optional<BlockedBloomFilter> domainBloomFilter = BlockedBloomFilter.fromDomain(domain, sizeInBytes);
+            if (domainBloomFilter.isEmpty()) {
+                return Optional.empty();
+            }
+            result.add(domainBloomFilter.get());
+        }
+        if (unconstrainedPartitions != bloomFilters.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(BlockedBloomFilter.union(result));
+    }
+
+    private Map<Symbol, BlockedBloomFilter> convertBloomFiltersForLocalFilters(Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
+    {
+        ImmutableMap.Builder<Symbol, BlockedBloomFilter> builder = ImmutableMap.builder();
+        for (Map.Entry<DynamicFilterId, BlockedBloomFilter> entry : bloomFilters.entrySet()) {
+            for (Symbol probeSymbol : probeSymbols.get(entry.getKey())) {
+                builder.put(probeSymbol, entry.getValue());
+            }
+        }
+        return builder.build();
+    }
+
     private Map<Symbol, Domain> convertTupleDomainForLocalFilters(TupleDomain<DynamicFilterId> result)
     {
         if (result.isNone()) {
@@ -207,6 +299,11 @@ public class LocalDynamicFilterConsumer
         return this::addPartition;
     }
 
+    public Consumer<Map<DynamicFilterId, BlockedBloomFilter>> getBloomFilterConsumer()
+    {
+        return this::addBloomFilters;
+    }
+
     @Override
     public String toString()
     {
@@ -13,6 +13,7 @@
  */
 package io.prestosql.sql.planner;
 
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 
@@ -35,6 +36,9 @@ class LocalDynamicFiltersCollector
     @GuardedBy("this")
     private final Map<Symbol, Domain> dynamicFilterDomainsResult = new HashMap<>();
 
+    @GuardedBy("this")
+    private final Map<Symbol, BlockedBloomFilter> dynamicFilterBloomFiltersResult = new HashMap<>();
+
     public synchronized TupleDomain<Symbol> getDynamicFilter(Set<Symbol> probeSymbols)
     {
         Map<Symbol, Domain> probeSymbolDomains = dynamicFilterDomainsResult.entrySet().stream()
@@ -43,10 +47,23 @@ class LocalDynamicFiltersCollector
         return TupleDomain.withColumnDomains(probeSymbolDomains);
     }
 
+    public synchronized Map<Symbol, BlockedBloomFilter> getDynamicFilterBloomFilters(Set<Symbol> probeSymbols)
+    {
+        return dynamicFilterBloomFiltersResult.entrySet().stream()
+                .filter(entry -> probeSymbols.contains(entry.getKey()))
+                .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     public synchronized void addDynamicFilter(Map<Symbol, Domain> dynamicFilterDomains)
     {
         for (Map.Entry<Symbol, Domain> entry : dynamicFilterDomains.entrySet()) {
             dynamicFilterDomainsResult.merge(entry.getKey(), entry.getValue(), Domain::intersect);
         }
     }
+
+    public synchronized void addDynamicFilterBloomFilters(Map<Symbol, BlockedBloomFilter> bloomFilters)
+    {
+        // Bloom filters from different joins cannot be intersected, but using any one of them is still correct.
+        bloomFilters.forEach(dynamicFilterBloomFiltersResult::putIfAbsent);
+    }
 }
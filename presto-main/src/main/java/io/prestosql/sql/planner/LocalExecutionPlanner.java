@@ -62,6 +62,7 @@ import io.prestosql.operator.LimitOperator.LimitOperatorFactory;
 import io.prestosql.operator.LocalPlannerAware;
 import io.prestosql.operator.LookupJoinOperators;
 import io.prestosql.operator.LookupOuterOperator.LookupOuterOperatorFactory;
+import io.prestosql.operator.LookupSourceCache;
 import io.prestosql.operator.LookupSourceFactory;
 import io.prestosql.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
 import io.prestosql.operator.MergeOperator.MergeOperatorFactory;
@@ -74,6 +75,7 @@ import io.prestosql.operator.PagesIndex;
 import io.prestosql.operator.PagesSpatialIndexFactory;
 import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PartitionedLookupSourceFactory;
+import io.prestosql.operator.PartitionedLookupSourceFactory.LookupSourceCacheContext;
 import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputFactory;
 import io.prestosql.operator.PipelineExecutionStrategy;
 import io.prestosql.operator.RowNumberOperator;
@@ -123,6 +125,7 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorIndex;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.RecordSet;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -221,19 +224,24 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.DiscreteDomain.integers;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.prestosql.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static io.prestosql.SystemSessionProperties.getDynamicFilteringBloomFilterSize;
 import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverRowCount;
 import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverSize;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
+import static io.prestosql.SystemSessionProperties.getSpillJoinUnspillConcurrency;
 import static io.prestosql.SystemSessionProperties.getTaskConcurrency;
 import static io.prestosql.SystemSessionProperties.getTaskWriterCount;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.isJoinLookupSourceCacheEnabled;
 import static io.prestosql.SystemSessionProperties.isLateMaterializationEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillOrderBy;
@@ -316,6 +324,7 @@ public class LocalExecutionPlanner
     private final JoinCompiler joinCompiler;
     private final LookupJoinOperators lookupJoinOperators;
     private final OrderingCompiler orderingCompiler;
+    private final LookupSourceCache lookupSourceCache;
 
     @Inject
     public LocalExecutionPlanner(
@@ -338,7 +347,8 @@ public class LocalExecutionPlanner
             PagesIndex.Factory pagesIndexFactory,
             JoinCompiler joinCompiler,
             LookupJoinOperators lookupJoinOperators,
-            OrderingCompiler orderingCompiler)
+            OrderingCompiler orderingCompiler,
+            LookupSourceCache lookupSourceCache)
     {
         this.explainAnalyzeContext = requireNonNull(explainAnalyzeContext, "explainAnalyzeContext is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -363,6 +373,7 @@ public class LocalExecutionPlanner
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.lookupJoinOperators = requireNonNull(lookupJoinOperators, "lookupJoinOperators is null");
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        this.lookupSourceCache = requireNonNull(lookupSourceCache, "lookupSourceCache is null");
     }
 
     public LocalExecutionPlan plan(
@@ -443,6 +454,7 @@ public class LocalExecutionPlanner
                         partitionConstants,
                         partitioningScheme.isReplicateNullsAndAny(),
                         nullChannel,
+                        partitioningScheme.getSkewedJoinPartitioning(),
                         outputBuffer,
                         maxPagePartitioningBufferSize));
     }
@@ -477,7 +489,7 @@ public class LocalExecutionPlanner
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session))))
+                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session))))
                         .build(),
                 context.getDriverInstanceCount(),
                 physicalOperation.getPipelineExecutionStrategy());
@@ -613,6 +625,11 @@ public class LocalExecutionPlanner
             taskContext.collectDynamicTupleDomain(dynamicTupleDomain);
         }
 
+        private void addDynamicFilterBloomFilters(Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
+        {
+            taskContext.collectDynamicFilterBloomFilters(bloomFilters);
+        }
+
         public Optional<IndexSourceContext> getIndexSourceContext()
         {
             return indexSourceContext;
@@ -751,7 +768,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)),
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -771,7 +788,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)));
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -1267,6 +1284,10 @@ public class LocalExecutionPlanner
                     .filter(expression -> sourceNode instanceof TableScanNode)
                     .map(expression -> getDynamicFilter((TableScanNode) sourceNode, expression, context))
                     .orElse(TupleDomain::all);
+            Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFiltersSupplier = filterExpression
+                    .filter(expression -> sourceNode instanceof TableScanNode)
+                    .map(expression -> getDynamicBloomFilters((TableScanNode) sourceNode, expression, context))
+                    .orElse(ImmutableMap::of);
 
             List<Expression> projections = new ArrayList<>();
             for (Symbol symbol : outputSymbols) {
@@ -1298,6 +1319,7 @@ public class LocalExecutionPlanner
                             table,
                             columns,
                             dynamicFilterSupplier,
+                            dynamicBloomFiltersSupplier,
                             getTypes(projections, expressionTypes),
                             getFilterAndProjectMinOutputPageSize(session),
                             getFilterAndProjectMinOutputPageRowCount(session));
@@ -1345,7 +1367,8 @@ public class LocalExecutionPlanner
             }
 
             Supplier<TupleDomain<ColumnHandle>> dynamicFilter = getDynamicFilter(node, filterExpression, context);
-            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, node.getTable(), columns, dynamicFilter);
+            Supplier<Map<ColumnHandle, BlockedBloomFilter>> dynamicBloomFilters = getDynamicBloomFilters(node, filterExpression, context);
+            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, node.getTable(), columns, dynamicFilter, dynamicBloomFilters);
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, stageExecutionDescriptor.isScanGroupedExecution(node.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
         }
 
@@ -1376,6 +1399,18 @@ public class LocalExecutionPlanner
             };
         }
 
+        private Supplier<Map<ColumnHandle, BlockedBloomFilter>> getDynamicBloomFilters(
+                TableScanNode tableScanNode,
+                Expression filterExpression,
+                LocalExecutionPlanContext context)
+        {
+            if (extractDynamicFilters(filterExpression).getDynamicConjuncts().isEmpty()) {
+                return ImmutableMap::of;
+            }
+            return () -> context.getDynamicFiltersCollector().getDynamicFilterBloomFilters(tableScanNode.getAssignments().keySet()).entrySet().stream()
+                    .collect(toImmutableMap(entry -> tableScanNode.getAssignments().get(entry.getKey()), Map.Entry::getValue));
+        }
+
         @Override
         public PhysicalOperation visitValues(ValuesNode node, LocalExecutionPlanContext context)
         {
@@ -2075,6 +2110,18 @@ public class LocalExecutionPlanner
             ImmutableList<Type> buildOutputTypes = buildOutputChannels.stream()
                     .map(buildSource.getTypes()::get)
                     .collect(toImmutableList());
+            Optional<LookupSourceCache.Key> lookupSourceCacheKey = Optional.empty();
+            if (isJoinLookupSourceCacheEnabled(session) &&
+                    (node.getType() == INNER || node.getType() == LEFT) &&
+                    filterFunctionFactory.isEmpty() &&
+                    !spillEnabled &&
+                    node.getDynamicFilters().isEmpty() &&
+                    probeSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION &&
+                    buildSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION) {
+                lookupSourceCacheKey = createLookupSourceCacheKey(node, buildNode, buildSymbols, buildHashSymbol, partitionCount);
+            }
+            Optional<LookupSourceCacheContext> lookupSourceCacheContext = lookupSourceCacheKey.map(key ->
+                    new LookupSourceCacheContext(lookupSourceCache, key, context.taskContext.getQueryContext().getMemoryPool()));
             JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager = new JoinBridgeManager<>(
                     buildOuter,
                     probeSource.getPipelineExecutionStrategy(),
@@ -2086,7 +2133,9 @@ public class LocalExecutionPlanner
                                     .map(buildSource.getTypes()::get)
                                     .collect(toImmutableList()),
                             partitionCount,
-                            buildOuter),
+                            buildOuter,
+                            getSpillJoinUnspillConcurrency(session),
+                            lookupSourceCacheContext),
                     buildOutputTypes);
 
             ImmutableList.Builder<OperatorFactory> factoriesBuilder = new ImmutableList.Builder<>();
@@ -2122,6 +2171,51 @@ public class LocalExecutionPlanner
             return lookupSourceFactoryManager;
         }
 
+        private Optional<LookupSourceCache.Key> createLookupSourceCacheKey(
+                JoinNode node,
+                PlanNode buildNode,
+                List<Symbol> buildSymbols,
+                Optional<Symbol> buildHashSymbol,
+                int partitionCount)
+        {
+            // channels are relative to the output of the remote source, which does not depend on the query
+            PlanNode source = buildNode;
+            Function<Symbol, Symbol> remoteSymbol = Function.identity();
+            if (source instanceof ExchangeNode) {
+                ExchangeNode exchange = (ExchangeNode) source;
+                if (exchange.getScope() != LOCAL || exchange.getSources().size() != 1) {
+                    return Optional.empty();
+                }
+                List<Symbol> inputs = getOnlyElement(exchange.getInputs());
+                List<Symbol> outputs = exchange.getOutputSymbols();
+                remoteSymbol = symbol -> inputs.get(outputs.indexOf(symbol));
+                source = getOnlyElement(exchange.getSources());
+            }
+            if (!(source instanceof RemoteSourceNode)) {
+                return Optional.empty();
+            }
+            RemoteSourceNode remoteSource = (RemoteSourceNode) source;
+            if (remoteSource.getLookupSourceCacheKey().isEmpty()) {
+                return Optional.empty();
+            }
+
+            Function<Symbol, Integer> remoteChannel = remoteSymbol.andThen(remoteSource.getOutputSymbols()::indexOf);
+            List<Integer> outputChannels = node.getRightOutputSymbols().stream()
+                    .map(remoteChannel)
+                    .collect(toImmutableList());
+            List<Integer> hashChannels = buildSymbols.stream()
+                    .map(remoteChannel)
+                    .collect(toImmutableList());
+            OptionalInt preComputedHashChannel = buildHashSymbol.map(remoteChannel)
+                    .map(OptionalInt::of).orElse(OptionalInt.empty());
+            return Optional.of(new LookupSourceCache.Key(
+                    remoteSource.getLookupSourceCacheKey().get(),
+                    outputChannels,
+                    hashChannels,
+                    preComputedHashChannel,
+                    partitionCount));
+        }
+
         private DynamicFilterSourceOperatorFactory createDynamicFilterSourceOperatorFactory(
                 LocalDynamicFilterConsumer dynamicFilter,
                 JoinNode node,
@@ -2140,9 +2234,11 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     dynamicFilter.getTupleDomainConsumer(),
+                    dynamicFilter.getBloomFilterConsumer(),
                     filterBuildChannels,
                     getDynamicFilteringMaxPerDriverRowCount(context.getSession()),
-                    getDynamicFilteringMaxPerDriverSize(context.getSession()));
+                    getDynamicFilteringMaxPerDriverSize(context.getSession()),
+                    getDynamicFilteringBloomFilterSize(context.getSession()));
         }
 
         private Optional<LocalDynamicFilterConsumer> createDynamicFilter(PhysicalOperation buildSource, JoinNode node, LocalExecutionPlanContext context, int partitionCount)
@@ -2158,6 +2254,8 @@ public class LocalExecutionPlanner
             LocalDynamicFilterConsumer filterConsumer = LocalDynamicFilterConsumer.create(node, buildSource.getTypes(), partitionCount);
             // Intersect dynamic filters' predicates when they become ready,
             // in order to support multiple join nodes in the same plan fragment.
+            addSuccessCallback(filterConsumer.getDynamicFilterBloomFilters(), context::addDynamicFilterBloomFilters);
+            addSuccessCallback(filterConsumer.getNodeLocalBloomFiltersForSymbols(), collector::addDynamicFilterBloomFilters);
             addSuccessCallback(filterConsumer.getDynamicFilterDomains(), context::addDynamicFilter);
             addSuccessCallback(filterConsumer.getNodeLocalDynamicFilterForSymbols(), collector::addDynamicFilter);
             return Optional.of(filterConsumer);
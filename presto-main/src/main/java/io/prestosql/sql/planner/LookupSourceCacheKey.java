@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.connector.ConnectorTableLayoutHandle;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Identifies the rows produced by the build side of a broadcast join independently of the query,
+ * so that lookup sources built by one query can be reused by another one. The plan is canonical:
+ * symbols are named by the position of the column or expression which produces them.
+ * Two keys are equal only if the connector table handles are equal.
+ */
+public final class LookupSourceCacheKey
+{
+    private final CatalogName catalogName;
+    private final ConnectorTableHandle connectorHandle;
+    private final Optional<ConnectorTableLayoutHandle> layout;
+    private final List<ColumnHandle> columns;
+    private final String canonicalPlan;
+
+    @JsonCreator
+    public LookupSourceCacheKey(
+            @JsonProperty("catalogName") CatalogName catalogName,
+            @JsonProperty("connectorHandle") ConnectorTableHandle connectorHandle,
+            @JsonProperty("layout") Optional<ConnectorTableLayoutHandle> layout,
+            @JsonProperty("columns") List<ColumnHandle> columns,
+            @JsonProperty("canonicalPlan") String canonicalPlan)
+    {
+        this.catalogName = requireNonNull(catalogName, "catalogName is null");
+        this.connectorHandle = requireNonNull(connectorHandle, "connectorHandle is null");
+        this.layout = requireNonNull(layout, "layout is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.canonicalPlan = requireNonNull(canonicalPlan, "canonicalPlan is null");
+    }
+
+    @JsonProperty
+    public CatalogName getCatalogName()
+    {
+        return catalogName;
+    }
+
+    @JsonProperty
+    public ConnectorTableHandle getConnectorHandle()
+    {
+        return connectorHandle;
+    }
+
+    @JsonProperty
+    public Optional<ConnectorTableLayoutHandle> getLayout()
+    {
+        return layout;
+    }
+
+    @JsonProperty
+    public List<ColumnHandle> getColumns()
+    {
+        return columns;
+    }
+
+    @JsonProperty
+    public String getCanonicalPlan()
+    {
+        return canonicalPlan;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LookupSourceCacheKey that = (LookupSourceCacheKey) o;
+        return catalogName.equals(that.catalogName) &&
+                connectorHandle.equals(that.connectorHandle) &&
+                layout.equals(that.layout) &&
+                columns.equals(that.columns) &&
+                canonicalPlan.equals(that.canonicalPlan);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(catalogName, connectorHandle, layout, columns, canonicalPlan);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("catalogName", catalogName)
+                .add("connectorHandle", connectorHandle)
+                .add("layout", layout)
+                .add("columns", columns)
+                .add("canonicalPlan", canonicalPlan)
+                .toString();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.PlanVisitor;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.CurrentPath;
+import io.prestosql.sql.tree.CurrentTime;
+import io.prestosql.sql.tree.CurrentUser;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.sql.analyzer.ExpressionTreeUtils.extractExpressions;
+import static io.prestosql.sql.planner.ExpressionSymbolInliner.inlineSymbols;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Computes the {@link LookupSourceCacheKey} of the build side of a broadcast join.
+ * Only filters and projections over a single table scan are supported. Expressions
+ * with function calls are not, as their result can depend on the session or on the time
+ * the query runs.
+ */
+public final class LookupSourceCacheKeyExtractor
+{
+    private LookupSourceCacheKeyExtractor() {}
+
+    public static Optional<LookupSourceCacheKey> extractLookupSourceCacheKey(PlanNode source, List<Symbol> outputs, Session session)
+    {
+        Visitor visitor = new Visitor();
+        Optional<Map<Symbol, SymbolReference>> names = source.accept(visitor, null);
+        if (names.isEmpty()) {
+            return Optional.empty();
+        }
+
+        visitor.plan.append("output(")
+                .append(outputs.stream()
+                        .map(names.get()::get)
+                        .map(Expression::toString)
+                        .collect(joining(", ")))
+                .append("); ");
+        // casts and literals of date and time types depend on the session time zone
+        visitor.plan.append("timeZone(")
+                .append(session.getTimeZoneKey().getId())
+                .append(")");
+
+        TableHandle table = visitor.table;
+        return Optional.of(new LookupSourceCacheKey(
+                table.getCatalogName(),
+                table.getConnectorHandle(),
+                table.getLayout(),
+                visitor.columns,
+                visitor.plan.toString()));
+    }
+
+    private static class Visitor
+            extends PlanVisitor<Optional<Map<Symbol, SymbolReference>>, Void>
+    {
+        private final List<ColumnHandle> columns = new ArrayList<>();
+        private final StringBuilder plan = new StringBuilder();
+        private TableHandle table;
+        private int nextName;
+
+        @Override
+        protected Optional<Map<Symbol, SymbolReference>> visitPlan(PlanNode node, Void context)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Map<Symbol, SymbolReference>> visitTableScan(TableScanNode node, Void context)
+        {
+            table = node.getTable();
+            ImmutableMap.Builder<Symbol, SymbolReference> names = ImmutableMap.builder();
+            for (Symbol symbol : node.getOutputSymbols()) {
+                columns.add(node.getAssignments().get(symbol));
+                names.put(symbol, nextName());
+            }
+            plan.append("scan; ");
+            return Optional.of(names.build());
+        }
+
+        @Override
+        public Optional<Map<Symbol, SymbolReference>> visitFilter(FilterNode node, Void context)
+        {
+            Optional<Map<Symbol, SymbolReference>> names = node.getSource().accept(this, context);
+            if (names.isEmpty() || !isCacheable(node.getPredicate())) {
+                return Optional.empty();
+            }
+
+            plan.append("filter(")
+                    .append(inlineSymbols(names.get(), node.getPredicate()))
+                    .append("); ");
+            return names;
+        }
+
+        @Override
+        public Optional<Map<Symbol, SymbolReference>> visitProject(ProjectNode node, Void context)
+        {
+            Optional<Map<Symbol, SymbolReference>> sourceNames = node.getSource().accept(this, context);
+            if (sourceNames.isEmpty()) {
+                return Optional.empty();
+            }
+
+            ImmutableMap.Builder<Symbol, SymbolReference> names = ImmutableMap.builder();
+            for (Map.Entry<Symbol, Expression> assignment : node.getAssignments().entrySet()) {
+                if (!isCacheable(assignment.getValue())) {
+                    return Optional.empty();
+                }
+                SymbolReference name = nextName();
+                plan.append(name)
+                        .append(" := ")
+                        .append(inlineSymbols(sourceNames.get(), assignment.getValue()))
+                        .append("; ");
+                names.put(assignment.getKey(), name);
+            }
+            return Optional.of(names.build());
+        }
+
+        private SymbolReference nextName()
+        {
+            return new SymbolReference("$" + nextName++);
+        }
+
+        private static boolean isCacheable(Expression expression)
+        {
+            List<Expression> expressions = ImmutableList.of(expression);
+            return extractExpressions(expressions, FunctionCall.class).isEmpty() &&
+                    extractExpressions(expressions, CurrentTime.class).isEmpty() &&
+                    extractExpressions(expressions, CurrentUser.class).isEmpty() &&
+                    extractExpressions(expressions, CurrentPath.class).isEmpty();
+        }
+    }
+}
@@ -35,7 +35,7 @@ import static java.util.Objects.requireNonNull;
 
 public class OptimizerStatsRecorder
 {
-    private final Map<Class<?>, OptimizerStats> stats = new HashMap<>();
+    private final Map<String, OptimizerStats> stats = new HashMap<>();
 
     @GuardedBy("this")
     private final List<MBeanExport> mbeanExports = new ArrayList<>();
@@ -44,32 +44,44 @@ public class OptimizerStatsRecorder
     {
         requireNonNull(optimizer, "optimizer is null");
         checkArgument(!optimizer.getClass().isAnonymousClass());
-        stats.put(optimizer.getClass(), new OptimizerStats());
+        stats.put(optimizer.getClass().getSimpleName(), new OptimizerStats());
+    }
+
+    /**
+     * Registers the stats of a part of an optimizer, e.g. of one of the strategies of a rule.
+     */
+    public OptimizerStats register(String name)
+    {
+        requireNonNull(name, "name is null");
+        checkArgument(!stats.containsKey(name), "stats %s are already registered", name);
+        OptimizerStats optimizerStats = new OptimizerStats();
+        stats.put(name, optimizerStats);
+        return optimizerStats;
     }
 
     public void record(PlanOptimizer optimizer, long nanos)
     {
         requireNonNull(optimizer, "optimizer is null");
-        OptimizerStats optimizerStats = requireNonNull(stats.get(optimizer.getClass()), "optimizer is not registered");
+        OptimizerStats optimizerStats = requireNonNull(stats.get(optimizer.getClass().getSimpleName()), "optimizer is not registered");
         optimizerStats.record(nanos);
     }
 
     public void recordFailure(PlanOptimizer optimizer)
     {
         requireNonNull(optimizer, "optimizer is null");
-        OptimizerStats optimizerStats = requireNonNull(stats.get(optimizer.getClass()), "optimizer is not registered");
+        OptimizerStats optimizerStats = requireNonNull(stats.get(optimizer.getClass().getSimpleName()), "optimizer is not registered");
         optimizerStats.recordFailure();
     }
 
     synchronized void export(MBeanExporter exporter)
     {
         checkState(mbeanExports.isEmpty(), "MBeans already exported");
-        for (Map.Entry<Class<?>, OptimizerStats> entry : stats.entrySet()) {
-            verify(!entry.getKey().getSimpleName().isEmpty());
+        for (Map.Entry<String, OptimizerStats> entry : stats.entrySet()) {
+            verify(!entry.getKey().isEmpty());
             try {
                 mbeanExports.add(exporter.exportWithGeneratedName(entry.getValue(), PlanOptimizer.class, ImmutableMap.<String, String>builder()
                         .put("name", PlanOptimizer.class.getSimpleName())
-                        .put("optimizer", entry.getKey().getSimpleName())
+                        .put("optimizer", entry.getKey())
                         .build()));
             }
             catch (RuntimeException e) {
@@ -86,10 +98,10 @@ public class OptimizerStatsRecorder
         mbeanExports.clear();
     }
 
-    private String getName(Class<?> key)
+    private String getName(String key)
     {
         return ObjectNames.builder(PlanOptimizer.class)
-                .withProperty("optimizer", key.getSimpleName())
+                .withProperty("optimizer", key)
                 .build();
     }
 }
@@ -68,10 +68,12 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.prestosql.SystemSessionProperties.getQueryMaxStageCount;
 import static io.prestosql.SystemSessionProperties.isDynamicScheduleForGroupedExecution;
 import static io.prestosql.SystemSessionProperties.isForceSingleNodeOutput;
+import static io.prestosql.SystemSessionProperties.isJoinLookupSourceCacheEnabled;
 import static io.prestosql.operator.StageExecutionDescriptor.ungroupedExecution;
 import static io.prestosql.spi.StandardErrorCode.QUERY_HAS_TOO_MANY_STAGES;
 import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static io.prestosql.spi.connector.StandardWarningCode.TOO_MANY_STAGES;
+import static io.prestosql.sql.planner.LookupSourceCacheKeyExtractor.extractLookupSourceCacheKey;
 import static io.prestosql.sql.planner.SchedulingOrderVisitor.scheduleOrder;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
@@ -199,7 +201,8 @@ public class PlanFragmenter
                         outputPartitioningScheme.getOutputLayout(),
                         outputPartitioningScheme.getHashColumn(),
                         outputPartitioningScheme.isReplicateNullsAndAny(),
-                        outputPartitioningScheme.getBucketToPartition()),
+                        outputPartitioningScheme.getBucketToPartition(),
+                        outputPartitioningScheme.getSkewedJoinPartitioning()),
                 fragment.getStageExecutionDescriptor(),
                 fragment.getStatsAndCosts(),
                 fragment.getJsonRepresentation());
@@ -360,7 +363,12 @@ public class PlanFragmenter
                     .map(PlanFragment::getId)
                     .collect(toImmutableList());
 
-            return new RemoteSourceNode(exchange.getId(), childrenIds, exchange.getOutputSymbols(), exchange.getOrderingScheme(), exchange.getType());
+            Optional<LookupSourceCacheKey> lookupSourceCacheKey = Optional.empty();
+            if (exchange.getType() == REPLICATE && exchange.getSources().size() == 1 && isJoinLookupSourceCacheEnabled(session)) {
+                lookupSourceCacheKey = extractLookupSourceCacheKey(getOnlyElement(exchange.getSources()), getOnlyElement(exchange.getInputs()), session);
+            }
+
+            return new RemoteSourceNode(exchange.getId(), childrenIds, exchange.getOutputSymbols(), exchange.getOrderingScheme(), exchange.getType(), lookupSourceCacheKey);
         }
 
         private SubPlan buildSubPlan(PlanNode node, FragmentProperties properties, RewriteContext<FragmentProperties> context)
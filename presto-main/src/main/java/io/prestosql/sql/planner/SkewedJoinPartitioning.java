@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Skew handling of one side of a partitioned join. Rows of the build side are replicated
+ * from their hash partition to the next {@code spreadFactor - 1} partitions. Rows of the
+ * probe side which fall into a hot partition are spread over the same partitions, so
+ * every probe row still meets all build rows with the same key.
+ * <p>
+ * The build side is sent before the skew of the probe side is known, so all of its rows are
+ * replicated, and the memory used by the build side of the join grows by the spread factor
+ * even if no partition turns out to be hot.
+ */
+public class SkewedJoinPartitioning
+{
+    public enum Side
+    {
+        PROBE,
+        BUILD,
+    }
+
+    private final Side side;
+    private final int spreadFactor;
+
+    @JsonCreator
+    public SkewedJoinPartitioning(
+            @JsonProperty("side") Side side,
+            @JsonProperty("spreadFactor") int spreadFactor)
+    {
+        checkArgument(spreadFactor > 1, "spreadFactor must be greater than 1: %s", spreadFactor);
+        this.side = requireNonNull(side, "side is null");
+        this.spreadFactor = spreadFactor;
+    }
+
+    @JsonProperty
+    public Side getSide()
+    {
+        return side;
+    }
+
+    @JsonProperty
+    public int getSpreadFactor()
+    {
+        return spreadFactor;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SkewedJoinPartitioning that = (SkewedJoinPartitioning) o;
+        return side == that.side &&
+                spreadFactor == that.spreadFactor;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(side, spreadFactor);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("side", side)
+                .add("spreadFactor", spreadFactor)
+                .toString();
+    }
+}
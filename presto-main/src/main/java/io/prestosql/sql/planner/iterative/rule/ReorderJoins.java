@@ -34,11 +34,13 @@ import io.prestosql.matching.Pattern;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.prestosql.sql.planner.EqualityInference;
+import io.prestosql.sql.planner.OptimizerStatsRecorder;
 import io.prestosql.sql.planner.PlanNodeIdAllocator;
 import io.prestosql.sql.planner.Symbol;
 import io.prestosql.sql.planner.SymbolsExtractor;
 import io.prestosql.sql.planner.iterative.Lookup;
 import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.optimizations.OptimizerStats;
 import io.prestosql.sql.planner.plan.FilterNode;
 import io.prestosql.sql.planner.plan.JoinNode;
 import io.prestosql.sql.planner.plan.JoinNode.DistributionType;
@@ -69,6 +71,7 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Sets.powerSet;
 import static io.prestosql.SystemSessionProperties.getJoinDistributionType;
 import static io.prestosql.SystemSessionProperties.getJoinReorderingStrategy;
+import static io.prestosql.SystemSessionProperties.getMaxGreedyReorderedJoins;
 import static io.prestosql.SystemSessionProperties.getMaxReorderedJoins;
 import static io.prestosql.sql.ExpressionUtils.and;
 import static io.prestosql.sql.ExpressionUtils.combineConjuncts;
@@ -88,6 +91,7 @@ import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
 import static io.prestosql.sql.planner.plan.Patterns.join;
 import static io.prestosql.sql.tree.BooleanLiteral.TRUE_LITERAL;
 import static io.prestosql.sql.tree.ComparisonExpression.Operator.EQUAL;
+import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toCollection;
 
@@ -102,11 +106,21 @@ public class ReorderJoins
 
     private final Metadata metadata;
     private final CostComparator costComparator;
+    private final OptimizerStats exhaustiveEnumerationStats;
+    private final OptimizerStats greedyEnumerationStats;
 
     public ReorderJoins(Metadata metadata, CostComparator costComparator)
+    {
+        this(metadata, costComparator, new OptimizerStatsRecorder());
+    }
+
+    public ReorderJoins(Metadata metadata, CostComparator costComparator, OptimizerStatsRecorder optimizerStats)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.costComparator = requireNonNull(costComparator, "costComparator is null");
+        requireNonNull(optimizerStats, "optimizerStats is null");
+        this.exhaustiveEnumerationStats = optimizerStats.register("ReorderJoinsExhaustive");
+        this.greedyEnumerationStats = optimizerStats.register("ReorderJoinsGreedy");
         this.pattern = join().matching(
                 joinNode -> joinNode.getDistributionType().isEmpty()
                         && joinNode.getType() == INNER
@@ -157,7 +171,27 @@ public class ReorderJoins
                 costComparator,
                 multiJoinNode.getFilter(),
                 context);
-        return joinEnumerator.chooseJoinOrder(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+
+        // join graphs larger than the limit of the exhaustive enumeration are only flattened when greedy enumeration is enabled
+        boolean greedy = multiJoinNode.getSources().size() > getMaxReorderedJoins(context.getSession()) + 1;
+        log.debug("Choosing %s join order of %s sources", greedy ? "greedy" : "exhaustive", multiJoinNode.getSources().size());
+        OptimizerStats stats = greedy ? greedyEnumerationStats : exhaustiveEnumerationStats;
+        long start = System.nanoTime();
+        try {
+            JoinEnumerationResult result;
+            if (greedy) {
+                result = joinEnumerator.chooseJoinOrderGreedily(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+            }
+            else {
+                result = joinEnumerator.chooseJoinOrder(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+            }
+            stats.record(System.nanoTime() - start);
+            return result;
+        }
+        catch (RuntimeException e) {
+            stats.recordFailure();
+            throw e;
+        }
     }
 
     @VisibleForTesting
@@ -227,6 +261,83 @@ public class ReorderJoins
             return bestResult;
         }
 
+        /**
+         * Joins the pair of plans with the lowest cost first, starting from the sources, until all sources are joined.
+         * Only a quadratic number of joins is considered at each step, so unlike {@link #chooseJoinOrder}
+         * this can be used for large join graphs, but the chosen join order is not necessarily optimal.
+         */
+        @VisibleForTesting
+        JoinEnumerationResult chooseJoinOrderGreedily(LinkedHashSet<PlanNode> sources, List<Symbol> outputSymbols)
+        {
+            checkArgument(sources.size() > 1, "sources size is less than or equal to one");
+
+            // symbols of the intermediate joins, which must keep everything the remaining predicates refer to
+            List<Symbol> requiredSymbols = ImmutableList.copyOf(ImmutableSet.<Symbol>builder()
+                    .addAll(outputSymbols)
+                    .addAll(SymbolsExtractor.extractUnique(allFilter))
+                    .build());
+
+            List<PlanNode> plans = new ArrayList<>();
+            for (PlanNode source : sources) {
+                JoinEnumerationResult result = getJoinSource(
+                        new LinkedHashSet<>(ImmutableList.of(source)),
+                        source.getOutputSymbols().stream()
+                                .filter(requiredSymbols::contains)
+                                .collect(toImmutableList()));
+                if (result.equals(UNKNOWN_COST_RESULT)) {
+                    return UNKNOWN_COST_RESULT;
+                }
+                plans.add(result.planNode.orElseThrow(() -> new VerifyException("Plan node is not present")));
+            }
+
+            // the joins of the pairs of plans which were not picked are reused by the next steps
+            Map<Set<PlanNode>, JoinEnumerationResult> joins = new HashMap<>();
+            JoinEnumerationResult bestResult = null;
+            while (plans.size() > 1) {
+                context.checkTimeoutNotExhausted();
+
+                boolean lastJoin = plans.size() == 2;
+                bestResult = null;
+                int bestLeft = -1;
+                int bestRight = -1;
+                for (int left = 0; left < plans.size(); left++) {
+                    for (int right = left + 1; right < plans.size(); right++) {
+                        PlanNode leftPlan = plans.get(left);
+                        PlanNode rightPlan = plans.get(right);
+                        JoinEnumerationResult result;
+                        if (lastJoin) {
+                            result = createJoin(leftPlan, rightPlan, outputSymbols);
+                        }
+                        else {
+                            result = joins.computeIfAbsent(ImmutableSet.of(leftPlan, rightPlan), key -> createJoin(leftPlan, rightPlan, requiredSymbols));
+                        }
+                        if (result.equals(UNKNOWN_COST_RESULT)) {
+                            return UNKNOWN_COST_RESULT;
+                        }
+                        if (result.equals(INFINITE_COST_RESULT)) {
+                            continue;
+                        }
+                        if (bestResult == null || resultComparator.compare(result, bestResult) < 0) {
+                            bestResult = result;
+                            bestLeft = left;
+                            bestRight = right;
+                        }
+                    }
+                }
+
+                if (bestResult == null) {
+                    return INFINITE_COST_RESULT;
+                }
+                // bestRight is greater than bestLeft, so removing it first does not shift bestLeft
+                plans.remove(bestRight);
+                plans.remove(bestLeft);
+                plans.add(bestResult.planNode.orElseThrow(() -> new VerifyException("Plan node is not present")));
+            }
+
+            bestResult.planNode.ifPresent((planNode) -> log.debug("Greedy join order was: %s", planNode));
+            return bestResult;
+        }
+
         /**
          * This method generates all the ways of dividing totalNodes into two sets
          * each containing at least one node. It will generate one set for each
@@ -272,16 +383,10 @@ public class ReorderJoins
                     .collect(toImmutableSet());
 
             List<Expression> joinPredicates = getJoinPredicates(leftSymbols, rightSymbols);
-            List<EquiJoinClause> joinConditions = joinPredicates.stream()
-                    .filter(JoinEnumerator::isJoinEqualityCondition)
-                    .map(predicate -> toEquiJoinClause((ComparisonExpression) predicate, leftSymbols))
-                    .collect(toImmutableList());
+            List<EquiJoinClause> joinConditions = getJoinConditions(joinPredicates, leftSymbols);
             if (joinConditions.isEmpty()) {
                 return INFINITE_COST_RESULT;
             }
-            List<Expression> joinFilters = joinPredicates.stream()
-                    .filter(predicate -> !isJoinEqualityCondition(predicate))
-                    .collect(toImmutableList());
 
             Set<Symbol> requiredJoinSymbols = ImmutableSet.<Symbol>builder()
                     .addAll(outputSymbols)
@@ -316,6 +421,25 @@ public class ReorderJoins
 
             PlanNode right = rightResult.planNode.orElseThrow(() -> new VerifyException("Plan node is not present"));
 
+            return createJoin(left, right, joinConditions, getJoinFilters(joinPredicates), outputSymbols);
+        }
+
+        private JoinEnumerationResult createJoin(PlanNode left, PlanNode right, List<Symbol> outputSymbols)
+        {
+            Set<Symbol> leftSymbols = ImmutableSet.copyOf(left.getOutputSymbols());
+            Set<Symbol> rightSymbols = ImmutableSet.copyOf(right.getOutputSymbols());
+
+            List<Expression> joinPredicates = getJoinPredicates(leftSymbols, rightSymbols);
+            List<EquiJoinClause> joinConditions = getJoinConditions(joinPredicates, leftSymbols);
+            if (joinConditions.isEmpty()) {
+                return INFINITE_COST_RESULT;
+            }
+
+            return createJoin(left, right, joinConditions, getJoinFilters(joinPredicates), outputSymbols);
+        }
+
+        private JoinEnumerationResult createJoin(PlanNode left, PlanNode right, List<EquiJoinClause> joinConditions, List<Expression> joinFilters, List<Symbol> outputSymbols)
+        {
             List<Symbol> leftOutputSymbols = left.getOutputSymbols().stream()
                     .filter(outputSymbols::contains)
                     .collect(toImmutableList());
@@ -340,6 +464,21 @@ public class ReorderJoins
                     Optional.empty()));
         }
 
+        private static List<EquiJoinClause> getJoinConditions(List<Expression> joinPredicates, Set<Symbol> leftSymbols)
+        {
+            return joinPredicates.stream()
+                    .filter(JoinEnumerator::isJoinEqualityCondition)
+                    .map(predicate -> toEquiJoinClause((ComparisonExpression) predicate, leftSymbols))
+                    .collect(toImmutableList());
+        }
+
+        private static List<Expression> getJoinFilters(List<Expression> joinPredicates)
+        {
+            return joinPredicates.stream()
+                    .filter(predicate -> !isJoinEqualityCondition(predicate))
+                    .collect(toImmutableList());
+        }
+
         private List<Expression> getJoinPredicates(Set<Symbol> leftSymbols, Set<Symbol> rightSymbols)
         {
             ImmutableList.Builder<Expression> joinPredicatesBuilder = ImmutableList.builder();
@@ -547,7 +686,9 @@ public class ReorderJoins
 
         static MultiJoinNode toMultiJoinNode(Metadata metadata, JoinNode joinNode, Context context, boolean pushProjectionsThroughJoin)
         {
-            return toMultiJoinNode(metadata, joinNode, context.getLookup(), context.getIdAllocator(), getMaxReorderedJoins(context.getSession()), pushProjectionsThroughJoin);
+            Session session = context.getSession();
+            int joinLimit = max(getMaxReorderedJoins(session), getMaxGreedyReorderedJoins(session));
+            return toMultiJoinNode(metadata, joinNode, context.getLookup(), context.getIdAllocator(), joinLimit, pushProjectionsThroughJoin);
         }
 
         static MultiJoinNode toMultiJoinNode(Metadata metadata, JoinNode joinNode, Lookup lookup, PlanNodeIdAllocator planNodeIdAllocator, int joinLimit, boolean pushProjectionsThroughJoin)
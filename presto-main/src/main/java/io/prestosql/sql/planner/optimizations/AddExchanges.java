@@ -30,6 +30,7 @@ import io.prestosql.sql.planner.DomainTranslator;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
 import io.prestosql.sql.planner.PlanNodeIdAllocator;
+import io.prestosql.sql.planner.SkewedJoinPartitioning;
 import io.prestosql.sql.planner.Symbol;
 import io.prestosql.sql.planner.SymbolAllocator;
 import io.prestosql.sql.planner.TypeAnalyzer;
@@ -85,12 +86,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.prestosql.SystemSessionProperties.getSkewedJoinSpreadFactor;
 import static io.prestosql.SystemSessionProperties.ignoreDownStreamPreferences;
 import static io.prestosql.SystemSessionProperties.isColocatedJoinEnabled;
 import static io.prestosql.SystemSessionProperties.isDistributedSortEnabled;
 import static io.prestosql.SystemSessionProperties.isForceSingleNodeOutput;
 import static io.prestosql.sql.planner.FragmentTableScanCounter.countSources;
 import static io.prestosql.sql.planner.FragmentTableScanCounter.hasMultipleSources;
+import static io.prestosql.sql.planner.SkewedJoinPartitioning.Side.BUILD;
+import static io.prestosql.sql.planner.SkewedJoinPartitioning.Side.PROBE;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
@@ -107,6 +111,8 @@ import static io.prestosql.sql.planner.plan.ExchangeNode.mergingExchange;
 import static io.prestosql.sql.planner.plan.ExchangeNode.partitionedExchange;
 import static io.prestosql.sql.planner.plan.ExchangeNode.replicatedExchange;
 import static io.prestosql.sql.planner.plan.ExchangeNode.roundRobinExchange;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.LEFT;
 import static io.prestosql.sql.tree.BooleanLiteral.TRUE_LITERAL;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
@@ -711,12 +717,23 @@ public class AddExchanges
                             left.getProperties());
                 }
                 else {
-                    left = withDerivedProperties(
-                            partitionedExchange(idAllocator.getNextId(), REMOTE, left.getNode(), leftSymbols, Optional.empty()),
-                            left.getProperties());
-                    right = withDerivedProperties(
-                            partitionedExchange(idAllocator.getNextId(), REMOTE, right.getNode(), rightSymbols, Optional.empty()),
-                            right.getProperties());
+                    ExchangeNode leftExchange = partitionedExchange(idAllocator.getNextId(), REMOTE, left.getNode(), leftSymbols, Optional.empty());
+                    ExchangeNode rightExchange = partitionedExchange(idAllocator.getNextId(), REMOTE, right.getNode(), rightSymbols, Optional.empty());
+                    int skewedJoinSpreadFactor = getSkewedJoinSpreadFactor(session);
+                    // build rows are replicated to several partitions, so unmatched build rows cannot be output.
+                    // The hot partitions are only detected while the probe side is sent, so every build row is replicated.
+                    if (skewedJoinSpreadFactor > 1 && (node.getType() == INNER || node.getType() == LEFT)) {
+                        left = withDerivedProperties(
+                                withSkewedJoinPartitioning(leftExchange, new SkewedJoinPartitioning(PROBE, skewedJoinSpreadFactor)),
+                                left.getProperties());
+                        right = withDerivedProperties(
+                                withSkewedJoinPartitioning(rightExchange, new SkewedJoinPartitioning(BUILD, skewedJoinSpreadFactor)),
+                                right.getProperties());
+                        // rows with the same key can be on several nodes, so neither side is partitioned on the join keys
+                        return buildJoin(node, left, right, JoinNode.DistributionType.PARTITIONED);
+                    }
+                    left = withDerivedProperties(leftExchange, left.getProperties());
+                    right = withDerivedProperties(rightExchange, right.getProperties());
                 }
             }
 
@@ -733,6 +750,18 @@ public class AddExchanges
             return buildJoin(node, left, right, JoinNode.DistributionType.PARTITIONED);
         }
 
+        private ExchangeNode withSkewedJoinPartitioning(ExchangeNode exchange, SkewedJoinPartitioning skewedJoinPartitioning)
+        {
+            return new ExchangeNode(
+                    exchange.getId(),
+                    exchange.getType(),
+                    exchange.getScope(),
+                    exchange.getPartitioningScheme().withSkewedJoinPartitioning(Optional.of(skewedJoinPartitioning)),
+                    exchange.getSources(),
+                    exchange.getInputs(),
+                    exchange.getOrderingScheme());
+        }
+
         private PlanWithProperties planReplicatedJoin(JoinNode node, PlanWithProperties left)
         {
             // Broadcast Join
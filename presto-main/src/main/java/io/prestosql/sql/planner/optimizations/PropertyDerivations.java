@@ -577,6 +577,13 @@ public final class PropertyDerivations
                             .constants(constants)
                             .build();
                 case REPARTITION:
+                    if (node.getPartitioningScheme().getSkewedJoinPartitioning().isPresent()) {
+                        // rows with the same key can be sent to several partitions
+                        return ActualProperties.builder()
+                                .global(arbitraryPartition())
+                                .constants(constants)
+                                .build();
+                    }
                     return ActualProperties.builder()
                             .global(partitionedOn(
                                     node.getPartitioningScheme().getPartitioning(),
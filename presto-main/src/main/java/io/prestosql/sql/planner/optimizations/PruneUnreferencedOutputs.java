@@ -187,7 +187,8 @@ public class PruneUnreferencedOutputs
                     newOutputSymbols,
                     node.getPartitioningScheme().getHashColumn(),
                     node.getPartitioningScheme().isReplicateNullsAndAny(),
-                    node.getPartitioningScheme().getBucketToPartition());
+                    node.getPartitioningScheme().getBucketToPartition(),
+                    node.getPartitioningScheme().getSkewedJoinPartitioning());
 
             ImmutableList.Builder<PlanNode> rewrittenSources = ImmutableList.builder();
             for (int i = 0; i < node.getSources().size(); i++) {
@@ -308,7 +308,8 @@ public class SymbolMapper
                 mapAndDistinct(sourceLayout),
                 scheme.getHashColumn().map(this::map),
                 scheme.isReplicateNullsAndAny(),
-                scheme.getBucketToPartition());
+                scheme.getBucketToPartition(),
+                scheme.getSkewedJoinPartitioning());
     }
 
     public TableFinishNode map(TableFinishNode node, PlanNode source)
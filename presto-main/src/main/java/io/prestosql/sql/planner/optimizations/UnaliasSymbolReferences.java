@@ -407,7 +407,9 @@ public class UnaliasSymbolReferences
                             node.getSourceFragmentIds(),
                             newOutputs,
                             newOrderingScheme,
-                            node.getExchangeType()),
+                            node.getExchangeType(),
+                            // the cache key describes the rows in the order of the original outputs
+                            newOutputs.size() == node.getOutputSymbols().size() ? node.getLookupSourceCacheKey() : Optional.empty()),
                     mapping);
         }
 
@@ -16,6 +16,7 @@ package io.prestosql.sql.planner.plan;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
+import io.prestosql.sql.planner.LookupSourceCacheKey;
 import io.prestosql.sql.planner.OrderingScheme;
 import io.prestosql.sql.planner.Symbol;
 
@@ -35,6 +36,7 @@ public class RemoteSourceNode
     private final List<Symbol> outputs;
     private final Optional<OrderingScheme> orderingScheme;
     private final ExchangeNode.Type exchangeType; // This is needed to "unfragment" to compute stats correctly.
+    private final Optional<LookupSourceCacheKey> lookupSourceCacheKey;
 
     @JsonCreator
     public RemoteSourceNode(
@@ -42,7 +44,8 @@ public class RemoteSourceNode
             @JsonProperty("sourceFragmentIds") List<PlanFragmentId> sourceFragmentIds,
             @JsonProperty("outputs") List<Symbol> outputs,
             @JsonProperty("orderingScheme") Optional<OrderingScheme> orderingScheme,
-            @JsonProperty("exchangeType") ExchangeNode.Type exchangeType)
+            @JsonProperty("exchangeType") ExchangeNode.Type exchangeType,
+            @JsonProperty("lookupSourceCacheKey") Optional<LookupSourceCacheKey> lookupSourceCacheKey)
     {
         super(id);
 
@@ -52,6 +55,12 @@ public class RemoteSourceNode
         this.outputs = ImmutableList.copyOf(outputs);
         this.orderingScheme = requireNonNull(orderingScheme, "orderingScheme is null");
         this.exchangeType = requireNonNull(exchangeType, "exchangeType is null");
+        this.lookupSourceCacheKey = requireNonNull(lookupSourceCacheKey, "lookupSourceCacheKey is null");
+    }
+
+    public RemoteSourceNode(PlanNodeId id, List<PlanFragmentId> sourceFragmentIds, List<Symbol> outputs, Optional<OrderingScheme> orderingScheme, ExchangeNode.Type exchangeType)
+    {
+        this(id, sourceFragmentIds, outputs, orderingScheme, exchangeType, Optional.empty());
     }
 
     public RemoteSourceNode(PlanNodeId id, PlanFragmentId sourceFragmentId, List<Symbol> outputs, Optional<OrderingScheme> orderingScheme, ExchangeNode.Type exchangeType)
@@ -90,6 +99,15 @@ public class RemoteSourceNode
         return exchangeType;
     }
 
+    /**
+     * Identifies the rows of a replicated exchange, when they can be used to build a lookup source shared across queries
+     */
+    @JsonProperty("lookupSourceCacheKey")
+    public Optional<LookupSourceCacheKey> getLookupSourceCacheKey()
+    {
+        return lookupSourceCacheKey;
+    }
+
     @Override
     public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
     {
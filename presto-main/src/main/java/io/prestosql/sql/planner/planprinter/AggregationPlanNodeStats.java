@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.planprinter;
+
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class AggregationPlanNodeStats
+        extends HashCollisionPlanNodeStats
+{
+    private final long partialAggregationSkippedDrivers;
+    private final long partialAggregationSkippedPositions;
+
+    public AggregationPlanNodeStats(
+            PlanNodeId planNodeId,
+            Duration planNodeScheduledTime,
+            Duration planNodeCpuTime,
+            long planNodeInputPositions,
+            DataSize planNodeInputDataSize,
+            long planNodeOutputPositions,
+            DataSize planNodeOutputDataSize,
+            Map<String, OperatorInputStats> operatorInputStats,
+            Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats,
+            long partialAggregationSkippedDrivers,
+            long partialAggregationSkippedPositions)
+    {
+        super(planNodeId, planNodeScheduledTime, planNodeCpuTime, planNodeInputPositions, planNodeInputDataSize, planNodeOutputPositions, planNodeOutputDataSize, operatorInputStats, operatorHashCollisionsStats);
+        this.partialAggregationSkippedDrivers = partialAggregationSkippedDrivers;
+        this.partialAggregationSkippedPositions = partialAggregationSkippedPositions;
+    }
+
+    public long getPartialAggregationSkippedDrivers()
+    {
+        return partialAggregationSkippedDrivers;
+    }
+
+    public long getPartialAggregationSkippedPositions()
+    {
+        return partialAggregationSkippedPositions;
+    }
+
+    @Override
+    public PlanNodeStats mergeWith(PlanNodeStats other)
+    {
+        checkArgument(other instanceof AggregationPlanNodeStats, "other is not an instanceof AggregationPlanNodeStats");
+        AggregationPlanNodeStats otherAggregation = (AggregationPlanNodeStats) other;
+        PlanNodeStats merged = super.mergeWith(other);
+
+        return new AggregationPlanNodeStats(
+                merged.getPlanNodeId(),
+                merged.getPlanNodeScheduledTime(),
+                merged.getPlanNodeCpuTime(),
+                merged.getPlanNodeInputPositions(),
+                merged.getPlanNodeInputDataSize(),
+                merged.getPlanNodeOutputPositions(),
+                merged.getPlanNodeOutputDataSize(),
+                merged.operatorInputStats,
+                operatorHashCollisionsStats,
+                partialAggregationSkippedDrivers + otherAggregation.getPartialAggregationSkippedDrivers(),
+                partialAggregationSkippedPositions + otherAggregation.getPartialAggregationSkippedPositions());
+    }
+}
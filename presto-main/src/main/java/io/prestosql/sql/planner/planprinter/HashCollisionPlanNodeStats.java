@@ -28,7 +28,7 @@ import static java.util.stream.Collectors.toMap;
 public class HashCollisionPlanNodeStats
         extends PlanNodeStats
 {
-    private final Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats;
+    protected final Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats;
 
     public HashCollisionPlanNodeStats(
             PlanNodeId planNodeId,
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.Duration;
 import io.prestosql.execution.StageInfo;
 import io.prestosql.execution.TaskInfo;
+import io.prestosql.operator.HashAggregationOperatorInfo;
 import io.prestosql.operator.HashCollisionsInfo;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PipelineStats;
@@ -81,6 +82,8 @@ public final class PlanNodeStatsSummarizer
         Map<PlanNodeId, Map<String, OperatorInputStats>> operatorInputStats = new HashMap<>();
         Map<PlanNodeId, Map<String, OperatorHashCollisionsStats>> operatorHashCollisionsStats = new HashMap<>();
         Map<PlanNodeId, WindowOperatorStats> windowNodeStats = new HashMap<>();
+        Map<PlanNodeId, Long> partialAggregationSkippedDrivers = new HashMap<>();
+        Map<PlanNodeId, Long> partialAggregationSkippedPositions = new HashMap<>();
 
         for (PipelineStats pipelineStats : taskStats.getPipelines()) {
             // Due to eventual consistently collected stats, these could be empty
@@ -120,8 +123,17 @@ public final class PlanNodeStatsSummarizer
                                         operatorStats.getSumSquaredInputPositions())),
                         (map1, map2) -> mergeMaps(map1, map2, OperatorInputStats::merge));
 
+                HashCollisionsInfo hashCollisionsInfo = null;
                 if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                }
+                if (operatorStats.getInfo() instanceof HashAggregationOperatorInfo) {
+                    HashAggregationOperatorInfo aggregationInfo = (HashAggregationOperatorInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = aggregationInfo.getHashCollisionsInfo();
+                    partialAggregationSkippedDrivers.merge(planNodeId, aggregationInfo.getPartialAggregationSkippedDrivers(), Long::sum);
+                    partialAggregationSkippedPositions.merge(planNodeId, aggregationInfo.getPartialAggregationSkippedPositions(), Long::sum);
+                }
+                if (hashCollisionsInfo != null) {
                     operatorHashCollisionsStats.merge(planNodeId,
                             ImmutableMap.of(
                                     operatorStats.getOperatorType(),
@@ -176,7 +188,21 @@ public final class PlanNodeStatsSummarizer
             // and therefore only have scheduled time, but no output stats
             long outputPositions = planNodeOutputPositions.getOrDefault(planNodeId, 0L);
 
-            if (operatorHashCollisionsStats.containsKey(planNodeId)) {
+            if (partialAggregationSkippedDrivers.containsKey(planNodeId)) {
+                nodeStats = new AggregationPlanNodeStats(
+                        planNodeId,
+                        new Duration(planNodeScheduledMillis.get(planNodeId), MILLISECONDS),
+                        new Duration(planNodeCpuMillis.get(planNodeId), MILLISECONDS),
+                        planNodeInputPositions.get(planNodeId),
+                        succinctBytes(planNodeInputBytes.get(planNodeId)),
+                        outputPositions,
+                        succinctBytes(planNodeOutputBytes.getOrDefault(planNodeId, 0L)),
+                        operatorInputStats.get(planNodeId),
+                        operatorHashCollisionsStats.get(planNodeId),
+                        partialAggregationSkippedDrivers.get(planNodeId),
+                        partialAggregationSkippedPositions.get(planNodeId));
+            }
+            else if (operatorHashCollisionsStats.containsKey(planNodeId)) {
                 nodeStats = new HashCollisionPlanNodeStats(
                         planNodeId,
                         new Duration(planNodeScheduledMillis.get(planNodeId), MILLISECONDS),
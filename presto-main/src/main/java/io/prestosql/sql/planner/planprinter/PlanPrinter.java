@@ -1078,9 +1078,12 @@ public class PlanPrinter
             else {
                 addNode(node,
                         format("%sExchange", UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, node.getScope().toString())),
-                        format("[%s%s]%s",
+                        format("[%s%s%s]%s",
                                 node.getType(),
                                 node.getPartitioningScheme().isReplicateNullsAndAny() ? " - REPLICATE NULLS AND ANY" : "",
+                                node.getPartitioningScheme().getSkewedJoinPartitioning()
+                                        .map(skew -> format(" - SKEWED %s SPREAD %s", skew.getSide(), skew.getSpreadFactor()))
+                                        .orElse(""),
                                 formatHash(node.getPartitioningScheme().getHashColumn())));
             }
             return processChildren(node, context);
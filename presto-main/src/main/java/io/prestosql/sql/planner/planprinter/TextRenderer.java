@@ -137,6 +137,10 @@ public class TextRenderer
             printWindowOperatorStats(output, ((WindowPlanNodeStats) nodeStats).getWindowOperatorStats());
         }
 
+        if (nodeStats instanceof AggregationPlanNodeStats) {
+            printPartialAggregationStats(output, (AggregationPlanNodeStats) nodeStats);
+        }
+
         return output.toString();
     }
 
@@ -202,6 +206,17 @@ public class TextRenderer
         output.append(format("Size of partition: std.dev.: %s\n", formatDouble(stats.getPartitionRowsStdDev())));
     }
 
+    private void printPartialAggregationStats(StringBuilder output, AggregationPlanNodeStats stats)
+    {
+        if (stats.getPartialAggregationSkippedDrivers() == 0) {
+            return;
+        }
+
+        output.append(format("Partial aggregation skipped: %s in %d drivers\n",
+                formatPositions(stats.getPartialAggregationSkippedPositions()),
+                stats.getPartialAggregationSkippedDrivers()));
+    }
+
     private static Map<String, String> translateOperatorTypes(Set<String> operators)
     {
         if (operators.size() == 1) {
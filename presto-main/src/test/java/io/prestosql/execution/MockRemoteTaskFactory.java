@@ -249,6 +249,7 @@ public class MockRemoteTaskFactory
                             DataSize.ofBytes(0),
                             0,
                             new Duration(0, MILLISECONDS),
+                            ImmutableMap.of(),
                             ImmutableMap.of()),
                     DateTime.now(),
                     outputBuffer.getInfo(),
@@ -278,6 +279,7 @@ public class MockRemoteTaskFactory
                     stats.getRevocableMemoryReservation(),
                     0,
                     new Duration(0, MILLISECONDS),
+                    ImmutableMap.of(),
                     ImmutableMap.of());
         }
 
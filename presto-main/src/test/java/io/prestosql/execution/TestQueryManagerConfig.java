@@ -53,7 +53,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxCpuTime(new Duration(1_000_000_000, TimeUnit.DAYS))
                 .setQueryMaxScanPhysicalBytes(null)
                 .setRequiredWorkers(1)
-                .setRequiredWorkersMaxWait(new Duration(5, TimeUnit.MINUTES)));
+                .setRequiredWorkersMaxWait(new Duration(5, TimeUnit.MINUTES))
+                .setPlanCacheMaxEntries(0)
+                .setPlanCacheTtl(new Duration(1, TimeUnit.MINUTES)));
     }
 
     @Test
@@ -82,6 +84,8 @@ public class TestQueryManagerConfig
                 .put("query.max-scan-physical-bytes", "1kB")
                 .put("query-manager.required-workers", "333")
                 .put("query-manager.required-workers-max-wait", "33m")
+                .put("query.plan-cache.max-entries", "500")
+                .put("query.plan-cache.ttl", "10m")
                 .build();
 
         QueryManagerConfig expected = new QueryManagerConfig()
@@ -106,7 +110,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxCpuTime(new Duration(2, TimeUnit.DAYS))
                 .setQueryMaxScanPhysicalBytes(DataSize.of(1, KILOBYTE))
                 .setRequiredWorkers(333)
-                .setRequiredWorkersMaxWait(new Duration(33, TimeUnit.MINUTES));
+                .setRequiredWorkersMaxWait(new Duration(33, TimeUnit.MINUTES))
+                .setPlanCacheMaxEntries(500)
+                .setPlanCacheTtl(new Duration(10, TimeUnit.MINUTES));
 
         assertFullMapping(properties, expected);
     }
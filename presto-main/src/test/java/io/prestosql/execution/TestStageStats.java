@@ -73,6 +73,7 @@ public class TestStageStats
             DataSize.ofBytes(23),
             DataSize.ofBytes(24),
             25,
+            ImmutableList.of(27L, 28L),
 
             DataSize.ofBytes(26),
 
@@ -141,6 +142,7 @@ public class TestStageStats
         assertEquals(actual.getBufferedDataSize(), DataSize.ofBytes(23));
         assertEquals(actual.getOutputDataSize(), DataSize.ofBytes(24));
         assertEquals(actual.getOutputPositions(), 25);
+        assertEquals(actual.getOutputPartitionPositions(), ImmutableList.of(27L, 28L));
 
         assertEquals(actual.getPhysicalWrittenDataSize(), DataSize.ofBytes(26));
 
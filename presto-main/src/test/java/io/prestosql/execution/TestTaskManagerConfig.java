@@ -47,6 +47,8 @@ public class TestTaskManagerConfig
                 .setClientTimeout(new Duration(2, TimeUnit.MINUTES))
                 .setMaxIndexMemoryUsage(DataSize.of(64, Unit.MEGABYTE))
                 .setShareIndexLoading(false)
+                .setJoinLookupSourceCacheMaxSize(DataSize.of(256, Unit.MEGABYTE))
+                .setJoinLookupSourceCacheTtl(new Duration(5, TimeUnit.MINUTES))
                 .setMaxPartialAggregationMemoryUsage(DataSize.of(16, Unit.MEGABYTE))
                 .setMaxLocalExchangeBufferSize(DataSize.of(32, Unit.MEGABYTE))
                 .setSinkMaxBufferSize(DataSize.of(32, Unit.MEGABYTE))
@@ -58,6 +60,7 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(5)
                 .setTaskYieldThreads(3)
                 .setLevelTimeMultiplier(new BigDecimal("2"))
+                .setAdaptiveLevelThresholdsEnabled(false)
                 .setStatisticsCpuTimerEnabled(true));
     }
 
@@ -73,6 +76,8 @@ public class TestTaskManagerConfig
                 .put("task.cpu-timer-enabled", "false")
                 .put("task.max-index-memory", "512MB")
                 .put("task.share-index-loading", "true")
+                .put("task.join-lookup-source-cache.max-size", "1GB")
+                .put("task.join-lookup-source-cache.ttl", "1h")
                 .put("task.max-partial-aggregation-memory", "32MB")
                 .put("task.max-local-exchange-buffer-size", "33MB")
                 .put("task.max-worker-threads", "3")
@@ -90,6 +95,7 @@ public class TestTaskManagerConfig
                 .put("task.task-notification-threads", "13")
                 .put("task.task-yield-threads", "8")
                 .put("task.level-time-multiplier", "2.1")
+                .put("task.adaptive-level-thresholds-enabled", "true")
                 .put("task.statistics-cpu-timer-enabled", "false")
                 .build();
 
@@ -102,6 +108,8 @@ public class TestTaskManagerConfig
                 .setTaskCpuTimerEnabled(false)
                 .setMaxIndexMemoryUsage(DataSize.of(512, Unit.MEGABYTE))
                 .setShareIndexLoading(true)
+                .setJoinLookupSourceCacheMaxSize(DataSize.of(1, Unit.GIGABYTE))
+                .setJoinLookupSourceCacheTtl(new Duration(1, TimeUnit.HOURS))
                 .setMaxPartialAggregationMemoryUsage(DataSize.of(32, Unit.MEGABYTE))
                 .setMaxLocalExchangeBufferSize(DataSize.of(33, Unit.MEGABYTE))
                 .setMaxWorkerThreads(3)
@@ -119,6 +127,7 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(13)
                 .setTaskYieldThreads(8)
                 .setLevelTimeMultiplier(new BigDecimal("2.1"))
+                .setAdaptiveLevelThresholdsEnabled(true)
                 .setStatisticsCpuTimerEnabled(false);
 
         assertFullMapping(properties, expected);
@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.prestosql.execution.StateMachine;
+import io.prestosql.execution.buffer.BenchmarkPagesSerde.ExchangeCounters;
+import io.prestosql.execution.buffer.BenchmarkPagesSerde.PageShape;
+import io.prestosql.execution.buffer.OutputBuffers.BufferType;
+import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.execution.buffer.BufferState.OPEN;
+import static io.prestosql.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+@State(Scope.Thread)
+@OutputTimeUnit(SECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BenchmarkOutputBuffer
+{
+    private static final int PAGE_COUNT = 1000;
+    private static final int POSITIONS_PER_PAGE = 256;
+    private static final int PAGES_PER_ENQUEUE = 4;
+    private static final DataSize MAX_RESPONSE_SIZE = DataSize.of(1, MEGABYTE);
+
+    /**
+     * Enqueues the pages and reads them from all buffers as they are produced, the same as
+     * the output operators and the exchange clients of the consuming tasks do.
+     */
+    @Benchmark
+    public long enqueueAndGet(BenchmarkData data, ExchangeCounters counters)
+    {
+        OutputBuffer outputBuffer = data.createOutputBuffer();
+        long[] tokens = new long[data.getBufferCount()];
+        List<SerializedPage> pages = data.getSerializedPages();
+        for (int start = 0; start < pages.size(); start += PAGES_PER_ENQUEUE) {
+            List<SerializedPage> batch = pages.subList(start, Math.min(start + PAGES_PER_ENQUEUE, pages.size()));
+            if (data.getBufferType() == BufferType.PARTITIONED) {
+                outputBuffer.enqueue((start / PAGES_PER_ENQUEUE) % data.getBufferCount(), batch);
+            }
+            else {
+                outputBuffer.enqueue(batch);
+            }
+
+            for (int buffer = 0; buffer < tokens.length; buffer++) {
+                tokens[buffer] = getAvailablePages(outputBuffer, new OutputBufferId(buffer), tokens[buffer], counters);
+            }
+        }
+        outputBuffer.setNoMorePages();
+        outputBuffer.destroy();
+        return counters.pages;
+    }
+
+    private static long getAvailablePages(OutputBuffer outputBuffer, OutputBufferId bufferId, long token, ExchangeCounters counters)
+    {
+        while (true) {
+            ListenableFuture<BufferResult> future = outputBuffer.get(bufferId, token, MAX_RESPONSE_SIZE);
+            if (!future.isDone()) {
+                return token;
+            }
+            BufferResult result = getFutureValue(future);
+            if (result.isEmpty()) {
+                return token;
+            }
+            result.getSerializedPages().forEach(counters::record);
+            token = result.getNextToken();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"PARTITIONED", "BROADCAST", "ARBITRARY"})
+        private BufferType bufferType = BufferType.PARTITIONED;
+
+        @Param({"1", "16"})
+        private int bufferCount = 16;
+
+        @Param({"BIGINTS", "WIDE_VARCHARS", "DICTIONARY_VARCHARS", "NESTED_ROWS"})
+        private PageShape pageShape = PageShape.WIDE_VARCHARS;
+
+        private ScheduledExecutorService executor;
+        private List<SerializedPage> serializedPages;
+
+        @Setup
+        public void setup()
+        {
+            executor = newScheduledThreadPool(2, daemonThreadsNamed("benchmark-output-buffer-%s"));
+            PagesSerde serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), true).createPagesSerde();
+            serializedPages = pageShape.createPages(PAGE_COUNT, POSITIONS_PER_PAGE).stream()
+                    .map(serde::serialize)
+                    .collect(toImmutableList());
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            executor.shutdownNow();
+        }
+
+        public BufferType getBufferType()
+        {
+            return bufferType;
+        }
+
+        public int getBufferCount()
+        {
+            return bufferCount;
+        }
+
+        public List<SerializedPage> getSerializedPages()
+        {
+            return serializedPages;
+        }
+
+        private OutputBuffer createOutputBuffer()
+        {
+            OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(bufferType);
+            for (int buffer = 0; buffer < bufferCount; buffer++) {
+                outputBuffers = outputBuffers.withBuffer(new OutputBufferId(buffer), bufferType == BufferType.PARTITIONED ? buffer : 0);
+            }
+            outputBuffers = outputBuffers.withNoMoreBufferIds();
+
+            // the buffer is drained as it is filled, so it never blocks
+            StateMachine<BufferState> state = new StateMachine<>("bufferState", executor, OPEN, TERMINAL_BUFFER_STATES);
+            DataSize maxBufferSize = DataSize.of(1, GIGABYTE);
+            switch (bufferType) {
+                case PARTITIONED:
+                    return new PartitionedOutputBuffer("task-instance-id", state, outputBuffers, maxBufferSize, this::newMemoryContext, executor);
+                case BROADCAST:
+                    OutputBuffer broadcastBuffer = new BroadcastOutputBuffer("task-instance-id", state, maxBufferSize, this::newMemoryContext, executor);
+                    broadcastBuffer.setOutputBuffers(outputBuffers);
+                    return broadcastBuffer;
+                case ARBITRARY:
+                    OutputBuffer arbitraryBuffer = new ArbitraryOutputBuffer("task-instance-id", state, maxBufferSize, this::newMemoryContext, executor);
+                    arbitraryBuffer.setOutputBuffers(outputBuffers);
+                    return arbitraryBuffer;
+            }
+            throw new IllegalArgumentException("Unsupported buffer type: " + bufferType);
+        }
+
+        private SimpleLocalMemoryContext newMemoryContext()
+        {
+            return new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test");
+        }
+    }
+
+    @Test
+    public void testBenchmark()
+    {
+        for (BufferType bufferType : new BufferType[] {BufferType.PARTITIONED, BufferType.BROADCAST, BufferType.ARBITRARY}) {
+            BenchmarkData data = new BenchmarkData();
+            data.bufferType = bufferType;
+            data.setup();
+            try {
+                ExchangeCounters counters = new ExchangeCounters();
+                enqueueAndGet(data, counters);
+                // every buffer receives all pages of a broadcast
+                assertEquals(counters.pages, bufferType == BufferType.BROADCAST ? PAGE_COUNT * data.getBufferCount() : PAGE_COUNT);
+            }
+            finally {
+                data.tearDown();
+            }
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkOutputBuffer.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
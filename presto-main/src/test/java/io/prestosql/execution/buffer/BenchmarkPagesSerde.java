@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RowBlock;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.PageAssertions.assertPageEquals;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+@State(Scope.Thread)
+@OutputTimeUnit(SECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BenchmarkPagesSerde
+{
+    private static final int PAGE_COUNT = 100;
+    private static final int POSITIONS_PER_PAGE = 1024;
+
+    @Benchmark
+    public List<SerializedPage> serialize(BenchmarkData data, ExchangeCounters counters)
+    {
+        ImmutableList.Builder<SerializedPage> serializedPages = ImmutableList.builderWithExpectedSize(data.getPages().size());
+        for (Page page : data.getPages()) {
+            SerializedPage serializedPage = data.getSerde().serialize(page);
+            counters.record(serializedPage);
+            serializedPages.add(serializedPage);
+        }
+        return serializedPages.build();
+    }
+
+    @Benchmark
+    public List<Page> deserialize(BenchmarkData data, ExchangeCounters counters)
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builderWithExpectedSize(data.getSerializedPages().size());
+        for (SerializedPage serializedPage : data.getSerializedPages()) {
+            pages.add(data.getSerde().deserialize(serializedPage));
+            counters.record(serializedPage);
+        }
+        return pages.build();
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"BIGINTS", "WIDE_VARCHARS", "DICTIONARY_VARCHARS", "NESTED_ROWS"})
+        private PageShape pageShape = PageShape.WIDE_VARCHARS;
+
+        @Param({"NONE", "LZ4", "ZSTD"})
+        private String compressionCodec = "LZ4";
+
+        private PagesSerde serde;
+        private List<Page> pages;
+        private List<SerializedPage> serializedPages;
+
+        @Setup
+        public void setup()
+        {
+            Optional<CompressionCodec> codec = compressionCodec.equals("NONE") ? Optional.empty() : Optional.of(CompressionCodec.valueOf(compressionCodec));
+            serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), codec, false).createPagesSerde();
+            pages = pageShape.createPages(PAGE_COUNT, POSITIONS_PER_PAGE);
+            serializedPages = pages.stream()
+                    .map(serde::serialize)
+                    .collect(toImmutableList());
+        }
+
+        public PagesSerde getSerde()
+        {
+            return serde;
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public List<SerializedPage> getSerializedPages()
+        {
+            return serializedPages;
+        }
+    }
+
+    /**
+     * Pages and uncompressed bytes passing through the exchange, which JMH reports as rates.
+     */
+    @AuxCounters
+    @State(Scope.Thread)
+    public static class ExchangeCounters
+    {
+        public long pages;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            pages = 0;
+            bytes = 0;
+        }
+
+        public void record(SerializedPage page)
+        {
+            pages++;
+            bytes += page.getUncompressedSizeInBytes();
+        }
+    }
+
+    /**
+     * Shapes of the pages commonly seen in exchanges.
+     */
+    public enum PageShape
+    {
+        BIGINTS(ImmutableList.of(BIGINT, BIGINT)) {
+            @Override
+            Page createPage(Random random, int positionCount)
+            {
+                return new Page(createBigints(random, positionCount), createBigints(random, positionCount));
+            }
+        },
+        WIDE_VARCHARS(ImmutableList.of(BIGINT, VARCHAR, VARCHAR)) {
+            @Override
+            Page createPage(Random random, int positionCount)
+            {
+                return new Page(createBigints(random, positionCount), createVarchars(random, positionCount, 200), createVarchars(random, positionCount, 200));
+            }
+        },
+        DICTIONARY_VARCHARS(ImmutableList.of(BIGINT, VARCHAR)) {
+            @Override
+            Page createPage(Random random, int positionCount)
+            {
+                Block dictionary = createVarchars(random, 100, 50);
+                int[] ids = new int[positionCount];
+                for (int position = 0; position < positionCount; position++) {
+                    ids[position] = random.nextInt(dictionary.getPositionCount());
+                }
+                return new Page(createBigints(random, positionCount), new DictionaryBlock(dictionary, ids));
+            }
+        },
+        NESTED_ROWS(ImmutableList.of(BIGINT, RowType.anonymous(ImmutableList.of(BIGINT, RowType.anonymous(ImmutableList.of(VARCHAR, DOUBLE)))))) {
+            @Override
+            Page createPage(Random random, int positionCount)
+            {
+                Block innerRow = RowBlock.fromFieldBlocks(
+                        positionCount,
+                        Optional.empty(),
+                        new Block[] {createVarchars(random, positionCount, 20), createDoubles(random, positionCount)});
+                Block outerRow = RowBlock.fromFieldBlocks(
+                        positionCount,
+                        Optional.empty(),
+                        new Block[] {createBigints(random, positionCount), innerRow});
+                return new Page(createBigints(random, positionCount), outerRow);
+            }
+        };
+
+        private final List<Type> types;
+
+        PageShape(List<Type> types)
+        {
+            this.types = types;
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        abstract Page createPage(Random random, int positionCount);
+
+        public List<Page> createPages(int pageCount, int positionsPerPage)
+        {
+            Random random = new Random(42);
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            for (int i = 0; i < pageCount; i++) {
+                pages.add(createPage(random, positionsPerPage));
+            }
+            return pages.build();
+        }
+
+        private static Block createBigints(Random random, int positionCount)
+        {
+            BlockBuilder builder = BIGINT.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                BIGINT.writeLong(builder, random.nextInt(1_000_000));
+            }
+            return builder.build();
+        }
+
+        private static Block createDoubles(Random random, int positionCount)
+        {
+            BlockBuilder builder = DOUBLE.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                DOUBLE.writeDouble(builder, random.nextDouble());
+            }
+            return builder.build();
+        }
+
+        private static Block createVarchars(Random random, int positionCount, int maxLength)
+        {
+            BlockBuilder builder = VARCHAR.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                char[] chars = new char[random.nextInt(maxLength)];
+                for (int i = 0; i < chars.length; i++) {
+                    // a small alphabet, so that the values compress like real text
+                    chars[i] = (char) ('a' + random.nextInt(16));
+                }
+                VARCHAR.writeSlice(builder, utf8Slice(new String(chars)));
+            }
+            return builder.build();
+        }
+    }
+
+    @Test
+    public void testBenchmark()
+    {
+        for (PageShape pageShape : PageShape.values()) {
+            BenchmarkData data = new BenchmarkData();
+            data.pageShape = pageShape;
+            data.setup();
+
+            ExchangeCounters counters = new ExchangeCounters();
+            List<Page> pages = deserialize(data, counters);
+            assertEquals(counters.pages, PAGE_COUNT);
+            for (int i = 0; i < pages.size(); i++) {
+                assertPageEquals(pageShape.getTypes(), pages.get(i), data.getPages().get(i));
+            }
+            assertEquals(serialize(data, counters).size(), PAGE_COUNT);
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkPagesSerde.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -14,6 +14,9 @@
 package io.prestosql.execution.buffer;
 
 import com.google.common.collect.ImmutableList;
+import io.airlift.compress.Compressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.Page;
@@ -24,14 +27,21 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createStringSequenceBlock;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readPages;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writePages;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -59,6 +69,89 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testBufferReuse()
+    {
+        PagesSerdeStats stats = new PagesSerdeStats();
+        PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde(stats);
+        Page firstPage = new Page(createLongSequenceBlock(0, 1000), createStringSequenceBlock(0, 1000));
+        Page secondPage = new Page(createLongSequenceBlock(1000, 2000), createStringSequenceBlock(0, 1000));
+
+        SerializedPage firstSerializedPage = serde.serialize(firstPage);
+        long allocatedBytes = stats.getAllocatedBytes();
+        assertTrue(allocatedBytes > firstSerializedPage.getSizeInBytes());
+        assertTrue(serde.getRetainedSizeInBytes() > 0);
+
+        // the second page is serialized with the retained buffers, so only the serialized page is allocated
+        SerializedPage secondSerializedPage = serde.serialize(secondPage);
+        assertEquals(stats.getAllocatedBytes() - allocatedBytes, secondSerializedPage.getSlice().length());
+        assertTrue(stats.getReusedBytes() > secondSerializedPage.getUncompressedSizeInBytes());
+
+        // serialized pages do not share the reused buffers
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        assertPageEquals(types, serde.deserialize(firstSerializedPage), firstPage);
+        assertPageEquals(types, serde.deserialize(secondSerializedPage), secondPage);
+    }
+
+    @Test
+    public void testCompressionCodecs()
+    {
+        Page page = new Page(createLongSequenceBlock(0, 1000), createStringSequenceBlock(0, 1000));
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), Optional.of(codec), false).createPagesSerde();
+            SerializedPage serializedPage = serde.serialize(page);
+            assertTrue(serializedPage.isCompressed(), codec.name());
+            assertTrue(serializedPage.getSizeInBytes() < serializedPage.getUncompressedSizeInBytes(), codec.name());
+            assertPageEquals(types, serde.deserialize(serializedPage), page);
+        }
+    }
+
+    @Test
+    public void testAdaptiveCompression()
+    {
+        AtomicInteger compressions = new AtomicInteger();
+        Compressor compressor = new Lz4Compressor()
+        {
+            @Override
+            public int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset, int maxOutputLength)
+            {
+                compressions.incrementAndGet();
+                return super.compress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
+            }
+        };
+        PagesSerde serde = new PagesSerde(
+                createTestMetadataManager().getBlockEncodingSerde(),
+                Optional.of(compressor),
+                Optional.of(new Lz4Decompressor()),
+                Optional.empty(),
+                true,
+                new PagesSerdeStats());
+
+        Random random = new Random(42);
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(builder, random.nextLong());
+        }
+        Page incompressiblePage = new Page(builder.build());
+
+        // compression is skipped for 1, 2 and 4 pages after each incompressible page
+        for (int i = 0; i < 10; i++) {
+            SerializedPage serializedPage = serde.serialize(incompressiblePage);
+            assertFalse(serializedPage.isCompressed());
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), incompressiblePage);
+        }
+        assertEquals(compressions.get(), 3);
+
+        // a compressible page resets the number of skipped pages
+        Page compressiblePage = new Page(createLongSequenceBlock(0, 1000));
+        assertTrue(serde.serialize(compressiblePage).isCompressed());
+        assertFalse(serde.serialize(incompressiblePage).isCompressed());
+        assertFalse(serde.serialize(compressiblePage).isCompressed());
+        assertTrue(serde.serialize(compressiblePage).isCompressed());
+        assertEquals(compressions.get(), 6);
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
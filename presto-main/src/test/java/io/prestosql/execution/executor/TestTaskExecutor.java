@@ -36,6 +36,8 @@ import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.prestosql.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
 import static io.prestosql.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static io.prestosql.execution.executor.MultilevelSplitQueue.MAX_LEVEL_THRESHOLD_SCALE;
+import static io.prestosql.execution.executor.MultilevelSplitQueue.MIN_LEVEL_THRESHOLD_SCALE;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -364,6 +366,47 @@ public class TestTaskExecutor
         }
     }
 
+    @Test
+    public void testAdaptiveLevelThresholdsWithShortQuanta()
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, true);
+        TaskHandle handle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+
+        // 300ms of scheduled time in 1ms quanta stays in level 0 with the default thresholds
+        for (int i = 0; i < 300; i++) {
+            handle.addScheduledNanos(MILLISECONDS.toNanos(1));
+        }
+        assertEquals(splitQueue.getLevelThresholdScale(), MIN_LEVEL_THRESHOLD_SCALE);
+        assertEquals(handle.getPriority().getLevel(), 1);
+    }
+
+    @Test
+    public void testAdaptiveLevelThresholdsWithLongQuanta()
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, true);
+        TaskHandle handle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+
+        // 30s of scheduled time in 1s quanta reaches level 2 with the default thresholds
+        for (int i = 0; i < 30; i++) {
+            handle.addScheduledNanos(SECONDS.toNanos(1));
+        }
+        assertEquals(splitQueue.getLevelThresholdScale(), MAX_LEVEL_THRESHOLD_SCALE);
+        assertEquals(handle.getPriority().getLevel(), 1);
+    }
+
+    @Test
+    public void testFixedLevelThresholds()
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2);
+        TaskHandle handle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+
+        for (int i = 0; i < 300; i++) {
+            handle.addScheduledNanos(MILLISECONDS.toNanos(1));
+        }
+        assertEquals(splitQueue.getLevelThresholdScale(), 1.0);
+        assertEquals(handle.getPriority().getLevel(), 0);
+    }
+
     @Test(timeOut = 30_000)
     public void testMinMaxDriversPerTask()
     {
@@ -14,6 +14,7 @@
 package io.prestosql.memory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
@@ -107,7 +108,8 @@ public class TestSystemMemoryBlocking
                         .build()),
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
-                TupleDomain::all);
+                TupleDomain::all,
+                ImmutableMap::of);
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
         assertSame(driver.getDriverContext(), driverContext);
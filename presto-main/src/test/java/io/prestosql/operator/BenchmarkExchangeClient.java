@@ -0,0 +1,250 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableListMultimap;
+import io.airlift.http.client.HttpStatus;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.testing.TestingHttpClient;
+import io.airlift.http.client.testing.TestingResponse;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.BenchmarkPagesSerde.ExchangeCounters;
+import io.prestosql.execution.buffer.BenchmarkPagesSerde.PageShape;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.PrestoMediaTypes.PRESTO_PAGES;
+import static io.prestosql.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
+import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_SIZE;
+import static io.prestosql.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
+import static io.prestosql.client.PrestoHeaders.PRESTO_PAGE_TOKEN;
+import static io.prestosql.client.PrestoHeaders.PRESTO_TASK_INSTANCE_ID;
+import static io.prestosql.execution.buffer.PagesSerdeUtil.calculateChecksum;
+import static io.prestosql.execution.buffer.PagesSerdeUtil.writeSerializedPages;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.server.PagesResponseWriter.SERIALIZED_PAGES_MAGIC;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+@State(Scope.Thread)
+@OutputTimeUnit(SECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 1000, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BenchmarkExchangeClient
+{
+    private static final int PAGES_PER_LOCATION = 200;
+    private static final int POSITIONS_PER_PAGE = 256;
+    private static final String TASK_INSTANCE_ID = "task-instance-id";
+
+    /**
+     * Fetches all pages of the locations through the page buffer clients, and polls them from the exchange client
+     * as the exchange operator does. The responses are encoded for every request, the same as the task resource does.
+     */
+    @Benchmark
+    public long exchange(BenchmarkData data, ExchangeCounters counters)
+    {
+        ExchangeClient exchangeClient = data.createExchangeClient();
+        while (!exchangeClient.isFinished()) {
+            SerializedPage page = exchangeClient.pollPage();
+            if (page == null) {
+                getFutureValue(exchangeClient.isBlocked());
+                continue;
+            }
+            counters.record(page);
+        }
+        exchangeClient.close();
+        return counters.pages;
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"1", "16"})
+        private int locationCount = 16;
+
+        @Param({"BIGINTS", "WIDE_VARCHARS", "DICTIONARY_VARCHARS", "NESTED_ROWS"})
+        private PageShape pageShape = PageShape.WIDE_VARCHARS;
+
+        @Param({"1MB", "16MB"})
+        private String maxResponseSize = "16MB";
+
+        private ScheduledExecutorService scheduler;
+        private ExecutorService pageBufferClientCallbackExecutor;
+        private TestingHttpClient httpClient;
+
+        @Setup
+        public void setup()
+        {
+            scheduler = newScheduledThreadPool(4, daemonThreadsNamed("benchmark-exchange-scheduler-%s"));
+            pageBufferClientCallbackExecutor = newCachedThreadPool(daemonThreadsNamed("benchmark-exchange-callback-%s"));
+
+            PagesSerde serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), true).createPagesSerde();
+            List<SerializedPage> pages = pageShape.createPages(PAGES_PER_LOCATION, POSITIONS_PER_PAGE).stream()
+                    .map(serde::serialize)
+                    .collect(toImmutableList());
+            httpClient = new TestingHttpClient(new PagesRequestProcessor(pages), scheduler);
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            httpClient.close();
+            scheduler.shutdownNow();
+            pageBufferClientCallbackExecutor.shutdownNow();
+        }
+
+        private ExchangeClient createExchangeClient()
+        {
+            ExchangeClient exchangeClient = new ExchangeClient(
+                    "localhost",
+                    DataIntegrityVerification.ABORT,
+                    DataSize.of(32, MEGABYTE),
+                    DataSize.valueOf(maxResponseSize),
+                    3,
+                    new Duration(1, MINUTES),
+                    false,
+                    httpClient,
+                    scheduler,
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    pageBufferClientCallbackExecutor);
+            for (int location = 0; location < locationCount; location++) {
+                exchangeClient.addLocation(URI.create("http://localhost:8080/v1/task/" + location + "/results/0"));
+            }
+            exchangeClient.noMoreLocations();
+            return exchangeClient;
+        }
+    }
+
+    /**
+     * Serves the same pages from every location, in responses of at most the requested size.
+     */
+    private static class PagesRequestProcessor
+            implements TestingHttpClient.Processor
+    {
+        private final List<SerializedPage> pages;
+
+        public PagesRequestProcessor(List<SerializedPage> pages)
+        {
+            this.pages = pages;
+        }
+
+        @Override
+        public Response handle(Request request)
+        {
+            if (request.getMethod().equalsIgnoreCase("DELETE")) {
+                return new TestingResponse(HttpStatus.NO_CONTENT, ImmutableListMultimap.of(), new byte[0]);
+            }
+
+            String path = request.getUri().getPath();
+            int token = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            long maxSize = DataSize.valueOf(request.getHeader(PRESTO_MAX_SIZE)).toBytes();
+
+            int nextToken = token;
+            long responseSize = 0;
+            while (nextToken < pages.size() && (nextToken == token || responseSize < maxSize)) {
+                responseSize += pages.get(nextToken).getSizeInBytes();
+                nextToken++;
+            }
+            List<SerializedPage> responsePages = pages.subList(token, nextToken);
+
+            byte[] bytes = new byte[0];
+            if (!responsePages.isEmpty()) {
+                DynamicSliceOutput sliceOutput = new DynamicSliceOutput(Math.toIntExact(responseSize) + 1024);
+                sliceOutput.writeInt(SERIALIZED_PAGES_MAGIC);
+                sliceOutput.writeLong(calculateChecksum(responsePages));
+                sliceOutput.writeInt(responsePages.size());
+                writeSerializedPages(sliceOutput, responsePages);
+                bytes = sliceOutput.slice().getBytes();
+            }
+
+            return new TestingResponse(
+                    responsePages.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK,
+                    ImmutableListMultimap.of(
+                            CONTENT_TYPE, PRESTO_PAGES,
+                            PRESTO_TASK_INSTANCE_ID, TASK_INSTANCE_ID,
+                            PRESTO_PAGE_TOKEN, String.valueOf(token),
+                            PRESTO_PAGE_NEXT_TOKEN, String.valueOf(nextToken),
+                            PRESTO_BUFFER_COMPLETE, String.valueOf(nextToken == pages.size())),
+                    bytes);
+        }
+    }
+
+    @Test
+    public void testBenchmark()
+    {
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        try {
+            ExchangeCounters counters = new ExchangeCounters();
+            exchange(data, counters);
+            assertEquals(counters.pages, data.locationCount * PAGES_PER_LOCATION);
+        }
+        finally {
+            data.tearDown();
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkExchangeClient.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
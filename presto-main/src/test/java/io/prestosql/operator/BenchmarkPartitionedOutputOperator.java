@@ -129,6 +129,7 @@ public class BenchmarkPartitionedOutputOperator
                     ImmutableList.of(Optional.empty()),
                     false,
                     OptionalInt.empty(),
+                    Optional.empty(),
                     buffer,
                     DataSize.of(1, GIGABYTE));
             return (PartitionedOutputOperator) operatorFactory
@@ -48,6 +48,16 @@ public class DummySpillerFactory
                 return immediateFuture(null);
             }
 
+            @Override
+            public ListenableFuture<?> spillToLastStream(Iterator<Page> pageIterator)
+            {
+                spills.add(ImmutableList.<Page>builder()
+                        .addAll(spills.remove(spills.size() - 1))
+                        .addAll(pageIterator)
+                        .build());
+                return immediateFuture(null);
+            }
+
             @Override
             public List<Iterator<Page>> getSpills()
             {
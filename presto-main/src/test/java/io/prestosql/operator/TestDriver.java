@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -173,7 +174,8 @@ public class TestDriver
                         .build()),
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
-                TupleDomain::all);
+                TupleDomain::all,
+                ImmutableMap::of);
 
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
@@ -448,7 +450,7 @@ public class TestDriver
                 TableHandle table,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, table, columns, TupleDomain::all);
+            super(operatorContext, planNodeId, pageSourceProvider, table, columns, TupleDomain::all, ImmutableMap::of);
         }
 
         @Override
@@ -473,7 +475,7 @@ public class TestDriver
                 TableHandle table,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, table, columns, TupleDomain::all);
+            super(operatorContext, planNodeId, pageSourceProvider, table, columns, TupleDomain::all, ImmutableMap::of);
         }
 
         @Override
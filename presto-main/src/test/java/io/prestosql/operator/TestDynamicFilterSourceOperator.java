@@ -15,9 +15,11 @@ package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.predicate.ValueSet;
@@ -31,10 +33,14 @@ import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.prestosql.SequencePageBuilder.createSequencePage;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverRowCount;
@@ -58,6 +64,7 @@ import static java.lang.Float.floatToRawIntBits;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestDynamicFilterSourceOperator
@@ -67,6 +74,7 @@ public class TestDynamicFilterSourceOperator
     private PipelineContext pipelineContext;
 
     private ImmutableList.Builder<TupleDomain<DynamicFilterId>> partitions;
+    private ImmutableList.Builder<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilters;
 
     @BeforeMethod
     public void setUp()
@@ -77,6 +85,7 @@ public class TestDynamicFilterSourceOperator
                 .addPipelineContext(0, true, true, false);
 
         partitions = ImmutableList.builder();
+        bloomFilters = ImmutableList.builder();
     }
 
     @AfterMethod(alwaysRun = true)
@@ -106,6 +115,19 @@ public class TestDynamicFilterSourceOperator
                 getDynamicFilteringMaxPerDriverSize(TEST_SESSION));
     }
 
+    private OperatorFactory createBloomFilterOperatorFactory(DynamicFilterSourceOperator.Channel... buildChannels)
+    {
+        return new DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory(
+                0,
+                new PlanNodeId("PLAN_NODE_ID"),
+                this::consumePredicate,
+                bloomFilters::add,
+                Arrays.stream(buildChannels).collect(toList()),
+                getDynamicFilteringMaxPerDriverRowCount(TEST_SESSION),
+                getDynamicFilteringMaxPerDriverSize(TEST_SESSION),
+                Optional.of(DataSize.of(4, KILOBYTE)));
+    }
+
     private void consumePredicate(TupleDomain<DynamicFilterId> partitionPredicate)
     {
         partitions.add(partitionPredicate);
@@ -320,6 +342,64 @@ public class TestDynamicFilterSourceOperator
         assertEquals(partitions.build(), ImmutableList.of(TupleDomain.all()));
     }
 
+    @Test
+    public void testCollectBloomFilterTooMuchRows()
+    {
+        int maxRowCount = getDynamicFilteringMaxPerDriverRowCount(pipelineContext.getSession());
+        Page largePage = createSequencePage(ImmutableList.of(BIGINT), maxRowCount + 1);
+
+        OperatorFactory operatorFactory = createBloomFilterOperatorFactory(channel(0, BIGINT));
+        verifyPassthrough(createOperator(operatorFactory),
+                ImmutableList.of(BIGINT),
+                largePage);
+        operatorFactory.noMoreOperators();
+        assertEquals(partitions.build(), ImmutableList.of(TupleDomain.all()));
+
+        BlockedBloomFilter bloomFilter = getOnlyElement(bloomFilters.build()).get(new DynamicFilterId("0"));
+        assertEquals(bloomFilter.getSizeInBytes(), DataSize.of(4, KILOBYTE).toBytes());
+        for (long value = 0; value <= maxRowCount; value++) {
+            assertTrue(bloomFilter.mightContainValue(value));
+        }
+    }
+
+    @Test
+    public void testCollectBloomFilterAfterTooMuchRows()
+    {
+        int maxRowCount = getDynamicFilteringMaxPerDriverRowCount(pipelineContext.getSession());
+        Page largePage = createSequencePage(ImmutableList.of(BIGINT), maxRowCount + 1);
+
+        OperatorFactory operatorFactory = createBloomFilterOperatorFactory(channel(0, BIGINT));
+        verifyPassthrough(createOperator(operatorFactory),
+                ImmutableList.of(BIGINT),
+                new Page(createLongsBlock(-1, -2)),
+                largePage,
+                new Page(createLongsBlock(-3)));
+        operatorFactory.noMoreOperators();
+        assertEquals(partitions.build(), ImmutableList.of(TupleDomain.all()));
+
+        // values collected before and after the predicate became too large are in the bloom filter
+        BlockedBloomFilter bloomFilter = getOnlyElement(bloomFilters.build()).get(new DynamicFilterId("0"));
+        for (long value = -3; value <= maxRowCount; value++) {
+            assertTrue(bloomFilter.mightContainValue(value));
+        }
+    }
+
+    @Test
+    public void testCollectBloomFilterWithExactPredicate()
+    {
+        OperatorFactory operatorFactory = createBloomFilterOperatorFactory(channel(0, BIGINT));
+        verifyPassthrough(createOperator(operatorFactory),
+                ImmutableList.of(BIGINT),
+                new Page(createLongsBlock(1, 2)));
+        operatorFactory.noMoreOperators();
+
+        assertEquals(partitions.build(), ImmutableList.of(
+                TupleDomain.withColumnDomains(ImmutableMap.of(
+                        new DynamicFilterId("0"), Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L))))));
+        // the predicate is exact, so no bloom filter is built
+        assertEquals(bloomFilters.build(), ImmutableList.of());
+    }
+
     @Test
     public void testCollectDeduplication()
     {
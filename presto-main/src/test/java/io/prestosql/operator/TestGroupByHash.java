@@ -19,6 +19,7 @@ import io.prestosql.block.BlockAssertions;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.DictionaryId;
 import io.prestosql.spi.type.Type;
@@ -30,12 +31,15 @@ import org.testng.annotations.Test;
 
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static com.google.common.math.DoubleMath.log2;
+import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
 import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createStringSequenceBlock;
@@ -43,7 +47,13 @@ import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static io.prestosql.spi.block.DictionaryId.randomDictionaryId;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.CharType.createCharType;
+import static io.prestosql.spi.type.DateType.DATE;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.type.TypeUtils.getHashBlock;
 import static org.testng.Assert.assertEquals;
@@ -441,4 +451,176 @@ public class TestGroupByHash
         assertEquals(currentQuota.get(), 10);
         assertEquals(currentQuota.get() / 3, yields);
     }
+
+    @Test
+    public void testFlatGroupByHashSelection()
+    {
+        assertTrue(createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.empty(), 100, JOIN_COMPILER) instanceof FlatGroupByHash);
+        assertTrue(createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, DOUBLE), new int[] {0, 1}, Optional.empty(), 100, JOIN_COMPILER) instanceof MultiChannelGroupByHash);
+        assertTrue(createGroupByHash(TEST_SESSION, ImmutableList.of(VARCHAR), new int[] {0}, Optional.empty(), 100, JOIN_COMPILER) instanceof MultiChannelGroupByHash);
+    }
+
+    @Test
+    public void testFlatGroupByHash()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, BOOLEAN, createCharType(3));
+        int[] hashChannels = {0, 1, 2, 3};
+        for (boolean precomputedHash : new boolean[] {false, true}) {
+            Optional<Integer> inputHashChannel = precomputedHash ? Optional.of(4) : Optional.empty();
+            // start small to force rehashes
+            GroupByHash flatHash = new FlatGroupByHash(types, hashChannels, inputHashChannel, 1, UpdateMemory.NOOP);
+            GroupByHash multiChannelHash = new MultiChannelGroupByHash(types, hashChannels, inputHashChannel, 1, false, JOIN_COMPILER, UpdateMemory.NOOP);
+
+            Random random = new Random(42);
+            List<Page> pages = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                pages.add(createMultiColumnPage(random, 1000, precomputedHash));
+            }
+            assertSameGroups(flatHash, multiChannelHash, pages, hashChannels);
+
+            Page missing = new Page(
+                    createLongsBlock(1000),
+                    BlockAssertions.createStringsBlock("a"),
+                    BlockAssertions.createBooleansBlock(true),
+                    BlockAssertions.createStringsBlock("abc"));
+            assertFalse(flatHash.contains(0, missing, hashChannels));
+        }
+    }
+
+    @DataProvider
+    public Object[][] integralTypes()
+    {
+        return new Object[][] {{BIGINT}, {INTEGER}, {SMALLINT}, {TINYINT}, {DATE}};
+    }
+
+    @Test(dataProvider = "integralTypes")
+    public void testBigintGroupByHash(Type type)
+    {
+        assertTrue(createGroupByHash(TEST_SESSION, ImmutableList.of(type), new int[] {0}, Optional.empty(), 100, JOIN_COMPILER) instanceof BigintGroupByHash);
+
+        for (boolean precomputedHash : new boolean[] {false, true}) {
+            GroupByHash bigintHash = new BigintGroupByHash(type, 0, precomputedHash, 1, UpdateMemory.NOOP);
+            GroupByHash multiChannelHash = new MultiChannelGroupByHash(ImmutableList.of(type), new int[] {0}, precomputedHash ? Optional.of(1) : Optional.empty(), 1, false, JOIN_COMPILER, UpdateMemory.NOOP);
+
+            // values in a small range are looked up directly, until the values of the last page make the range too large
+            Random random = new Random(42);
+            List<Page> pages = new ArrayList<>();
+            pages.add(createIntegralPage(ImmutableList.of(type), random, 1000, 0, 100, precomputedHash));
+            pages.add(createIntegralPage(ImmutableList.of(type), random, 1000, -100, 100, precomputedHash));
+            if (type.equals(TINYINT)) {
+                pages.add(createIntegralPage(ImmutableList.of(type), random, 1000, Byte.MIN_VALUE, Byte.MAX_VALUE, precomputedHash));
+            }
+            else if (type.equals(SMALLINT)) {
+                pages.add(createIntegralPage(ImmutableList.of(type), random, 100_000, Short.MIN_VALUE, Short.MAX_VALUE, precomputedHash));
+            }
+            else {
+                pages.add(createIntegralPage(ImmutableList.of(type), random, 1000, -BigintGroupByHash.MAX_DIRECT_RANGE, BigintGroupByHash.MAX_DIRECT_RANGE, precomputedHash));
+            }
+            assertSameGroups(bigintHash, multiChannelHash, pages, new int[] {0});
+        }
+    }
+
+    @Test
+    public void testBigintPairGroupByHash()
+    {
+        List<Type> types = ImmutableList.of(INTEGER, BIGINT);
+        int[] hashChannels = {0, 1};
+        assertTrue(createGroupByHash(TEST_SESSION, types, hashChannels, Optional.empty(), 100, JOIN_COMPILER) instanceof BigintPairGroupByHash);
+
+        for (boolean precomputedHash : new boolean[] {false, true}) {
+            // start small to force rehashes
+            GroupByHash pairHash = new BigintPairGroupByHash(types, hashChannels, precomputedHash, 1, UpdateMemory.NOOP);
+            GroupByHash multiChannelHash = new MultiChannelGroupByHash(types, hashChannels, precomputedHash ? Optional.of(2) : Optional.empty(), 1, false, JOIN_COMPILER, UpdateMemory.NOOP);
+
+            Random random = new Random(42);
+            List<Page> pages = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                pages.add(createIntegralPage(types, random, 1000, -50, 50, precomputedHash));
+            }
+            assertSameGroups(pairHash, multiChannelHash, pages, hashChannels);
+
+            Block missing = createLongsBlock(1000);
+            assertFalse(pairHash.contains(0, new Page(missing, missing), hashChannels));
+        }
+    }
+
+    private static void assertSameGroups(GroupByHash actual, GroupByHash expected, List<Page> pages, int[] hashChannels)
+    {
+        for (Page page : pages) {
+            Work<GroupByIdBlock> actualWork = actual.getGroupIds(page);
+            Work<GroupByIdBlock> expectedWork = expected.getGroupIds(page);
+            assertTrue(actualWork.process());
+            assertTrue(expectedWork.process());
+            GroupByIdBlock actualGroupIds = actualWork.getResult();
+            GroupByIdBlock expectedGroupIds = expectedWork.getResult();
+            assertEquals(actualGroupIds.getGroupCount(), expectedGroupIds.getGroupCount());
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                assertEquals(actualGroupIds.getGroupId(position), expectedGroupIds.getGroupId(position));
+                assertTrue(actual.contains(position, page, hashChannels));
+            }
+        }
+        assertEquals(actual.getTypes(), expected.getTypes());
+
+        PageBuilder actualPageBuilder = new PageBuilder(actual.getTypes());
+        PageBuilder expectedPageBuilder = new PageBuilder(expected.getTypes());
+        for (int groupId = 0; groupId < actual.getGroupCount(); groupId++) {
+            assertEquals(actual.getRawHash(groupId), expected.getRawHash(groupId));
+            actualPageBuilder.declarePosition();
+            actual.appendValuesTo(groupId, actualPageBuilder, 0);
+            expectedPageBuilder.declarePosition();
+            expected.appendValuesTo(groupId, expectedPageBuilder, 0);
+        }
+        PageAssertions.assertPageEquals(actual.getTypes(), actualPageBuilder.build(), expectedPageBuilder.build());
+    }
+
+    private static Page createIntegralPage(List<Type> types, Random random, int positionCount, int min, int max, boolean precomputedHash)
+    {
+        Block[] blocks = new Block[types.size() + (precomputedHash ? 1 : 0)];
+        for (int channel = 0; channel < types.size(); channel++) {
+            Type type = types.get(channel);
+            BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                if (random.nextInt(20) == 0) {
+                    blockBuilder.appendNull();
+                }
+                else {
+                    type.writeLong(blockBuilder, min + random.nextInt(max - min + 1));
+                }
+            }
+            blocks[channel] = blockBuilder.build();
+        }
+        if (precomputedHash) {
+            blocks[types.size()] = getHashBlock(types, Arrays.copyOf(blocks, types.size()));
+        }
+        return new Page(blocks);
+    }
+
+    private static Page createMultiColumnPage(Random random, int positionCount, boolean precomputedHash)
+    {
+        List<Long> bigints = new ArrayList<>();
+        List<String> varchars = new ArrayList<>();
+        List<Boolean> booleans = new ArrayList<>();
+        BlockBuilder chars = createCharType(3).createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            bigints.add(random.nextInt(10) == 0 ? null : (long) random.nextInt(50));
+            varchars.add(random.nextInt(10) == 0 ? null : "value" + random.nextInt(20));
+            booleans.add(random.nextInt(10) == 0 ? null : random.nextBoolean());
+            if (random.nextInt(10) == 0) {
+                chars.appendNull();
+            }
+            else {
+                createCharType(3).writeSlice(chars, utf8Slice(String.valueOf(random.nextInt(5))));
+            }
+        }
+        Block[] blocks = {
+                BlockAssertions.createLongsBlock(bigints),
+                BlockAssertions.createStringsBlock(varchars),
+                BlockAssertions.createBooleansBlock(booleans),
+                chars.build()};
+        if (precomputedHash) {
+            Block hashBlock = getHashBlock(ImmutableList.of(BIGINT, VARCHAR, BOOLEAN, createCharType(3)), blocks);
+            blocks = new Block[] {blocks[0], blocks[1], blocks[2], blocks[3], hashBlock};
+        }
+        return new Page(blocks);
+    }
 }
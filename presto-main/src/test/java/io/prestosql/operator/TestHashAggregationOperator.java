@@ -21,6 +21,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.prestosql.ExceededMemoryLimitException;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.Session;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFactory;
@@ -65,6 +66,9 @@ import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.SystemSessionProperties.ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS;
+import static io.prestosql.SystemSessionProperties.ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD;
+import static io.prestosql.SystemSessionProperties.AGGREGATION_OPERATOR_PARTITION_COUNT;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHashYieldAssertion.GroupByHashYieldResult;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
@@ -105,6 +109,9 @@ public class TestHashAggregationOperator
             metadata.resolveFunction(QualifiedName.of("min"), fromTypes(BIGINT)));
 
     private static final int MAX_BLOCK_SIZE_IN_BYTES = 64 * 1024;
+    private static final Session PARTITIONED_SESSION = Session.builder(TEST_SESSION)
+            .setSystemProperty(AGGREGATION_OPERATOR_PARTITION_COUNT, "8")
+            .build();
 
     private ExecutorService executor;
     private ScheduledExecutorService scheduledExecutor;
@@ -156,6 +163,17 @@ public class TestHashAggregationOperator
 
     @Test(dataProvider = "hashEnabledAndMemoryLimitForMergeValues")
     public void testHashAggregation(boolean hashEnabled, boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimitForMerge, long memoryLimitForMergeWithMemory)
+    {
+        testHashAggregation(TEST_SESSION, hashEnabled, spillEnabled, revokeMemoryWhenAddingPages, memoryLimitForMerge, memoryLimitForMergeWithMemory);
+    }
+
+    @Test(dataProvider = "hashEnabledAndMemoryLimitForMergeValues")
+    public void testPartitionedHashAggregation(boolean hashEnabled, boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimitForMerge, long memoryLimitForMergeWithMemory)
+    {
+        testHashAggregation(PARTITIONED_SESSION, hashEnabled, spillEnabled, revokeMemoryWhenAddingPages, memoryLimitForMerge, memoryLimitForMergeWithMemory);
+    }
+
+    private void testHashAggregation(Session session, boolean hashEnabled, boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimitForMerge, long memoryLimitForMergeWithMemory)
     {
         // make operator produce multiple pages during finish phase
         int numberOfRows = 40_000;
@@ -199,7 +217,7 @@ public class TestHashAggregationOperator
                 joinCompiler,
                 false);
 
-        DriverContext driverContext = createDriverContext(memoryLimitForMerge);
+        DriverContext driverContext = createDriverContext(session, memoryLimitForMerge);
 
         MaterializedResult.Builder expectedBuilder = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT, DOUBLE, VARCHAR, BIGINT, BIGINT);
         for (int i = 0; i < numberOfRows; ++i) {
@@ -500,6 +518,19 @@ public class TestHashAggregationOperator
     @Test(dataProvider = "hashEnabled")
     public void testMultiplePartialFlushes(boolean hashEnabled)
             throws Exception
+    {
+        testMultiplePartialFlushes(TEST_SESSION, hashEnabled);
+    }
+
+    @Test(dataProvider = "hashEnabled")
+    public void testPartitionedMultiplePartialFlushes(boolean hashEnabled)
+            throws Exception
+    {
+        testMultiplePartialFlushes(PARTITIONED_SESSION, hashEnabled);
+    }
+
+    private void testMultiplePartialFlushes(Session session, boolean hashEnabled)
+            throws Exception
     {
         List<Integer> hashChannels = Ints.asList(0);
         RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
@@ -525,7 +556,7 @@ public class TestHashAggregationOperator
                 joinCompiler,
                 true);
 
-        DriverContext driverContext = createDriverContext(1024);
+        DriverContext driverContext = createDriverContext(session, 1024);
 
         try (Operator operator = operatorFactory.createOperator(driverContext)) {
             List<Page> expectedPages = rowPagesBuilder(BIGINT, BIGINT)
@@ -579,6 +610,59 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+    {
+        Session session = Session.builder(TEST_SESSION)
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, "1000")
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, "0.5")
+                .build();
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 500)
+                .addSequencePage(500, 1000)
+                .addSequencePage(500, 1500)
+                .addSequencePage(500, 2000)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                ImmutableList.of(LONG_MIN.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(DataSize.of(1, KILOBYTE)),
+                joinCompiler,
+                true);
+
+        DriverContext driverContext = createDriverContext(session, 1024);
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(2500, 0, 0).build())
+                .build();
+
+        try (HashAggregationOperator operator = (HashAggregationOperator) operatorFactory.createOperator(driverContext)) {
+            List<Page> outputPages = toPages(operator, input.iterator());
+            if (hashEnabled) {
+                outputPages = dropChannel(outputPages, ImmutableList.of(1));
+            }
+            MaterializedResult actual = toMaterializedResult(operator.getOperatorContext().getSession(), expected.getTypes(), outputPages);
+            assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+            // every row is unique, so partial aggregation is skipped after the first flushes
+            assertTrue(operator.isSkipPartialAggregation());
+            HashAggregationOperatorInfo info = (HashAggregationOperatorInfo) operator.getOperatorContext().getOperatorStats().getInfo();
+            assertEquals(info.getPartialAggregationSkippedDrivers(), 1);
+            assertThat(info.getPartialAggregationSkippedPositions()).isGreaterThan(0);
+        }
+    }
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -737,7 +821,12 @@ public class TestHashAggregationOperator
 
     private DriverContext createDriverContext(long memoryLimit)
     {
-        return TestingTaskContext.builder(executor, scheduledExecutor, TEST_SESSION)
+        return createDriverContext(TEST_SESSION, memoryLimit);
+    }
+
+    private DriverContext createDriverContext(Session session, long memoryLimit)
+    {
+        return TestingTaskContext.builder(executor, scheduledExecutor, session)
                 .setMemoryPoolSize(succinctBytes(memoryLimit))
                 .build()
                 .addPipelineContext(0, true, true, false)
@@ -769,6 +858,12 @@ public class TestHashAggregationOperator
                     return immediateFailedFuture(new IOException("Failed to spill"));
                 }
 
+                @Override
+                public ListenableFuture<?> spillToLastStream(Iterator<Page> pageIterator)
+                {
+                    return immediateFailedFuture(new IOException("Failed to spill"));
+                }
+
                 @Override
                 public List<Iterator<Page>> getSpills()
                 {
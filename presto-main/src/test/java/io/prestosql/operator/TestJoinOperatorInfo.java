@@ -13,6 +13,7 @@
  */
 package io.prestosql.operator;
 
+import com.google.common.collect.ImmutableMap;
 import io.prestosql.operator.LookupJoinOperators.JoinType;
 import org.testng.annotations.Test;
 
@@ -30,17 +31,23 @@ public class TestJoinOperatorInfo
                 JoinType.INNER,
                 makeHistogramArray(10, 20, 30, 40, 50, 60, 70, 80),
                 makeHistogramArray(12, 22, 32, 42, 52, 62, 72, 82),
-                Optional.of(1L));
+                Optional.of(1L),
+                ImmutableMap.of(0, 10L, 1, 20L),
+                ImmutableMap.of(0, 1L, 1, 2L));
         JoinOperatorInfo other = new JoinOperatorInfo(
                 JoinType.INNER,
                 makeHistogramArray(11, 21, 31, 41, 51, 61, 71, 81),
                 makeHistogramArray(15, 25, 35, 45, 55, 65, 75, 85),
-                Optional.of(2L));
+                Optional.of(2L),
+                ImmutableMap.of(0, 15L, 2, 30L),
+                ImmutableMap.of(0, 3L, 2, 4L));
 
         JoinOperatorInfo merged = base.mergeWith(other);
         assertEquals(makeHistogramArray(21, 41, 61, 81, 101, 121, 141, 161), merged.getLogHistogramProbes());
         assertEquals(makeHistogramArray(27, 47, 67, 87, 107, 127, 147, 167), merged.getLogHistogramOutput());
         assertEquals(merged.getLookupSourcePositions(), Optional.of(3L));
+        assertEquals(merged.getPartitionUnspillNanos(), ImmutableMap.of(0, 15L, 1, 20L, 2, 30L));
+        assertEquals(merged.getPartitionUnspillWaitNanos(), ImmutableMap.of(0, 4L, 1, 2L, 2, 4L));
     }
 
     private long[] makeHistogramArray(long... longArray)
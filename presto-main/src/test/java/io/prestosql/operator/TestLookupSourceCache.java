@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.memory.MemoryPool;
+import io.prestosql.spi.QueryId;
+import io.prestosql.spi.memory.MemoryPoolId;
+import io.prestosql.sql.planner.LookupSourceCacheKey;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import io.prestosql.testing.TestingMetadata.TestingTableHandle;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestLookupSourceCache
+{
+    private static final TestingTableHandle TABLE_HANDLE = new TestingTableHandle();
+
+    private TestingTicker ticker;
+    private MemoryPool memoryPool;
+    private LookupSourceCache cache;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        ticker = new TestingTicker();
+        memoryPool = new MemoryPool(new MemoryPoolId("test"), DataSize.of(1, GIGABYTE));
+        cache = new LookupSourceCache(DataSize.of(100, BYTE), new Duration(1, MINUTES), ticker);
+    }
+
+    @Test
+    public void testAcquireAndRelease()
+    {
+        List<Supplier<LookupSource>> partitions = partitions();
+        assertTrue(cache.acquire(key("a", 1)).isEmpty());
+        assertTrue(cache.offer(key("a", 1), partitions, 10, memoryPool));
+        assertFalse(cache.offer(key("a", 1), partitions(), 10, memoryPool));
+        assertEquals(memoryPool.getReservedBytes(), 10);
+
+        // entries are only shared by lookup sources with the same layout
+        assertTrue(cache.acquire(key("b", 1)).isEmpty());
+        assertTrue(cache.acquire(key("a", 2)).isEmpty());
+
+        Optional<LookupSourceCache.Entry> entry = cache.acquire(key("a", 1));
+        assertTrue(entry.isPresent());
+        assertSame(entry.get().getPartitions().get(0), partitions.get(0));
+        cache.release(entry.get());
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 3);
+        assertEquals(cache.getEntryCount(), 1);
+        assertEquals(cache.getSizeInBytes(), 10);
+    }
+
+    @Test
+    public void testEvictionSkipsReferencedEntries()
+    {
+        assertTrue(cache.offer(key("a", 1), partitions(), 40, memoryPool));
+        assertTrue(cache.offer(key("b", 1), partitions(), 40, memoryPool));
+        LookupSourceCache.Entry a = cache.acquire(key("a", 1)).orElseThrow();
+
+        // "b" is evicted, as "a" is in use
+        assertTrue(cache.offer(key("c", 1), partitions(), 40, memoryPool));
+        assertTrue(cache.acquire(key("b", 1)).isEmpty());
+        assertEquals(memoryPool.getReservedBytes(), 80);
+
+        // not enough room without evicting "a" or "c", and "a" is still in use
+        cache.acquire(key("c", 1)).ifPresent(cache::release);
+        assertFalse(cache.offer(key("d", 1), partitions(), 80, memoryPool));
+        assertEquals(cache.getEntryCount(), 2);
+
+        cache.release(a);
+        assertTrue(cache.offer(key("d", 1), partitions(), 60, memoryPool));
+        assertTrue(cache.acquire(key("a", 1)).isEmpty());
+        assertEquals(cache.getSizeInBytes(), 100);
+        assertEquals(memoryPool.getReservedBytes(), 100);
+
+        // larger than the cache
+        assertFalse(cache.offer(key("e", 1), partitions(), 101, memoryPool));
+    }
+
+    @Test
+    public void testExpiration()
+    {
+        assertTrue(cache.offer(key("a", 1), partitions(), 10, memoryPool));
+        LookupSourceCache.Entry entry = cache.acquire(key("a", 1)).orElseThrow();
+
+        ticker.increment(1, MINUTES);
+        assertTrue(cache.acquire(key("a", 1)).isEmpty());
+        assertEquals(cache.getSizeInBytes(), 0);
+
+        // memory is released by the last reference
+        assertEquals(memoryPool.getReservedBytes(), 10);
+        cache.release(entry);
+        assertEquals(memoryPool.getReservedBytes(), 0);
+    }
+
+    @Test
+    public void testInvalidateAll()
+    {
+        assertTrue(cache.offer(key("a", 1), partitions(), 10, memoryPool));
+        assertTrue(cache.offer(key("b", 1), partitions(), 20, memoryPool));
+        cache.invalidateAll();
+        assertEquals(cache.getEntryCount(), 0);
+        assertEquals(memoryPool.getReservedBytes(), 0);
+    }
+
+    @Test
+    public void testEvictionOnExhaustedMemoryPool()
+    {
+        MemoryPool smallPool = new MemoryPool(new MemoryPoolId("small"), DataSize.of(100, BYTE));
+        assertTrue(cache.offer(key("a", 1), partitions(), 20, smallPool));
+        assertTrue(cache.offer(key("b", 1), partitions(), 20, smallPool));
+        assertTrue(cache.offer(key("c", 1), partitions(), 20, memoryPool));
+        LookupSourceCache.Entry a = cache.acquire(key("a", 1)).orElseThrow();
+
+        QueryId queryId = new QueryId("test_query");
+        smallPool.reserve(queryId, "test", 50);
+        assertEquals(cache.getEntryCount(), 3);
+
+        // the entries charged to the exhausted pool are evicted, and the unreferenced ones are freed
+        smallPool.reserve(queryId, "test", 20);
+        assertEquals(cache.getEntryCount(), 1);
+        assertTrue(cache.acquire(key("c", 1)).isPresent());
+        assertEquals(smallPool.getReservedBytes(), 90);
+        assertEquals(memoryPool.getReservedBytes(), 20);
+
+        cache.release(a);
+        assertEquals(smallPool.getReservedBytes(), 70);
+    }
+
+    private static LookupSourceCache.Key key(String plan, int hashChannel)
+    {
+        LookupSourceCacheKey buildKey = new LookupSourceCacheKey(
+                new CatalogName("test"),
+                TABLE_HANDLE,
+                Optional.empty(),
+                ImmutableList.of(new TestingColumnHandle("x"), new TestingColumnHandle("y"), new TestingColumnHandle("z")),
+                plan);
+        return new LookupSourceCache.Key(buildKey, ImmutableList.of(0, 1, 2), ImmutableList.of(hashChannel), OptionalInt.empty(), 1);
+    }
+
+    private static List<Supplier<LookupSource>> partitions()
+    {
+        return ImmutableList.of(() -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+}
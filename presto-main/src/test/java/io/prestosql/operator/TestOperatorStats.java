@@ -13,6 +13,7 @@
  */
 package io.prestosql.operator;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -29,7 +30,7 @@ import static org.testng.Assert.assertNull;
 public class TestOperatorStats
 {
     private static final SplitOperatorInfo NON_MERGEABLE_INFO = new SplitOperatorInfo("some_info");
-    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024);
+    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024, ImmutableList.of(1L));
 
     public static final OperatorStats EXPECTED = new OperatorStats(
             0,
@@ -278,5 +279,6 @@ public class TestOperatorStats
         assertEquals(actual.getSpilledDataSize(), DataSize.ofBytes(3 * 26));
         assertEquals(actual.getInfo().getClass(), PartitionedOutputInfo.class);
         assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPagesAdded(), 3 * MERGEABLE_INFO.getPagesAdded());
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPartitionRowsAdded(), ImmutableList.of(3L));
     }
 }
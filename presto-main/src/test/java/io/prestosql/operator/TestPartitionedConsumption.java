@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.PartitionedConsumption.Partition;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPartitionedConsumption
+{
+    @Test
+    public void testSequentialLoading()
+    {
+        List<Integer> loaded = new ArrayList<>();
+        List<Integer> disposed = new ArrayList<>();
+        PartitionedConsumption<Integer> consumption = new PartitionedConsumption<>(1, 1, ImmutableList.of(3, 5, 7), partition -> {
+            loaded.add(partition);
+            return immediateFuture(partition);
+        }, disposed::add);
+
+        Iterator<Partition<Integer>> partitions = consumption.beginConsumption();
+        Partition<Integer> first = partitions.next();
+        assertTrue(first.load().isDone());
+        assertEquals(loaded, ImmutableList.of(3));
+
+        Partition<Integer> second = partitions.next();
+        assertFalse(second.load().isDone());
+        first.release();
+        assertTrue(second.load().isDone());
+        assertEquals(loaded, ImmutableList.of(3, 5));
+        assertEquals(disposed, ImmutableList.of(3));
+    }
+
+    @Test
+    public void testPrefetching()
+    {
+        List<Integer> loaded = new ArrayList<>();
+        List<Integer> disposed = new ArrayList<>();
+        PartitionedConsumption<Integer> consumption = new PartitionedConsumption<>(1, 2, ImmutableList.of(3, 5, 7), partition -> {
+            loaded.add(partition);
+            return immediateFuture(partition);
+        }, disposed::add);
+
+        Iterator<Partition<Integer>> partitions = consumption.beginConsumption();
+        Partition<Integer> first = partitions.next();
+        assertTrue(first.load().isDone());
+        // the next partition is loaded while the first one is consumed
+        assertEquals(loaded, ImmutableList.of(3, 5));
+
+        // at most two partitions are loaded at the same time
+        first.release();
+        assertEquals(loaded, ImmutableList.of(3, 5, 7));
+        assertEquals(disposed, ImmutableList.of(3));
+
+        Partition<Integer> second = partitions.next();
+        assertTrue(second.load().isDone());
+        assertEquals(second.getLoadWaitNanos(System.nanoTime()), 0);
+        second.release();
+
+        Partition<Integer> third = partitions.next();
+        assertTrue(third.load().isDone());
+        third.release();
+        assertFalse(partitions.hasNext());
+        assertEquals(disposed, ImmutableList.of(3, 5, 7));
+    }
+}
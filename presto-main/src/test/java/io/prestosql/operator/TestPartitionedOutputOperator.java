@@ -25,6 +25,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.SkewedJoinPartitioning;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.TestingTaskContext;
 import org.testng.annotations.AfterClass;
@@ -51,9 +52,12 @@ import static io.prestosql.execution.buffer.OutputBuffers.BufferType.PARTITIONED
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.SkewedJoinPartitioning.Side.BUILD;
+import static io.prestosql.sql.planner.SkewedJoinPartitioning.Side.PROBE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestPartitionedOutputOperator
 {
@@ -63,6 +67,7 @@ public class TestPartitionedOutputOperator
     private static final int PAGE_COUNT = 10;
     private static final int POSITIONS_PER_PAGE = 1000;
     private static final int PARTITION_COUNT = 512;
+    private static final int SPREAD_FACTOR = 4;
 
     private static final List<Type> TYPES = ImmutableList.of(BIGINT);
     private static final List<Type> REPLICATION_TYPES = ImmutableList.of(BIGINT, BIGINT);
@@ -177,7 +182,46 @@ public class TestPartitionedOutputOperator
         assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * PARTITION_COUNT * TESTING_PAGE_WITH_NULL_BLOCK.getPositionCount());
     }
 
+    @Test
+    public void testSkewedJoinBuildSide()
+    {
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(false, Optional.of(new SkewedJoinPartitioning(BUILD, SPREAD_FACTOR)));
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            partitionedOutputOperator.addInput(TESTING_PAGE);
+        }
+        partitionedOutputOperator.finish();
+
+        OperatorContext operatorContext = partitionedOutputOperator.getOperatorContext();
+        assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * SPREAD_FACTOR * TESTING_PAGE.getPositionCount());
+        assertEquals(partitionedOutputOperator.getInfo().getRowsAdded(), PAGE_COUNT * SPREAD_FACTOR * TESTING_PAGE.getPositionCount());
+    }
+
+    @Test
+    public void testSkewedJoinProbeSide()
+    {
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(false, Optional.of(new SkewedJoinPartitioning(PROBE, SPREAD_FACTOR)));
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            partitionedOutputOperator.addInput(new Page(TESTING_RLE_BLOCK));
+        }
+        partitionedOutputOperator.finish();
+
+        OperatorContext operatorContext = partitionedOutputOperator.getOperatorContext();
+        assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * TESTING_PAGE.getPositionCount());
+
+        // all rows have the same key, so once the partition is detected as skewed its rows are spread
+        List<Long> partitionRows = partitionedOutputOperator.getInfo().getPartitionRowsAdded();
+        assertEquals(partitionRows.size(), PARTITION_COUNT);
+        assertEquals(partitionRows.stream().filter(rows -> rows > 0).count(), SPREAD_FACTOR);
+        assertEquals(partitionRows.stream().mapToLong(Long::longValue).sum(), PAGE_COUNT * TESTING_PAGE.getPositionCount());
+        assertTrue(partitionRows.stream().mapToLong(Long::longValue).max().getAsLong() < PAGE_COUNT * TESTING_PAGE.getPositionCount() / 2);
+    }
+
     private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate)
+    {
+        return createPartitionedOutputOperator(shouldReplicate, Optional.empty());
+    }
+
+    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate, Optional<SkewedJoinPartitioning> skewedJoinPartitioning)
     {
         PartitionFunction partitionFunction = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), PARTITION_COUNT);
         PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
@@ -208,6 +252,7 @@ public class TestPartitionedOutputOperator
                     ImmutableList.of(Optional.empty()),
                     true,
                     OptionalInt.of(0),
+                    Optional.empty(),
                     buffer,
                     PARTITION_MAX_MEMORY);
             return (PartitionedOutputOperator) operatorFactory
@@ -221,6 +266,7 @@ public class TestPartitionedOutputOperator
                     ImmutableList.of(Optional.empty(), Optional.empty()),
                     false,
                     OptionalInt.empty(),
+                    skewedJoinPartitioning,
                     buffer,
                     PARTITION_MAX_MEMORY);
             return (PartitionedOutputOperator) operatorFactory
@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.prestosql.SequencePageBuilder;
 import io.prestosql.block.BlockAssertions;
@@ -110,6 +111,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(VARCHAR),
                 DataSize.ofBytes(0),
                 0);
@@ -153,6 +155,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(BIGINT),
                 DataSize.of(64, KILOBYTE),
                 2);
@@ -198,6 +201,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
@@ -233,6 +237,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(VARCHAR),
                 DataSize.ofBytes(0),
                 0);
@@ -286,6 +291,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
@@ -351,6 +357,7 @@ public class TestScanFilterAndProjectOperator
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
                 TupleDomain::all,
+                ImmutableMap::of,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
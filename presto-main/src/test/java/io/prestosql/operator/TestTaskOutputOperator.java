@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.execution.StateMachine;
+import io.prestosql.execution.buffer.BroadcastOutputBuffer;
+import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.SequencePageBuilder.createSequencePage;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.execution.buffer.BufferState.OPEN;
+import static io.prestosql.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static io.prestosql.execution.buffer.OutputBuffers.BROADCAST_PARTITION_ID;
+import static io.prestosql.execution.buffer.OutputBuffers.BufferType.BROADCAST;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestTaskOutputOperator
+{
+    private static final OutputBufferId FIRST = new OutputBufferId(0);
+    private static final OutputBufferId SECOND = new OutputBufferId(1);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private DriverContext driverContext;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+        driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testFinish()
+    {
+        BroadcastOutputBuffer buffer = createBroadcastBuffer();
+        Operator operator = createOperator(buffer);
+
+        assertTrue(operator.needsInput());
+        operator.addInput(createSequencePage(ImmutableList.of(BIGINT), 10, 0));
+        assertFalse(operator.isFinished());
+
+        operator.finish();
+        assertFalse(operator.needsInput());
+        assertTrue(operator.isFinished());
+        assertFalse(buffer.isFinished());
+    }
+
+    @Test
+    public void testFinishWhenAllBuffersAborted()
+    {
+        BroadcastOutputBuffer buffer = createBroadcastBuffer();
+        Operator operator = createOperator(buffer);
+
+        operator.addInput(createSequencePage(ImmutableList.of(BIGINT), 10, 0));
+
+        // the remaining consumer still needs the input
+        buffer.abort(FIRST);
+        assertTrue(operator.needsInput());
+        assertFalse(operator.isFinished());
+
+        // the buffer discards any further pages, so the input need not be produced
+        buffer.abort(SECOND);
+        assertTrue(buffer.isFinished());
+        assertFalse(operator.needsInput());
+        assertTrue(operator.isFinished());
+    }
+
+    private Operator createOperator(BroadcastOutputBuffer buffer)
+    {
+        PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
+        return new TaskOutputOperator.TaskOutputFactory(buffer)
+                .createOutputOperator(0, new PlanNodeId("test"), ImmutableList.of(BIGINT), Function.identity(), serdeFactory)
+                .createOperator(driverContext);
+    }
+
+    private BroadcastOutputBuffer createBroadcastBuffer()
+    {
+        BroadcastOutputBuffer buffer = new BroadcastOutputBuffer(
+                "task-instance-id",
+                new StateMachine<>("bufferState", scheduledExecutor, OPEN, TERMINAL_BUFFER_STATES),
+                DataSize.of(1, MEGABYTE),
+                () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                scheduledExecutor);
+        buffer.setOutputBuffers(createInitialEmptyOutputBuffers(BROADCAST)
+                .withBuffer(FIRST, BROADCAST_PARTITION_ID)
+                .withBuffer(SECOND, BROADCAST_PARTITION_ID)
+                .withNoMoreBufferIds());
+        return buffer;
+    }
+}
@@ -73,6 +73,9 @@ public class TestTaskStats
 
             DataSize.ofBytes(25),
 
+            DataSize.ofBytes(28),
+            DataSize.ofBytes(29),
+
             26,
             new Duration(27, NANOSECONDS),
 
@@ -133,6 +136,9 @@ public class TestTaskStats
 
         assertEquals(actual.getPhysicalWrittenDataSize(), DataSize.ofBytes(25));
 
+        assertEquals(actual.getPagesSerdeAllocatedDataSize(), DataSize.ofBytes(28));
+        assertEquals(actual.getPagesSerdeReusedDataSize(), DataSize.ofBytes(29));
+
         assertEquals(actual.getPipelines().size(), 1);
         assertExpectedPipelineStats(actual.getPipelines().get(0));
     }
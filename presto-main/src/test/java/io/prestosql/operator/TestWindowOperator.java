@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.prestosql.ExceededMemoryLimitException;
+import io.prestosql.RowPagesBuilder;
 import io.prestosql.operator.WindowOperator.WindowOperatorFactory;
 import io.prestosql.operator.window.FirstValueFunction;
 import io.prestosql.operator.window.FrameInfo;
@@ -301,6 +302,57 @@ public class TestWindowOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
+    @Test
+    public void testMergeSpilledRunsInMultiplePasses()
+    {
+        // every input page is spilled as a separate run
+        int pageCount = 10;
+        int rowsPerPage = 10;
+        RowPagesBuilder inputBuilder = rowPagesBuilder(BIGINT, BIGINT);
+        for (int page = 0; page < pageCount; page++) {
+            for (int row = 0; row < rowsPerPage; row++) {
+                long value = (long) row * pageCount + page;
+                inputBuilder.row(value % 2, value);
+            }
+            inputBuilder.pageBreak();
+        }
+        List<Page> input = inputBuilder.build();
+
+        WindowOperatorFactory operatorFactory = new WindowOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, BIGINT),
+                Ints.asList(0, 1),
+                ROW_NUMBER,
+                Ints.asList(0),
+                ImmutableList.of(),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                0,
+                10,
+                new PagesIndex.TestingFactory(false),
+                true,
+                spillerFactory,
+                2,
+                new OrderingCompiler());
+
+        DriverContext driverContext = createDriverContext();
+        MaterializedResult.Builder expectedBuilder = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (long partition = 0; partition < 2; partition++) {
+            for (long value = partition; value < pageCount * rowsPerPage; value += 2) {
+                expectedBuilder.row(partition, value, value / 2 + 1);
+            }
+        }
+        MaterializedResult expected = expectedBuilder.build();
+
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), expected.getTypes(), pages);
+        assertEquals(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+        // runs are merged 10 -> 5 -> 3 -> 2 before the final merge
+        assertEquals(spillerFactory.getSpillsCount(), pageCount + 5 + 3 + 2);
+    }
+
     @Test(expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded per-node user memory limit of 10B.*")
     public void testMemoryLimit()
     {
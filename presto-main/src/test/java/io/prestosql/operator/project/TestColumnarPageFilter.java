@@ -0,0 +1,319 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.EQUAL;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN_OR_EQUAL;
+import static io.prestosql.spi.function.OperatorType.HASH_CODE;
+import static io.prestosql.spi.function.OperatorType.INDETERMINATE;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN_OR_EQUAL;
+import static io.prestosql.spi.function.OperatorType.NOT_EQUAL;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.constantNull;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.BETWEEN;
+import static io.prestosql.sql.relational.SpecialForm.Form.IN;
+import static io.prestosql.sql.relational.SpecialForm.Form.IS_NULL;
+import static io.prestosql.sql.relational.SpecialForm.Form.OR;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestColumnarPageFilter
+{
+    private static final int POSITION_COUNT = 1000;
+    private static final String[] STRINGS = {"a", "b", "bb", "c", "d"};
+    private static final double[] DOUBLES = {-1.5, -0.0, 0.0, 0.5, 1.0, Double.NaN, Double.POSITIVE_INFINITY};
+
+    private final Metadata metadata = createTestMetadataManager();
+    private final PageFunctionCompiler columnarCompiler = new PageFunctionCompiler(metadata, 0, true);
+    private final PageFunctionCompiler generatedCompiler = new PageFunctionCompiler(metadata, 0, false);
+
+    @Test
+    public void testComparisons()
+    {
+        for (OperatorType operator : ImmutableList.of(EQUAL, NOT_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL)) {
+            assertColumnarFilter(comparison(operator, field(0, BIGINT), constant(5L, BIGINT)));
+            assertColumnarFilter(comparison(operator, constant(5L, BIGINT), field(0, BIGINT)));
+            assertColumnarFilter(comparison(operator, field(1, INTEGER), constant(3L, INTEGER)));
+            assertColumnarFilter(comparison(operator, field(2, DOUBLE), constant(0.0, DOUBLE)));
+            assertColumnarFilter(comparison(operator, field(2, DOUBLE), constant(0.5, DOUBLE)));
+            assertColumnarFilter(comparison(operator, field(3, VARCHAR), constant(utf8Slice("b"), VARCHAR)));
+            assertColumnarFilter(comparison(operator, field(4, BIGINT), constant(5L, BIGINT)));
+        }
+        assertColumnarFilter(comparison(LESS_THAN, field(0, BIGINT), constant(Long.MIN_VALUE, BIGINT)), false);
+        assertColumnarFilter(comparison(GREATER_THAN, field(2, DOUBLE), constant(Double.NaN, DOUBLE)), false);
+    }
+
+    @Test
+    public void testBetween()
+    {
+        assertColumnarFilter(between(field(0, BIGINT), constant(2L, BIGINT), constant(6L, BIGINT)));
+        assertColumnarFilter(between(field(2, DOUBLE), constant(-0.0, DOUBLE), constant(1.0, DOUBLE)));
+        assertColumnarFilter(between(field(3, VARCHAR), constant(utf8Slice("b"), VARCHAR), constant(utf8Slice("c"), VARCHAR)));
+        assertColumnarFilter(between(field(4, BIGINT), constant(2L, BIGINT), constant(6L, BIGINT)));
+    }
+
+    @Test
+    public void testIn()
+    {
+        assertColumnarFilter(in(field(0, BIGINT), constant(1L, BIGINT), constant(3L, BIGINT), constant(8L, BIGINT)));
+        assertColumnarFilter(in(field(0, BIGINT), constant(1L, BIGINT), constantNull(BIGINT)));
+        assertColumnarFilter(not(in(field(0, BIGINT), constant(1L, BIGINT), constant(3L, BIGINT))));
+        assertColumnarFilter(in(field(1, INTEGER), constant(1L, INTEGER), constant(2L, INTEGER)));
+        assertColumnarFilter(in(field(3, VARCHAR), constant(utf8Slice("a"), VARCHAR), constant(utf8Slice("bb"), VARCHAR)));
+        assertColumnarFilter(not(in(field(3, VARCHAR), constant(utf8Slice("a"), VARCHAR), constant(utf8Slice("bb"), VARCHAR))));
+        assertColumnarFilter(in(field(4, BIGINT), constant(1L, BIGINT), constant(3L, BIGINT)));
+
+        // NOT IN with a null is never true
+        assertColumnarFilter(not(in(field(0, BIGINT), constant(1L, BIGINT), constantNull(BIGINT))), false);
+        assertColumnarFilter(in(field(2, DOUBLE), constant(0.0, DOUBLE), constant(1.0, DOUBLE)), false);
+    }
+
+    @Test
+    public void testIsNull()
+    {
+        assertColumnarFilter(isNull(field(0, BIGINT)));
+        assertColumnarFilter(not(isNull(field(3, VARCHAR))));
+        assertColumnarFilter(not(isNull(field(4, BIGINT))));
+    }
+
+    @Test
+    public void testConjuncts()
+    {
+        RowExpression sum = call(metadata.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)), field(0, BIGINT), field(4, BIGINT));
+
+        assertColumnarFilter(and(
+                comparison(GREATER_THAN, field(0, BIGINT), constant(2L, BIGINT)),
+                comparison(LESS_THAN, field(3, VARCHAR), constant(utf8Slice("d"), VARCHAR))));
+        assertColumnarFilter(and(
+                comparison(GREATER_THAN, field(0, BIGINT), constant(2L, BIGINT)),
+                comparison(GREATER_THAN, sum, constant(8L, BIGINT))));
+        assertColumnarFilter(and(
+                comparison(GREATER_THAN, sum, constant(8L, BIGINT)),
+                and(isNull(field(2, DOUBLE)), comparison(LESS_THAN, field(1, INTEGER), constant(7L, INTEGER)))));
+
+        assertColumnarFilter(comparison(GREATER_THAN, sum, constant(8L, BIGINT)), false);
+        assertColumnarFilter(new SpecialForm(OR, BOOLEAN, isNull(field(0, BIGINT)), isNull(field(1, INTEGER))), false);
+    }
+
+    @Test
+    public void testLoadSelectedPositions()
+    {
+        RowExpression filter = and(
+                comparison(LESS_THAN, field(3, VARCHAR), constant(utf8Slice("b"), VARCHAR)),
+                comparison(EQUAL, field(1, INTEGER), constant(3L, INTEGER)));
+        PageFilter columnarFilter = columnarCompiler.compileFilter(filter, Optional.empty()).get();
+        PageFilter generatedFilter = generatedCompiler.compileFilter(filter, Optional.empty()).get();
+        assertTrue(columnarFilter instanceof ColumnarPageFilter);
+
+        // enough pages for the filters to be reordered by their selectivity
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            Page page = createPage(random);
+            int[] loadedPositions = new int[page.getChannelCount()];
+            Block[] lazyBlocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < lazyBlocks.length; channel++) {
+                lazyBlocks[channel] = createLazyBlock(page.getBlock(channel), loadedPositions, channel);
+            }
+
+            assertEquals(
+                    toPositions(columnarFilter.filter(SESSION, columnarFilter.getInputChannels().getInputChannels(new Page(lazyBlocks)))),
+                    toPositions(generatedFilter.filter(SESSION, generatedFilter.getInputChannels().getInputChannels(page))));
+            // one of the columns is only read at the positions selected by the other
+            assertTrue(loadedPositions[1] + loadedPositions[3] < 2 * POSITION_COUNT);
+        }
+    }
+
+    @Test
+    public void testInputChannels()
+    {
+        PageFilter filter = columnarCompiler.compileFilter(
+                and(comparison(EQUAL, field(3, VARCHAR), constant(utf8Slice("a"), VARCHAR)), isNull(field(1, INTEGER))),
+                Optional.empty())
+                .get();
+        assertTrue(filter instanceof ColumnarPageFilter);
+        assertTrue(filter.isDeterministic());
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(3, 1));
+    }
+
+    private void assertColumnarFilter(RowExpression filter)
+    {
+        assertColumnarFilter(filter, true);
+    }
+
+    private void assertColumnarFilter(RowExpression filter, boolean columnar)
+    {
+        PageFilter columnarFilter = columnarCompiler.compileFilter(filter, Optional.empty()).get();
+        PageFilter generatedFilter = generatedCompiler.compileFilter(filter, Optional.empty()).get();
+        assertEquals(columnarFilter instanceof ColumnarPageFilter, columnar, filter.toString());
+        assertFalse(generatedFilter instanceof ColumnarPageFilter);
+
+        Page page = createPage(new Random(42));
+        assertEquals(
+                toPositions(columnarFilter.filter(SESSION, columnarFilter.getInputChannels().getInputChannels(page))),
+                toPositions(generatedFilter.filter(SESSION, generatedFilter.getInputChannels().getInputChannels(page))),
+                filter.toString());
+    }
+
+    private static Page createPage(Random random)
+    {
+        BlockBuilder bigints = BIGINT.createBlockBuilder(null, POSITION_COUNT);
+        BlockBuilder integers = INTEGER.createBlockBuilder(null, POSITION_COUNT);
+        BlockBuilder doubles = DOUBLE.createBlockBuilder(null, POSITION_COUNT);
+        BlockBuilder varchars = VARCHAR.createBlockBuilder(null, POSITION_COUNT);
+        for (int position = 0; position < POSITION_COUNT; position++) {
+            if (random.nextInt(5) == 0) {
+                bigints.appendNull();
+            }
+            else {
+                BIGINT.writeLong(bigints, random.nextInt(10));
+            }
+            INTEGER.writeLong(integers, random.nextInt(10));
+            if (random.nextInt(5) == 0) {
+                doubles.appendNull();
+            }
+            else {
+                DOUBLE.writeDouble(doubles, DOUBLES[random.nextInt(DOUBLES.length)]);
+            }
+            if (random.nextInt(5) == 0) {
+                varchars.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(varchars, utf8Slice(STRINGS[random.nextInt(STRINGS.length)]));
+            }
+        }
+
+        // the last channel has the bigint values in a dictionary
+        Block bigintBlock = bigints.build();
+        int[] ids = new int[POSITION_COUNT];
+        for (int position = 0; position < POSITION_COUNT; position++) {
+            ids[position] = random.nextInt(POSITION_COUNT);
+        }
+        return new Page(bigintBlock, integers.build(), doubles.build(), varchars.build(), new DictionaryBlock(bigintBlock, ids));
+    }
+
+    private static Block createLazyBlock(Block block, int[] loadedPositions, int channel)
+    {
+        return new LazyBlock(block.getPositionCount(), new LazyBlockLoader()
+        {
+            @Override
+            public Block load()
+            {
+                loadedPositions[channel] += block.getPositionCount();
+                return block;
+            }
+
+            @Override
+            public boolean isLoadPositionsSupported()
+            {
+                return true;
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                loadedPositions[channel] += length;
+                return block.copyPositions(positions, offset, length);
+            }
+        });
+    }
+
+    private static List<Integer> toPositions(SelectedPositions selectedPositions)
+    {
+        int[] positions = new int[selectedPositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = selectedPositions.isList() ? selectedPositions.getPositions()[selectedPositions.getOffset() + i] : selectedPositions.getOffset() + i;
+        }
+        return Arrays.stream(positions).boxed().collect(toImmutableList());
+    }
+
+    private RowExpression comparison(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(metadata.resolveOperator(operator, ImmutableList.of(left.getType(), right.getType())), left, right);
+    }
+
+    private RowExpression between(RowExpression value, RowExpression min, RowExpression max)
+    {
+        return new SpecialForm(
+                BETWEEN,
+                BOOLEAN,
+                ImmutableList.of(value, min, max),
+                ImmutableList.of(metadata.resolveOperator(LESS_THAN_OR_EQUAL, ImmutableList.of(value.getType(), value.getType()))));
+    }
+
+    private RowExpression in(RowExpression value, RowExpression... values)
+    {
+        Type type = value.getType();
+        return new SpecialForm(
+                IN,
+                BOOLEAN,
+                ImmutableList.<RowExpression>builder().add(value).add(values).build(),
+                ImmutableList.of(
+                        metadata.resolveOperator(EQUAL, ImmutableList.of(type, type)),
+                        metadata.resolveOperator(HASH_CODE, ImmutableList.of(type)),
+                        metadata.resolveOperator(INDETERMINATE, ImmutableList.of(type))));
+    }
+
+    private RowExpression not(RowExpression value)
+    {
+        return call(metadata.resolveFunction(QualifiedName.of("not"), fromTypes(BOOLEAN)), value);
+    }
+
+    private static RowExpression isNull(RowExpression value)
+    {
+        return new SpecialForm(IS_NULL, BOOLEAN, value);
+    }
+
+    private static RowExpression and(RowExpression left, RowExpression right)
+    {
+        return new SpecialForm(AND, BOOLEAN, left, right);
+    }
+}
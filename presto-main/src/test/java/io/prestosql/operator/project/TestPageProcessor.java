@@ -27,6 +27,7 @@ import io.prestosql.operator.Work;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
 import io.prestosql.spi.block.VariableWidthBlock;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.type.Type;
@@ -48,6 +49,7 @@ import java.util.function.Supplier;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createSlicesBlock;
 import static io.prestosql.block.BlockAssertions.createStringsBlock;
 import static io.prestosql.execution.executor.PrioritizedSplitRunner.SPLIT_RUN_QUANTA;
@@ -57,6 +59,7 @@ import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
 import static io.prestosql.operator.project.PageProcessor.MAX_PAGE_SIZE_IN_BYTES;
 import static io.prestosql.operator.project.PageProcessor.MIN_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
 import static io.prestosql.operator.project.SelectedPositions.positionsRange;
 import static io.prestosql.spi.function.OperatorType.ADD;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -183,6 +186,46 @@ public class TestPageProcessor
         assertTrue(inputProjectionBlock.isLoaded());
     }
 
+    @Test
+    public void testLoadSelectedPositions()
+    {
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(new int[] {3, 10, 97}, 0, 3))),
+                ImmutableList.of(new InputPageProjection(1, BIGINT)),
+                OptionalInt.of(MAX_BATCH_SIZE));
+        Page expectedPage = new Page(createLongsBlock(103, 110, 197));
+
+        // the processor owns the page, so the projected column is only read at the selected positions
+        int[] loadedPositions = new int[1];
+        LazyBlock projectionBlock = positionsLazyBlock(createLongSequenceBlock(100, 200), loadedPositions);
+        List<Page> outputPages = ImmutableList.copyOf(pageProcessor.createWorkProcessor(
+                SESSION,
+                new DriverYieldSignal(),
+                newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                new Page(createLongSequenceBlock(0, 100), projectionBlock),
+                false,
+                true)
+                .iterator());
+        assertEquals(outputPages.size(), 1);
+        assertPageEquals(ImmutableList.of(BIGINT), outputPages.get(0), expectedPage);
+        assertEquals(loadedPositions[0], 3);
+
+        // other holders of the page may read any position, so all positions of the projected column are read
+        loadedPositions[0] = 0;
+        projectionBlock = positionsLazyBlock(createLongSequenceBlock(100, 200), loadedPositions);
+        outputPages = ImmutableList.copyOf(pageProcessor.createWorkProcessor(
+                SESSION,
+                new DriverYieldSignal(),
+                newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                new Page(createLongSequenceBlock(0, 100), projectionBlock),
+                false)
+                .iterator());
+        assertEquals(outputPages.size(), 1);
+        assertPageEquals(ImmutableList.of(BIGINT), outputPages.get(0), expectedPage);
+        assertEquals(loadedPositions[0], 100);
+        assertPageEquals(ImmutableList.of(BIGINT), new Page(projectionBlock), new Page(createLongSequenceBlock(100, 200)));
+    }
+
     @Test
     public void testSelectNoneFilter()
     {
@@ -556,6 +599,32 @@ public class TestPageProcessor
         return new LazyBlock(block.getPositionCount(), block::getLoadedBlock);
     }
 
+    private static LazyBlock positionsLazyBlock(Block block, int[] loadedPositions)
+    {
+        return new LazyBlock(block.getPositionCount(), new LazyBlockLoader()
+        {
+            @Override
+            public Block load()
+            {
+                loadedPositions[0] += block.getPositionCount();
+                return block;
+            }
+
+            @Override
+            public boolean isLoadPositionsSupported()
+            {
+                return true;
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                loadedPositions[0] += length;
+                return block.copyPositions(positions, offset, length);
+            }
+        });
+    }
+
     private static class InvocationCountPageProjection
             implements PageProjection
     {
@@ -785,6 +785,7 @@ public final class FunctionAssertions
                     TEST_TABLE_HANDLE,
                     ImmutableList.of(),
                     TupleDomain::all,
+                    ImmutableMap::of,
                     ImmutableList.of(projection.getType()),
                     DataSize.ofBytes(0),
                     0);
@@ -21,6 +21,7 @@ import io.prestosql.spi.block.BlockEncodingSerde;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.FileSingleStreamSpillerFactory;
 import io.prestosql.spiller.GenericSpillerFactory;
+import io.prestosql.spiller.NodeSpillConfig;
 import io.prestosql.spiller.Spiller;
 import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.spiller.SpillerStats;
@@ -118,7 +119,8 @@ public class BenchmarkBinaryFileSpiller
                     ImmutableList.of(SPILL_PATH),
                     1.0,
                     compressionEnabled,
-                    encryptionEnabled);
+                    encryptionEnabled,
+                    new NodeSpillConfig().getSpillReadAheadSize());
             spillerFactory = new GenericSpillerFactory(singleStreamSpillerFactory);
             pages = createInputPages();
             readSpiller = spillerFactory.create(TYPES, bytes -> {}, newSimpleAggregatedMemoryContext());
@@ -13,12 +13,15 @@
  */
 package io.prestosql.operator.unnest;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
 import org.testng.annotations.Test;
 
 import java.util.Collections;
+import java.util.List;
 
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.block.ColumnarTestUtils.assertBlock;
@@ -27,6 +30,7 @@ import static io.prestosql.operator.unnest.TestingUnnesterUtil.createSimpleBlock
 import static io.prestosql.operator.unnest.TestingUnnesterUtil.toSlices;
 import static io.prestosql.operator.unnest.UnnestOperatorBlockUtil.calculateNewArraySize;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 public class TestReplicatedBlockBuilder
@@ -47,6 +51,44 @@ public class TestReplicatedBlockBuilder
         testReplication(toSlices(values), count);
     }
 
+    @Test
+    public void testReplicateSingleElement()
+    {
+        Slice[] values = toSlices(new String[] {"a", "b", "c"});
+        ReplicatedBlockBuilder replicateBlockBuilder = new ReplicatedBlockBuilder();
+        replicateBlockBuilder.resetInputBlock(createSimpleBlock(values));
+        replicateBlockBuilder.startNewOutput(10);
+
+        replicateBlockBuilder.appendRepeated(0, 0);
+        replicateBlockBuilder.appendRepeated(1, 500);
+        replicateBlockBuilder.appendRepeated(1, 500);
+        replicateBlockBuilder.appendRepeated(2, 0);
+
+        Block outputBlock = replicateBlockBuilder.buildOutputAndFlush();
+        assertBlock(outputBlock, createReplicatedOutputSlice(values, new int[] {0, 1000, 0}));
+        assertTrue(outputBlock instanceof RunLengthEncodedBlock);
+    }
+
+    @Test
+    public void testReplicateDictionary()
+    {
+        Slice[] values = toSlices(new String[] {"a", "b", "c"});
+        Block dictionary = createSimpleBlock(values);
+        ReplicatedBlockBuilder replicateBlockBuilder = new ReplicatedBlockBuilder();
+        replicateBlockBuilder.resetInputBlock(new DictionaryBlock(dictionary, new int[] {2, 0, 0, 1}));
+        replicateBlockBuilder.startNewOutput(10);
+
+        replicateBlockBuilder.appendRepeated(0, 2);
+        replicateBlockBuilder.appendRepeated(1, 1);
+        replicateBlockBuilder.appendRepeated(3, 1);
+
+        Block outputBlock = replicateBlockBuilder.buildOutputAndFlush();
+        assertBlock(outputBlock, new Slice[] {values[2], values[2], values[0], values[1]});
+        assertTrue(outputBlock instanceof DictionaryBlock);
+        // the output is not a dictionary over the input dictionary
+        assertSame(((DictionaryBlock) outputBlock).getDictionary(), dictionary);
+    }
+
     private static void testReplication(Slice[] values, int[] counts)
     {
         assertEquals(values.length, counts.length);
@@ -98,16 +140,19 @@ public class TestReplicatedBlockBuilder
     {
         Slice[] values = {null, utf8Slice("a")};
         Block inputBlock = createSimpleBlock(values);
-        int repeatingIndex = 1;
 
         replicatedBlockBuilder.resetInputBlock(inputBlock);
         replicatedBlockBuilder.startNewOutput(initialSize);
 
-        replicatedBlockBuilder.appendRepeated(repeatingIndex, firstAppendCount);
-        replicatedBlockBuilder.appendRepeated(repeatingIndex, secondAppendCount);
+        // different elements, so that the output is a dictionary
+        replicatedBlockBuilder.appendRepeated(0, firstAppendCount);
+        replicatedBlockBuilder.appendRepeated(1, secondAppendCount);
 
         Block output = replicatedBlockBuilder.buildOutputAndFlush();
-        int totalCount = firstAppendCount + secondAppendCount;
-        assertBlock(output, Collections.nCopies(totalCount, values[repeatingIndex]).toArray(new Slice[totalCount]));
+        List<Slice> expected = ImmutableList.<Slice>builder()
+                .addAll(Collections.nCopies(firstAppendCount, values[0]))
+                .addAll(Collections.nCopies(secondAppendCount, values[1]))
+                .build();
+        assertBlock(output, expected.toArray(new Slice[0]));
     }
 }
@@ -23,8 +23,11 @@ import io.prestosql.server.DynamicFilterService.StageDynamicFilters;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spi.connector.DynamicFilter;
 import io.prestosql.spi.connector.TestingColumnHandle;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
 import io.prestosql.sql.DynamicFilters;
 import io.prestosql.sql.analyzer.FeaturesConfig;
 import io.prestosql.sql.planner.Symbol;
@@ -98,6 +101,100 @@ public class TestDynamicFilterService
         assertEquals(dynamicFiltersStageSupplier.getRequestCount(), 3);
     }
 
+    @Test
+    public void testBloomFilterCollection()
+    {
+        DynamicFilterService dynamicFilterService = new DynamicFilterService(new FeaturesConfig());
+        DynamicFilterId filterId = new DynamicFilterId("df");
+        Expression df = expression("DF_SYMBOL");
+        QueryId queryId = new QueryId("query");
+        StageId stageId = new StageId(queryId, 0);
+        List<TaskId> taskIds = ImmutableList.of(new TaskId(stageId, 0), new TaskId(stageId, 1));
+
+        TestDynamicFiltersStageSupplier dynamicFiltersStageSupplier = new TestDynamicFiltersStageSupplier(RUNNING);
+        dynamicFiltersStageSupplier.addTasks(taskIds);
+        dynamicFilterService.registerQuery(queryId, dynamicFiltersStageSupplier, ImmutableSet.of(filterId), ImmutableSet.of(filterId), ImmutableSet.of());
+        TestingColumnHandle column = new TestingColumnHandle("probeColumnA");
+        DynamicFilter dynamicFilter = dynamicFilterService.createDynamicFilter(
+                queryId,
+                ImmutableList.of(new DynamicFilters.Descriptor(filterId, df)),
+                ImmutableMap.of(Symbol.from(df), column));
+
+        // first task has too many values to be represented by a domain
+        dynamicFiltersStageSupplier.storeSummary(
+                filterId,
+                taskIds.get(0),
+                Domain.all(INTEGER),
+                BlockedBloomFilter.builder(INTEGER, 1024).addValue(1L).addValue(2L).build());
+        dynamicFilterService.collectDynamicFilters();
+        assertTrue(dynamicFilter.getCurrentBloomFilters().isEmpty());
+
+        // second task has an exact domain, which is added to the bloom filter
+        dynamicFiltersStageSupplier.storeSummary(
+                filterId,
+                taskIds.get(1),
+                singleValue(INTEGER, 3L));
+        dynamicFilterService.collectDynamicFilters();
+        assertEquals(dynamicFilterService.getSummary(queryId, filterId), Optional.of(Domain.all(INTEGER)));
+        assertTrue(dynamicFilter.getCurrentPredicate().isAll());
+
+        BlockedBloomFilter bloomFilter = dynamicFilter.getCurrentBloomFilters().get(column);
+        assertEquals(bloomFilter, dynamicFilterService.getBloomFilter(queryId, filterId).get());
+        assertTrue(bloomFilter.mightContainValue(1L));
+        assertTrue(bloomFilter.mightContainValue(2L));
+        assertTrue(bloomFilter.mightContainValue(3L));
+    }
+
+    @Test
+    public void testBloomFilterDroppedForExactDomain()
+    {
+        DynamicFilterService dynamicFilterService = new DynamicFilterService(new FeaturesConfig());
+        DynamicFilterId filterId = new DynamicFilterId("df");
+        QueryId queryId = new QueryId("query");
+        TaskId taskId = new TaskId(new StageId(queryId, 0), 0);
+
+        TestDynamicFiltersStageSupplier dynamicFiltersStageSupplier = new TestDynamicFiltersStageSupplier(RUNNING);
+        dynamicFiltersStageSupplier.addTasks(ImmutableList.of(taskId));
+        dynamicFilterService.registerQuery(queryId, dynamicFiltersStageSupplier, ImmutableSet.of(filterId), ImmutableSet.of(), ImmutableSet.of());
+
+        dynamicFiltersStageSupplier.storeSummary(
+                filterId,
+                taskId,
+                singleValue(INTEGER, 1L),
+                BlockedBloomFilter.builder(INTEGER, 1024).addValue(1L).build());
+        dynamicFilterService.collectDynamicFilters();
+        assertEquals(dynamicFilterService.getSummary(queryId, filterId), Optional.of(singleValue(INTEGER, 1L)));
+        assertFalse(dynamicFilterService.getBloomFilter(queryId, filterId).isPresent());
+    }
+
+    @Test
+    public void testBloomFilterDroppedForSimplifiedDomain()
+    {
+        DynamicFilterService dynamicFilterService = new DynamicFilterService(new FeaturesConfig());
+        DynamicFilterId filterId = new DynamicFilterId("df");
+        QueryId queryId = new QueryId("query");
+        StageId stageId = new StageId(queryId, 0);
+        List<TaskId> taskIds = ImmutableList.of(new TaskId(stageId, 0), new TaskId(stageId, 1));
+
+        TestDynamicFiltersStageSupplier dynamicFiltersStageSupplier = new TestDynamicFiltersStageSupplier(RUNNING);
+        dynamicFiltersStageSupplier.addTasks(taskIds);
+        dynamicFilterService.registerQuery(queryId, dynamicFiltersStageSupplier, ImmutableSet.of(filterId), ImmutableSet.of(filterId), ImmutableSet.of());
+
+        dynamicFiltersStageSupplier.storeSummary(
+                filterId,
+                taskIds.get(0),
+                Domain.all(INTEGER),
+                BlockedBloomFilter.builder(INTEGER, 1024).addValue(1L).build());
+        // the values of a range cannot be added to the bloom filter
+        dynamicFiltersStageSupplier.storeSummary(
+                filterId,
+                taskIds.get(1),
+                Domain.create(ValueSet.ofRanges(Range.range(INTEGER, 10L, true, 100L, true)), false));
+        dynamicFilterService.collectDynamicFilters();
+        assertEquals(dynamicFilterService.getSummary(queryId, filterId), Optional.of(Domain.all(INTEGER)));
+        assertFalse(dynamicFilterService.getBloomFilter(queryId, filterId).isPresent());
+    }
+
     @Test
     public void testDynamicFilter()
     {
@@ -306,6 +403,7 @@ public class TestDynamicFilterService
             implements Supplier<List<StageDynamicFilters>>
     {
         private final Map<StageId, Map<TaskId, Map<DynamicFilterId, Domain>>> stageDynamicFilters = new HashMap<>();
+        private final Map<TaskId, Map<DynamicFilterId, BlockedBloomFilter>> taskBloomFilters = new HashMap<>();
         private final StageState stageState;
 
         private int requestCount;
@@ -329,6 +427,12 @@ public class TestDynamicFilterService
             stageDynamicFilters.get(stageId).get(taskId).put(filterId, domain);
         }
 
+        void storeSummary(DynamicFilterId filterId, TaskId taskId, Domain domain, BlockedBloomFilter bloomFilter)
+        {
+            taskBloomFilters.computeIfAbsent(taskId, id -> new HashMap<>()).put(filterId, bloomFilter);
+            storeSummary(filterId, taskId, domain);
+        }
+
         int getRequestCount()
         {
             return requestCount;
@@ -343,6 +447,9 @@ public class TestDynamicFilterService
                             stageState,
                             stage.size(),
                             stage.values().stream()
+                                    .collect(toImmutableList()),
+                            stage.keySet().stream()
+                                    .map(taskId -> taskBloomFilters.getOrDefault(taskId, ImmutableMap.of()))
                                     .collect(toImmutableList())))
                     .collect(toImmutableList()));
         }
@@ -477,7 +477,8 @@ public class TestHttpRemoteTask
                     initialTaskStatus.getRevocableMemoryReservation(),
                     initialTaskStatus.getFullGcCount(),
                     initialTaskStatus.getFullGcTime(),
-                    initialTaskStatus.getDynamicFilterDomains());
+                    initialTaskStatus.getDynamicFilterDomains(),
+                    initialTaskStatus.getDynamicFilterBloomFilters());
         }
     }
 }
@@ -18,9 +18,11 @@ import com.google.common.collect.Iterators;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.units.DataSize;
 import io.prestosql.execution.buffer.PageCodecMarker;
 import io.prestosql.execution.buffer.PagesSerdeUtil;
 import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.PageAssertions;
 import io.prestosql.spi.Page;
@@ -46,6 +48,8 @@ import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static java.lang.Double.doubleToLongBits;
 import static java.nio.file.Files.newInputStream;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
@@ -69,41 +73,91 @@ public class TestFileSingleStreamSpiller
     public void testSpill()
             throws Exception
     {
-        assertSpill(false, false);
+        assertSpill(false, false, 0);
     }
 
     @Test
     public void testSpillCompression()
             throws Exception
     {
-        assertSpill(true, false);
+        assertSpill(true, false, 0);
     }
 
     @Test
     public void testSpillEncryption()
             throws Exception
     {
-        assertSpill(false, true);
+        assertSpill(false, true, 0);
     }
 
     @Test
     public void testSpillEncryptionWithCompression()
             throws Exception
     {
-        assertSpill(true, true);
+        assertSpill(true, true, 0);
     }
 
-    private void assertSpill(boolean compression, boolean encryption)
+    @Test
+    public void testSpillReadAhead()
             throws Exception
     {
-        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
-                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
-                createTestMetadataManager().getBlockEncodingSerde(),
-                new SpillerStats(),
-                ImmutableList.of(spillPath.toPath()),
-                1.0,
-                compression,
-                encryption);
+        // smaller than a page, so that every page is read ahead separately
+        assertSpill(false, false, 1);
+        assertSpill(true, true, 1);
+        // larger than all pages, so that they are read ahead at once
+        assertSpill(false, false, 1024 * 1024);
+    }
+
+    @Test
+    public void testGetAllSpilledPages()
+            throws Exception
+    {
+        FileSingleStreamSpillerFactory spillerFactory = createSpillerFactory(new SpillerStats(), false, false, 1);
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        try (SingleStreamSpiller spiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext)) {
+            Page page = buildPage();
+            spiller.spill(Iterators.forArray(page, page, page)).get();
+
+            List<Page> spilledPages = spiller.getAllSpilledPages().get();
+            assertEquals(spilledPages.size(), 3);
+            for (Page spilledPage : spilledPages) {
+                PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+            }
+        }
+    }
+
+    @Test
+    public void testReadAheadOnSpillerThread()
+            throws Exception
+    {
+        // pages are spilled by the only thread of the executor while it reads another spill file, so reading ahead would wait forever
+        ListeningExecutorService singleThreadExecutor = listeningDecorator(newSingleThreadExecutor());
+        try {
+            FileSingleStreamSpillerFactory spillerFactory = createSpillerFactory(singleThreadExecutor, new SpillerStats(), false, false, 1);
+            AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+            try (SingleStreamSpiller source = spillerFactory.create(TYPES, bytes -> {}, memoryContext.newLocalMemoryContext("source"));
+                    SingleStreamSpiller target = spillerFactory.create(TYPES, bytes -> {}, memoryContext.newLocalMemoryContext("target"))) {
+                Page page = buildPage();
+                source.spill(Iterators.forArray(page, page, page)).get();
+                target.spill(source.getSpilledPages()).get(10, SECONDS);
+
+                List<Page> spilledPages = ImmutableList.copyOf(target.getSpilledPages());
+                assertEquals(spilledPages.size(), 3);
+                for (Page spilledPage : spilledPages) {
+                    PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+                }
+            }
+        }
+        finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    private void assertSpill(boolean compression, boolean encryption, long readAheadBytes)
+            throws Exception
+    {
+        SpillerStats spillerStats = new SpillerStats();
+        FileSingleStreamSpillerFactory spillerFactory = createSpillerFactory(spillerStats, compression, encryption, readAheadBytes);
         LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
         SingleStreamSpiller singleStreamSpiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext);
         assertTrue(singleStreamSpiller instanceof FileSingleStreamSpiller);
@@ -132,7 +186,17 @@ public class TestFileSingleStreamSpiller
 
         Iterator<Page> spilledPagesIterator = spiller.getSpilledPages();
         assertEquals(memoryContext.getBytes(), FileSingleStreamSpiller.BUFFER_SIZE);
-        ImmutableList<Page> spilledPages = ImmutableList.copyOf(spilledPagesIterator);
+        Page firstPage = spilledPagesIterator.next();
+        if (readAheadBytes > 0) {
+            // the batch being returned and the batch being read ahead are accounted
+            assertTrue(memoryContext.getBytes() > FileSingleStreamSpiller.BUFFER_SIZE + readAheadBytes);
+        }
+        ImmutableList<Page> spilledPages = ImmutableList.<Page>builder()
+                .add(firstPage)
+                .addAll(spilledPagesIterator)
+                .build();
+        // the batches are released once all pages are returned
+        assertEquals(memoryContext.getBytes(), FileSingleStreamSpiller.BUFFER_SIZE);
         // The spillers release their memory reservations when they are closed, therefore at this point
         // they will have non-zero memory reservation.
         // assertEquals(memoryContext.getBytes(), 0);
@@ -145,6 +209,31 @@ public class TestFileSingleStreamSpiller
         spiller.close();
         assertEquals(listFiles(spillPath.toPath()).size(), 0);
         assertEquals(memoryContext.getBytes(), 0);
+
+        assertEquals(spillerStats.getTotalSpillFiles(), 1);
+        assertEquals(spillerStats.getTotalUnspilledBytes(), spillerStats.getTotalSpilledBytes());
+        assertEquals(spillerStats.getSpillWriteTime().getAllTime().getCount(), 2.0);
+        assertEquals(spillerStats.getSpillFileWriteBytesPerSecond().getAllTime().getCount(), 1.0);
+        assertEquals(spillerStats.getSpillFileReadBytesPerSecond().getAllTime().getCount(), 1.0);
+    }
+
+    private FileSingleStreamSpillerFactory createSpillerFactory(SpillerStats spillerStats, boolean compression, boolean encryption, long readAheadBytes)
+    {
+        // executor won't be closed, because we don't call destroy() on the spiller factory
+        return createSpillerFactory(executor, spillerStats, compression, encryption, readAheadBytes);
+    }
+
+    private FileSingleStreamSpillerFactory createSpillerFactory(ListeningExecutorService executor, SpillerStats spillerStats, boolean compression, boolean encryption, long readAheadBytes)
+    {
+        return new FileSingleStreamSpillerFactory(
+                executor,
+                createTestMetadataManager().getBlockEncodingSerde(),
+                spillerStats,
+                ImmutableList.of(spillPath.toPath()),
+                1.0,
+                compression,
+                encryption,
+                DataSize.ofBytes(readAheadBytes));
     }
 
     private Page buildPage()
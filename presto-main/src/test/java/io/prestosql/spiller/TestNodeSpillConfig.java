@@ -23,6 +23,7 @@ import static io.airlift.configuration.testing.ConfigAssertions.assertFullMappin
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class TestNodeSpillConfig
@@ -34,7 +35,8 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setSpillCompressionEnabled(false)
-                .setSpillEncryptionEnabled(false));
+                .setSpillEncryptionEnabled(false)
+                .setSpillReadAheadSize(DataSize.of(128, KILOBYTE)));
     }
 
     @Test
@@ -45,13 +47,15 @@ public class TestNodeSpillConfig
                 .put("query-max-spill-per-node", "15 MB")
                 .put("spill-compression-enabled", "true")
                 .put("spill-encryption-enabled", "true")
+                .put("spill-read-ahead-size", "1MB")
                 .build();
 
         NodeSpillConfig expected = new NodeSpillConfig()
                 .setMaxSpillPerNode(DataSize.of(10, MEGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(15, MEGABYTE))
                 .setSpillCompressionEnabled(true)
-                .setSpillEncryptionEnabled(true);
+                .setSpillEncryptionEnabled(true)
+                .setSpillReadAheadSize(DataSize.of(1, MEGABYTE));
 
         assertFullMapping(properties, expected);
     }
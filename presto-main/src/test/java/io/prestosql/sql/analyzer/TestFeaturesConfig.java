@@ -16,6 +16,7 @@ package io.prestosql.sql.analyzer;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import io.prestosql.operator.aggregation.histogram.HistogramGroupImplementation;
 import io.prestosql.operator.aggregation.multimapagg.MultimapAggGroupImplementation;
@@ -52,6 +53,8 @@ public class TestFeaturesConfig
                 .setDistributedIndexJoinsEnabled(false)
                 .setJoinMaxBroadcastTableSize(DataSize.of(100, MEGABYTE))
                 .setJoinDistributionType(JoinDistributionType.AUTOMATIC)
+                .setSkewedJoinSpreadFactor(1)
+                .setJoinLookupSourceCacheEnabled(false)
                 .setGroupedExecutionEnabled(false)
                 .setDynamicScheduleForGroupedExecutionEnabled(false)
                 .setConcurrentLifespansPerTask(0)
@@ -60,6 +63,7 @@ public class TestFeaturesConfig
                 .setSpatialJoinsEnabled(true)
                 .setJoinReorderingStrategy(JoinReorderingStrategy.AUTOMATIC)
                 .setMaxReorderedJoins(9)
+                .setMaxGreedyReorderedJoins(0)
                 .setRedistributeWrites(true)
                 .setUsePreferredWritePartitioning(false)
                 .setScaleWriters(false)
@@ -74,7 +78,12 @@ public class TestFeaturesConfig
                 .setSpillEnabled(false)
                 .setSpillOrderBy(true)
                 .setSpillWindowOperator(true)
+                .setSpillJoinUnspillConcurrency(1)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("4MB"))
+                .setAggregationOperatorPartitionCount(1)
+                .setAdaptivePartialAggregationEnabled(true)
+                .setAdaptivePartialAggregationMinRows(100_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8)
                 .setSpillerSpillPaths("")
                 .setSpillerThreads(4)
                 .setSpillMaxUsedSpaceThreshold(0.9)
@@ -89,6 +98,8 @@ public class TestFeaturesConfig
                 .setDefaultFilterFactorEnabled(false)
                 .setEnableForcedExchangeBelowGroupId(true)
                 .setExchangeCompressionEnabled(false)
+                .setExchangeCompressionCodec(CompressionCodec.LZ4)
+                .setExchangeAdaptiveCompressionEnabled(false)
                 .setExchangeDataIntegrityVerification(DataIntegrityVerification.ABORT)
                 .setEnableIntermediateAggregations(false)
                 .setPushAggregationThroughOuterJoin(true)
@@ -113,6 +124,8 @@ public class TestFeaturesConfig
                 .setEnableDynamicFiltering(true)
                 .setDynamicFilteringMaxPerDriverRowCount(100)
                 .setDynamicFilteringMaxPerDriverSize(DataSize.of(10, KILOBYTE))
+                .setDynamicFilteringBloomFilterEnabled(false)
+                .setDynamicFilteringBloomFilterSize(DataSize.of(1, MEGABYTE))
                 .setDynamicFilteringRefreshInterval(new Duration(200, MILLISECONDS))
                 .setIgnoreDownstreamPreferences(false)
                 .setOmitDateTimeTypePrecision(false)
@@ -134,6 +147,8 @@ public class TestFeaturesConfig
                 .put("enable-forced-exchange-below-group-id", "false")
                 .put("distributed-index-joins-enabled", "true")
                 .put("join-distribution-type", "BROADCAST")
+                .put("skewed-join-spread-factor", "4")
+                .put("join-lookup-source-cache-enabled", "true")
                 .put("join-max-broadcast-table-size", "42GB")
                 .put("grouped-execution-enabled", "true")
                 .put("dynamic-schedule-for-grouped-execution", "true")
@@ -143,6 +158,7 @@ public class TestFeaturesConfig
                 .put("spatial-joins-enabled", "false")
                 .put("optimizer.join-reordering-strategy", "NONE")
                 .put("optimizer.max-reordered-joins", "5")
+                .put("optimizer.max-greedy-reordered-joins", "20")
                 .put("redistribute-writes", "false")
                 .put("use-preferred-write-partitioning", "true")
                 .put("scale-writers", "true")
@@ -161,13 +177,20 @@ public class TestFeaturesConfig
                 .put("spill-enabled", "true")
                 .put("spill-order-by", "false")
                 .put("spill-window-operator", "false")
+                .put("spill-join-unspill-concurrency", "4")
                 .put("aggregation-operator-unspill-memory-limit", "100MB")
+                .put("aggregation-operator-partition-count", "16")
+                .put("adaptive-partial-aggregation.enabled", "false")
+                .put("adaptive-partial-aggregation.min-rows", "1000")
+                .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.99")
                 .put("spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .put("spiller-threads", "42")
                 .put("spiller-max-used-space-threshold", "0.8")
                 .put("memory-revoking-threshold", "0.2")
                 .put("memory-revoking-target", "0.8")
                 .put("exchange.compression-enabled", "true")
+                .put("exchange.compression-codec", "ZSTD")
+                .put("exchange.adaptive-compression-enabled", "true")
                 .put("exchange.data-integrity-verification", "RETRY")
                 .put("optimizer.enable-intermediate-aggregations", "true")
                 .put("parse-decimal-literals-as-double", "true")
@@ -190,6 +213,8 @@ public class TestFeaturesConfig
                 .put("enable-dynamic-filtering", "false")
                 .put("dynamic-filtering-max-per-driver-row-count", "256")
                 .put("dynamic-filtering-max-per-driver-size", "64kB")
+                .put("dynamic-filtering-bloom-filter-enabled", "true")
+                .put("dynamic-filtering-bloom-filter-size", "4MB")
                 .put("experimental.dynamic-filtering-refresh-interval", "300ms")
                 .put("optimizer.ignore-downstream-preferences", "true")
                 .put("deprecated.omit-datetime-type-precision", "true")
@@ -207,6 +232,8 @@ public class TestFeaturesConfig
                 .setEnableForcedExchangeBelowGroupId(false)
                 .setDistributedIndexJoinsEnabled(true)
                 .setJoinDistributionType(BROADCAST)
+                .setSkewedJoinSpreadFactor(4)
+                .setJoinLookupSourceCacheEnabled(true)
                 .setJoinMaxBroadcastTableSize(DataSize.of(42, GIGABYTE))
                 .setGroupedExecutionEnabled(true)
                 .setDynamicScheduleForGroupedExecutionEnabled(true)
@@ -216,6 +243,7 @@ public class TestFeaturesConfig
                 .setSpatialJoinsEnabled(false)
                 .setJoinReorderingStrategy(NONE)
                 .setMaxReorderedJoins(5)
+                .setMaxGreedyReorderedJoins(20)
                 .setRedistributeWrites(false)
                 .setUsePreferredWritePartitioning(true)
                 .setScaleWriters(true)
@@ -234,13 +262,20 @@ public class TestFeaturesConfig
                 .setSpillEnabled(true)
                 .setSpillOrderBy(false)
                 .setSpillWindowOperator(false)
+                .setSpillJoinUnspillConcurrency(4)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("100MB"))
+                .setAggregationOperatorPartitionCount(16)
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(1000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.99)
                 .setSpillerSpillPaths("/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .setSpillerThreads(42)
                 .setSpillMaxUsedSpaceThreshold(0.8)
                 .setMemoryRevokingThreshold(0.2)
                 .setMemoryRevokingTarget(0.8)
                 .setExchangeCompressionEnabled(true)
+                .setExchangeCompressionCodec(CompressionCodec.ZSTD)
+                .setExchangeAdaptiveCompressionEnabled(true)
                 .setExchangeDataIntegrityVerification(DataIntegrityVerification.RETRY)
                 .setEnableIntermediateAggregations(true)
                 .setParseDecimalLiteralsAsDouble(true)
@@ -264,6 +299,8 @@ public class TestFeaturesConfig
                 .setEnableDynamicFiltering(false)
                 .setDynamicFilteringMaxPerDriverRowCount(256)
                 .setDynamicFilteringMaxPerDriverSize(DataSize.of(64, KILOBYTE))
+                .setDynamicFilteringBloomFilterEnabled(true)
+                .setDynamicFilteringBloomFilterSize(DataSize.of(4, MEGABYTE))
                 .setDynamicFilteringRefreshInterval(new Duration(300, MILLISECONDS))
                 .setIgnoreDownstreamPreferences(true)
                 .setOmitDateTimeTypePrecision(true)
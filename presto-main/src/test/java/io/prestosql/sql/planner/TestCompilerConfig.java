@@ -28,7 +28,8 @@ public class TestCompilerConfig
     public void testDefaults()
     {
         assertRecordedDefaults(recordDefaults(CompilerConfig.class)
-                .setExpressionCacheSize(10_000));
+                .setExpressionCacheSize(10_000)
+                .setColumnarFilterEvaluationEnabled(true));
     }
 
     @Test
@@ -36,10 +37,12 @@ public class TestCompilerConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("compiler.expression-cache-size", "52")
+                .put("compiler.columnar-filter-evaluation-enabled", "false")
                 .build();
 
         CompilerConfig expected = new CompilerConfig()
-                .setExpressionCacheSize(52);
+                .setExpressionCacheSize(52)
+                .setColumnarFilterEvaluationEnabled(false);
 
         assertFullMapping(properties, expected);
     }
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.Session;
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType;
@@ -45,6 +46,7 @@ import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestLocalDynamicFilterConsumer
         extends BasePlanTest
@@ -124,6 +126,33 @@ public class TestLocalDynamicFilterConsumer
                 new Symbol("a"), Domain.multipleValues(INTEGER, ImmutableList.of(10L, 20L))));
     }
 
+    @Test
+    public void testBloomFiltersWithExactPartition()
+            throws ExecutionException, InterruptedException
+    {
+        LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
+                ImmutableMultimap.of(new DynamicFilterId("123"), new Symbol("a")),
+                ImmutableMap.of(new DynamicFilterId("123"), 0),
+                ImmutableMap.of(new DynamicFilterId("123"), INTEGER),
+                2);
+        ListenableFuture<Map<Symbol, BlockedBloomFilter>> result = filter.getNodeLocalBloomFiltersForSymbols();
+
+        // the predicate of the first partition became too large, so it reports a bloom filter instead
+        filter.getBloomFilterConsumer().accept(ImmutableMap.of(
+                new DynamicFilterId("123"), BlockedBloomFilter.builder(INTEGER, 1024).addValue(10L).build()));
+        filter.getTupleDomainConsumer().accept(TupleDomain.all());
+        assertFalse(result.isDone());
+
+        filter.getTupleDomainConsumer().accept(TupleDomain.withColumnDomains(ImmutableMap.of(
+                new DynamicFilterId("123"), Domain.singleValue(INTEGER, 20L))));
+
+        // the exact predicate of the second partition is added to the bloom filter
+        BlockedBloomFilter bloomFilter = result.get().get(new Symbol("a"));
+        assertEquals(bloomFilter.getSizeInBytes(), 1024);
+        assertTrue(bloomFilter.mightContainValue(10L));
+        assertTrue(bloomFilter.mightContainValue(20L));
+    }
+
     @Test
     public void testNone()
             throws ExecutionException, InterruptedException
@@ -33,6 +33,9 @@ import io.prestosql.sql.planner.iterative.rule.ReorderJoins.JoinEnumerationResul
 import io.prestosql.sql.planner.iterative.rule.ReorderJoins.JoinEnumerator;
 import io.prestosql.sql.planner.iterative.rule.ReorderJoins.MultiJoinNode;
 import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.tree.ComparisonExpression;
 import io.prestosql.testing.LocalQueryRunner;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -42,12 +45,15 @@ import java.util.LinkedHashSet;
 import java.util.Optional;
 
 import static io.airlift.testing.Closeables.closeAllRuntimeException;
+import static io.prestosql.sql.ExpressionUtils.and;
 import static io.prestosql.sql.planner.iterative.Lookup.noLookup;
 import static io.prestosql.sql.planner.iterative.rule.ReorderJoins.JoinEnumerator.generatePartitions;
 import static io.prestosql.sql.tree.BooleanLiteral.TRUE_LITERAL;
+import static io.prestosql.sql.tree.ComparisonExpression.Operator.EQUAL;
 import static io.prestosql.testing.TestingSession.testSessionBuilder;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestJoinEnumerator
 {
@@ -108,6 +114,58 @@ public class TestJoinEnumerator
         assertEquals(actual.getCost(), PlanCostEstimate.infinite());
     }
 
+    @Test
+    public void testGreedyDoesNotCreateCrossJoin()
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        PlanBuilder p = new PlanBuilder(idAllocator, queryRunner.getMetadata());
+        Symbol a1 = p.symbol("A1");
+        Symbol b1 = p.symbol("B1");
+        Symbol c1 = p.symbol("C1");
+        MultiJoinNode multiJoinNode = new MultiJoinNode(
+                new LinkedHashSet<>(ImmutableList.of(p.values(a1), p.values(b1), p.values(c1))),
+                new ComparisonExpression(EQUAL, a1.toSymbolReference(), b1.toSymbolReference()),
+                ImmutableList.of(a1, b1, c1),
+                false);
+        JoinEnumerator joinEnumerator = new JoinEnumerator(
+                queryRunner.getMetadata(),
+                new CostComparator(1, 1, 1),
+                multiJoinNode.getFilter(),
+                createContext());
+        JoinEnumerationResult actual = joinEnumerator.chooseJoinOrderGreedily(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+        assertFalse(actual.getPlanNode().isPresent());
+        assertEquals(actual.getCost(), PlanCostEstimate.infinite());
+    }
+
+    @Test
+    public void testGreedyJoinsAllSources()
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        PlanBuilder p = new PlanBuilder(idAllocator, queryRunner.getMetadata());
+        Symbol a1 = p.symbol("A1");
+        Symbol b1 = p.symbol("B1");
+        Symbol c1 = p.symbol("C1");
+        Symbol d1 = p.symbol("D1");
+        MultiJoinNode multiJoinNode = new MultiJoinNode(
+                new LinkedHashSet<>(ImmutableList.of(p.values(a1), p.values(b1), p.values(c1), p.values(d1))),
+                and(
+                        new ComparisonExpression(EQUAL, a1.toSymbolReference(), b1.toSymbolReference()),
+                        new ComparisonExpression(EQUAL, b1.toSymbolReference(), c1.toSymbolReference()),
+                        new ComparisonExpression(EQUAL, c1.toSymbolReference(), d1.toSymbolReference())),
+                ImmutableList.of(a1, d1),
+                false);
+        JoinEnumerator joinEnumerator = new JoinEnumerator(
+                queryRunner.getMetadata(),
+                new CostComparator(1, 1, 1),
+                multiJoinNode.getFilter(),
+                createContext());
+        JoinEnumerationResult actual = joinEnumerator.chooseJoinOrderGreedily(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+        assertTrue(actual.getPlanNode().isPresent());
+        PlanNode planNode = actual.getPlanNode().get();
+        assertTrue(planNode instanceof JoinNode);
+        assertEquals(ImmutableSet.copyOf(planNode.getOutputSymbols()), ImmutableSet.of(a1, d1));
+    }
+
     private Rule.Context createContext()
     {
         PlanNodeIdAllocator planNodeIdAllocator = new PlanNodeIdAllocator();
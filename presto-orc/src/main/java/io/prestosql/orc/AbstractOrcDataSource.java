@@ -22,17 +22,28 @@ import io.prestosql.orc.stream.OrcDataReader;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static io.prestosql.orc.OrcDataSourceUtils.getDiskRangeSlice;
 import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
+import static java.lang.Math.max;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public abstract class AbstractOrcDataSource
         implements OrcDataSource
@@ -40,16 +51,30 @@ public abstract class AbstractOrcDataSource
     private final OrcDataSourceId id;
     private final long size;
     private final OrcReaderOptions options;
-    private long readTimeNanos;
-    private long readBytes;
+    private final Optional<Executor> readExecutor;
+    // ranges read ahead are read by the threads of the read executor
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong wastedReadBytes = new AtomicLong();
+    private final AtomicLong readRequests = new AtomicLong();
 
     public AbstractOrcDataSource(OrcDataSourceId id, long size, OrcReaderOptions options)
+    {
+        this(id, size, options, Optional.empty());
+    }
+
+    /**
+     * @param readExecutor if present, the merged ranges of a stripe are read concurrently on this executor
+     * when the small ranges are not read lazily, which requires {@link #readInternal} to be thread safe
+     */
+    public AbstractOrcDataSource(OrcDataSourceId id, long size, OrcReaderOptions options, Optional<Executor> readExecutor)
     {
         this.id = requireNonNull(id, "id is null");
 
         this.size = size;
         checkArgument(size > 0, "size must be at least 1");
         this.options = requireNonNull(options, "options is null");
+        this.readExecutor = requireNonNull(readExecutor, "readExecutor is null");
     }
 
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
@@ -64,13 +89,26 @@ public abstract class AbstractOrcDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public final long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
+    }
+
+    /**
+     * Returns the bytes read in the gaps between the ranges merged into a single request.
+     */
+    public final long getWastedReadBytes()
+    {
+        return wastedReadBytes.get();
+    }
+
+    public final long getReadRequests()
+    {
+        return readRequests.get();
     }
 
     @Override
@@ -95,8 +133,9 @@ public abstract class AbstractOrcDataSource
 
         readInternal(position, buffer, bufferOffset, bufferLength);
 
-        readTimeNanos += System.nanoTime() - start;
-        readBytes += bufferLength;
+        readTimeNanos.addAndGet(System.nanoTime() - start);
+        readBytes.addAndGet(bufferLength);
+        readRequests.incrementAndGet();
     }
 
     @Override
@@ -148,7 +187,8 @@ public abstract class AbstractOrcDataSource
         ImmutableMap.Builder<K, OrcDataReader> slices = ImmutableMap.builder();
         if (options.isLazyReadSmallRanges()) {
             for (DiskRange mergedRange : mergedRanges) {
-                LazyBufferLoader mergedRangeLazyLoader = new LazyBufferLoader(mergedRange);
+                // not read ahead, as the ranges of the columns which are never loaded are not read at all
+                LazyBufferLoader mergedRangeLazyLoader = new LazyBufferLoader(mergedRange, getWastedBytes(mergedRange, diskRanges.values()));
                 for (Entry<K, DiskRange> diskRangeEntry : diskRanges.entrySet()) {
                     DiskRange diskRange = diskRangeEntry.getValue();
                     if (mergedRange.contains(diskRange)) {
@@ -159,10 +199,31 @@ public abstract class AbstractOrcDataSource
         }
         else {
             Map<DiskRange, Slice> buffers = new LinkedHashMap<>();
-            for (DiskRange mergedRange : mergedRanges) {
-                // read full range in one request
-                Slice buffer = readFully(mergedRange.getOffset(), mergedRange.getLength());
-                buffers.put(mergedRange, buffer);
+            if (readExecutor.isPresent()) {
+                // issue all requests before waiting for the first one
+                List<LazyBufferLoader> mergedRangeLoaders = new ArrayList<>();
+                for (DiskRange mergedRange : mergedRanges) {
+                    LazyBufferLoader mergedRangeLoader = new LazyBufferLoader(mergedRange, getWastedBytes(mergedRange, diskRanges.values()));
+                    mergedRangeLoader.prefetch();
+                    mergedRangeLoaders.add(mergedRangeLoader);
+                }
+                try {
+                    for (LazyBufferLoader mergedRangeLoader : mergedRangeLoaders) {
+                        buffers.put(mergedRangeLoader.getDiskRange(), mergedRangeLoader.loadNestedDiskRangeBuffer(mergedRangeLoader.getDiskRange()));
+                    }
+                }
+                finally {
+                    // no request outlives a failed read, so none is outstanding when the data source is closed
+                    mergedRangeLoaders.forEach(LazyBufferLoader::cancel);
+                }
+            }
+            else {
+                for (DiskRange mergedRange : mergedRanges) {
+                    // read full range in one request
+                    Slice buffer = readFully(mergedRange.getOffset(), mergedRange.getLength());
+                    buffers.put(mergedRange, buffer);
+                    wastedReadBytes.addAndGet(getWastedBytes(mergedRange, diskRanges.values()));
+                }
             }
 
             for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
@@ -175,6 +236,17 @@ public abstract class AbstractOrcDataSource
         return sliceStreams;
     }
 
+    private static long getWastedBytes(DiskRange mergedRange, Collection<DiskRange> diskRanges)
+    {
+        long wastedBytes = mergedRange.getLength();
+        for (DiskRange diskRange : diskRanges) {
+            if (mergedRange.contains(diskRange)) {
+                wastedBytes -= diskRange.getLength();
+            }
+        }
+        return max(wastedBytes, 0);
+    }
+
     private <K> Map<K, OrcDataReader> readLargeDiskRanges(Map<K, DiskRange> diskRanges)
     {
         if (diskRanges.isEmpty()) {
@@ -198,11 +270,40 @@ public abstract class AbstractOrcDataSource
     private final class LazyBufferLoader
     {
         private final DiskRange diskRange;
+        private final long wastedBytes;
         private Slice bufferSlice;
+        private CompletableFuture<Slice> prefetchedBuffer;
 
-        public LazyBufferLoader(DiskRange diskRange)
+        public LazyBufferLoader(DiskRange diskRange, long wastedBytes)
         {
             this.diskRange = requireNonNull(diskRange, "diskRange is null");
+            this.wastedBytes = wastedBytes;
+        }
+
+        public DiskRange getDiskRange()
+        {
+            return diskRange;
+        }
+
+        /**
+         * Starts reading the range on the read executor, if the data source reads ahead.
+         */
+        public void prefetch()
+        {
+            if (readExecutor.isPresent() && bufferSlice == null && prefetchedBuffer == null) {
+                prefetchedBuffer = supplyAsync(this::readBuffer, readExecutor.get());
+            }
+        }
+
+        /**
+         * Cancels the read started by {@link #prefetch}, unless it already completed.
+         */
+        public void cancel()
+        {
+            if (prefetchedBuffer != null) {
+                prefetchedBuffer.cancel(false);
+                prefetchedBuffer = null;
+            }
         }
 
         public Slice loadNestedDiskRangeBuffer(DiskRange nestedDiskRange)
@@ -219,8 +320,26 @@ public abstract class AbstractOrcDataSource
             if (bufferSlice != null) {
                 return;
             }
+            if (prefetchedBuffer == null) {
+                bufferSlice = readBuffer();
+                return;
+            }
+            try {
+                bufferSlice = prefetchedBuffer.join();
+            }
+            catch (CompletionException e) {
+                throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+            prefetchedBuffer = null;
+        }
+
+        private Slice readBuffer()
+        {
             try {
-                bufferSlice = readFully(diskRange.getOffset(), diskRange.getLength());
+                Slice buffer = readFully(diskRange.getOffset(), diskRange.getLength());
+                wastedReadBytes.addAndGet(wastedBytes);
+                return buffer;
             }
             catch (IOException e) {
                 throw new UncheckedIOException(e);
@@ -25,6 +25,10 @@ import static java.util.Objects.requireNonNull;
 
 public class OrcBlockFactory
 {
+    // decoding positions one by one costs more per value than decoding the whole batch,
+    // so the batch is read in full when more than this fraction of its positions is selected
+    private static final double MAX_SELECTED_POSITIONS_RATIO = 0.5;
+
     private final Function<Exception, RuntimeException> exceptionTransform;
     private final boolean nestedLazy;
     private int currentPageId;
@@ -42,25 +46,38 @@ public class OrcBlockFactory
 
     public Block createBlock(int positionCount, OrcBlockReader reader, boolean nested)
     {
-        return new LazyBlock(positionCount, new OrcBlockLoader(reader, nested && !nestedLazy));
+        return new LazyBlock(positionCount, new OrcBlockLoader(positionCount, reader, nested && !nestedLazy));
     }
 
     public interface OrcBlockReader
     {
         Block readBlock()
                 throws IOException;
+
+        default boolean isReadPositionsSupported()
+        {
+            return false;
+        }
+
+        default Block readBlock(int[] positions, int offset, int length)
+                throws IOException
+        {
+            throw new UnsupportedOperationException();
+        }
     }
 
     private final class OrcBlockLoader
             implements LazyBlockLoader
     {
         private final int expectedPageId = currentPageId;
+        private final int positionCount;
         private final OrcBlockReader blockReader;
         private final boolean loadFully;
         private boolean loaded;
 
-        public OrcBlockLoader(OrcBlockReader blockReader, boolean loadFully)
+        public OrcBlockLoader(int positionCount, OrcBlockReader blockReader, boolean loadFully)
         {
+            this.positionCount = positionCount;
             this.blockReader = requireNonNull(blockReader, "blockReader is null");
             this.loadFully = loadFully;
         }
@@ -83,5 +100,29 @@ public class OrcBlockFactory
                 throw exceptionTransform.apply(e);
             }
         }
+
+        @Override
+        public boolean isLoadPositionsSupported()
+        {
+            return !loadFully && blockReader.isReadPositionsSupported();
+        }
+
+        @Override
+        public Block loadPositions(int[] positions, int offset, int length)
+        {
+            checkState(!loaded, "Already loaded");
+            checkState(currentPageId == expectedPageId, "ORC reader has been advanced beyond block");
+
+            loaded = true;
+            try {
+                if (length > positionCount * MAX_SELECTED_POSITIONS_RATIO) {
+                    return blockReader.readBlock().getPositions(positions, offset, length);
+                }
+                return blockReader.readBlock(positions, offset, length);
+            }
+            catch (IOException | RuntimeException e) {
+                throw exceptionTransform.apply(e);
+            }
+        }
     }
 }
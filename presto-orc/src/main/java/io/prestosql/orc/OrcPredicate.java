@@ -22,6 +22,8 @@ public interface OrcPredicate
 
     /**
      * Should the ORC reader process a file section with the specified statistics.
+     * The reader re-evaluates the predicate before reading each stripe, so the result
+     * for a given section may change if the predicate is narrowed while reading.
      *
      * @param numberOfRows the number of rows in the segment; this can be used with
      * {@code ColumnStatistics} to determine if a column is only null
@@ -23,6 +23,7 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.orc.OrcBlockFactory.OrcBlockReader;
 import io.prestosql.orc.OrcWriteValidation.StatisticsValidation;
 import io.prestosql.orc.OrcWriteValidation.WriteChecksum;
 import io.prestosql.orc.OrcWriteValidation.WriteChecksumBuilder;
@@ -92,6 +93,8 @@ public class OrcRecordReader
     private int maxBatchSize = MAX_BATCH_SIZE;
 
     private final List<StripeInformation> stripes;
+    private final OrcPredicate predicate;
+    private final List<Optional<StripeStatistics>> stripeStatistics;
     private final StripeReader stripeReader;
     private int currentStripe = -1;
     private AggregatedMemoryContext currentStripeSystemMemoryContext;
@@ -186,6 +189,7 @@ public class OrcRecordReader
         long totalRowCount = 0;
         long fileRowCount = 0;
         ImmutableList.Builder<StripeInformation> stripes = ImmutableList.builder();
+        ImmutableList.Builder<Optional<StripeStatistics>> selectedStripeStatistics = ImmutableList.builder();
         ImmutableList.Builder<Long> stripeFilePositions = ImmutableList.builder();
         if (fileStats.isEmpty() || predicate.matches(numberOfRows, fileStats.get())) {
             // select stripes that start within the specified split
@@ -193,6 +197,7 @@ public class OrcRecordReader
                 StripeInformation stripe = info.getStripe();
                 if (splitContainsStripe(splitOffset, splitLength, stripe) && isStripeIncluded(stripe, info.getStats(), predicate)) {
                     stripes.add(stripe);
+                    selectedStripeStatistics.add(info.getStats());
                     stripeFilePositions.add(fileRowCount);
                     totalRowCount += stripe.getNumberOfRows();
                 }
@@ -201,7 +206,9 @@ public class OrcRecordReader
         }
         this.totalRowCount = totalRowCount;
         this.stripes = stripes.build();
+        this.stripeStatistics = selectedStripeStatistics.build();
         this.stripeFilePositions = stripeFilePositions.build();
+        this.predicate = predicate;
 
         orcDataSource = wrapWithCacheIfTinyStripes(orcDataSource, this.stripes, options.getMaxMergeDistance(), options.getTinyStripeThreshold());
         this.orcDataSource = orcDataSource;
@@ -400,7 +407,7 @@ public class OrcRecordReader
             int columnIndex = i;
             blocks[columnIndex] = blockFactory.createBlock(
                     currentBatchSize,
-                    columnReaders[columnIndex]::readBlock,
+                    new ColumnBlockReader(columnReaders[columnIndex]),
                     false);
             listenForLoads(blocks[columnIndex], block -> blockLoaded(columnIndex, block));
         }
@@ -502,6 +509,11 @@ public class OrcRecordReader
         StripeInformation stripeInformation = stripes.get(currentStripe);
         validateWriteStripe(stripeInformation.getNumberOfRows());
 
+        // the predicate may have been narrowed (e.g. by a dynamic filter) since the stripes were selected
+        if (!isStripeIncluded(stripeInformation, stripeStatistics.get(currentStripe), predicate)) {
+            return;
+        }
+
         Stripe stripe = stripeReader.readStripe(stripeInformation, currentStripeSystemMemoryContext);
         if (stripe != null) {
             // Give readers access to dictionary streams
@@ -666,4 +678,35 @@ public class OrcRecordReader
             return new LinearProbeRangeFinder(diskRanges);
         }
     }
+
+    private static class ColumnBlockReader
+            implements OrcBlockReader
+    {
+        private final ColumnReader columnReader;
+
+        public ColumnBlockReader(ColumnReader columnReader)
+        {
+            this.columnReader = requireNonNull(columnReader, "columnReader is null");
+        }
+
+        @Override
+        public Block readBlock()
+                throws IOException
+        {
+            return columnReader.readBlock();
+        }
+
+        @Override
+        public boolean isReadPositionsSupported()
+        {
+            return columnReader.isReadPositionsSupported();
+        }
+
+        @Override
+        public Block readBlock(int[] positions, int offset, int length)
+                throws IOException
+        {
+            return columnReader.readBlock(positions, offset, length);
+        }
+    }
 }
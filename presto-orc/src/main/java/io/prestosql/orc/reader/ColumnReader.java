@@ -26,6 +26,24 @@ public interface ColumnReader
     Block readBlock()
             throws IOException;
 
+    /**
+     * Returns true if the reader can read some positions of the next batch without decoding the others.
+     */
+    default boolean isReadPositionsSupported()
+    {
+        return false;
+    }
+
+    /**
+     * Reads the given increasing positions of the next batch, in a block holding only these positions,
+     * and skips the values of the other positions. The batch is not read again.
+     */
+    default Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(ZoneId fileTimeZone, InputStreamSources dictionaryStreamSources, ColumnMetadata<ColumnEncoding> encoding)
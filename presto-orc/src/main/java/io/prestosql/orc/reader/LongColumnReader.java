@@ -23,6 +23,7 @@ import io.prestosql.orc.stream.InputStreamSource;
 import io.prestosql.orc.stream.InputStreamSources;
 import io.prestosql.orc.stream.LongInputStream;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.IntArrayBlock;
 import io.prestosql.spi.block.LongArrayBlock;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
@@ -41,6 +42,7 @@ import java.time.ZoneId;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verifyNotNull;
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.orc.metadata.Stream.StreamKind.DATA;
@@ -108,17 +110,7 @@ public class LongColumnReader
         }
 
         if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                }
-                dataStream.skip(readOffset);
-            }
+            skipRows(readOffset);
         }
 
         Block block;
@@ -152,6 +144,66 @@ public class LongColumnReader
         return block;
     }
 
+    @Override
+    public boolean isReadPositionsSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        if (readOffset > 0) {
+            skipRows(readOffset);
+        }
+
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, length);
+        int nextPosition = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
+            checkArgument(position >= nextPosition && position < nextBatchSize, "Invalid position %s in batch of %s rows", position, nextBatchSize);
+            skipRows(position - nextPosition);
+            if (presentStream != null && !presentStream.nextBit()) {
+                blockBuilder.appendNull();
+            }
+            else {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                type.writeLong(blockBuilder, dataStream.next());
+            }
+            nextPosition = position + 1;
+        }
+
+        // the remaining rows of the batch are skipped with the next read
+        readOffset = nextBatchSize - nextPosition;
+        nextBatchSize = 0;
+
+        return blockBuilder.build();
+    }
+
+    private void skipRows(int rowCount)
+            throws IOException
+    {
+        int valueCount = rowCount;
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            valueCount = presentStream.countBitsSet(rowCount);
+        }
+        if (valueCount > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+            }
+            dataStream.skip(valueCount);
+        }
+    }
+
     private Block readNonNullBlock()
             throws IOException
     {
@@ -77,6 +77,19 @@ public class SliceColumnReader
         return currentReader.readBlock();
     }
 
+    @Override
+    public boolean isReadPositionsSupported()
+    {
+        return currentReader.isReadPositionsSupported();
+    }
+
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return currentReader.readBlock(positions, offset, length);
+    }
+
     @Override
     public void prepareNextRead(int batchSize)
     {
@@ -37,6 +37,7 @@ import java.time.ZoneId;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static io.airlift.slice.SizeOf.sizeOf;
@@ -120,17 +121,7 @@ public class SliceDictionaryColumnReader
         }
 
         if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the length reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                }
-                dataStream.skip(readOffset);
-            }
+            skipRows(readOffset);
         }
 
         Block block;
@@ -163,6 +154,67 @@ public class SliceDictionaryColumnReader
         return block;
     }
 
+    @Override
+    public boolean isReadPositionsSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        if (readOffset > 0) {
+            skipRows(readOffset);
+        }
+
+        int[] ids = new int[length];
+        int nextPosition = 0;
+        for (int i = 0; i < length; i++) {
+            int position = positions[offset + i];
+            checkArgument(position >= nextPosition && position < nextBatchSize, "Invalid position %s in batch of %s rows", position, nextBatchSize);
+            skipRows(position - nextPosition);
+            if (presentStream != null && !presentStream.nextBit()) {
+                // the last entry of the dictionary is null
+                ids[i] = dictionarySize;
+            }
+            else {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                ids[i] = toIntExact(dataStream.next());
+            }
+            nextPosition = position + 1;
+        }
+
+        // the remaining rows of the batch are skipped with the next read
+        readOffset = nextBatchSize - nextPosition;
+        nextBatchSize = 0;
+
+        return new DictionaryBlock(length, dictionaryBlock, ids);
+    }
+
+    private void skipRows(int rowCount)
+            throws IOException
+    {
+        int valueCount = rowCount;
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            valueCount = presentStream.countBitsSet(rowCount);
+        }
+        if (valueCount > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+            }
+            dataStream.skip(valueCount);
+        }
+    }
+
     private RunLengthEncodedBlock readAllNullsBlock()
     {
         return new RunLengthEncodedBlock(new VariableWidthBlock(1, EMPTY_SLICE, new int[2], Optional.of(new boolean[] {true})), nextBatchSize);
@@ -27,8 +27,10 @@ import io.prestosql.orc.stream.InputStreamSources;
 import io.prestosql.orc.stream.LongInputStream;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
 import io.prestosql.spi.block.VariableWidthBlock;
+import io.prestosql.spi.block.VariableWidthBlockBuilder;
 import org.openjdk.jol.info.ClassLayout;
 
 import javax.annotation.Nullable;
@@ -38,6 +40,7 @@ import java.time.ZoneId;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.slice.Slices.EMPTY_SLICE;
@@ -105,23 +108,7 @@ public class SliceDirectColumnReader
         }
 
         if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the length reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (lengthStream == null) {
-                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but length stream is missing");
-                }
-                long dataSkipSize = lengthStream.sum(readOffset);
-                if (dataSkipSize > 0) {
-                    if (dataStream == null) {
-                        throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                    }
-                    dataStream.skip(dataSkipSize);
-                }
-            }
+            skipRows(readOffset);
         }
 
         if (lengthStream == null) {
@@ -230,6 +217,83 @@ public class SliceDirectColumnReader
         return new VariableWidthBlock(currentBatchSize, slice, offsetVector, Optional.ofNullable(isNullVector));
     }
 
+    @Override
+    public boolean isReadPositionsSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        if (readOffset > 0) {
+            skipRows(readOffset);
+        }
+
+        BlockBuilder blockBuilder = new VariableWidthBlockBuilder(null, length, 0);
+        int nextPosition = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
+            checkArgument(position >= nextPosition && position < nextBatchSize, "Invalid position %s in batch of %s rows", position, nextBatchSize);
+            skipRows(position - nextPosition);
+            if (presentStream != null && !presentStream.nextBit()) {
+                blockBuilder.appendNull();
+            }
+            else {
+                if (lengthStream == null) {
+                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but length stream is missing");
+                }
+                int valueLength = toIntExact(lengthStream.next());
+                Slice value = EMPTY_SLICE;
+                if (valueLength > 0) {
+                    if (dataStream == null) {
+                        throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                    }
+                    value = Slices.wrappedBuffer(dataStream.next(valueLength));
+                }
+                if (maxCodePointCount >= 0) {
+                    valueLength = computeTruncatedLength(value, 0, valueLength, maxCodePointCount, isCharType);
+                }
+                blockBuilder.writeBytes(value, 0, valueLength).closeEntry();
+            }
+            nextPosition = position + 1;
+        }
+
+        // the remaining rows of the batch are skipped with the next read
+        readOffset = nextBatchSize - nextPosition;
+        nextBatchSize = 0;
+
+        return blockBuilder.build();
+    }
+
+    private void skipRows(int rowCount)
+            throws IOException
+    {
+        int valueCount = rowCount;
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the length reader
+            valueCount = presentStream.countBitsSet(rowCount);
+        }
+        if (valueCount > 0) {
+            if (lengthStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but length stream is missing");
+            }
+            long dataSkipSize = lengthStream.sum(valueCount);
+            if (dataSkipSize > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                dataStream.skip(dataSkipSize);
+            }
+        }
+    }
+
     private RunLengthEncodedBlock readAllNullsBlock()
     {
         return new RunLengthEncodedBlock(new VariableWidthBlock(1, EMPTY_SLICE, new int[2], Optional.of(new boolean[] {true})), nextBatchSize);
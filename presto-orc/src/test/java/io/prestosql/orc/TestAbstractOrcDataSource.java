@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.stream.OrcDataReader;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+
+public class TestAbstractOrcDataSource
+{
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadRanges()
+            throws IOException
+    {
+        for (boolean lazyReadSmallRanges : new boolean[] {true, false}) {
+            OrcReaderOptions options = new OrcReaderOptions()
+                    .withMaxMergeDistance(DataSize.of(100, BYTE))
+                    .withLazyReadSmallRanges(lazyReadSmallRanges);
+            assertReadRanges(new InMemoryOrcDataSource(options, Optional.empty()));
+            assertReadRanges(new InMemoryOrcDataSource(options, Optional.of(executor)));
+        }
+    }
+
+    @Test
+    public void testLazyReadsNotReadAhead()
+            throws IOException
+    {
+        OrcReaderOptions options = new OrcReaderOptions()
+                .withMaxMergeDistance(DataSize.of(100, BYTE))
+                .withLazyReadSmallRanges(true);
+        InMemoryOrcDataSource dataSource = new InMemoryOrcDataSource(options, Optional.of(executor));
+        Map<String, OrcDataReader> readers = dataSource.readFully(ImmutableMap.of(
+                "a", new DiskRange(0, 10),
+                "c", new DiskRange(500, 50)));
+        assertEquals(dataSource.getReadRequests(), 0);
+
+        // only the range of the stream which is used is read
+        readers.get("c").seekBuffer(0);
+        assertEquals(dataSource.getReadRequests(), 1);
+        assertEquals(dataSource.getReadBytes(), 50);
+    }
+
+    @Test
+    public void testFailedReadCancelsReadAhead()
+    {
+        // the first request runs immediately and fails, the others are queued until the read fails
+        List<Runnable> queuedRequests = new ArrayList<>();
+        Executor readExecutor = command -> {
+            if (queuedRequests.isEmpty()) {
+                queuedRequests.add(() -> {});
+                command.run();
+            }
+            else {
+                queuedRequests.add(command);
+            }
+        };
+        OrcReaderOptions options = new OrcReaderOptions()
+                .withMaxMergeDistance(DataSize.of(100, BYTE))
+                .withLazyReadSmallRanges(false);
+        InMemoryOrcDataSource dataSource = new InMemoryOrcDataSource(options, Optional.of(readExecutor))
+        {
+            @Override
+            protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            {
+                if (position == 0) {
+                    throw new UncheckedIOException(new IOException("read failed"));
+                }
+                super.readInternal(position, buffer, bufferOffset, bufferLength);
+            }
+        };
+
+        assertThatThrownBy(() -> dataSource.readFully(ImmutableMap.of(
+                "a", new DiskRange(0, 10),
+                "c", new DiskRange(500, 50))))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("read failed");
+
+        // the queued request was cancelled, so it does not read once it runs
+        queuedRequests.forEach(Runnable::run);
+        assertEquals(queuedRequests.size(), 2);
+        assertEquals(dataSource.getReadRequests(), 0);
+    }
+
+    private static void assertReadRanges(InMemoryOrcDataSource dataSource)
+            throws IOException
+    {
+        Map<String, DiskRange> diskRanges = ImmutableMap.of(
+                "a", new DiskRange(0, 10),
+                "b", new DiskRange(30, 20),
+                "c", new DiskRange(500, 50));
+        Map<String, OrcDataReader> readers = dataSource.readFully(diskRanges);
+
+        for (Map.Entry<String, DiskRange> entry : diskRanges.entrySet()) {
+            DiskRange diskRange = entry.getValue();
+            assertEquals(
+                    readers.get(entry.getKey()).seekBuffer(0),
+                    Slices.wrappedBuffer(dataSource.data, toIntExact(diskRange.getOffset()), diskRange.getLength()));
+        }
+
+        // a and b are merged into a single request
+        assertEquals(dataSource.getReadRequests(), 2);
+        assertEquals(dataSource.getReadBytes(), 100);
+        assertEquals(dataSource.getWastedReadBytes(), 20);
+    }
+
+    private static class InMemoryOrcDataSource
+            extends AbstractOrcDataSource
+    {
+        private final byte[] data = new byte[1000];
+
+        public InMemoryOrcDataSource(OrcReaderOptions options, Optional<Executor> readExecutor)
+        {
+            super(new OrcDataSourceId("memory"), 1000, options, readExecutor);
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+        }
+
+        @Override
+        protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            System.arraycopy(data, toIntExact(position), buffer, bufferOffset, bufferLength);
+        }
+    }
+}
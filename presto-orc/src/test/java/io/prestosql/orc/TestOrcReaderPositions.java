@@ -22,6 +22,8 @@ import io.prestosql.orc.metadata.OrcColumnId;
 import io.prestosql.orc.metadata.statistics.IntegerStatistics;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.type.Type;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
@@ -41,7 +43,13 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
 
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
@@ -51,11 +59,13 @@ import static io.prestosql.orc.OrcTester.READER_OPTIONS;
 import static io.prestosql.orc.OrcTester.createCustomOrcRecordReader;
 import static io.prestosql.orc.OrcTester.createOrcRecordWriter;
 import static io.prestosql.orc.OrcTester.createSettableStructObjectInspector;
+import static io.prestosql.orc.OrcTester.writeOrcColumnPresto;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.hive.ql.io.orc.CompressionKind.SNAPPY;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -91,6 +101,61 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testLoadPositions()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            createSequentialFile(tempFile.getFile(), 5000);
+
+            try (OrcRecordReader reader = createCustomOrcRecordReader(tempFile, OrcPredicate.TRUE, BIGINT, INITIAL_BATCH_SIZE)) {
+                int rowCount = 0;
+                for (Page page = reader.nextPage(); page != null; page = reader.nextPage()) {
+                    long filePosition = reader.getFilePosition();
+                    // every seventh position, so the rows in between and at the end of the batch are skipped
+                    int[] positions = new int[(page.getPositionCount() + 6) / 7];
+                    for (int i = 0; i < positions.length; i++) {
+                        positions[i] = i * 7;
+                    }
+
+                    LazyBlock lazyBlock = (LazyBlock) page.getBlock(0);
+                    Optional<Block> block = lazyBlock.loadPositions(positions, 0, positions.length);
+                    assertEquals(block.isPresent(), positions.length < page.getPositionCount());
+                    Block values = block.orElseGet(lazyBlock::getLoadedBlock);
+                    for (int i = 0; i < positions.length; i++) {
+                        int position = block.isPresent() ? i : positions[i];
+                        assertEquals(BIGINT.getLong(values, position), filePosition + positions[i]);
+                    }
+                    rowCount += page.getPositionCount();
+                }
+                assertEquals(rowCount, 5000);
+            }
+        }
+    }
+
+    @Test
+    public void testLoadPositionsLong()
+            throws Exception
+    {
+        assertLoadPositions(BIGINT, row -> (long) row);
+    }
+
+    @Test
+    public void testLoadPositionsSliceDirect()
+            throws Exception
+    {
+        // distinct values are written with the direct encoding
+        assertLoadPositions(VARCHAR, row -> "value " + row);
+    }
+
+    @Test
+    public void testLoadPositionsSliceDictionary()
+            throws Exception
+    {
+        // repeated values are written with the dictionary encoding
+        assertLoadPositions(VARCHAR, row -> "value " + (row % 10));
+    }
+
     @Test
     public void testStripeSkipping()
             throws Exception
@@ -136,6 +201,47 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testStripeSkippingWithNarrowedPredicate()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            createMultiStripeFile(tempFile.getFile());
+
+            // after the first stripe is read, only the fourth stripe matches the predicate
+            AtomicBoolean narrowed = new AtomicBoolean();
+            OrcPredicate predicate = (numberOfRows, allColumnStatistics) -> {
+                if (!narrowed.get() || numberOfRows == 100) {
+                    return true;
+                }
+                IntegerStatistics stats = allColumnStatistics.get(new OrcColumnId(1)).getIntegerStatistics();
+                return (stats.getMin() == 180) && (stats.getMax() == 237);
+            };
+
+            try (OrcRecordReader reader = createCustomOrcRecordReader(tempFile, predicate, BIGINT, MAX_BATCH_SIZE)) {
+                assertEquals(reader.getReaderRowCount(), 100);
+
+                // first stripe
+                Page page = reader.nextPage().getLoadedPage();
+                assertEquals(page.getPositionCount(), 20);
+                assertCurrentBatch(page, 0);
+
+                narrowed.set(true);
+
+                // fourth stripe
+                page = reader.nextPage().getLoadedPage();
+                assertEquals(page.getPositionCount(), 20);
+                assertEquals(reader.getReaderPosition(), 60);
+                assertEquals(reader.getFilePosition(), 60);
+                assertCurrentBatch(page, 3);
+
+                assertNull(reader.nextPage());
+                assertEquals(reader.getReaderPosition(), 100);
+                assertEquals(reader.getFilePosition(), 100);
+            }
+        }
+    }
+
     @Test
     public void testRowGroupSkipping()
             throws Exception
@@ -368,6 +474,87 @@ public class TestOrcReaderPositions
         }
     }
 
+    private static void assertLoadPositions(Type type, IntFunction<Object> value)
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            // three row groups, with nulls in the first and the last, and only nulls in the second
+            List<Object> values = new ArrayList<>();
+            for (int row = 0; row < 25_000; row++) {
+                values.add(row % 5 == 0 || (row >= 10_000 && row < 20_000) ? null : value.apply(row));
+            }
+            writeOrcColumnPresto(tempFile.getFile(), CompressionKind.NONE, type, values.iterator(), new OrcWriterStats());
+
+            // sparse selections, so that the positions are read by the column reader and the rows around them are skipped
+            assertLoadPositions(tempFile, type, (position, batchSize) -> position % 7 == 3 || position == batchSize - 1);
+            assertLoadPositions(tempFile, type, (position, batchSize) -> position == 0);
+            assertLoadPositions(tempFile, type, (position, batchSize) -> position == batchSize - 1);
+            assertLoadPositions(tempFile, type, (position, batchSize) -> position % 5 == 0);
+            // dense selections, so that the batches are read in full
+            assertLoadPositions(tempFile, type, (position, batchSize) -> position % 5 != 0);
+        }
+    }
+
+    private static void assertLoadPositions(TempFile tempFile, Type type, BiPredicate<Integer, Integer> isSelected)
+            throws IOException
+    {
+        try (OrcRecordReader fullReader = createCustomOrcRecordReader(tempFile, OrcPredicate.TRUE, type, INITIAL_BATCH_SIZE);
+                OrcRecordReader positionsReader = createCustomOrcRecordReader(tempFile, OrcPredicate.TRUE, type, INITIAL_BATCH_SIZE)) {
+            for (Page fullPage = fullReader.nextPage(); fullPage != null; fullPage = fullReader.nextPage()) {
+                Page positionsPage = positionsReader.nextPage();
+                int batchSize = fullPage.getPositionCount();
+                assertEquals(positionsPage.getPositionCount(), batchSize);
+
+                // the first entry is not a position, to cover the offset
+                int[] positions = new int[batchSize + 1];
+                int positionCount = 0;
+                for (int position = 0; position < batchSize; position++) {
+                    if (isSelected.test(position, batchSize)) {
+                        positions[1 + positionCount] = position;
+                        positionCount++;
+                    }
+                }
+                if (positionCount == 0 || positionCount == batchSize) {
+                    // all positions are read, or the batch is skipped
+                    continue;
+                }
+
+                Optional<Block> positionsBlock = ((LazyBlock) positionsPage.getBlock(0)).loadPositions(positions, 1, positionCount);
+                assertTrue(positionsBlock.isPresent());
+                assertEquals(
+                        readValues(type, positionsBlock.get()),
+                        readValues(type, fullPage.getBlock(0).getLoadedBlock().getPositions(positions, 1, positionCount)));
+
+                // the positions which are not selected are not read, so accessing them fails
+                Block loadedBlock = positionsPage.getBlock(0).getLoadedBlock();
+                int notSelectedPosition = 0;
+                while (isSelected.test(notSelectedPosition, batchSize)) {
+                    notSelectedPosition++;
+                }
+                int position = notSelectedPosition;
+                assertThatThrownBy(() -> loadedBlock.isNull(position)).isInstanceOf(IllegalArgumentException.class);
+            }
+            assertNull(positionsReader.nextPage());
+        }
+    }
+
+    private static List<Object> readValues(Type type, Block block)
+    {
+        List<Object> values = new ArrayList<>(block.getPositionCount());
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                values.add(null);
+            }
+            else if (type.getJavaType() == long.class) {
+                values.add(type.getLong(block, position));
+            }
+            else {
+                values.add(type.getSlice(block, position));
+            }
+        }
+        return values;
+    }
+
     private static void assertCurrentBatch(Page page, int rowIndex, int batchSize)
     {
         Block block = page.getBlock(0);
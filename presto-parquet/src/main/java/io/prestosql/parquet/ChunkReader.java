@@ -19,5 +19,11 @@ public interface ChunkReader
 {
     Slice read();
 
+    /**
+     * Starts reading the chunk in the background, so that a later {@link #read()} does not wait for it.
+     * Data sources which do not read ahead ignore this hint.
+     */
+    default void prefetch() {}
+
     void free();
 }
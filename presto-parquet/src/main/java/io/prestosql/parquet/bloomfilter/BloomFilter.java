@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.bloomfilter;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Split block Bloom filter of a column chunk, as specified by the Parquet format.
+ * The bitset is a sequence of 32 byte blocks, each holding eight 32 bit words. A value sets
+ * one bit in every word of the block selected by the upper half of its hash, so a lookup
+ * touches a single block. Values are hashed with xxHash64 of their plain encoding.
+ */
+public final class BloomFilter
+{
+    public static final int BYTES_PER_BLOCK = 32;
+    public static final int MINIMUM_BYTES = BYTES_PER_BLOCK;
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final Slice bitset;
+    private final int numBlocks;
+
+    public BloomFilter(int numBytes)
+    {
+        this(Slices.allocate(numBytes));
+    }
+
+    BloomFilter(Slice bitset)
+    {
+        this.bitset = requireNonNull(bitset, "bitset is null");
+        checkArgument(bitset.length() >= MINIMUM_BYTES && bitset.length() % BYTES_PER_BLOCK == 0, "Invalid Bloom filter size: %s", bitset.length());
+        this.numBlocks = bitset.length() / BYTES_PER_BLOCK;
+    }
+
+    /**
+     * Returns the size of a filter holding the distinct values with the false positive probability,
+     * rounded to a power of two and capped to the maximum size.
+     */
+    public static int optimalNumBytes(long distinctValues, double fpp, int maxBytes)
+    {
+        checkArgument(fpp > 0.0 && fpp < 1.0, "fpp must be between 0 and 1");
+        checkArgument(maxBytes >= MINIMUM_BYTES, "maxBytes must be at least %s", MINIMUM_BYTES);
+        double bits = -WORDS_PER_BLOCK * (double) distinctValues / log(1 - pow(fpp, 1.0 / WORDS_PER_BLOCK));
+        long numBytes = max(MINIMUM_BYTES, (long) ceil(bits / Byte.SIZE));
+        numBytes = Long.highestOneBit(numBytes) == numBytes ? numBytes : Long.highestOneBit(numBytes) << 1;
+        return (int) min(numBytes, Integer.highestOneBit(maxBytes));
+    }
+
+    public static long hash(long value)
+    {
+        return XxHash64.hash(value);
+    }
+
+    public static long hash(int value)
+    {
+        Slice slice = Slices.allocate(SIZE_OF_INT);
+        slice.setInt(0, value);
+        return XxHash64.hash(slice);
+    }
+
+    public static long hash(Slice value)
+    {
+        return XxHash64.hash(value);
+    }
+
+    public void insertHash(long hash)
+    {
+        int block = blockOffset(hash);
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            int offset = block + i * SIZE_OF_INT;
+            bitset.setInt(offset, bitset.getInt(offset) | mask(key, i));
+        }
+    }
+
+    public boolean mightContain(long hash)
+    {
+        int block = blockOffset(hash);
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            int mask = mask(key, i);
+            if ((bitset.getInt(block + i * SIZE_OF_INT) & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getSizeInBytes()
+    {
+        return bitset.length();
+    }
+
+    /**
+     * Returns the filter as stored in a Parquet file: the thrift encoded header followed by the bitset.
+     */
+    public Slice serialize()
+    {
+        SliceOutput output = new DynamicSliceOutput(BloomFilterHeader.MAX_SIZE + bitset.length());
+        BloomFilterHeader.write(bitset.length(), output);
+        output.writeBytes(bitset);
+        return output.slice();
+    }
+
+    private int blockOffset(long hash)
+    {
+        // multiply the upper half of the hash by the number of blocks, which is a fast alternative to modulo
+        return (int) (((hash >>> 32) * numBlocks) >>> 32) * BYTES_PER_BLOCK;
+    }
+
+    private static int mask(int key, int word)
+    {
+        return 1 << ((key * SALT[word]) >>> 27);
+    }
+}
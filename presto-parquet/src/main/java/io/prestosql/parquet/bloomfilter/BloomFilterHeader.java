@@ -0,0 +1,243 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.bloomfilter;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import java.util.OptionalInt;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * Thrift compact protocol codec of the BloomFilterHeader struct, which the format classes
+ * of the Parquet version used do not define:
+ * <pre>
+ * struct BloomFilterHeader {
+ *   1: required i32 numBytes;
+ *   2: required BloomFilterAlgorithm algorithm;     // union, 1: BLOCK
+ *   3: required BloomFilterHash hash;               // union, 1: XXHASH
+ *   4: required BloomFilterCompression compression; // union, 1: UNCOMPRESSED
+ * }
+ * </pre>
+ */
+final class BloomFilterHeader
+{
+    // field header, zigzag varint numBytes, three unions holding an empty struct, stop
+    static final int MAX_SIZE = 1 + 5 + 3 * 4 + 1;
+
+    private static final int TYPE_BOOLEAN_TRUE = 1;
+    private static final int TYPE_BOOLEAN_FALSE = 2;
+    private static final int TYPE_BYTE = 3;
+    private static final int TYPE_I16 = 4;
+    private static final int TYPE_I32 = 5;
+    private static final int TYPE_I64 = 6;
+    private static final int TYPE_DOUBLE = 7;
+    private static final int TYPE_BINARY = 8;
+    private static final int TYPE_LIST = 9;
+    private static final int TYPE_SET = 10;
+    private static final int TYPE_MAP = 11;
+    private static final int TYPE_STRUCT = 12;
+
+    private static final int NUM_BYTES_FIELD = 1;
+    private static final int ALGORITHM_FIELD = 2;
+    private static final int HASH_FIELD = 3;
+    private static final int COMPRESSION_FIELD = 4;
+
+    // the only algorithm, hash and compression defined by the format
+    private static final int BLOCK = 1;
+    private static final int XXHASH = 1;
+    private static final int UNCOMPRESSED = 1;
+
+    private BloomFilterHeader() {}
+
+    static void write(int numBytes, SliceOutput output)
+    {
+        output.writeByte(fieldHeader(1, TYPE_I32));
+        writeVarint((numBytes << 1) ^ (numBytes >> 31), output);
+        for (int field = ALGORITHM_FIELD; field <= COMPRESSION_FIELD; field++) {
+            // union holding its first field, an empty struct
+            output.writeByte(fieldHeader(1, TYPE_STRUCT));
+            output.writeByte(fieldHeader(1, TYPE_STRUCT));
+            output.writeByte(0);
+            output.writeByte(0);
+        }
+        output.writeByte(0);
+    }
+
+    /**
+     * Reads the header, leaving the input positioned at the bitset. Returns the size of the bitset,
+     * or empty if the filter uses an algorithm, hash or compression which is not supported.
+     */
+    static OptionalInt read(SliceInput input)
+    {
+        OptionalInt numBytes = OptionalInt.empty();
+        boolean supported = true;
+        int fieldId = 0;
+        while (true) {
+            int header = input.readUnsignedByte();
+            if (header == 0) {
+                break;
+            }
+            int type = header & 0x0F;
+            fieldId = readFieldId(header, fieldId, input);
+            if (fieldId == NUM_BYTES_FIELD && type == TYPE_I32) {
+                numBytes = OptionalInt.of(readZigzagInt(input));
+            }
+            else if (fieldId == ALGORITHM_FIELD && type == TYPE_STRUCT) {
+                supported &= readUnion(input) == BLOCK;
+            }
+            else if (fieldId == HASH_FIELD && type == TYPE_STRUCT) {
+                supported &= readUnion(input) == XXHASH;
+            }
+            else if (fieldId == COMPRESSION_FIELD && type == TYPE_STRUCT) {
+                supported &= readUnion(input) == UNCOMPRESSED;
+            }
+            else {
+                skip(type, input);
+            }
+        }
+        if (!supported) {
+            return OptionalInt.empty();
+        }
+        return numBytes;
+    }
+
+    // returns the id of the field set in the union
+    private static int readUnion(SliceInput input)
+    {
+        int setField = 0;
+        int fieldId = 0;
+        while (true) {
+            int header = input.readUnsignedByte();
+            if (header == 0) {
+                return setField;
+            }
+            fieldId = readFieldId(header, fieldId, input);
+            setField = fieldId;
+            skip(header & 0x0F, input);
+        }
+    }
+
+    private static void skip(int type, SliceInput input)
+    {
+        switch (type) {
+            case TYPE_BOOLEAN_TRUE:
+            case TYPE_BOOLEAN_FALSE:
+                return;
+            case TYPE_BYTE:
+                input.skipBytes(1);
+                return;
+            case TYPE_I16:
+            case TYPE_I32:
+            case TYPE_I64:
+                readVarint(input);
+                return;
+            case TYPE_DOUBLE:
+                input.skipBytes(Double.BYTES);
+                return;
+            case TYPE_BINARY:
+                input.skipBytes(toIntExact(readVarint(input)));
+                return;
+            case TYPE_LIST:
+            case TYPE_SET: {
+                int header = input.readUnsignedByte();
+                long size = header >>> 4;
+                if (size == 15) {
+                    size = readVarint(input);
+                }
+                for (long i = 0; i < size; i++) {
+                    skipElement(header & 0x0F, input);
+                }
+                return;
+            }
+            case TYPE_MAP: {
+                long size = readVarint(input);
+                if (size > 0) {
+                    int types = input.readUnsignedByte();
+                    for (long i = 0; i < size; i++) {
+                        skipElement(types >>> 4, input);
+                        skipElement(types & 0x0F, input);
+                    }
+                }
+                return;
+            }
+            case TYPE_STRUCT: {
+                int fieldId = 0;
+                while (true) {
+                    int header = input.readUnsignedByte();
+                    if (header == 0) {
+                        return;
+                    }
+                    fieldId = readFieldId(header, fieldId, input);
+                    skip(header & 0x0F, input);
+                }
+            }
+            default:
+                throw new IllegalArgumentException("Unknown thrift type: " + type);
+        }
+    }
+
+    private static void skipElement(int type, SliceInput input)
+    {
+        // booleans of collections are stored as a byte
+        if (type == TYPE_BOOLEAN_TRUE || type == TYPE_BOOLEAN_FALSE) {
+            input.skipBytes(1);
+            return;
+        }
+        skip(type, input);
+    }
+
+    private static int readFieldId(int header, int previousFieldId, SliceInput input)
+    {
+        int delta = header >>> 4;
+        if (delta != 0) {
+            return previousFieldId + delta;
+        }
+        return readZigzagInt(input);
+    }
+
+    private static int readZigzagInt(SliceInput input)
+    {
+        int value = (int) readVarint(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(SliceInput input)
+    {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint");
+    }
+
+    private static void writeVarint(int value, SliceOutput output)
+    {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int fieldHeader(int delta, int type)
+    {
+        return (delta << 4) | type;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.bloomfilter;
+
+import io.airlift.slice.SliceInput;
+import io.prestosql.parquet.ParquetDataSource;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+public final class BloomFilterReader
+{
+    // headers written by other writers may hold more fields
+    private static final int HEADER_READ_SIZE = 64;
+    private static final int MAX_BLOOM_FILTER_BYTES = 128 * 1024 * 1024;
+
+    private BloomFilterReader() {}
+
+    /**
+     * Reads the Bloom filter stored at the offset. Returns empty if the filter is not supported,
+     * in which case the column chunk cannot be pruned with it.
+     */
+    public static Optional<BloomFilter> readBloomFilter(ParquetDataSource dataSource, long offset)
+    {
+        if (offset < 0 || offset >= dataSource.getSize()) {
+            return Optional.empty();
+        }
+        byte[] headerBuffer = new byte[toIntExact(min(HEADER_READ_SIZE, dataSource.getSize() - offset))];
+        dataSource.readFully(offset, headerBuffer);
+
+        SliceInput input = wrappedBuffer(headerBuffer).getInput();
+        OptionalInt numBytes;
+        try {
+            numBytes = BloomFilterHeader.read(input);
+        }
+        catch (RuntimeException e) {
+            // the header is malformed or larger than the bytes read
+            return Optional.empty();
+        }
+        if (numBytes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int size = numBytes.getAsInt();
+        long bitsetOffset = offset + input.position();
+        if (size < BloomFilter.MINIMUM_BYTES ||
+                size > MAX_BLOOM_FILTER_BYTES ||
+                size % BloomFilter.BYTES_PER_BLOCK != 0 ||
+                bitsetOffset + size > dataSource.getSize()) {
+            return Optional.empty();
+        }
+
+        byte[] bitset = new byte[size];
+        int buffered = toIntExact(min(size, headerBuffer.length - input.position()));
+        System.arraycopy(headerBuffer, toIntExact(input.position()), bitset, 0, buffered);
+        if (buffered < size) {
+            dataSource.readFully(bitsetOffset + buffered, bitset, buffered, size - buffered);
+        }
+        return Optional.of(new BloomFilter(wrappedBuffer(bitset)));
+    }
+}
@@ -15,6 +15,7 @@ package io.prestosql.parquet.predicate;
 
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.Statistics;
 
@@ -42,4 +43,13 @@ public interface Predicate
      * @param dictionary The single column dictionary
      */
     boolean matches(DictionaryDescriptor dictionary);
+
+    /**
+     * Should the Parquet Reader process a file section with the specified Bloom filter of a column.
+     * The filter can only prove that the column holds none of the values selected by the predicate.
+     *
+     * @param column the column of the Bloom filter
+     * @param bloomFilter The column chunk Bloom filter
+     */
+    boolean matches(ColumnDescriptor column, BloomFilter bloomFilter);
 }
@@ -24,6 +24,9 @@ import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.ParquetEncoding;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
+import io.prestosql.parquet.reader.ParquetBlockMetaData;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.DecimalType;
 import io.prestosql.spi.type.Type;
@@ -48,12 +51,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Verify.verify;
 import static io.airlift.slice.Slices.wrappedBuffer;
 import static io.prestosql.parquet.ParquetCompressionUtils.decompress;
 import static io.prestosql.parquet.ParquetTypeUtils.getParquetEncoding;
+import static io.prestosql.parquet.bloomfilter.BloomFilterReader.readBloomFilter;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.SmallintType.SMALLINT;
@@ -123,7 +128,7 @@ public final class PredicateUtils
         return new TupleDomainParquetPredicate(parquetTupleDomain, columnReferences.build(), timeZone);
     }
 
-    public static boolean predicateMatches(Predicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain, boolean failOnCorruptedParquetStatistics)
+    public static boolean predicateMatches(Predicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain, boolean failOnCorruptedParquetStatistics, boolean useBloomFilter)
             throws ParquetCorruptionException
     {
         Map<ColumnDescriptor, Statistics<?>> columnStatistics = getStatistics(block, descriptorsByPath);
@@ -131,10 +136,14 @@ public final class PredicateUtils
             return false;
         }
 
-        return dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
+        if (!dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+            return false;
+        }
+
+        return !useBloomFilter || bloomFilterPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
     }
 
-    private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
+    public static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
     {
         ImmutableMap.Builder<ColumnDescriptor, Statistics<?>> statistics = ImmutableMap.builder();
         for (ColumnChunkMetaData columnMetaData : blockMetadata.getColumns()) {
@@ -167,6 +176,28 @@ public final class PredicateUtils
         return true;
     }
 
+    private static boolean bloomFilterPredicatesMatch(Predicate parquetPredicate, BlockMetaData blockMetadata, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    {
+        // Bloom filter offsets are only read by MetadataReader
+        if (!(blockMetadata instanceof ParquetBlockMetaData)) {
+            return true;
+        }
+        for (ColumnChunkMetaData columnMetaData : blockMetadata.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor != null && isPointPredicate(descriptor, parquetTupleDomain)) {
+                OptionalLong offset = ((ParquetBlockMetaData) blockMetadata).getBloomFilterOffset(columnMetaData.getPath());
+                if (offset.isEmpty()) {
+                    continue;
+                }
+                Optional<BloomFilter> bloomFilter = readBloomFilter(dataSource, offset.getAsLong());
+                if (bloomFilter.isPresent() && !parquetPredicate.matches(descriptor, bloomFilter.get())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private static Optional<DictionaryPage> readDictionaryPage(byte[] data, CompressionCodecName codecName)
     {
         try {
@@ -195,6 +226,14 @@ public final class PredicateUtils
         return parquetTupleDomain.getDomains().get().containsKey(columnDescriptor);
     }
 
+    // Bloom filters can only eliminate a column chunk for a set of values, and not for null
+    private static boolean isPointPredicate(ColumnDescriptor columnDescriptor, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    {
+        verify(parquetTupleDomain.getDomains().isPresent(), "parquetTupleDomain is empty");
+        Domain domain = parquetTupleDomain.getDomains().get().get(columnDescriptor);
+        return domain != null && !domain.isNullAllowed() && domain.getValues().isDiscreteSet();
+    }
+
     @VisibleForTesting
     @SuppressWarnings("deprecation")
     static boolean isOnlyDictionaryEncodingPages(ColumnChunkMetaData columnMetaData)
@@ -22,6 +22,7 @@ import io.prestosql.parquet.DictionaryPage;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSourceId;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
 import io.prestosql.parquet.dictionary.Dictionary;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
@@ -46,6 +47,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
 
 import static io.prestosql.parquet.ParquetTimestampUtils.getTimestampMillis;
@@ -59,6 +61,7 @@ import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.RealType.REAL;
 import static io.prestosql.spi.type.SmallintType.SMALLINT;
 import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.Varchars.isVarcharType;
 import static java.lang.Float.floatToRawIntBits;
 import static java.lang.String.format;
@@ -126,6 +129,29 @@ public class TupleDomainParquetPredicate
         return effectivePredicateDomain == null || effectivePredicateMatches(effectivePredicateDomain, dictionary);
     }
 
+    @Override
+    public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+    {
+        requireNonNull(bloomFilter, "bloomFilter is null");
+        if (effectivePredicate.isNone()) {
+            return false;
+        }
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+        if (effectivePredicateDomain == null || effectivePredicateDomain.isNullAllowed() || !effectivePredicateDomain.getValues().isDiscreteSet()) {
+            return true;
+        }
+        for (Object value : effectivePredicateDomain.getValues().getDiscreteSet()) {
+            OptionalLong hash = getBloomFilterHash(effectivePredicateDomain.getType(), column.getPrimitiveType().getPrimitiveTypeName(), value);
+            if (hash.isEmpty() || bloomFilter.mightContain(hash.getAsLong())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static boolean effectivePredicateMatches(Domain effectivePredicateDomain, DictionaryDescriptor dictionary)
     {
         return effectivePredicateDomain.overlaps(getDomain(effectivePredicateDomain.getType(), dictionary));
@@ -288,6 +314,29 @@ public class TupleDomainParquetPredicate
         throw new IllegalArgumentException("Cannot convert statistics of type " + statistics.getClass().getName());
     }
 
+    /**
+     * Returns the Bloom filter hash of the plain encoding of the value, or empty if values of the type
+     * cannot be looked up in the Bloom filters of the column.
+     */
+    @VisibleForTesting
+    public static OptionalLong getBloomFilterHash(Type type, PrimitiveTypeName physicalType, Object value)
+    {
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE)) {
+            long longValue = (long) value;
+            if (physicalType == PrimitiveTypeName.INT64) {
+                return OptionalLong.of(BloomFilter.hash(longValue));
+            }
+            if (physicalType == PrimitiveTypeName.INT32 && longValue == (int) longValue) {
+                return OptionalLong.of(BloomFilter.hash((int) longValue));
+            }
+        }
+        if ((isVarcharType(type) || type.equals(VARBINARY)) && physicalType == PrimitiveTypeName.BINARY) {
+            return OptionalLong.of(BloomFilter.hash((Slice) value));
+        }
+        // not supported for floating point values, which have several encodings of zero and of NaN
+        return OptionalLong.empty();
+    }
+
     @VisibleForTesting
     public static Domain getDomain(Type type, DictionaryDescriptor dictionaryDescriptor)
     {
@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSource;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.format.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.apache.parquet.format.Util.readColumnIndex;
+import static org.apache.parquet.format.Util.readOffsetIndex;
+
+/**
+ * Selects the rows of a row group which may match a predicate, using the minimum and maximum values
+ * of each data page stored in the column indexes of the columns referenced by the predicate.
+ */
+final class ColumnIndexFilter
+{
+    private ColumnIndexFilter() {}
+
+    public static RowRanges calculateRowRanges(
+            Predicate predicate,
+            ParquetBlockMetaData block,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            ParquetDataSource dataSource,
+            Optional<String> fileCreatedBy,
+            boolean failOnCorruptedStatistics)
+            throws IOException
+    {
+        RowRanges rowRanges = RowRanges.all(block.getRowCount());
+
+        ImmutableList.Builder<RichColumnDescriptor> descriptors = ImmutableList.builder();
+        ImmutableList.Builder<PageIndexReference> references = ImmutableList.builder();
+        for (ColumnChunkMetaData column : block.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(column.getPath().toArray()));
+            // pages of repeated columns do not hold a row per value
+            if (descriptor == null || descriptor.getMaxRepetitionLevel() > 0) {
+                continue;
+            }
+            Optional<PageIndexReference> reference = block.getPageIndexReference(column.getPath());
+            if (reference.isPresent()) {
+                descriptors.add(descriptor);
+                references.add(reference.get());
+            }
+        }
+        List<PageIndexReference> pageIndexReferences = references.build();
+        if (pageIndexReferences.isEmpty()) {
+            return rowRanges;
+        }
+
+        // the indexes of the column chunks of a row group are next to each other, so each kind is read at once
+        IndexBuffer columnIndexes = readIndexes(dataSource, pageIndexReferences, true);
+        IndexBuffer offsetIndexes = readIndexes(dataSource, pageIndexReferences, false);
+        List<RichColumnDescriptor> columns = descriptors.build();
+        for (int i = 0; i < columns.size() && !rowRanges.isEmpty(); i++) {
+            PageIndexReference reference = pageIndexReferences.get(i);
+            ColumnIndex columnIndex = readColumnIndex(columnIndexes.getInput(reference.getColumnIndexOffset(), reference.getColumnIndexLength()));
+            OffsetIndex offsetIndex = readOffsetIndex(offsetIndexes.getInput(reference.getOffsetIndexOffset(), reference.getOffsetIndexLength()));
+            rowRanges = rowRanges.intersect(getMatchingRowRanges(
+                    predicate,
+                    columns.get(i),
+                    columnIndex,
+                    offsetIndex,
+                    block.getRowCount(),
+                    dataSource.getId(),
+                    fileCreatedBy,
+                    failOnCorruptedStatistics));
+        }
+        return rowRanges;
+    }
+
+    @VisibleForTesting
+    static RowRanges getMatchingRowRanges(
+            Predicate predicate,
+            RichColumnDescriptor column,
+            ColumnIndex columnIndex,
+            OffsetIndex offsetIndex,
+            long rowCount,
+            ParquetDataSourceId dataSourceId,
+            Optional<String> fileCreatedBy,
+            boolean failOnCorruptedStatistics)
+            throws ParquetCorruptionException
+    {
+        List<PageLocation> pageLocations = offsetIndex.getPage_locations();
+        int pageCount = pageLocations.size();
+        validateParquet(
+                columnIndex.getNull_pages().size() == pageCount,
+                "Column index of %s in %s has %s pages, but offset index has %s",
+                column,
+                dataSourceId,
+                columnIndex.getNull_pages().size(),
+                pageCount);
+
+        RowRanges.Builder rowRanges = RowRanges.builder();
+        for (int page = 0; page < pageCount; page++) {
+            long firstRow = pageLocations.get(page).getFirst_row_index();
+            long endRow = page + 1 < pageCount ? pageLocations.get(page + 1).getFirst_row_index() : rowCount;
+            if (firstRow >= endRow) {
+                continue;
+            }
+            Statistics statistics = new Statistics();
+            if (columnIndex.getNull_pages().get(page)) {
+                statistics.setNull_count(endRow - firstRow);
+            }
+            else {
+                statistics.setMin_value(copyOf(columnIndex.getMin_values().get(page)));
+                statistics.setMax_value(copyOf(columnIndex.getMax_values().get(page)));
+                if (columnIndex.isSetNull_counts()) {
+                    statistics.setNull_count(columnIndex.getNull_counts().get(page));
+                }
+            }
+            Map<ColumnDescriptor, org.apache.parquet.column.statistics.Statistics<?>> pageStatistics = ImmutableMap.of(
+                    column,
+                    MetadataReader.readStats(fileCreatedBy, Optional.of(statistics), column.getPrimitiveType()));
+            if (predicate.matches(endRow - firstRow, pageStatistics, dataSourceId, failOnCorruptedStatistics)) {
+                rowRanges.add(firstRow, endRow);
+            }
+        }
+        return rowRanges.build();
+    }
+
+    // statistics conversion uses the whole backing array of the values
+    private static ByteBuffer copyOf(ByteBuffer value)
+    {
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static IndexBuffer readIndexes(ParquetDataSource dataSource, List<PageIndexReference> references, boolean columnIndexes)
+    {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (PageIndexReference reference : references) {
+            long offset = columnIndexes ? reference.getColumnIndexOffset() : reference.getOffsetIndexOffset();
+            int length = columnIndexes ? reference.getColumnIndexLength() : reference.getOffsetIndexLength();
+            start = min(start, offset);
+            end = max(end, offset + length);
+        }
+        byte[] buffer = new byte[toIntExact(end - start)];
+        dataSource.readFully(start, buffer);
+        return new IndexBuffer(start, buffer);
+    }
+
+    private static class IndexBuffer
+    {
+        private final long offset;
+        private final byte[] buffer;
+
+        public IndexBuffer(long offset, byte[] buffer)
+        {
+            this.offset = offset;
+            this.buffer = buffer;
+        }
+
+        public InputStream getInput(long position, int length)
+        {
+            return new ByteArrayInputStream(buffer, toIntExact(position - offset), length);
+        }
+    }
+}
@@ -115,7 +115,7 @@ public final class MetadataReader
         List<RowGroup> rowGroups = fileMetaData.getRow_groups();
         if (rowGroups != null) {
             for (RowGroup rowGroup : rowGroups) {
-                BlockMetaData blockMetaData = new BlockMetaData();
+                ParquetBlockMetaData blockMetaData = new ParquetBlockMetaData();
                 blockMetaData.setRowCount(rowGroup.getNum_rows());
                 blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
                 List<ColumnChunk> columns = rowGroup.getColumns();
@@ -145,6 +145,16 @@ public final class MetadataReader
                             metaData.total_compressed_size,
                             metaData.total_uncompressed_size);
                     blockMetaData.addColumn(column);
+                    if (columnChunk.isSetColumn_index_offset() && columnChunk.isSetOffset_index_offset()) {
+                        blockMetaData.addPageIndexReference(columnPath, new PageIndexReference(
+                                columnChunk.getColumn_index_offset(),
+                                columnChunk.getColumn_index_length(),
+                                columnChunk.getOffset_index_offset(),
+                                columnChunk.getOffset_index_length()));
+                    }
+                    if (metaData.isSetBloom_filter_offset()) {
+                        blockMetaData.addBloomFilterOffset(columnPath, metaData.getBloom_filter_offset());
+                    }
                 }
                 blockMetaData.setPath(filePath);
                 blocks.add(blockMetaData);
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Location of the column index and of the offset index of a column chunk, which Parquet
+ * writers store outside of the footer since format version 2.4.
+ */
+public class PageIndexReference
+{
+    private final long columnIndexOffset;
+    private final int columnIndexLength;
+    private final long offsetIndexOffset;
+    private final int offsetIndexLength;
+
+    public PageIndexReference(long columnIndexOffset, int columnIndexLength, long offsetIndexOffset, int offsetIndexLength)
+    {
+        this.columnIndexOffset = columnIndexOffset;
+        this.columnIndexLength = columnIndexLength;
+        this.offsetIndexOffset = offsetIndexOffset;
+        this.offsetIndexLength = offsetIndexLength;
+    }
+
+    public long getColumnIndexOffset()
+    {
+        return columnIndexOffset;
+    }
+
+    public int getColumnIndexLength()
+    {
+        return columnIndexLength;
+    }
+
+    public long getOffsetIndexOffset()
+    {
+        return offsetIndexOffset;
+    }
+
+    public int getOffsetIndexLength()
+    {
+        return offsetIndexLength;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("columnIndexOffset", columnIndexOffset)
+                .add("columnIndexLength", columnIndexLength)
+                .add("offsetIndexOffset", offsetIndexOffset)
+                .add("offsetIndexLength", offsetIndexLength)
+                .toString();
+    }
+}
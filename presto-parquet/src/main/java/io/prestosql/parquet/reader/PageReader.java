@@ -49,6 +49,25 @@ class PageReader
         return valueCount;
     }
 
+    /**
+     * Returns the number of values of the next page, or 0 if all the pages have been read.
+     */
+    public int getNextPageValueCount()
+    {
+        if (compressedPages.isEmpty()) {
+            return 0;
+        }
+        return compressedPages.get(0).getValueCount();
+    }
+
+    /**
+     * Skips the next page without decompressing it.
+     */
+    public void skipNextPage()
+    {
+        compressedPages.remove(0);
+    }
+
     public DataPage readPage()
     {
         if (compressedPages.isEmpty()) {
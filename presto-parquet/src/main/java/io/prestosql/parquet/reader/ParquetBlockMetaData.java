@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row group metadata read by {@link MetadataReader}, with the page index references and Bloom filter offsets
+ * of its column chunks, which the {@link BlockMetaData} of the Parquet version used does not hold.
+ */
+public class ParquetBlockMetaData
+        extends BlockMetaData
+{
+    private final Map<ColumnPath, PageIndexReference> pageIndexReferences = new HashMap<>();
+    private final Map<ColumnPath, Long> bloomFilterOffsets = new HashMap<>();
+
+    void addPageIndexReference(ColumnPath path, PageIndexReference reference)
+    {
+        pageIndexReferences.put(requireNonNull(path, "path is null"), requireNonNull(reference, "reference is null"));
+    }
+
+    public Optional<PageIndexReference> getPageIndexReference(ColumnPath path)
+    {
+        return Optional.ofNullable(pageIndexReferences.get(path));
+    }
+
+    void addBloomFilterOffset(ColumnPath path, long offset)
+    {
+        bloomFilterOffsets.put(requireNonNull(path, "path is null"), offset);
+    }
+
+    public OptionalLong getBloomFilterOffset(ColumnPath path)
+    {
+        Long offset = bloomFilterOffsets.get(path);
+        if (offset == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(offset);
+    }
+}
@@ -13,6 +13,7 @@
  */
 package io.prestosql.parquet.reader;
 
+import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.parquet.ChunkKey;
@@ -25,6 +26,7 @@ import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.ParquetReaderOptions;
 import io.prestosql.parquet.PrimitiveField;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
 import io.prestosql.spi.block.ArrayBlock;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RowBlock;
@@ -56,6 +58,7 @@ import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
+import static io.prestosql.parquet.predicate.PredicateUtils.getStatistics;
 import static io.prestosql.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -75,10 +78,15 @@ public class ParquetReader
     private final ParquetDataSource dataSource;
     private final DateTimeZone timeZone;
     private final AggregatedMemoryContext systemMemoryContext;
+    private final Optional<Predicate> rowGroupPredicate;
+    private final Map<List<String>, RichColumnDescriptor> descriptorsByPath;
 
     private int currentRowGroup = -1;
+    private int prefetchedRowGroup = -1;
     private BlockMetaData currentBlockMetadata;
-    private long currentGroupRowCount;
+    // rows of the current row group which may match the predicate
+    private RowRanges currentRowRanges = RowRanges.all(0);
+    private int currentRange;
     private long nextRowInGroup;
     private int batchSize;
     private int nextBatchSize = INITIAL_BATCH_SIZE;
@@ -100,6 +108,26 @@ public class ParquetReader
             AggregatedMemoryContext systemMemoryContext,
             ParquetReaderOptions options)
             throws IOException
+    {
+        this(fileCreatedBy, messageColumnIO, blocks, dataSource, timeZone, systemMemoryContext, options, Optional.empty(), ImmutableMap.of());
+    }
+
+    /**
+     * @param rowGroupPredicate evaluated against the statistics of each row group just before it is read,
+     * which allows skipping row groups excluded by a predicate narrowed after the reader was created
+     * @param descriptorsByPath descriptors of the columns referenced by {@code rowGroupPredicate}
+     */
+    public ParquetReader(
+            Optional<String> fileCreatedBy,
+            MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            ParquetDataSource dataSource,
+            DateTimeZone timeZone,
+            AggregatedMemoryContext systemMemoryContext,
+            ParquetReaderOptions options,
+            Optional<Predicate> rowGroupPredicate,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath)
+            throws IOException
     {
         this.fileCreatedBy = requireNonNull(fileCreatedBy, "fileCreatedBy is null");
         this.columns = requireNonNull(messageColumnIO, "messageColumnIO is null").getLeaves();
@@ -109,6 +137,8 @@ public class ParquetReader
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         this.options = requireNonNull(options, "options is null");
+        this.rowGroupPredicate = requireNonNull(rowGroupPredicate, "rowGroupPredicate is null");
+        this.descriptorsByPath = ImmutableMap.copyOf(requireNonNull(descriptorsByPath, "descriptorsByPath is null"));
         this.columnReaders = new PrimitiveColumnReader[columns.size()];
         this.maxBytesPerCell = new long[columns.size()];
 
@@ -131,19 +161,23 @@ public class ParquetReader
             throws IOException
     {
         freeCurrentRowGroupBuffers();
+        if (prefetchedRowGroup > currentRowGroup) {
+            freeRowGroupBuffers(prefetchedRowGroup);
+        }
         currentRowGroupMemoryContext.close();
         dataSource.close();
     }
 
     public int nextBatch()
+            throws IOException
     {
-        if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
+        if (!advanceToNextRowRange()) {
             return -1;
         }
 
         batchSize = min(nextBatchSize, maxBatchSize);
         nextBatchSize = min(batchSize * BATCH_SIZE_GROWTH_FACTOR, MAX_VECTOR_LENGTH);
-        batchSize = toIntExact(min(batchSize, currentGroupRowCount - nextRowInGroup));
+        batchSize = toIntExact(min(batchSize, currentRowRanges.getEnd(currentRange) - nextRowInGroup));
 
         nextRowInGroup += batchSize;
         Arrays.stream(columnReaders)
@@ -151,32 +185,140 @@ public class ParquetReader
         return batchSize;
     }
 
+    /**
+     * Returns the file offset of the row group containing the current batch.
+     */
+    public long getCurrentRowGroupStartingPosition()
+    {
+        return currentBlockMetadata.getStartingPos();
+    }
+
+    /**
+     * Returns the position of the first row of the current batch within its row group.
+     */
+    public long getCurrentBatchPositionInRowGroup()
+    {
+        return nextRowInGroup - batchSize;
+    }
+
+    private boolean advanceToNextRowRange()
+            throws IOException
+    {
+        while (currentRange < currentRowRanges.getRangeCount() && nextRowInGroup >= currentRowRanges.getEnd(currentRange)) {
+            currentRange++;
+        }
+        if (currentRange == currentRowRanges.getRangeCount() && !advanceToNextRowGroup()) {
+            return false;
+        }
+
+        long rangeStart = currentRowRanges.getStart(currentRange);
+        if (nextRowInGroup < rangeStart) {
+            // the rows before the range cannot match the predicate
+            int skippedRows = toIntExact(rangeStart - nextRowInGroup);
+            for (PrimitiveColumnReader columnReader : columnReaders) {
+                columnReader.skipRows(skippedRows);
+            }
+            nextRowInGroup = rangeStart;
+        }
+        return true;
+    }
+
     private boolean advanceToNextRowGroup()
+            throws IOException
     {
         currentRowGroupMemoryContext.close();
         currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
 
         freeCurrentRowGroupBuffers();
         currentRowGroup++;
+        while (currentRowGroup < blocks.size()) {
+            BlockMetaData block = blocks.get(currentRowGroup);
+            if (rowGroupMatches(block)) {
+                currentRowRanges = getRowRanges(block);
+                if (!currentRowRanges.isEmpty()) {
+                    break;
+                }
+            }
+            freeCurrentRowGroupBuffers();
+            currentRowGroup++;
+        }
         if (currentRowGroup == blocks.size()) {
             return false;
         }
         currentBlockMetadata = blocks.get(currentRowGroup);
+        prefetchRowGroups();
 
         nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
+        currentRange = 0;
         initializeColumnReaders();
         return true;
     }
 
+    private boolean rowGroupMatches(BlockMetaData block)
+            throws ParquetCorruptionException
+    {
+        if (rowGroupPredicate.isEmpty()) {
+            return true;
+        }
+        return rowGroupPredicate.get().matches(
+                block.getRowCount(),
+                getStatistics(block, descriptorsByPath),
+                dataSource.getId(),
+                options.isFailOnCorruptedStatistics());
+    }
+
+    private RowRanges getRowRanges(BlockMetaData block)
+            throws IOException
+    {
+        if (rowGroupPredicate.isEmpty() || !options.isUseColumnIndex() || !(block instanceof ParquetBlockMetaData)) {
+            return RowRanges.all(block.getRowCount());
+        }
+        return ColumnIndexFilter.calculateRowRanges(
+                rowGroupPredicate.get(),
+                (ParquetBlockMetaData) block,
+                descriptorsByPath,
+                dataSource,
+                fileCreatedBy,
+                options.isFailOnCorruptedStatistics());
+    }
+
+    /**
+     * Starts reading the chunks of the current row group and of the next one, if it matches the predicate,
+     * so that the next row group is read while the current one is decoded.
+     */
+    private void prefetchRowGroups()
+            throws ParquetCorruptionException
+    {
+        prefetchRowGroup(currentRowGroup);
+        int nextRowGroup = currentRowGroup + 1;
+        if (nextRowGroup < blocks.size() && rowGroupMatches(blocks.get(nextRowGroup))) {
+            prefetchRowGroup(nextRowGroup);
+        }
+    }
+
+    private void prefetchRowGroup(int rowGroup)
+    {
+        for (int column = 0; column < columns.size(); column++) {
+            ChunkReader reader = chunkReaders.get(new ChunkKey(column, rowGroup));
+            if (reader != null) {
+                reader.prefetch();
+            }
+        }
+        prefetchedRowGroup = rowGroup;
+    }
+
     private void freeCurrentRowGroupBuffers()
     {
         if (currentRowGroup < 0) {
             return;
         }
+        freeRowGroupBuffers(currentRowGroup);
+    }
 
+    private void freeRowGroupBuffers(int rowGroup)
+    {
         for (int column = 0; column < columns.size(); column++) {
-            ChunkReader reader = chunkReaders.get(new ChunkKey(column, currentRowGroup));
+            ChunkReader reader = chunkReaders.get(new ChunkKey(column, rowGroup));
             if (reader != null) {
                 reader.free();
             }
@@ -242,6 +384,14 @@ public class ParquetReader
 
     private ColumnChunk readPrimitive(PrimitiveField field)
             throws IOException
+    {
+        ColumnChunk columnChunk = getColumnReader(field).readPrimitive(field);
+        updateMaxBytesPerCell(field.getId(), columnChunk.getBlock(), batchSize);
+        return columnChunk;
+    }
+
+    private PrimitiveColumnReader getColumnReader(PrimitiveField field)
+            throws IOException
     {
         ColumnDescriptor columnDescriptor = field.getDescriptor();
         int fieldId = field.getId();
@@ -259,17 +409,22 @@ public class ParquetReader
             ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data);
             columnReader.setPageReader(columnChunk.readAllPages());
         }
-        ColumnChunk columnChunk = columnReader.readPrimitive(field);
+        return columnReader;
+    }
 
+    private void updateMaxBytesPerCell(int fieldId, Block block, int positionCount)
+    {
+        if (positionCount == 0) {
+            return;
+        }
         // update max size per primitive column chunk
-        long bytesPerCell = columnChunk.getBlock().getSizeInBytes() / batchSize;
+        long bytesPerCell = block.getSizeInBytes() / positionCount;
         if (maxBytesPerCell[fieldId] < bytesPerCell) {
             // update batch size
             maxCombinedBytesPerRow = maxCombinedBytesPerRow - maxBytesPerCell[fieldId] + bytesPerCell;
             maxBatchSize = toIntExact(min(maxBatchSize, max(1, options.getMaxReadBlockSize().toBytes() / maxCombinedBytesPerRow)));
             maxBytesPerCell[fieldId] = bytesPerCell;
         }
-        return columnChunk;
     }
 
     private ColumnChunkMetaData getColumnChunkMetaData(BlockMetaData blockMetaData, ColumnDescriptor columnDescriptor)
@@ -297,6 +452,29 @@ public class ParquetReader
         return readColumnChunk(field).getBlock();
     }
 
+    /**
+     * Returns true if the field is a column whose rows are single values, so that
+     * the values of some positions of the batch can be read without the others.
+     */
+    public static boolean canReadPositions(Field field)
+    {
+        return field instanceof PrimitiveField && ((PrimitiveField) field).getDescriptor().getMaxRepetitionLevel() == 0;
+    }
+
+    /**
+     * Reads the given increasing positions of the batch, skipping the values of the other positions.
+     * The field is not read again in the batch.
+     */
+    public Block readBlock(Field field, int[] positions, int offset, int length)
+            throws IOException
+    {
+        checkArgument(canReadPositions(field), "Cannot read positions of field: %s", field);
+        PrimitiveField primitiveField = (PrimitiveField) field;
+        Block block = getColumnReader(primitiveField).readPrimitive(primitiveField, positions, offset, length).getBlock();
+        updateMaxBytesPerCell(primitiveField.getId(), block, length);
+        return block;
+    }
+
     private ColumnChunk readColumnChunk(Field field)
             throws IOException
     {
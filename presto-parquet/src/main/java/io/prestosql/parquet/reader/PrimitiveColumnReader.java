@@ -52,6 +52,8 @@ import static java.util.Objects.requireNonNull;
 public abstract class PrimitiveColumnReader
 {
     private static final int EMPTY_LEVEL_VALUE = -1;
+    // positions are read one value at a time, so denser selections are read in bulk and then selected
+    private static final double MAX_SELECTED_POSITIONS_RATIO = 0.5;
     protected final RichColumnDescriptor columnDescriptor;
 
     protected int definitionLevel = EMPTY_LEVEL_VALUE;
@@ -149,6 +151,15 @@ public abstract class PrimitiveColumnReader
         nextBatchSize = batchSize;
     }
 
+    /**
+     * Skips rows before the next batch, e.g. rows excluded by the column indexes of the row group.
+     */
+    public void skipRows(int rowCount)
+    {
+        checkArgument(rowCount >= 0, "rowCount is negative");
+        readOffset = readOffset + rowCount;
+    }
+
     public ColumnChunk readPrimitive(Field field)
     {
         IntList definitionLevels = new IntArrayList();
@@ -171,6 +182,50 @@ public abstract class PrimitiveColumnReader
         return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
 
+    /**
+     * Reads the values of the given increasing positions of the batch, skipping the values of the other
+     * positions rather than decoding them, unless most positions are selected. Only supported by flat
+     * columns, whose rows are single values.
+     */
+    public ColumnChunk readPrimitive(Field field, int[] positions, int offset, int length)
+    {
+        checkArgument(isFlat(), "Positions can only be read from flat columns");
+        if (length > nextBatchSize * MAX_SELECTED_POSITIONS_RATIO) {
+            return selectPositions(readPrimitive(field), positions, offset, length);
+        }
+        IntList definitionLevels = new IntArrayList();
+        IntList repetitionLevels = new IntArrayList();
+        seek();
+        BlockBuilder blockBuilder = field.getType().createBlockBuilder(null, length);
+        int nextPosition = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int position = positions[i];
+            checkArgument(position >= nextPosition && position < nextBatchSize, "Invalid position %s in batch of %s values", position, nextBatchSize);
+            skip(position - nextPosition);
+            if (page == null) {
+                readNextPage();
+            }
+            readValues(blockBuilder, 1, field.getType(), definitionLevels, repetitionLevels);
+            nextPosition = position + 1;
+        }
+
+        // the remaining values of the batch are skipped with the next read
+        readOffset = nextBatchSize - nextPosition;
+        nextBatchSize = 0;
+        return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
+    }
+
+    private static ColumnChunk selectPositions(ColumnChunk columnChunk, int[] positions, int offset, int length)
+    {
+        int[] definitionLevels = new int[length];
+        int[] repetitionLevels = new int[length];
+        for (int i = 0; i < length; i++) {
+            definitionLevels[i] = columnChunk.getDefinitionLevels()[positions[offset + i]];
+            repetitionLevels[i] = columnChunk.getRepetitionLevels()[positions[offset + i]];
+        }
+        return new ColumnChunk(columnChunk.getBlock().getPositions(positions, offset, length), definitionLevels, repetitionLevels);
+    }
+
     private void readValues(BlockBuilder blockBuilder, int valuesToRead, Type type, IntList definitionLevels, IntList repetitionLevels)
     {
         processValues(valuesToRead, () -> {
@@ -198,6 +253,12 @@ public abstract class PrimitiveColumnReader
                 valueCount++;
                 if (valueCount == remainingValueCountInPage) {
                     updateValueCounts(valueCount);
+                    if (isFlat()) {
+                        // rows do not span pages, so the next page is only read if needed, which allows skipping it
+                        definitionLevel = EMPTY_LEVEL_VALUE;
+                        repetitionLevel = EMPTY_LEVEL_VALUE;
+                        return;
+                    }
                     if (!readNextPage()) {
                         return;
                     }
@@ -214,19 +275,38 @@ public abstract class PrimitiveColumnReader
     private void seek()
     {
         checkArgument(currentValueCount <= totalValueCount, "Already read all values in column chunk");
-        if (readOffset == 0) {
-            return;
-        }
+        skip(readOffset);
+        readOffset = 0;
+    }
+
+    private void skip(int rowCount)
+    {
         int valuePosition = 0;
-        while (valuePosition < readOffset) {
+        while (valuePosition < rowCount) {
             if (page == null) {
+                int pageValueCount = pageReader.getNextPageValueCount();
+                if (isFlat() && pageValueCount > 0 && pageValueCount <= rowCount - valuePosition) {
+                    // all the rows of the page are skipped
+                    pageReader.skipNextPage();
+                    valuePosition += pageValueCount;
+                    currentValueCount += pageValueCount;
+                    continue;
+                }
                 readNextPage();
             }
-            int offset = Math.min(remainingValueCountInPage, readOffset - valuePosition);
+            int offset = Math.min(remainingValueCountInPage, rowCount - valuePosition);
             skipValues(offset);
             valuePosition = valuePosition + offset;
         }
-        checkArgument(valuePosition == readOffset, "valuePosition %s must be equal to readOffset %s", valuePosition, readOffset);
+        checkArgument(valuePosition == rowCount, "valuePosition %s must be equal to rowCount %s", valuePosition, rowCount);
+    }
+
+    /**
+     * Whether each value of the column is a row
+     */
+    private boolean isFlat()
+    {
+        return columnDescriptor.getMaxRepetitionLevel() == 0;
     }
 
     private boolean readNextPage()
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Sorted and disjoint ranges of the rows of a row group. The end of each range is exclusive.
+ */
+final class RowRanges
+{
+    private final long[] starts;
+    private final long[] ends;
+
+    private RowRanges(long[] starts, long[] ends)
+    {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static RowRanges all(long rowCount)
+    {
+        checkArgument(rowCount >= 0, "rowCount is negative");
+        if (rowCount == 0) {
+            return new RowRanges(new long[0], new long[0]);
+        }
+        return new RowRanges(new long[] {0}, new long[] {rowCount});
+    }
+
+    public int getRangeCount()
+    {
+        return starts.length;
+    }
+
+    public long getStart(int range)
+    {
+        checkElementIndex(range, starts.length);
+        return starts[range];
+    }
+
+    public long getEnd(int range)
+    {
+        checkElementIndex(range, ends.length);
+        return ends[range];
+    }
+
+    public boolean isEmpty()
+    {
+        return starts.length == 0;
+    }
+
+    public long getRowCount()
+    {
+        long rowCount = 0;
+        for (int range = 0; range < starts.length; range++) {
+            rowCount += ends[range] - starts[range];
+        }
+        return rowCount;
+    }
+
+    public RowRanges intersect(RowRanges other)
+    {
+        Builder builder = new Builder();
+        int left = 0;
+        int right = 0;
+        while (left < starts.length && right < other.starts.length) {
+            long start = max(starts[left], other.starts[right]);
+            long end = min(ends[left], other.ends[right]);
+            if (start < end) {
+                builder.add(start, end);
+            }
+            if (ends[left] < other.ends[right]) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private final LongArrayList starts = new LongArrayList();
+        private final LongArrayList ends = new LongArrayList();
+
+        private Builder() {}
+
+        /**
+         * Adds a range after the ranges already added, merging adjacent ranges.
+         */
+        public Builder add(long start, long end)
+        {
+            checkArgument(start < end, "range is empty: [%s, %s)", start, end);
+            int last = ends.size() - 1;
+            checkArgument(last < 0 || ends.getLong(last) <= start, "ranges must be added in order");
+            if (last >= 0 && ends.getLong(last) == start) {
+                ends.set(last, end);
+            }
+            else {
+                starts.add(start);
+                ends.add(end);
+            }
+            return this;
+        }
+
+        public RowRanges build()
+        {
+            return new RowRanges(starts.toLongArray(), ends.toLongArray());
+        }
+    }
+}
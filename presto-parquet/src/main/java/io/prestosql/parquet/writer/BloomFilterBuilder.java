@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.prestosql.parquet.bloomfilter.BloomFilter;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Optional;
+
+import static io.airlift.slice.SizeOf.sizeOfLongArray;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
+import static io.prestosql.spi.type.Varchars.isVarcharType;
+import static it.unimi.dsi.fastutil.Hash.DEFAULT_LOAD_FACTOR;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static java.lang.Math.log;
+import static java.lang.Math.pow;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the hashes of the distinct values of a column chunk, so that its Bloom filter is sized
+ * for the values of the row group. The filter is not written when the column chunk holds more
+ * distinct values than the largest filter can hold with the false positive probability.
+ */
+class BloomFilterBuilder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilterBuilder.class).instanceSize();
+    private static final int MAX_BLOOM_FILTER_BYTES = 1024 * 1024;
+
+    private final Type type;
+    private final PrimitiveTypeName physicalType;
+    private final double fpp;
+    private final long maxDistinctValues;
+
+    private LongOpenHashSet hashes = new LongOpenHashSet();
+    private boolean overflow;
+
+    public BloomFilterBuilder(Type type, PrimitiveTypeName physicalType, double fpp)
+    {
+        this.type = requireNonNull(type, "type is null");
+        this.physicalType = requireNonNull(physicalType, "physicalType is null");
+        this.fpp = fpp;
+        // inverse of BloomFilter.optimalNumBytes
+        this.maxDistinctValues = (long) (MAX_BLOOM_FILTER_BYTES * -log(1 - pow(fpp, 1.0 / 8)));
+    }
+
+    public static boolean isSupported(Type type, PrimitiveTypeName physicalType)
+    {
+        if (type.equals(BIGINT)) {
+            return physicalType == PrimitiveTypeName.INT64;
+        }
+        if (type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE)) {
+            return physicalType == PrimitiveTypeName.INT32;
+        }
+        if (isVarcharType(type) || type.equals(VARBINARY)) {
+            return physicalType == PrimitiveTypeName.BINARY;
+        }
+        return false;
+    }
+
+    public void add(Block block)
+    {
+        if (overflow) {
+            return;
+        }
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (!block.isNull(position)) {
+                hashes.add(hash(block, position));
+            }
+        }
+        if (hashes.size() > maxDistinctValues) {
+            overflow = true;
+            hashes = new LongOpenHashSet();
+        }
+    }
+
+    public Optional<BloomFilter> build()
+    {
+        if (overflow || hashes.isEmpty()) {
+            return Optional.empty();
+        }
+        BloomFilter bloomFilter = new BloomFilter(BloomFilter.optimalNumBytes(hashes.size(), fpp, MAX_BLOOM_FILTER_BYTES));
+        LongIterator iterator = hashes.iterator();
+        while (iterator.hasNext()) {
+            bloomFilter.insertHash(iterator.nextLong());
+        }
+        return Optional.of(bloomFilter);
+    }
+
+    public long getRetainedBytes()
+    {
+        return INSTANCE_SIZE + sizeOfLongArray(arraySize(hashes.size(), DEFAULT_LOAD_FACTOR));
+    }
+
+    public void reset()
+    {
+        hashes = new LongOpenHashSet();
+        overflow = false;
+    }
+
+    private long hash(Block block, int position)
+    {
+        switch (physicalType) {
+            case INT32:
+                return BloomFilter.hash((int) type.getLong(block, position));
+            case INT64:
+                return BloomFilter.hash(type.getLong(block, position));
+            case BINARY:
+                return BloomFilter.hash(type.getSlice(block, position));
+            default:
+                throw new IllegalStateException("Unsupported physical type: " + physicalType);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
 import io.prestosql.parquet.writer.ColumnWriter.BufferData;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
@@ -36,6 +37,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -93,7 +95,7 @@ public class ParquetWriter
                 .withPageSize(writerOption.getMaxPageSize())
                 .build();
 
-        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName);
+        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName, writerOption);
 
         this.chunkMaxLogicalBytes = max(1, CHUNK_MAX_BYTES / 2);
     }
@@ -211,13 +213,31 @@ public class ParquetWriter
         List<ColumnMetaData> metadatas = bufferDataList.stream()
                 .map(BufferData::getMetaData)
                 .collect(toImmutableList());
-        updateRowGroups(updateColumnMetadataOffset(metadatas, stripeStartOffset));
+        List<ColumnMetaData> columnMetaData = updateColumnMetadataOffset(metadatas, stripeStartOffset);
+
+        // Bloom filters follow the pages of the row group
+        List<Optional<Slice>> bloomFilters = bufferDataList.stream()
+                .map(bufferData -> bufferData.getBloomFilter().map(BloomFilter::serialize))
+                .collect(toImmutableList());
+        long bloomFilterOffset = stripeStartOffset + metadatas.stream().mapToLong(ColumnMetaData::getTotal_compressed_size).sum();
+        for (int i = 0; i < bloomFilters.size(); i++) {
+            if (bloomFilters.get(i).isPresent()) {
+                columnMetaData.get(i).setBloom_filter_offset(bloomFilterOffset);
+                bloomFilterOffset += bloomFilters.get(i).get().length();
+            }
+        }
+        updateRowGroups(columnMetaData);
 
         // flush pages
         bufferDataList.stream()
                 .map(BufferData::getData)
                 .flatMap(List::stream)
                 .forEach(data -> data.writeData(outputStream));
+
+        // flush Bloom filters
+        bloomFilters.stream()
+                .flatMap(Optional::stream)
+                .forEach(bloomFilter -> createDataOutput(bloomFilter).writeData(outputStream));
     }
 
     private void writeFooter()
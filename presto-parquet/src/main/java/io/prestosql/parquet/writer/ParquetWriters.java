@@ -42,6 +42,7 @@ import org.apache.parquet.schema.PrimitiveType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -59,9 +60,9 @@ class ParquetWriters
 {
     private ParquetWriters() {}
 
-    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
     {
-        WriteBuilder writeBuilder = new WriteBuilder(messageType, prestoTypes, parquetProperties, compressionCodecName);
+        WriteBuilder writeBuilder = new WriteBuilder(messageType, prestoTypes, parquetProperties, compressionCodecName, writerOptions);
         ParquetTypeVisitor.visit(messageType, writeBuilder);
         return writeBuilder.build();
     }
@@ -73,14 +74,16 @@ class ParquetWriters
         private final Map<List<String>, Type> prestoTypes;
         private final ParquetProperties parquetProperties;
         private final CompressionCodecName compressionCodecName;
+        private final ParquetWriterOptions writerOptions;
         private final ImmutableList.Builder<ColumnWriter> builder = ImmutableList.builder();
 
-        WriteBuilder(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+        WriteBuilder(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
         {
             this.type = requireNonNull(messageType, "messageType is null");
             this.prestoTypes = requireNonNull(prestoTypes, "prestoTypes is null");
             this.parquetProperties = requireNonNull(parquetProperties, "parquetProperties is null");
             this.compressionCodecName = requireNonNull(compressionCodecName, "compressionCodecName is null");
+            this.writerOptions = requireNonNull(writerOptions, "writerOptions is null");
         }
 
         List<ColumnWriter> build()
@@ -136,7 +139,19 @@ class ParquetWriters
                     parquetProperties.newDefinitionLevelEncoder(columnDescriptor),
                     parquetProperties.newRepetitionLevelEncoder(columnDescriptor),
                     compressionCodecName,
-                    parquetProperties.getPageSizeThreshold());
+                    parquetProperties.getPageSizeThreshold(),
+                    getBloomFilterBuilder(path, prestoType, primitive));
+        }
+
+        private Optional<BloomFilterBuilder> getBloomFilterBuilder(String[] path, Type prestoType, PrimitiveType primitive)
+        {
+            // only top level columns, as predicates on nested fields do not use Bloom filters
+            if (path.length != 1 ||
+                    !writerOptions.getBloomFilterColumns().contains(path[0]) ||
+                    !BloomFilterBuilder.isSupported(prestoType, primitive.getPrimitiveTypeName())) {
+                return Optional.empty();
+            }
+            return Optional.of(new BloomFilterBuilder(prestoType, primitive.getPrimitiveTypeName(), writerOptions.getBloomFilterFpp()));
         }
 
         private String[] currentPath()
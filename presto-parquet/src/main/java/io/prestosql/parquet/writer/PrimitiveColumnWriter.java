@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -90,7 +91,9 @@ public class PrimitiveColumnWriter
 
     private final int pageSizeThreshold;
 
-    public PrimitiveColumnWriter(Type type, ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold)
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
+    public PrimitiveColumnWriter(Type type, ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         this.type = requireNonNull(type, "type is null");
         this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
@@ -103,6 +106,7 @@ public class PrimitiveColumnWriter
         this.compressionCodec = requireNonNull(compressionCodecName, "compressionCodecName is null");
         this.compressor = getCompressor(compressionCodecName);
         this.pageSizeThreshold = pageSizeThreshold;
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
 
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
     }
@@ -125,6 +129,7 @@ public class PrimitiveColumnWriter
 
         // write values
         primitiveValueWriter.write(columnChunk.getBlock());
+        bloomFilterBuilder.ifPresent(builder -> builder.add(columnChunk.getBlock()));
 
         // write definition levels
         Iterator<Integer> defIterator = DefLevelIterables.getIterator(current.getDefLevelIterables());
@@ -163,7 +168,7 @@ public class PrimitiveColumnWriter
             throws IOException
     {
         checkState(closed);
-        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData()));
+        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData(), bloomFilterBuilder.flatMap(BloomFilterBuilder::build)));
     }
 
     // Returns ColumnMetaData that offset is invalid
@@ -312,7 +317,8 @@ public class PrimitiveColumnWriter
         return INSTANCE_SIZE +
                 primitiveValueWriter.getAllocatedSize() +
                 definitionLevelEncoder.getAllocatedSize() +
-                repetitionLevelEncoder.getAllocatedSize();
+                repetitionLevelEncoder.getAllocatedSize() +
+                bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
     }
 
     @Override
@@ -326,6 +332,7 @@ public class PrimitiveColumnWriter
         totalRows = 0;
         encodings.clear();
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
 
         getDataStreamsCalled = false;
     }
@@ -13,9 +13,11 @@
  */
 package io.prestosql.parquet;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.prestosql.parquet.bloomfilter.BloomFilter;
 import io.prestosql.parquet.predicate.DictionaryDescriptor;
 import io.prestosql.parquet.predicate.TupleDomainParquetPredicate;
 import io.prestosql.spi.predicate.Domain;
@@ -46,14 +48,17 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.parquet.ParquetEncoding.PLAIN_DICTIONARY;
 import static io.prestosql.parquet.ParquetTimestampUtils.JULIAN_EPOCH_OFFSET_DAYS;
+import static io.prestosql.parquet.predicate.TupleDomainParquetPredicate.getBloomFilterHash;
 import static io.prestosql.parquet.predicate.TupleDomainParquetPredicate.getDomain;
 import static io.prestosql.spi.predicate.Domain.all;
 import static io.prestosql.spi.predicate.Domain.create;
+import static io.prestosql.spi.predicate.Domain.multipleValues;
 import static io.prestosql.spi.predicate.Domain.notNull;
 import static io.prestosql.spi.predicate.Domain.singleValue;
 import static io.prestosql.spi.predicate.Range.range;
@@ -465,6 +470,39 @@ public class TestTupleDomainParquetPredicate
         assertTrue(parquetPredicate.matches(new DictionaryDescriptor(column, Optional.of(page))));
     }
 
+    @Test
+    public void testMatchesWithBloomFilter()
+    {
+        ColumnDescriptor columnDescriptor = new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0);
+        RichColumnDescriptor column = new RichColumnDescriptor(columnDescriptor, new PrimitiveType(OPTIONAL, INT64, "Test column"));
+        BloomFilter bloomFilter = new BloomFilter(BloomFilter.MINIMUM_BYTES);
+        bloomFilter.insertHash(BloomFilter.hash(42L));
+
+        assertTrue(bloomFilterPredicate(column, multipleValues(BIGINT, ImmutableList.of(1L, 42L))).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, multipleValues(BIGINT, ImmutableList.of(1L, 2L))).matches(column, bloomFilter));
+
+        // nulls and ranges cannot be looked up in the Bloom filter
+        assertTrue(bloomFilterPredicate(column, create(ValueSet.of(BIGINT, 1L), true)).matches(column, bloomFilter));
+        assertTrue(bloomFilterPredicate(column, create(ValueSet.ofRanges(range(BIGINT, 1L, true, 2L, true)), false)).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testBloomFilterHash()
+    {
+        assertEquals(getBloomFilterHash(BIGINT, INT64, 42L), OptionalLong.of(BloomFilter.hash(42L)));
+        assertEquals(getBloomFilterHash(INTEGER, INT32, 42L), OptionalLong.of(BloomFilter.hash(42)));
+        assertEquals(getBloomFilterHash(DATE, INT32, 42L), OptionalLong.of(BloomFilter.hash(42)));
+        assertEquals(getBloomFilterHash(BIGINT, INT32, 1L << 40), OptionalLong.empty());
+        assertEquals(getBloomFilterHash(createUnboundedVarcharType(), BINARY, utf8Slice("abc")), OptionalLong.of(BloomFilter.hash(utf8Slice("abc"))));
+        assertEquals(getBloomFilterHash(DOUBLE, PrimitiveType.PrimitiveTypeName.DOUBLE, 0.0), OptionalLong.empty());
+    }
+
+    private static TupleDomainParquetPredicate bloomFilterPredicate(RichColumnDescriptor column, Domain domain)
+    {
+        Map<ColumnDescriptor, Domain> predicateColumns = singletonMap(column, domain);
+        return new TupleDomainParquetPredicate(withColumnDomains(predicateColumns), singletonList(column), UTC);
+    }
+
     private TupleDomain<ColumnDescriptor> getEffectivePredicate(RichColumnDescriptor column, VarcharType type, Slice value)
     {
         ColumnDescriptor predicateColumn = new ColumnDescriptor(column.getPath(), column.getPrimitiveType().getPrimitiveTypeName(), 0, 0);
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.bloomfilter;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import java.util.OptionalInt;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestBloomFilter
+{
+    @Test
+    public void testMightContain()
+    {
+        int values = 10_000;
+        BloomFilter bloomFilter = new BloomFilter(BloomFilter.optimalNumBytes(values, 0.01, 1024 * 1024));
+        for (long value = 0; value < values; value++) {
+            bloomFilter.insertHash(BloomFilter.hash(value));
+        }
+        for (long value = 0; value < values; value++) {
+            assertTrue(bloomFilter.mightContain(BloomFilter.hash(value)));
+        }
+
+        int falsePositives = 0;
+        for (long value = values; value < 2 * values; value++) {
+            if (bloomFilter.mightContain(BloomFilter.hash(value))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < values * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testOptimalNumBytes()
+    {
+        assertEquals(BloomFilter.optimalNumBytes(0, 0.01, 1024), BloomFilter.MINIMUM_BYTES);
+        assertEquals(BloomFilter.optimalNumBytes(1, 0.01, 1024), BloomFilter.MINIMUM_BYTES);
+        // about 9.6 bits per value, rounded to a power of two
+        assertEquals(BloomFilter.optimalNumBytes(1000, 0.01, 1024 * 1024), 2048);
+        assertEquals(BloomFilter.optimalNumBytes(1_000_000, 0.01, 1024 * 1024), 1024 * 1024);
+        assertEquals(BloomFilter.optimalNumBytes(1_000_000, 0.01, 1000), 512);
+    }
+
+    @Test
+    public void testSerialize()
+    {
+        BloomFilter bloomFilter = new BloomFilter(64);
+        bloomFilter.insertHash(BloomFilter.hash(Slices.utf8Slice("value")));
+        Slice serialized = bloomFilter.serialize();
+
+        SliceInput input = serialized.getInput();
+        assertEquals(BloomFilterHeader.read(input), OptionalInt.of(64));
+        assertEquals(serialized.length() - input.position(), 64);
+
+        BloomFilter deserialized = new BloomFilter(serialized.slice((int) input.position(), 64));
+        assertTrue(deserialized.mightContain(BloomFilter.hash(Slices.utf8Slice("value"))));
+    }
+
+    @Test
+    public void testUnsupportedHeader()
+    {
+        // numBytes 32, algorithm BLOCK, hash with an unknown field 2, compression UNCOMPRESSED
+        byte[] header = {0x15, 0x40, 0x1C, 0x1C, 0x00, 0x00, 0x1C, 0x2C, 0x00, 0x00, 0x1C, 0x1C, 0x00, 0x00, 0x00};
+        assertEquals(BloomFilterHeader.read(Slices.wrappedBuffer(header).getInput()), OptionalInt.empty());
+
+        // unknown fields are skipped
+        byte[] extendedHeader = {0x15, 0x40, 0x1C, 0x1C, 0x00, 0x00, 0x1C, 0x1C, 0x00, 0x00, 0x1C, 0x1C, 0x00, 0x00, 0x18, 0x02, 0x61, 0x62, 0x00};
+        assertEquals(BloomFilterHeader.read(Slices.wrappedBuffer(extendedHeader).getInput()), OptionalInt.of(32));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.TupleDomainParquetPredicate;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.format.BoundaryOrder;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestColumnIndexFilter
+{
+    private static final ParquetDataSourceId ID = new ParquetDataSourceId("testFile");
+    private static final RichColumnDescriptor COLUMN = new RichColumnDescriptor(
+            new ColumnDescriptor(new String[] {"path"}, INT64, 0, 1),
+            new PrimitiveType(OPTIONAL, INT64, "path"));
+
+    // pages of 100 rows, sorted by value, and a page of nulls
+    private static final ColumnIndex COLUMN_INDEX = new ColumnIndex(
+            ImmutableList.of(false, false, true, false),
+            ImmutableList.of(longValue(0), longValue(100), ByteBuffer.allocate(0), longValue(300)),
+            ImmutableList.of(longValue(99), longValue(199), ByteBuffer.allocate(0), longValue(399)),
+            BoundaryOrder.ASCENDING)
+            .setNull_counts(ImmutableList.of(0L, 0L, 100L, 0L));
+    private static final OffsetIndex OFFSET_INDEX = new OffsetIndex(ImmutableList.of(
+            new PageLocation(4, 100, 0),
+            new PageLocation(104, 100, 100),
+            new PageLocation(204, 100, 200),
+            new PageLocation(304, 100, 300)));
+
+    @Test
+    public void testMatchingRowRanges()
+            throws ParquetCorruptionException
+    {
+        RowRanges rowRanges = getMatchingRowRanges(Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 150L, true, 320L, true)), false));
+        assertEquals(rowRanges.getRangeCount(), 2);
+        assertEquals(rowRanges.getStart(0), 100);
+        assertEquals(rowRanges.getEnd(0), 200);
+        assertEquals(rowRanges.getStart(1), 300);
+        assertEquals(rowRanges.getEnd(1), 400);
+
+        // the ranges of adjacent pages are merged
+        rowRanges = getMatchingRowRanges(Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 150L)), false));
+        assertEquals(rowRanges.getRangeCount(), 1);
+        assertEquals(rowRanges.getStart(0), 0);
+        assertEquals(rowRanges.getEnd(0), 200);
+
+        rowRanges = getMatchingRowRanges(Domain.onlyNull(BIGINT));
+        assertEquals(rowRanges.getRangeCount(), 1);
+        assertEquals(rowRanges.getStart(0), 200);
+        assertEquals(rowRanges.getEnd(0), 300);
+
+        assertTrue(getMatchingRowRanges(Domain.singleValue(BIGINT, 1000L)).isEmpty());
+    }
+
+    @Test
+    public void testIntersectRowRanges()
+    {
+        RowRanges left = RowRanges.builder()
+                .add(0, 100)
+                .add(200, 300)
+                .build();
+        RowRanges right = RowRanges.builder()
+                .add(50, 250)
+                .add(280, 400)
+                .build();
+        RowRanges intersection = left.intersect(right);
+        assertEquals(intersection.getRangeCount(), 3);
+        assertEquals(intersection.getStart(0), 50);
+        assertEquals(intersection.getEnd(0), 100);
+        assertEquals(intersection.getStart(1), 200);
+        assertEquals(intersection.getEnd(1), 250);
+        assertEquals(intersection.getStart(2), 280);
+        assertEquals(intersection.getEnd(2), 300);
+        assertEquals(intersection.getRowCount(), 120);
+
+        assertTrue(left.intersect(RowRanges.all(0)).isEmpty());
+        assertEquals(left.intersect(RowRanges.all(1000)).getRowCount(), left.getRowCount());
+    }
+
+    private static RowRanges getMatchingRowRanges(Domain domain)
+            throws ParquetCorruptionException
+    {
+        TupleDomain<ColumnDescriptor> effectivePredicate = TupleDomain.withColumnDomains(ImmutableMap.of(COLUMN, domain));
+        TupleDomainParquetPredicate predicate = new TupleDomainParquetPredicate(effectivePredicate, ImmutableList.of(COLUMN), UTC);
+        return ColumnIndexFilter.getMatchingRowRanges(predicate, COLUMN, COLUMN_INDEX, OFFSET_INDEX, 400, ID, Optional.empty(), true);
+    }
+
+    private static ByteBuffer longValue(long value)
+    {
+        return ByteBuffer.allocate(Long.BYTES).order(LITTLE_ENDIAN).putLong(0, value);
+    }
+}
@@ -20,7 +20,9 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -276,6 +278,30 @@ public class LazyBlock
         return lazyData.getFullyLoadedBlock();
     }
 
+    /**
+     * Declares that only the given increasing positions of this block are accessed, so that a loader
+     * which supports it reads only these positions. Once the block is loaded, accessing the other
+     * positions fails, so this may only be called by the only holder of the block. Does nothing if the
+     * block is loaded or its loader reads all positions.
+     */
+    public void retainPositions(int[] positions, int offset, int length)
+    {
+        checkArrayRange(positions, offset, length);
+        lazyData.retainPositions(positions, offset, length);
+    }
+
+    /**
+     * Loads only the given increasing positions of this block, and returns a block holding only these
+     * positions. Once loaded, accessing the other positions of this block fails, so this may only be
+     * called by the only holder of the block. Returns empty if the block is loaded or its loader reads
+     * all positions.
+     */
+    public Optional<Block> loadPositions(int[] positions, int offset, int length)
+    {
+        checkArrayRange(positions, offset, length);
+        return lazyData.loadPositions(positions, offset, length);
+    }
+
     public static void listenForLoads(Block block, Consumer<Block> listener)
     {
         requireNonNull(block, "block is null");
@@ -337,6 +363,8 @@ public class LazyBlock
         private Block block;
         @Nullable
         private List<Consumer<Block>> listeners;
+        @Nullable
+        private int[] retainedPositions;
 
         public LazyData(int positionsCount, LazyBlockLoader loader)
         {
@@ -361,6 +389,40 @@ public class LazyBlock
             return block;
         }
 
+        private void retainPositions(int[] positions, int offset, int length)
+        {
+            if (canLoadPositions(length)) {
+                retainedPositions = Arrays.copyOfRange(positions, offset, offset + length);
+            }
+        }
+
+        private Optional<Block> loadPositions(int[] positions, int offset, int length)
+        {
+            if (!canLoadPositions(length)) {
+                return Optional.empty();
+            }
+            retainedPositions = Arrays.copyOfRange(positions, offset, offset + length);
+            load(true);
+
+            // unless the dictionary holds exactly the given positions, select them from the loaded block
+            DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
+            Block dictionary = dictionaryBlock.getDictionary();
+            if (dictionary.getPositionCount() != length) {
+                return Optional.of(dictionaryBlock.getPositions(positions, offset, length));
+            }
+            for (int i = 0; i < length; i++) {
+                if (dictionaryBlock.getId(positions[offset + i]) != i) {
+                    return Optional.of(dictionaryBlock.getPositions(positions, offset, length));
+                }
+            }
+            return Optional.of(dictionary);
+        }
+
+        private boolean canLoadPositions(int length)
+        {
+            return loader != null && loader.isLoadPositionsSupported() && length > 0 && length < positionsCount;
+        }
+
         private void addListeners(List<Consumer<Block>> listeners)
         {
             if (isLoaded()) {
@@ -378,7 +440,12 @@ public class LazyBlock
                 return;
             }
 
-            block = requireNonNull(loader.load(), "loader returned null");
+            if (retainedPositions != null) {
+                block = loadRetainedPositions();
+            }
+            else {
+                block = requireNonNull(loader.load(), "loader returned null");
+            }
             if (block.getPositionCount() != positionsCount) {
                 throw new IllegalStateException(format("Loaded block positions count (%s) doesn't match lazy block positions count (%s)", block.getPositionCount(), positionsCount));
             }
@@ -409,6 +476,36 @@ public class LazyBlock
             }
         }
 
+        private Block loadRetainedPositions()
+        {
+            // the positions block is loaded fully, as wrapping it with the ids of all positions hides its lazy children
+            Block positionsBlock = requireNonNull(loader.loadPositions(retainedPositions, 0, retainedPositions.length), "loader returned null").getLoadedBlock();
+            if (positionsBlock.getPositionCount() != retainedPositions.length) {
+                throw new IllegalStateException(format("Loaded block positions count (%s) doesn't match retained positions count (%s)", positionsBlock.getPositionCount(), retainedPositions.length));
+            }
+
+            // a compacted dictionary can not be nested, so the ids of a dictionary block are remapped to its dictionary
+            Block dictionary = positionsBlock;
+            int[] dictionaryIds = null;
+            if (positionsBlock instanceof DictionaryBlock) {
+                DictionaryBlock dictionaryBlock = ((DictionaryBlock) positionsBlock).compact();
+                dictionary = dictionaryBlock.getDictionary();
+                dictionaryIds = new int[retainedPositions.length];
+                for (int i = 0; i < retainedPositions.length; i++) {
+                    dictionaryIds[i] = dictionaryBlock.getId(i);
+                }
+            }
+
+            // the other positions refer to an invalid dictionary position, so that accessing them fails
+            int[] ids = new int[positionsCount];
+            Arrays.fill(ids, -1);
+            for (int i = 0; i < retainedPositions.length; i++) {
+                ids[retainedPositions[i]] = dictionaryIds == null ? i : dictionaryIds[i];
+            }
+            retainedPositions = null;
+            return new DictionaryBlock(positionsCount, dictionary, ids, true);
+        }
+
         /**
          * If block is unloaded, add the listeners; otherwise call this method on child blocks
          */
@@ -20,4 +20,22 @@ public interface LazyBlockLoader
      * (in case of when loaded blocks are nested, e.g for structural types).
      */
     Block load();
+
+    /**
+     * Returns true if the loader can read only some positions of the block, skipping the values
+     * of the other positions rather than decoding them.
+     */
+    default boolean isLoadPositionsSupported()
+    {
+        return false;
+    }
+
+    /**
+     * Loads the given increasing positions of a lazy block, in a block holding only these positions.
+     * It is called instead of {@link #load()}, and at most once.
+     */
+    default Block loadPositions(int[] positions, int offset, int length)
+    {
+        throw new UnsupportedOperationException();
+    }
 }
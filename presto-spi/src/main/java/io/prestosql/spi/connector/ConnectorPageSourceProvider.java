@@ -49,4 +49,21 @@ public interface ConnectorPageSourceProvider
         // By default, ignore dynamic filter (as it is an optimization and doesn't affect correctness).
         return createPageSource(transaction, session, split, table, columns);
     }
+
+    /**
+     * @param columns columns that should show up in the output page, in this order
+     * @param dynamicFilter optionally remove rows that don't satisfy this predicate.
+     * The predicate may be narrowed while the page source is being read, so connectors
+     * can re-check {@link DynamicFilter#getCurrentPredicate()} to skip remaining sections of the split.
+     */
+    default ConnectorPageSource createPageSource(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorSplit split,
+            ConnectorTableHandle table,
+            List<ColumnHandle> columns,
+            DynamicFilter dynamicFilter)
+    {
+        return createPageSource(transaction, session, split, table, columns, dynamicFilter.getCurrentPredicate());
+    }
 }
@@ -13,8 +13,10 @@
  */
 package io.prestosql.spi.connector;
 
+import io.prestosql.spi.predicate.BlockedBloomFilter;
 import io.prestosql.spi.predicate.TupleDomain;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface DynamicFilter
@@ -54,4 +56,14 @@ public interface DynamicFilter
     boolean isComplete();
 
     TupleDomain<ColumnHandle> getCurrentPredicate();
+
+    /**
+     * Returns approximate filters for columns whose collected build-side values were too many
+     * to be represented by {@link #getCurrentPredicate()}. A row may be skipped when the value of
+     * any of these columns is not contained in the corresponding filter.
+     */
+    default Map<ColumnHandle, BlockedBloomFilter> getCurrentBloomFilters()
+    {
+        return Map.of();
+    }
 }
@@ -0,0 +1,295 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.predicate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static io.prestosql.spi.predicate.Utils.nativeValueToBlock;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact, approximate set of values of a single column.
+ * <p>
+ * The filter is split into 64-bit blocks. Every value sets {@link #BITS_PER_VALUE} bits within
+ * a single block selected by its hash, so both insertion and lookup touch a single word of memory.
+ * False positives are possible, false negatives are not. Filters of the same size can be merged
+ * with {@link #union(List)}, which makes it possible to combine filters built by separate tasks.
+ * <p>
+ * Values are hashed with {@link Type#hash(Block, int)} of the filter type.
+ */
+public final class BlockedBloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BlockedBloomFilter.class).instanceSize();
+    private static final int BITS_PER_VALUE = 4;
+
+    private final Type type;
+    private final long[] blocks;
+    private final int blockMask;
+
+    private BlockedBloomFilter(Type type, long[] blocks)
+    {
+        this.type = requireNonNull(type, "type is null");
+        requireNonNull(blocks, "blocks is null");
+        if (blocks.length == 0 || Integer.bitCount(blocks.length) != 1) {
+            throw new IllegalArgumentException(format("number of blocks must be a power of 2: %s", blocks.length));
+        }
+        this.blocks = blocks;
+        this.blockMask = blocks.length - 1;
+    }
+
+    /**
+     * Creates a builder for a filter occupying (approximately) {@code sizeInBytes} bytes.
+     * The size is rounded down to a power of 2, with a minimum of a single block.
+     */
+    public static Builder builder(Type type, long sizeInBytes)
+    {
+        if (!type.isComparable()) {
+            throw new IllegalArgumentException("Type is not comparable: " + type);
+        }
+        return new Builder(type, blockCount(sizeInBytes));
+    }
+
+    /**
+     * Creates a filter occupying (approximately) {@code sizeInBytes} bytes containing the values of {@code domain},
+     * or empty if the domain is not a discrete set of values. Nulls are never contained in the filter.
+     */
+    public static Optional<BlockedBloomFilter> fromDomain(Domain domain, long sizeInBytes)
+    {
+        Builder builder = builder(domain.getType(), sizeInBytes);
+        ValueSet values = domain.getValues();
+        if (values.isNone()) {
+            return Optional.of(builder.build());
+        }
+        if (!values.isDiscreteSet()) {
+            return Optional.empty();
+        }
+        values.getDiscreteSet().forEach(builder::addValue);
+        return Optional.of(builder.build());
+    }
+
+    public static BlockedBloomFilter union(List<BlockedBloomFilter> filters)
+    {
+        if (filters.isEmpty()) {
+            throw new IllegalArgumentException("filters is empty");
+        }
+        Type type = filters.get(0).type;
+        long[] blocks = filters.get(0).blocks.clone();
+        for (int i = 1; i < filters.size(); i++) {
+            if (!filters.get(i).type.equals(type)) {
+                throw new IllegalArgumentException(format("Mismatched filter types: %s vs %s", type, filters.get(i).type));
+            }
+            long[] other = filters.get(i).blocks;
+            if (other.length != blocks.length) {
+                throw new IllegalArgumentException(format("Mismatched filter sizes: %s vs %s", blocks.length, other.length));
+            }
+            for (int block = 0; block < blocks.length; block++) {
+                blocks[block] |= other[block];
+            }
+        }
+        return new BlockedBloomFilter(type, blocks);
+    }
+
+    @JsonProperty
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * The blocks are serialized as raw bytes, which JSON encodes as a base64 string
+     * instead of an array of numbers.
+     */
+    @JsonCreator
+    public static BlockedBloomFilter fromSerializedBlocks(
+            @JsonProperty("type") Type type,
+            @JsonProperty("serializedBlocks") byte[] serializedBlocks)
+    {
+        requireNonNull(serializedBlocks, "serializedBlocks is null");
+        if (serializedBlocks.length % Long.BYTES != 0) {
+            throw new IllegalArgumentException(format("serialized blocks size is not a multiple of %s: %s", Long.BYTES, serializedBlocks.length));
+        }
+        Slice slice = Slices.wrappedBuffer(serializedBlocks);
+        long[] blocks = new long[serializedBlocks.length / Long.BYTES];
+        for (int block = 0; block < blocks.length; block++) {
+            blocks[block] = slice.getLong(block * Long.BYTES);
+        }
+        return new BlockedBloomFilter(type, blocks);
+    }
+
+    @JsonProperty
+    public byte[] getSerializedBlocks()
+    {
+        return Slices.wrappedLongArray(blocks).getBytes();
+    }
+
+    public long getSizeInBytes()
+    {
+        return (long) blocks.length * Long.BYTES;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + getSizeInBytes();
+    }
+
+    /**
+     * Returns false if the value at {@code position} is definitely not in the filter.
+     * Null values are never contained in the filter.
+     */
+    public boolean mightContain(Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return false;
+        }
+        return mightContainHash(type.hash(block, position));
+    }
+
+    /**
+     * Returns false if the native (stack) representation {@code value} is definitely not in the filter.
+     */
+    public boolean mightContainValue(Object value)
+    {
+        if (value == null) {
+            return false;
+        }
+        return mightContain(nativeValueToBlock(type, value), 0);
+    }
+
+    public boolean mightContainHash(long hash)
+    {
+        long mixed = mix(hash);
+        long mask = bitMask(mixed);
+        return (blocks[blockIndex(mixed, blockMask)] & mask) == mask;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BlockedBloomFilter other = (BlockedBloomFilter) o;
+        return type.equals(other.type) &&
+                Arrays.equals(blocks, other.blocks);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * type.hashCode() + Arrays.hashCode(blocks);
+    }
+
+    @Override
+    public String toString()
+    {
+        return format("BlockedBloomFilter{type=%s, sizeInBytes=%s}", type, getSizeInBytes());
+    }
+
+    private static int blockCount(long sizeInBytes)
+    {
+        if (sizeInBytes <= 0) {
+            throw new IllegalArgumentException("sizeInBytes must be positive");
+        }
+        long blocks = Math.max(1, sizeInBytes / Long.BYTES);
+        // keep the array addressable with an int index
+        blocks = Math.min(blocks, 1 << 30);
+        return Integer.highestOneBit((int) blocks);
+    }
+
+    private static int blockIndex(long mixedHash, int blockMask)
+    {
+        return (int) (mixedHash >>> 32) & blockMask;
+    }
+
+    private static long bitMask(long mixedHash)
+    {
+        long mask = 0;
+        for (int i = 0; i < BITS_PER_VALUE; i++) {
+            mask |= 1L << ((mixedHash >>> (i * 6)) & 63);
+        }
+        return mask;
+    }
+
+    // Type hashes are not guaranteed to be well distributed (e.g. boolean), so spread the bits first
+    private static long mix(long hash)
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public static final class Builder
+    {
+        private final Type type;
+        private final long[] blocks;
+        private final int blockMask;
+
+        private Builder(Type type, int blockCount)
+        {
+            this.type = type;
+            this.blocks = new long[blockCount];
+            this.blockMask = blockCount - 1;
+        }
+
+        public Builder add(Block block, int position)
+        {
+            if (!block.isNull(position)) {
+                addHash(type.hash(block, position));
+            }
+            return this;
+        }
+
+        public Builder addValue(Object value)
+        {
+            if (value != null) {
+                add(nativeValueToBlock(type, value), 0);
+            }
+            return this;
+        }
+
+        public Builder addHash(long hash)
+        {
+            long mixed = mix(hash);
+            blocks[blockIndex(mixed, blockMask)] |= bitMask(mixed);
+            return this;
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + (long) blocks.length * Long.BYTES;
+        }
+
+        public BlockedBloomFilter build()
+        {
+            return new BlockedBloomFilter(type, blocks.clone());
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
@@ -50,6 +51,99 @@ public class TestLazyBlock
         assertNotificationsRecursive(5, lazyBlock, actualNotifications, expectedNotifications);
     }
 
+    @Test
+    public void testRetainPositions()
+    {
+        int[] values = {10, 11, 12, 13, 14, 15};
+        LazyBlock lazyBlock = new LazyBlock(values.length, new LazyBlockLoader()
+        {
+            @Override
+            public Block load()
+            {
+                throw new AssertionError("all positions are loaded");
+            }
+
+            @Override
+            public boolean isLoadPositionsSupported()
+            {
+                return true;
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                int[] loaded = new int[length];
+                for (int i = 0; i < length; i++) {
+                    loaded[i] = values[positions[offset + i]];
+                }
+                return new IntArrayBlock(length, Optional.empty(), loaded);
+            }
+        });
+
+        lazyBlock.retainPositions(new int[] {-1, 1, 4, 5, -1}, 1, 3);
+        assertFalse(lazyBlock.isLoaded());
+
+        Block loadedBlock = lazyBlock.getLoadedBlock();
+        assertEquals(loadedBlock.getPositionCount(), values.length);
+        assertEquals(loadedBlock.getInt(1, 0), 11);
+        assertEquals(loadedBlock.getInt(4, 0), 14);
+        assertEquals(loadedBlock.getInt(5, 0), 15);
+
+        // the other positions are not loaded
+        assertThatThrownBy(() -> loadedBlock.getInt(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadedBlock.isNull(2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadedBlock.getPositions(new int[] {1, 3}, 0, 2).getInt(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testLoadPositionsDictionary()
+    {
+        Block dictionary = new IntArrayBlock(3, Optional.empty(), new int[] {10, 11, 12});
+        Block values = new DictionaryBlock(dictionary, new int[] {2, 0, 1, 2, 0, 1});
+        LazyBlock lazyBlock = new LazyBlock(values.getPositionCount(), new LazyBlockLoader()
+        {
+            @Override
+            public Block load()
+            {
+                throw new AssertionError("all positions are loaded");
+            }
+
+            @Override
+            public boolean isLoadPositionsSupported()
+            {
+                return true;
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                return values.getPositions(positions, offset, length);
+            }
+        });
+
+        Block positionsBlock = lazyBlock.loadPositions(new int[] {0, 3, 4}, 0, 3).orElseThrow();
+        assertEquals(positionsBlock.getPositionCount(), 3);
+        assertEquals(positionsBlock.getInt(0, 0), 12);
+        assertEquals(positionsBlock.getInt(1, 0), 12);
+        assertEquals(positionsBlock.getInt(2, 0), 10);
+
+        Block loadedBlock = lazyBlock.getLoadedBlock();
+        assertEquals(loadedBlock.getPositionCount(), values.getPositionCount());
+        assertEquals(loadedBlock.getInt(3, 0), 12);
+        assertEquals(loadedBlock.getInt(4, 0), 10);
+        assertThatThrownBy(() -> loadedBlock.getInt(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRetainPositionsNotSupported()
+    {
+        LazyBlock lazyBlock = new LazyBlock(2, () -> new IntArrayBlock(2, Optional.empty(), new int[] {1, 2}));
+        lazyBlock.retainPositions(new int[] {1}, 0, 1);
+        Block loadedBlock = lazyBlock.getLoadedBlock();
+        assertEquals(loadedBlock.getInt(0, 0), 1);
+        assertEquals(loadedBlock.getInt(1, 0), 2);
+    }
+
     private static void assertNotificationsRecursive(int depth, Block lazyBlock, List<Block> actualNotifications, List<Block> expectedNotifications)
     {
         assertFalse(lazyBlock.isLoaded());
@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.Slices;
+import io.prestosql.spi.type.TestingTypeDeserializer;
+import io.prestosql.spi.type.TestingTypeManager;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBlockedBloomFilter
+{
+    @Test
+    public void testNoFalseNegatives()
+    {
+        BlockedBloomFilter.Builder builder = BlockedBloomFilter.builder(BIGINT, 64 * 1024);
+        for (long value = 0; value < 10_000; value++) {
+            builder.addValue(value * 31);
+        }
+        BlockedBloomFilter filter = builder.build();
+        for (long value = 0; value < 10_000; value++) {
+            assertTrue(filter.mightContainValue(value * 31));
+        }
+        assertFalse(filter.mightContainValue(null));
+    }
+
+    @Test
+    public void testFalsePositiveRate()
+    {
+        // 16 bits per value
+        BlockedBloomFilter.Builder builder = BlockedBloomFilter.builder(BIGINT, 20_000);
+        for (long value = 0; value < 10_000; value++) {
+            builder.addValue(value);
+        }
+        BlockedBloomFilter filter = builder.build();
+        int falsePositives = 0;
+        for (long value = 10_000; value < 110_000; value++) {
+            if (filter.mightContainValue(value)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 5_000, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testVarchar()
+    {
+        BlockedBloomFilter filter = BlockedBloomFilter.builder(VARCHAR, 1024)
+                .addValue(Slices.utf8Slice("abc"))
+                .addValue(Slices.utf8Slice("xyz"))
+                .build();
+        assertTrue(filter.mightContainValue(Slices.utf8Slice("abc")));
+        assertTrue(filter.mightContainValue(Slices.utf8Slice("xyz")));
+    }
+
+    @Test
+    public void testSize()
+    {
+        assertEquals(BlockedBloomFilter.builder(BIGINT, 1).build().getSizeInBytes(), 8);
+        assertEquals(BlockedBloomFilter.builder(BIGINT, 1000).build().getSizeInBytes(), 512);
+        assertEquals(BlockedBloomFilter.builder(BIGINT, 1024).build().getSizeInBytes(), 1024);
+    }
+
+    @Test
+    public void testUnion()
+    {
+        BlockedBloomFilter first = BlockedBloomFilter.builder(BOOLEAN, 64).addValue(true).build();
+        BlockedBloomFilter second = BlockedBloomFilter.builder(BOOLEAN, 64).addValue(false).build();
+        BlockedBloomFilter union = BlockedBloomFilter.union(ImmutableList.of(first, second));
+        assertTrue(union.mightContainValue(true));
+        assertTrue(union.mightContainValue(false));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Mismatched filter sizes: 8 vs 16")
+    public void testUnionMismatchedSizes()
+    {
+        BlockedBloomFilter.union(ImmutableList.of(
+                BlockedBloomFilter.builder(BIGINT, 64).build(),
+                BlockedBloomFilter.builder(BIGINT, 128).build()));
+    }
+
+    @Test
+    public void testFromDomain()
+    {
+        BlockedBloomFilter filter = BlockedBloomFilter.fromDomain(Domain.multipleValues(BIGINT, ImmutableList.of(1L, 5L, 42L)), 256).get();
+        assertEquals(filter.getSizeInBytes(), 256);
+        assertTrue(filter.mightContainValue(1L));
+        assertTrue(filter.mightContainValue(5L));
+        assertTrue(filter.mightContainValue(42L));
+
+        assertEquals(BlockedBloomFilter.fromDomain(Domain.none(BIGINT), 256), Optional.of(BlockedBloomFilter.builder(BIGINT, 256).build()));
+        assertFalse(BlockedBloomFilter.fromDomain(Domain.all(BIGINT), 256).isPresent());
+        assertFalse(BlockedBloomFilter.fromDomain(Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, 0L)), false), 256).isPresent());
+    }
+
+    @Test
+    public void testJsonSerialization()
+            throws Exception
+    {
+        ObjectMapper mapper = new ObjectMapperProvider().get()
+                .registerModule(new SimpleModule()
+                        .addDeserializer(Type.class, new TestingTypeDeserializer(new TestingTypeManager())));
+
+        BlockedBloomFilter filter = BlockedBloomFilter.builder(BIGINT, 256)
+                .addValue(42L)
+                .addValue(-1L)
+                .build();
+        assertEquals(mapper.readValue(mapper.writeValueAsString(filter), BlockedBloomFilter.class), filter);
+    }
+}
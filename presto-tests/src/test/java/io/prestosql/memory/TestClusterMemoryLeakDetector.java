@@ -35,6 +35,7 @@ import static io.prestosql.execution.QueryState.FINISHED;
 import static io.prestosql.execution.QueryState.RUNNING;
 import static io.prestosql.memory.LocalMemoryManager.GENERAL_POOL;
 import static io.prestosql.operator.BlockedReason.WAITING_FOR_MEMORY;
+import static io.prestosql.operator.LookupSourceCache.CACHE_QUERY_ID;
 import static org.testng.Assert.assertEquals;
 
 @Test
@@ -64,6 +65,10 @@ public class TestClusterMemoryLeakDetector
         // the leak detector should report exactly one leaked query since the coordinator doesn't know of any query
         leakDetector.checkForMemoryLeaks(ImmutableList::of, ImmutableMap.of(testQuery, 1L));
         assertEquals(leakDetector.getNumberOfLeakedQueries(), 1);
+
+        // the memory of the lookup source cache is not reserved by a query
+        leakDetector.checkForMemoryLeaks(ImmutableList::of, ImmutableMap.of(CACHE_QUERY_ID, 1L));
+        assertEquals(leakDetector.getNumberOfLeakedQueries(), 0);
     }
 
     private static BasicQueryInfo createQueryInfo(String queryId, QueryState state)
@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.tests;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import io.prestosql.Session;
+import io.prestosql.execution.PlanCache;
+import io.prestosql.metadata.QualifiedObjectName;
+import io.prestosql.spi.security.ViewExpression;
+import io.prestosql.testing.DistributedQueryRunner;
+import io.prestosql.testing.MaterializedResult;
+import io.prestosql.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.airlift.testing.Closeables.closeAllRuntimeException;
+import static io.prestosql.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestPlanCache
+{
+    private static final String QUERY = "SELECT count(*) FROM orders JOIN customer ON orders.custkey = customer.custkey WHERE customer.nationkey = ?";
+
+    private DistributedQueryRunner queryRunner;
+    private PlanCache planCache;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        queryRunner = TpchQueryRunnerBuilder.builder()
+                .setExtraProperties(ImmutableMap.of("query.plan-cache.max-entries", "10"))
+                .build();
+        planCache = queryRunner.getCoordinator().getInstance(Key.get(PlanCache.class));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        closeAllRuntimeException(queryRunner);
+        queryRunner = null;
+        planCache = null;
+    }
+
+    @BeforeMethod
+    public void invalidatePlans()
+    {
+        planCache.invalidateAll();
+        queryRunner.getAccessControl().reset();
+    }
+
+    @Test
+    public void testRepeatedExecution()
+    {
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .addPreparedStatement("my_query", QUERY)
+                .build();
+        long hits = planCache.getHitCount();
+
+        MaterializedResult expected = queryRunner.execute(session, "EXECUTE my_query USING 3");
+        assertEquals(planCache.getSize(), 1);
+        assertEquals(queryRunner.execute(session, "EXECUTE my_query USING 3"), expected);
+        assertEquals(planCache.getHitCount(), hits + 1);
+
+        // parameter values are part of the plan
+        queryRunner.execute(session, "EXECUTE my_query USING 4");
+        assertEquals(planCache.getSize(), 2);
+        assertEquals(planCache.getHitCount(), hits + 1);
+
+        // so are the session properties
+        Session otherSession = Session.builder(session)
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, "NONE")
+                .build();
+        assertEquals(queryRunner.execute(otherSession, "EXECUTE my_query USING 3"), expected);
+        assertEquals(planCache.getSize(), 3);
+        assertEquals(planCache.getHitCount(), hits + 1);
+    }
+
+    @Test
+    public void testStatementsNotCached()
+    {
+        queryRunner.execute("SELECT count(*) FROM orders WHERE orderdate < current_date");
+        queryRunner.execute("SELECT count(*) FROM orders WHERE orderdate < CAST(now() AS date)");
+        queryRunner.execute("EXPLAIN SELECT count(*) FROM orders");
+        queryRunner.execute("SHOW TABLES");
+        assertEquals(planCache.getSize(), 0);
+    }
+
+    @Test
+    public void testRowFilterChangedBetweenExecutions()
+    {
+        QualifiedObjectName orders = new QualifiedObjectName("tpch", "tiny", "orders");
+        String user = queryRunner.getDefaultSession().getUser();
+        queryRunner.getAccessControl().rowFilter(orders, user, new ViewExpression(user, Optional.empty(), Optional.empty(), "orderkey < 10"));
+        assertEquals(queryRunner.execute("SELECT count(*) FROM orders").getOnlyValue(), 7L);
+
+        queryRunner.getAccessControl().reset();
+        queryRunner.getAccessControl().rowFilter(orders, user, new ViewExpression(user, Optional.empty(), Optional.empty(), "orderkey < 4"));
+        assertEquals(queryRunner.execute("SELECT count(*) FROM orders").getOnlyValue(), 3L);
+        assertEquals(planCache.getSize(), 0);
+    }
+}